@@ -0,0 +1,34 @@
+package de.agilecoders.wicket.benchmarks;
+
+import de.agilecoders.wicket.benchmarks.render.NavbarPage;
+import de.agilecoders.wicket.core.Bootstrap;
+import de.agilecoders.wicket.core.settings.BootstrapSettings;
+import de.agilecoders.wicket.less.BootstrapLess;
+import org.apache.wicket.Page;
+import org.apache.wicket.RuntimeConfigurationType;
+import org.apache.wicket.protocol.http.WebApplication;
+
+/**
+ * The application of the benchmarks: bootstrap and less are installed with their default settings and
+ * the application runs in deployment mode, so markup and resources are cached as in production.
+ */
+public class BenchmarkApplication extends WebApplication {
+
+    @Override
+    protected void init() {
+        super.init();
+
+        Bootstrap.install(this, new BootstrapSettings());
+        BootstrapLess.install(this);
+    }
+
+    @Override
+    public Class<? extends Page> getHomePage() {
+        return NavbarPage.class;
+    }
+
+    @Override
+    public RuntimeConfigurationType getConfigurationType() {
+        return RuntimeConfigurationType.DEPLOYMENT;
+    }
+}
@@ -0,0 +1,60 @@
+package de.agilecoders.wicket.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Runs the benchmarks like the JMH launcher, but writes the results as JSON to {@code jmh-result.json}
+ * unless another result format is given, so they can be compared over releases:
+ *
+ * <pre>
+ * mvn -Dbenchmarks package -pl bootstrap-benchmarks -am -DskipTests
+ * java -jar bootstrap-benchmarks/target/benchmarks.jar                  # all benchmarks
+ * java -jar bootstrap-benchmarks/target/benchmarks.jar PageRender -f 1  # JMH options and filters
+ * </pre>
+ */
+public final class BenchmarkRunner {
+
+    /**
+     * the default file of the JSON results
+     */
+    public static final String DEFAULT_RESULT = "jmh-result.json";
+
+    private BenchmarkRunner() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @param args the JMH command line options
+     * @throws CommandLineOptionException if the options are invalid
+     * @throws RunnerException            if a benchmark fails
+     * @throws IOException                if the help can't be written
+     */
+    public static void main(final String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        final CommandLineOptions options = new CommandLineOptions(args);
+
+        if (options.shouldHelp()) {
+            options.showHelp();
+            return;
+        }
+
+        final ChainedOptionsBuilder builder = new OptionsBuilder().parent(options);
+        if (!options.getResultFormat().hasValue() && !options.getResult().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON).result(DEFAULT_RESULT);
+        }
+
+        final Runner runner = new Runner(builder.build());
+        if (options.shouldList()) {
+            runner.list();
+        } else {
+            runner.run();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package de.agilecoders.wicket.benchmarks;
+
+import org.apache.wicket.util.tester.WicketTester;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * A {@link WicketTester} of the {@link BenchmarkApplication} per benchmark thread, so the thread has an
+ * application, session and request cycle.
+ */
+@State(Scope.Thread)
+public class TesterState {
+
+    private WicketTester tester;
+
+    @Setup
+    public void setUp() {
+        tester = new WicketTester(new BenchmarkApplication());
+    }
+
+    @TearDown
+    public void tearDown() {
+        tester.destroy();
+    }
+
+    /**
+     * @return the tester of the current thread
+     */
+    public WicketTester tester() {
+        return tester;
+    }
+}
@@ -0,0 +1,104 @@
+package de.agilecoders.wicket.benchmarks.less;
+
+import de.agilecoders.wicket.benchmarks.TesterState;
+import de.agilecoders.wicket.less.LessCacheManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compiles several variants of the Less sources of the Google theme with a new
+ * {@link LessCacheManager} per invocation, once with and once without the shared
+ * {@link de.agilecoders.wicket.less.LessAstCache}. Each variant overrides the brand color and imports
+ * the complete theme, so all variants but the first one can reuse its parsed syntax trees.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class LessAstCacheBenchmark {
+
+    private static final String GOOGLE_THEME = "classpath!/de/agilecoders/wicket/themes/markup/html/google/css/google-bootstrap.less";
+
+    /**
+     * The Less sources of the Google theme have been written for an older version of Bootstrap.
+     * Declares what they miss from the current version.
+     */
+    private static final String COMPATIBILITY =
+            "@import \"webjars!bootstrap/current/less/variables.less\";\n" +
+            ".pagination-size(@padding-vertical; @padding-horizontal; @font-size; @border-radius) {\n" +
+            "  .pagination-size(@padding-vertical; @padding-horizontal; @font-size; @line-height-base; @border-radius);\n" +
+            "}\n";
+
+    @Param({"10"})
+    public int variants;
+
+    private Path folder;
+    private final List<Path> files = new ArrayList<>();
+    private final List<URL> urls = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        folder = Files.createTempDirectory("less-ast-cache-benchmark");
+
+        for (int i = 0; i < variants; i++) {
+            final Path variant = folder.resolve("google-variant-" + i + ".less");
+            final String content = COMPATIBILITY +
+                                   "@import \"" + GOOGLE_THEME + "\";\n" +
+                                   String.format(Locale.ROOT, "@brand-primary: #%06x;%n", (i * 0x1f3d5b) & 0xffffff);
+
+            Files.write(variant, content.getBytes(Charset.forName("UTF-8")));
+            files.add(variant);
+            urls.add(variant.toUri().toURL());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        for (Path file : files) {
+            Files.deleteIfExists(file);
+        }
+        Files.deleteIfExists(folder);
+    }
+
+    @Benchmark
+    public List<String> withoutAstCache(final TesterState state) {
+        return compile(new LessCacheManager().setAstCache(null));
+    }
+
+    @Benchmark
+    public List<String> withAstCache(final TesterState state) {
+        return compile(new LessCacheManager());
+    }
+
+    private List<String> compile(final LessCacheManager cacheManager) {
+        final List<String> css = new ArrayList<>(urls.size());
+
+        for (URL url : urls) {
+            css.add(cacheManager.getCss(cacheManager.getLessSource(url, null)));
+        }
+        return css;
+    }
+}
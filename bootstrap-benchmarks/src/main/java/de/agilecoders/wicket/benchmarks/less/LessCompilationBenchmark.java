@@ -0,0 +1,74 @@
+package de.agilecoders.wicket.benchmarks.less;
+
+import de.agilecoders.wicket.benchmarks.TesterState;
+import de.agilecoders.wicket.less.LessAstCache;
+import de.agilecoders.wicket.less.LessCacheManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compiles a stylesheet that imports the complete bootstrap sources from the webjar with a new
+ * {@link LessCacheManager} per invocation, so neither compiled css nor resolved imports can be reused.
+ * Without AST cache each invocation parses all imports; with AST cache all invocations share one
+ * {@link LessAstCache} of the trial, so all but the first warmup invocation reuse its parsed syntax trees.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class LessCompilationBenchmark {
+
+    private static final String SOURCE =
+            "@import \"webjars!bootstrap/current/less/bootstrap.less\";\n" +
+            "@brand-primary: #7b1fa2;\n";
+
+    private Path file;
+    private URL url;
+    private LessAstCache astCache;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("bootstrap-benchmark", ".less");
+        Files.write(file, SOURCE.getBytes(Charset.forName("UTF-8")));
+        url = file.toUri().toURL();
+        astCache = new LessAstCache();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public String withoutAstCache(final TesterState state) {
+        return compile(new LessCacheManager().setAstCache(null));
+    }
+
+    @Benchmark
+    public String withAstCache(final TesterState state) {
+        return compile(new LessCacheManager().setAstCache(astCache));
+    }
+
+    private String compile(final LessCacheManager cacheManager) {
+        return cacheManager.getCss(cacheManager.getLessSource(url, null));
+    }
+}
@@ -0,0 +1,64 @@
+package de.agilecoders.wicket.benchmarks.less;
+
+import com.github.sommeri.less4j.LessSource;
+import de.agilecoders.wicket.benchmarks.TesterState;
+import de.agilecoders.wicket.less.LessCacheManager;
+import de.agilecoders.wicket.less.LessImportCache;
+import de.agilecoders.wicket.themes.markup.html.google.GoogleCssReference;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the resolution of imports with the schemes "webjars!", "classpath!" and "package!" relative to
+ * the Less sources of the Google theme, once with the {@link LessImportCache} of the {@link LessCacheManager}
+ * and once with an import cache that is cleared before each resolution.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LessImportResolutionBenchmark {
+
+    @Param({
+            "webjars!bootstrap/current/less/variables.less",
+            "classpath!/de/agilecoders/wicket/themes/markup/html/google/css/buttons.less",
+            "package!css/buttons.less"
+    })
+    public String filename;
+
+    private LessImportCache importCache;
+    private LessSource root;
+
+    @Setup
+    public void setUp(final TesterState state) {
+        final LessCacheManager cacheManager = new LessCacheManager();
+
+        importCache = cacheManager.getImportCache();
+        root = cacheManager.getLessSource(GoogleCssReference.class.getResource("css/google-bootstrap.less"),
+                                          GoogleCssReference.class.getName());
+    }
+
+    @Benchmark
+    public LessSource uncached(final TesterState state) throws Exception {
+        importCache.clear();
+        return root.relativeSource(filename);
+    }
+
+    @Benchmark
+    public LessSource cached(final TesterState state) throws Exception {
+        return root.relativeSource(filename);
+    }
+}
@@ -0,0 +1,27 @@
+package de.agilecoders.wicket.benchmarks.render;
+
+import de.agilecoders.wicket.core.Bootstrap;
+import de.agilecoders.wicket.core.markup.html.bootstrap.html.HtmlTag;
+import org.apache.wicket.markup.head.IHeaderResponse;
+import org.apache.wicket.markup.html.WebPage;
+
+/**
+ * Base page of the rendered pages: renders the html tag and the bootstrap resources like an application
+ * page; subclasses add their components to the body.
+ */
+public abstract class BenchmarkPage extends WebPage {
+
+    /**
+     * Construct.
+     */
+    protected BenchmarkPage() {
+        add(new HtmlTag("html"));
+    }
+
+    @Override
+    public void renderHead(final IHeaderResponse response) {
+        super.renderHead(response);
+
+        Bootstrap.renderHead(response);
+    }
+}
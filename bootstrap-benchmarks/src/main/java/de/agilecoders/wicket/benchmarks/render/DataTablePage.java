@@ -0,0 +1,107 @@
+package de.agilecoders.wicket.benchmarks.render;
+
+import de.agilecoders.wicket.extensions.markup.html.bootstrap.table.BootstrapDefaultDataTable;
+import org.apache.wicket.extensions.markup.html.repeater.data.grid.ICellPopulator;
+import org.apache.wicket.extensions.markup.html.repeater.data.table.AbstractColumn;
+import org.apache.wicket.extensions.markup.html.repeater.data.table.IColumn;
+import org.apache.wicket.extensions.markup.html.repeater.data.table.PropertyColumn;
+import org.apache.wicket.extensions.markup.html.repeater.util.SortableDataProvider;
+import org.apache.wicket.markup.html.basic.Label;
+import org.apache.wicket.markup.repeater.Item;
+import org.apache.wicket.model.IModel;
+import org.apache.wicket.model.Model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A page with a {@link BootstrapDefaultDataTable} that shows all of the given number of rows
+ */
+public class DataTablePage extends BenchmarkPage {
+
+    /**
+     * Construct.
+     */
+    public DataTablePage() {
+        this(500);
+    }
+
+    /**
+     * Construct.
+     *
+     * @param rows the number of rows
+     */
+    public DataTablePage(final int rows) {
+        final List<IColumn<Row, String>> columns = new ArrayList<>();
+        columns.add(new PropertyColumn<Row, String>(Model.of("Id"), "id", "id"));
+        columns.add(new PropertyColumn<Row, String>(Model.of("Name"), "name", "name"));
+        columns.add(new PropertyColumn<Row, String>(Model.of("E-Mail"), "email"));
+        columns.add(new AbstractColumn<Row, String>(Model.of("Amount")) {
+            @Override
+            public void populateItem(Item<ICellPopulator<Row>> item, String componentId, IModel<Row> rowModel) {
+                item.add(new Label(componentId, String.format("%.2f", rowModel.getObject().getAmount())));
+            }
+        });
+
+        add(new BootstrapDefaultDataTable<>("table", columns, new RowProvider(rows), rows).striped().hover());
+    }
+
+    /**
+     * a row of the table
+     */
+    public static class Row implements Serializable {
+        private final int id;
+
+        Row(final int id) {
+            this.id = id;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return "Name " + id;
+        }
+
+        public String getEmail() {
+            return "name" + id + "@example.com";
+        }
+
+        public double getAmount() {
+            return id * 1.5d;
+        }
+    }
+
+    /**
+     * provides the given number of rows
+     */
+    private static class RowProvider extends SortableDataProvider<Row, String> {
+        private final int rows;
+
+        private RowProvider(final int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public Iterator<? extends Row> iterator(long first, long count) {
+            final List<Row> result = new ArrayList<>();
+            for (long i = first; i < Math.min(first + count, rows); i++) {
+                result.add(new Row((int) i));
+            }
+            return result.iterator();
+        }
+
+        @Override
+        public long size() {
+            return rows;
+        }
+
+        @Override
+        public IModel<Row> model(Row row) {
+            return Model.of(row);
+        }
+    }
+}
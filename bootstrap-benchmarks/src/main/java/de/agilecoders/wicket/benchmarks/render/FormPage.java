@@ -0,0 +1,42 @@
+package de.agilecoders.wicket.benchmarks.render;
+
+import de.agilecoders.wicket.core.markup.html.bootstrap.form.BootstrapForm;
+import de.agilecoders.wicket.core.markup.html.bootstrap.form.FormBehavior;
+import de.agilecoders.wicket.core.markup.html.bootstrap.form.FormGroup;
+import de.agilecoders.wicket.core.markup.html.bootstrap.form.FormType;
+import org.apache.wicket.markup.html.form.TextField;
+import org.apache.wicket.markup.repeater.RepeatingView;
+import org.apache.wicket.model.Model;
+
+/**
+ * A page with a horizontal form of the given number of {@link FormGroup}s
+ */
+public class FormPage extends BenchmarkPage {
+
+    /**
+     * Construct.
+     */
+    public FormPage() {
+        this(100);
+    }
+
+    /**
+     * Construct.
+     *
+     * @param groups the number of form groups
+     */
+    public FormPage(final int groups) {
+        final BootstrapForm<Void> form = new BootstrapForm<>("form");
+        form.type(FormType.Horizontal);
+
+        final RepeatingView view = new RepeatingView("groups");
+        for (int i = 0; i < groups; i++) {
+            final FormGroup group = new FormGroup(view.newChildId(), Model.of("Label " + i), Model.of("Help " + i));
+            group.add(new TextField<>("input", Model.of("Value " + i)).setRequired(i % 2 == 0));
+            view.add(group);
+        }
+
+        form.add(view);
+        add(form);
+    }
+}
@@ -0,0 +1,33 @@
+package de.agilecoders.wicket.benchmarks.render;
+
+import de.agilecoders.wicket.core.markup.html.bootstrap.dialog.TextContentModal;
+import org.apache.wicket.markup.repeater.RepeatingView;
+import org.apache.wicket.model.Model;
+
+/**
+ * A page with the given number of modal dialogs
+ */
+public class ModalPage extends BenchmarkPage {
+
+    /**
+     * Construct.
+     */
+    public ModalPage() {
+        this(20);
+    }
+
+    /**
+     * Construct.
+     *
+     * @param modals the number of modals
+     */
+    public ModalPage(final int modals) {
+        final RepeatingView view = new RepeatingView("modals");
+        for (int i = 0; i < modals; i++) {
+            view.add(new TextContentModal(view.newChildId(), Model.of("Content " + i))
+                             .header(Model.of("Modal " + i))
+                             .addCloseButton());
+        }
+        add(view);
+    }
+}
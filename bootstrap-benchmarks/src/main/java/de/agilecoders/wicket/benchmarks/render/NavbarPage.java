@@ -0,0 +1,38 @@
+package de.agilecoders.wicket.benchmarks.render;
+
+import de.agilecoders.wicket.core.markup.html.bootstrap.image.GlyphIconType;
+import de.agilecoders.wicket.core.markup.html.bootstrap.navbar.Navbar;
+import de.agilecoders.wicket.core.markup.html.bootstrap.navbar.NavbarButton;
+import de.agilecoders.wicket.core.markup.html.bootstrap.navbar.NavbarComponents;
+import org.apache.wicket.Component;
+import org.apache.wicket.model.Model;
+
+/**
+ * A page with a navbar of the given number of buttons
+ */
+public class NavbarPage extends BenchmarkPage {
+
+    /**
+     * Construct.
+     */
+    public NavbarPage() {
+        this(50);
+    }
+
+    /**
+     * Construct.
+     *
+     * @param items the number of buttons
+     */
+    public NavbarPage(final int items) {
+        final Component[] buttons = new Component[items];
+        for (int i = 0; i < items; i++) {
+            buttons[i] = new NavbarButton<Void>(NavbarPage.class, Model.of("Item " + i)).setIconType(GlyphIconType.star);
+        }
+
+        final Navbar navbar = new Navbar("navbar");
+        navbar.setBrandName(Model.of("Benchmark"));
+        navbar.addComponents(NavbarComponents.transform(Navbar.ComponentPosition.LEFT, buttons));
+        add(navbar);
+    }
+}
@@ -0,0 +1,53 @@
+package de.agilecoders.wicket.benchmarks.render;
+
+import de.agilecoders.wicket.benchmarks.TesterState;
+import org.apache.wicket.util.tester.WicketTester;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders representative pages with a {@link WicketTester}: the time includes the construction of the
+ * components, the rendering of the markup and the header contributions of the bootstrap resources.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageRenderBenchmark {
+
+    @Benchmark
+    public int navbarWith50Items(final TesterState state) {
+        return render(state.tester(), new NavbarPage(50));
+    }
+
+    @Benchmark
+    public int dataTableWith500Rows(final TesterState state) {
+        return render(state.tester(), new DataTablePage(500));
+    }
+
+    @Benchmark
+    public int formWith100Groups(final TesterState state) {
+        return render(state.tester(), new FormPage(100));
+    }
+
+    @Benchmark
+    public int pageWith20Modals(final TesterState state) {
+        return render(state.tester(), new ModalPage(20));
+    }
+
+    /**
+     * @return the length of the rendered page, so the rendering isn't eliminated as dead code
+     */
+    private static int render(final WicketTester tester, final BenchmarkPage page) {
+        tester.startPage(page);
+        return tester.getLastResponseAsString().length();
+    }
+}
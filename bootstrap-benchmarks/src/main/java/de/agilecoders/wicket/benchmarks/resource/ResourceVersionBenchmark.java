@@ -0,0 +1,59 @@
+package de.agilecoders.wicket.benchmarks.resource;
+
+import de.agilecoders.wicket.benchmarks.TesterState;
+import de.agilecoders.wicket.core.request.resource.caching.version.Adler32ResourceVersion;
+import de.agilecoders.wicket.core.request.resource.caching.version.CRC32ResourceVersion;
+import org.apache.wicket.request.resource.caching.IStaticCacheableResource;
+import org.apache.wicket.request.resource.caching.version.MessageDigestResourceVersion;
+import org.apache.wicket.resource.JQueryResourceReference;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the checksum based versions of a resource (jQuery, about 90 KB) against the md5 digest of
+ * wicket. The versions are calculated without the {@code CachingResourceVersion} wrapper.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ResourceVersionBenchmark {
+
+    private final CRC32ResourceVersion crc32 = new CRC32ResourceVersion();
+    private final Adler32ResourceVersion adler32 = new Adler32ResourceVersion();
+    private final MessageDigestResourceVersion md5 = new MessageDigestResourceVersion();
+
+    private IStaticCacheableResource resource;
+
+    @Setup
+    public void setUp(final TesterState state) {
+        resource = (IStaticCacheableResource) JQueryResourceReference.get().getResource();
+    }
+
+    @Benchmark
+    public String crc32(final TesterState state) {
+        return crc32.getVersion(resource);
+    }
+
+    @Benchmark
+    public String adler32(final TesterState state) {
+        return adler32.getVersion(resource);
+    }
+
+    @Benchmark
+    public String messageDigest(final TesterState state) {
+        return md5.getVersion(resource);
+    }
+}
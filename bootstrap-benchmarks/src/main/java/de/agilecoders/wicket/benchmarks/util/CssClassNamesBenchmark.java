@@ -0,0 +1,86 @@
+package de.agilecoders.wicket.benchmarks.util;
+
+import de.agilecoders.wicket.core.markup.html.bootstrap.button.ButtonBehavior;
+import de.agilecoders.wicket.core.markup.html.bootstrap.button.Buttons;
+import de.agilecoders.wicket.core.util.Attributes;
+import de.agilecoders.wicket.core.util.CssClassList;
+import de.agilecoders.wicket.core.util.CssClassNames;
+import org.apache.wicket.markup.ComponentTag;
+import org.apache.wicket.markup.parser.XmlTag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the css class name handling of {@link CssClassList} with the former split/join implementation
+ * ({@link LegacyCssClassNames}) and measures {@link CssClassNames.Builder} and {@link Attributes#addClass}
+ * the way behaviors like {@link ButtonBehavior} use them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CssClassNamesBenchmark {
+
+    private final String value = "btn btn-default btn-lg pull-right";
+
+    @Benchmark
+    public String addLegacy() {
+        return LegacyCssClassNames.add(value, "active", "btn");
+    }
+
+    @Benchmark
+    public String add() {
+        return CssClassList.add(value, "active", "btn");
+    }
+
+    @Benchmark
+    public String addExistingLegacy() {
+        return LegacyCssClassNames.add(value, "btn-lg");
+    }
+
+    @Benchmark
+    public String addExisting() {
+        return CssClassList.add(value, "btn-lg");
+    }
+
+    @Benchmark
+    public String removeLegacy() {
+        return LegacyCssClassNames.remove(value, "btn-lg", "pull-right");
+    }
+
+    @Benchmark
+    public String remove() {
+        return CssClassList.remove(value, "btn-lg", "pull-right");
+    }
+
+    @Benchmark
+    public String builder() {
+        return CssClassNames.parse(value).add("active").remove("pull-right").asString();
+    }
+
+    @Benchmark
+    public ComponentTag attributesAddClass() {
+        final ComponentTag tag = newTag();
+        Attributes.addClass(tag, "btn");
+        Attributes.addClass(tag, Buttons.Type.Primary);
+        Attributes.addClass(tag, Buttons.Size.Large);
+        return tag;
+    }
+
+    private static ComponentTag newTag() {
+        final ComponentTag tag = new ComponentTag("a", XmlTag.TagType.OPEN);
+        tag.setId("button");
+        return tag;
+    }
+}
@@ -0,0 +1,35 @@
+package de.agilecoders.wicket.benchmarks.util;
+
+import de.agilecoders.wicket.core.util.Dates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the conversion of javascript date formats, which date pickers do on each render.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DatesBenchmark {
+
+    @Param({"mm/dd/yyyy", "dd.mm.yy", "DD, dd MM yyyy"})
+    public String format;
+
+    @Benchmark
+    public String toJavaDateFormat() {
+        return Dates.toJavaDateFormat(format);
+    }
+}
@@ -0,0 +1,42 @@
+package de.agilecoders.wicket.benchmarks.util;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import de.agilecoders.wicket.jquery.util.Generics2;
+import de.agilecoders.wicket.jquery.util.Strings2;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * The css class name handling of {@link de.agilecoders.wicket.core.util.CssClassNames} and
+ * {@link de.agilecoders.wicket.core.util.Attributes} before {@link de.agilecoders.wicket.core.util.CssClassList}:
+ * the class attribute value is split into a set and joined again on each change. Kept as baseline of the
+ * {@link CssClassNamesBenchmark}.
+ */
+final class LegacyCssClassNames {
+    private static final Splitter SPLITTER = Splitter.on(' ').trimResults().omitEmptyStrings();
+    private static final Joiner JOINER = Joiner.on(' ').skipNulls();
+
+    private LegacyCssClassNames() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * adds class names to a class attribute value like {@code Attributes.addClass} did
+     */
+    static String add(final String value, final String... classNames) {
+        final Set<String> classValues = Generics2.newLinkedHashSet(SPLITTER.split(Strings2.nullToEmpty(value)));
+        classValues.addAll(Generics2.newHashSet(classNames));
+        return JOINER.join(classValues);
+    }
+
+    /**
+     * removes class names from a class attribute value like {@code Attributes.removeClass} did
+     */
+    static String remove(final String value, final String... classNames) {
+        final Set<String> classValues = Generics2.newLinkedHashSet(SPLITTER.split(Strings2.nullToEmpty(value)));
+        classValues.removeAll(Arrays.asList(classNames));
+        return JOINER.join(classValues);
+    }
+}
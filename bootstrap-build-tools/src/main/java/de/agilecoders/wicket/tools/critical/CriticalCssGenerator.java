@@ -0,0 +1,172 @@
+package de.agilecoders.wicket.tools.critical;
+
+import de.agilecoders.wicket.core.Bootstrap;
+import de.agilecoders.wicket.core.markup.html.themes.critical.CriticalCss;
+import de.agilecoders.wicket.core.settings.ITheme;
+import de.agilecoders.wicket.core.util.CssRuleFilter;
+import de.agilecoders.wicket.core.util.CssUsage;
+import org.apache.wicket.Page;
+import org.apache.wicket.markup.head.CssReferenceHeaderItem;
+import org.apache.wicket.markup.head.HeaderItem;
+import org.apache.wicket.request.resource.IResource;
+import org.apache.wicket.request.resource.ResourceReference;
+import org.apache.wicket.request.resource.caching.IStaticCacheableResource;
+import org.apache.wicket.util.io.IOUtils;
+import org.apache.wicket.util.lang.Args;
+import org.apache.wicket.util.resource.IResourceStream;
+import org.apache.wicket.util.resource.ResourceStreamNotFoundException;
+import org.apache.wicket.util.tester.BaseWicketTester;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * #### Description
+ *
+ * Extracts the critical css of pages: renders each page with a theme by a {@link BaseWicketTester}, collects
+ * the element names, ids and css class names of the first elements of its body and keeps the rules of the theme's
+ * stylesheets that match them. The result is put to the {@link CriticalCss} of the tester's application and can
+ * be written to a directory of compiled classes, so it's read from the classpath at runtime. It runs at build time,
+ * e.g. in a test of the application, so it's not part of the runtime modules.
+ *
+ * #### Usage
+ *
+ * ```java
+ * BaseWicketTester tester = new BaseWicketTester(new MyApplication());
+ * CriticalCssGenerator generator = new CriticalCssGenerator(tester);
+ *
+ * for (ITheme theme : Bootstrap.getSettings(tester.getApplication()).getThemeProvider().available()) {
+ *     generator.generate(theme, HomePage.class, ProductPage.class);
+ * }
+ * generator.write(Paths.get("target/classes"));
+ * ```
+ */
+public class CriticalCssGenerator {
+
+    /**
+     * the default number of body elements that are regarded as visible without scrolling
+     */
+    public static final int DEFAULT_FOLD_ELEMENTS = 200;
+
+    private final BaseWicketTester tester;
+    private final int foldElements;
+    private final Map<String, String> generated = new TreeMap<>();
+
+    /**
+     * Construct.
+     *
+     * @param tester the tester to render the pages with
+     */
+    public CriticalCssGenerator(final BaseWicketTester tester) {
+        this(tester, DEFAULT_FOLD_ELEMENTS);
+    }
+
+    /**
+     * Construct.
+     *
+     * @param tester       the tester to render the pages with
+     * @param foldElements the number of body elements that are regarded as visible without scrolling
+     */
+    public CriticalCssGenerator(final BaseWicketTester tester, final int foldElements) {
+        this.tester = Args.notNull(tester, "tester");
+        this.foldElements = Args.withinRange(1, Integer.MAX_VALUE, foldElements, "foldElements");
+    }
+
+    /**
+     * generates the critical css of the given pages with the given theme
+     *
+     * @param theme       the theme
+     * @param pageClasses the page classes to render
+     * @return this instance for chaining
+     */
+    @SafeVarargs
+    public final CriticalCssGenerator generate(final ITheme theme, final Class<? extends Page>... pageClasses) {
+        for (Class<? extends Page> pageClass : pageClasses) {
+            generate(theme, pageClass);
+        }
+        return this;
+    }
+
+    /**
+     * generates the critical css of the given page with the given theme
+     *
+     * @param theme     the theme
+     * @param pageClass the page class to render
+     * @return the critical css
+     */
+    public String generate(final ITheme theme, final Class<? extends Page> pageClass) {
+        Bootstrap.getSettings(tester.getApplication()).getActiveThemeProvider().setActiveTheme(theme);
+
+        // without critical css, so the page renders the complete stylesheets
+        CriticalCss.get(tester.getApplication()).put(theme.name(), pageClass, null);
+        tester.startPage(pageClass);
+
+        final CssUsage usage = new CssUsage().addMarkup(tester.getLastResponseAsString(), foldElements);
+        final CssRuleFilter filter = new CssRuleFilter(usage).keepAtRules(false);
+        final StringBuilder critical = new StringBuilder();
+        int index = 0;
+
+        for (HeaderItem item : theme.getDependencies()) {
+            if (item instanceof CssReferenceHeaderItem) {
+                final String css = filter.filter(read(((CssReferenceHeaderItem) item).getReference()));
+
+                if (!css.isEmpty()) {
+                    critical.append("/*wb:").append(index).append("*/").append(css);
+                }
+                index++;
+            }
+        }
+
+        final String result = critical.toString();
+        CriticalCss.get(tester.getApplication()).put(theme.name(), pageClass, result);
+        generated.put(theme.name() + "/" + pageClass.getName(), result);
+
+        return result;
+    }
+
+    /**
+     * writes the generated critical css to the classpath location of {@link CriticalCss}
+     *
+     * @param classesDirectory the directory of compiled classes, e.g. {@code target/classes}
+     * @return the number of written files
+     * @throws IOException if a file can't be written
+     */
+    public int write(final Path classesDirectory) throws IOException {
+        for (Map.Entry<String, String> entry : generated.entrySet()) {
+            final Path file = classesDirectory.resolve(CriticalCss.LOCATION + entry.getKey() + ".css");
+
+            Files.createDirectories(file.getParent());
+            Files.write(file, entry.getValue().getBytes(StandardCharsets.UTF_8));
+        }
+        return generated.size();
+    }
+
+    /**
+     * @param reference a css resource reference
+     * @return the content of the referenced stylesheet
+     */
+    protected String read(final ResourceReference reference) {
+        final IResource resource = reference.getResource();
+
+        if (!(resource instanceof IStaticCacheableResource)) {
+            return "";
+        }
+
+        final IResourceStream stream = ((IStaticCacheableResource) resource).getResourceStream();
+        if (stream == null) {
+            return "";
+        }
+
+        try {
+            return IOUtils.toString(stream.getInputStream(), "UTF-8");
+        } catch (IOException | ResourceStreamNotFoundException e) {
+            throw new IllegalStateException("unable to read stylesheet: " + reference, e);
+        } finally {
+            IOUtils.closeQuietly(stream);
+        }
+    }
+}
@@ -0,0 +1,468 @@
+package de.agilecoders.wicket.tools.export;
+
+import de.agilecoders.wicket.core.Bootstrap;
+import de.agilecoders.wicket.core.markup.html.themes.pruned.PrunedCss;
+import de.agilecoders.wicket.core.request.resource.PrecompressedResourceGenerator;
+import de.agilecoders.wicket.core.request.resource.ResourceReferenceCollector;
+import de.agilecoders.wicket.core.settings.IBootstrapSettings;
+import de.agilecoders.wicket.core.settings.ITheme;
+import de.agilecoders.wicket.core.settings.ThemeProvider;
+import de.agilecoders.wicket.extensions.request.StaticResourceRewriteMapper;
+import org.apache.wicket.markup.head.HeaderItem;
+import org.apache.wicket.protocol.http.WebApplication;
+import org.apache.wicket.protocol.http.mock.MockHttpServletResponse;
+import org.apache.wicket.request.Url;
+import org.apache.wicket.request.handler.resource.ResourceReferenceRequestHandler;
+import org.apache.wicket.request.resource.ResourceReference;
+import org.apache.wicket.request.resource.caching.IStaticCacheableResource;
+import org.apache.wicket.settings.JavaScriptLibrarySettings;
+import org.apache.wicket.util.lang.Args;
+import org.apache.wicket.util.string.Strings;
+import org.apache.wicket.util.tester.BaseWicketTester;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Exports static resources to a directory tree, that can be uploaded to a CDN or any other static
+ * file server. Each resource is written to the path of the url that the application renders for it,
+ * so the exported tree matches the urls rewritten by {@link StaticResourceRewriteMapper} (including
+ * its content hash segment) and the version of the application's caching strategy. Fonts and images
+ * that are referenced relatively by an exported stylesheet are exported too, and every compressible
+ * file gets a gzip compressed sibling.
+ * <p/>
+ * The resources are rendered by a {@link BaseWicketTester}, so they are exported exactly as the
+ * application would serve them, e.g. minified or pruned:
+ * <pre class="example">
+ * BaseWicketTester tester = new BaseWicketTester(new MyApplication());
+ * int exported = new StaticResourceExporter(tester)
+ *         .addBootstrap()
+ *         .addClasses(MyApplication.class.getClassLoader(), "de.agilecoders.wicket")
+ *         .export(Paths.get("target/cdn"));</pre>
+ * <p/>
+ * Resources that are dynamic (i.e. aren't {@link IStaticCacheableResource}s) or whose urls have
+ * query string parameters are skipped, because {@link StaticResourceRewriteMapper} doesn't rewrite
+ * them either. The base urls of the mapper are expected to be hosts without path, so the paths of the
+ * CDN and the application are the same.
+ * <p/>
+ * There's no Brotli encoder on Java 7, so only gzip compressed siblings are written. The exporter runs at
+ * build time, so it's not part of the runtime modules.
+ *
+ * @see PrecompressedResourceGenerator
+ */
+public class StaticResourceExporter {
+    private static final Logger LOG = LoggerFactory.getLogger(StaticResourceExporter.class);
+
+    /**
+     * matches the urls of a stylesheet
+     */
+    private static final Pattern CSS_URL = Pattern.compile("url\\(\\s*(['\"]?)([^'\")]+)\\1\\s*\\)");
+
+    /**
+     * matches absolute urls, e.g. with scheme or host
+     */
+    private static final Pattern ABSOLUTE_URL = Pattern.compile("^([a-zA-Z][a-zA-Z0-9+.-]*:|/)");
+
+    private final BaseWicketTester tester;
+    private final ResourceReferenceCollector references = new ResourceReferenceCollector();
+
+    /**
+     * Construct.
+     *
+     * @param tester the tester to render the resources with
+     */
+    public StaticResourceExporter(final BaseWicketTester tester) {
+        this.tester = Args.notNull(tester, "tester");
+    }
+
+    /**
+     * adds resource references and their dependencies to the export
+     *
+     * @param references the resource references
+     * @return this instance for chaining
+     */
+    public StaticResourceExporter add(final ResourceReference... references) {
+        this.references.add(references);
+        return this;
+    }
+
+    /**
+     * adds the resource references of header items and their dependencies to the export
+     *
+     * @param items the header items
+     * @return this instance for chaining
+     */
+    public StaticResourceExporter addAll(final Iterable<? extends HeaderItem> items) {
+        references.addAll(items);
+        return this;
+    }
+
+    /**
+     * adds the bootstrap, modernizr and jquery resources and the resources of all available themes
+     *
+     * @return this instance for chaining
+     */
+    public StaticResourceExporter addBootstrap() {
+        final WebApplication application = tester.getApplication();
+        final IBootstrapSettings settings = Bootstrap.getSettings(application);
+        final JavaScriptLibrarySettings librarySettings = application.getJavaScriptLibrarySettings();
+
+        add(settings.getCssResourceReference(), settings.getJsResourceReference(), settings.getModernizrResourceReference());
+        add(librarySettings.getJQueryReference(), librarySettings.getWicketEventReference(),
+            librarySettings.getWicketAjaxReference());
+
+        for (ITheme theme : settings.getThemeProvider().available()) {
+            addTheme(theme);
+        }
+        return this;
+    }
+
+    /**
+     * adds the resource references, themes and theme providers of the given packages and their sub packages.
+     * Resource references are created by a public static {@code instance()} or {@code get()} method or a public
+     * constructor without parameters; classes that can't be created are skipped.
+     *
+     * @param classLoader  the class loader to find the classes with
+     * @param packageNames the names of the packages
+     * @return this instance for chaining
+     * @throws IOException if a package can't be read
+     */
+    public StaticResourceExporter addClasses(final ClassLoader classLoader, final String... packageNames) throws IOException {
+        for (String className : classNames(classLoader, packageNames)) {
+            try {
+                addClass(Class.forName(className, false, classLoader));
+            } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+                LOG.debug("skipped class {}: {}", className, e.getMessage());
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @return the added resource references
+     */
+    public Set<ResourceReference> getReferences() {
+        return references.getReferences();
+    }
+
+    /**
+     * exports all added resources and their gzip compressed siblings
+     *
+     * @param directory the directory to export to
+     * @return the number of exported resources (without compressed siblings)
+     * @throws IOException if a file can't be written
+     */
+    public int export(final Path directory) throws IOException {
+        final Set<String> exported = new HashSet<>();
+
+        for (ResourceReference reference : new ArrayList<>(references.getReferences())) {
+            export(reference, directory, exported);
+        }
+
+        final int compressed = new PrecompressedResourceGenerator().write(directory);
+        LOG.info("exported {} static resources and {} compressed siblings to {}", exported.size(), compressed, directory);
+
+        return exported.size();
+    }
+
+    /**
+     * exports a resource reference
+     */
+    private void export(final ResourceReference reference, final Path directory, final Set<String> exported) throws IOException {
+        if (!(reference.getResource() instanceof IStaticCacheableResource)) {
+            LOG.debug("skipped dynamic resource {}", reference);
+            return;
+        }
+
+        final ResourceReferenceRequestHandler handler = new ResourceReferenceRequestHandler(reference);
+        final Url url = tester.getRequestCycle().mapUrlFor(handler);
+
+        if (url == null || !url.getQueryParameters().isEmpty()) {
+            LOG.debug("skipped resource {} with url {}", reference, url);
+            return;
+        }
+
+        final String path = path(url);
+        if (path == null || exported.contains(path)) {
+            return;
+        }
+
+        tester.processRequest(handler);
+        write(path, directory, exported);
+    }
+
+    /**
+     * @param url the url of a resource
+     * @return the relative path of the url, without host, or {@code null} if it's empty
+     */
+    static String path(final Url url) {
+        final List<String> segments = new ArrayList<>(url.getSegments());
+        segments.removeAll(Collections.singleton(""));
+
+        return segments.isEmpty() ? null : Strings.join("/", segments);
+    }
+
+    /**
+     * writes the last response to the given path and exports the relative urls of a stylesheet
+     */
+    private void write(final String path, final Path directory, final Set<String> exported) throws IOException {
+        final MockHttpServletResponse response = tester.getLastResponse();
+
+        if (response.getStatus() != MockHttpServletResponse.SC_OK) {
+            LOG.warn("skipped resource {} with status {}", path, response.getStatus());
+            return;
+        }
+
+        final Path file = directory.resolve(path).normalize();
+        if (!file.startsWith(directory.normalize())) {
+            LOG.warn("skipped resource {} outside of {}", path, directory);
+            return;
+        }
+
+        final byte[] content = response.getBinaryContent();
+
+        Files.createDirectories(file.getParent());
+        Files.write(file, content);
+        exported.add(path);
+
+        if (path.endsWith(".css")) {
+            for (String relativePath : relativePaths(path, new String(content, StandardCharsets.UTF_8))) {
+                if (!exported.contains(relativePath)) {
+                    tester.executeUrl(relativePath);
+                    write(relativePath, directory, exported);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param path the path of a stylesheet
+     * @param css  the stylesheet
+     * @return the paths of the relative urls of the stylesheet
+     */
+    static Set<String> relativePaths(final String path, final String css) {
+        final Set<String> paths = new TreeSet<>();
+        final Matcher matcher = CSS_URL.matcher(css);
+
+        while (matcher.find()) {
+            String url = matcher.group(2).trim();
+
+            if (url.isEmpty() || url.startsWith("data:") || url.startsWith("#") || ABSOLUTE_URL.matcher(url).find()) {
+                continue;
+            }
+
+            final int end = indexOfAny(url, '?', '#');
+            if (end > -1) {
+                url = url.substring(0, end);
+            }
+
+            if (!url.isEmpty()) {
+                final String resolved = resolve(path, url);
+
+                if (resolved != null) {
+                    paths.add(resolved);
+                }
+            }
+        }
+        return paths;
+    }
+
+    private static int indexOfAny(final String value, final char... chars) {
+        for (int i = 0; i < value.length(); i++) {
+            for (char c : chars) {
+                if (value.charAt(i) == c) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param path     the path of a file
+     * @param relative a path relative to the file
+     * @return the normalized path or {@code null} if it leaves the root
+     */
+    private static String resolve(final String path, final String relative) {
+        final List<String> segments = new ArrayList<>(Arrays.asList(path.split("/")));
+        segments.remove(segments.size() - 1);
+
+        for (String segment : relative.split("/")) {
+            if ("..".equals(segment)) {
+                if (segments.isEmpty()) {
+                    return null;
+                }
+                segments.remove(segments.size() - 1);
+            } else if (!segment.isEmpty() && !".".equals(segment)) {
+                segments.add(segment);
+            }
+        }
+        return segments.isEmpty() ? null : Strings.join("/", segments);
+    }
+
+    /**
+     * adds a theme or all themes of a theme provider or enum
+     */
+    private void addClass(final Class<?> type) throws ReflectiveOperationException {
+        if (!Modifier.isPublic(type.getModifiers()) || type.isAnonymousClass()) {
+            return;
+        }
+
+        if (type.isEnum() && ITheme.class.isAssignableFrom(type)) {
+            for (Object constant : type.getEnumConstants()) {
+                addTheme((ITheme) constant);
+            }
+        } else if (Modifier.isAbstract(type.getModifiers()) || type.isInterface()) {
+            return;
+        } else if (ResourceReference.class.isAssignableFrom(type)) {
+            add(newReference(type));
+        } else if (ThemeProvider.class.isAssignableFrom(type)) {
+            for (ITheme theme : ((ThemeProvider) type.getConstructor().newInstance()).available()) {
+                addTheme(theme);
+            }
+        } else if (ITheme.class.isAssignableFrom(type)) {
+            addTheme((ITheme) type.getConstructor().newInstance());
+        }
+    }
+
+    /**
+     * @return the resource reference of the given type
+     */
+    private static ResourceReference newReference(final Class<?> type) throws ReflectiveOperationException {
+        for (String name : new String[]{"instance", "get"}) {
+            try {
+                final Method method = type.getMethod(name);
+
+                if (Modifier.isStatic(method.getModifiers()) && type.isAssignableFrom(method.getReturnType())) {
+                    return (ResourceReference) method.invoke(null);
+                }
+            } catch (NoSuchMethodException e) {
+                // try the next one
+            }
+        }
+        return (ResourceReference) type.getConstructor().newInstance();
+    }
+
+    private void addTheme(final ITheme theme) {
+        addAll(PrunedCss.dependencies(theme.getDependencies()));
+    }
+
+    /**
+     * @return the names of all top level and nested classes of the given packages
+     */
+    private static Set<String> classNames(final ClassLoader classLoader, final String... packageNames) throws IOException {
+        final Set<String> classNames = new TreeSet<>();
+
+        for (String packageName : packageNames) {
+            final String packagePath = packageName.replace('.', '/');
+            final Enumeration<URL> roots = classLoader.getResources(packagePath);
+
+            while (roots.hasMoreElements()) {
+                final URL root = roots.nextElement();
+
+                if ("file".equals(root.getProtocol())) {
+                    addClassNames(root, packagePath, classNames);
+                } else if ("jar".equals(root.getProtocol())) {
+                    final URLConnection connection = root.openConnection();
+                    connection.setUseCaches(false);
+
+                    try (JarFile jar = ((JarURLConnection) connection).getJarFile()) {
+                        final Enumeration<JarEntry> entries = jar.entries();
+
+                        while (entries.hasMoreElements()) {
+                            final String name = entries.nextElement().getName();
+
+                            if (name.startsWith(packagePath + "/") && name.endsWith(".class")) {
+                                classNames.add(className(name));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return classNames;
+    }
+
+    private static void addClassNames(final URL root, final String packagePath, final Set<String> classNames) throws IOException {
+        final Path directory;
+        try {
+            directory = Paths.get(root.toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException("invalid package directory: " + root, e);
+        }
+
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                final String name = directory.relativize(file).toString().replace('\\', '/');
+
+                if (name.endsWith(".class")) {
+                    classNames.add(className(packagePath + "/" + name));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static String className(final String fileName) {
+        return fileName.substring(0, fileName.length() - ".class".length()).replace('/', '.');
+    }
+
+    /**
+     * exports the static resources of an application
+     *
+     * @param args the directory to export to, the class name of the application and optional package names
+     *             to search resource references and themes in
+     * @throws Exception if the application can't be created or a file can't be written
+     */
+    public static void main(final String[] args) throws Exception {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("usage: StaticResourceExporter <directory> <application class> [package]...");
+        }
+
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        final WebApplication application = (WebApplication) Class.forName(args[1], true, classLoader).getConstructor().newInstance();
+        final BaseWicketTester tester = new BaseWicketTester(application);
+
+        try {
+            final String[] packageNames = args.length > 2
+                                          ? Arrays.copyOfRange(args, 2, args.length)
+                                          : new String[]{"de.agilecoders.wicket"};
+            final Path directory = Paths.get(args[0]);
+            final int exported = new StaticResourceExporter(tester)
+                    .addBootstrap()
+                    .addClasses(classLoader, packageNames)
+                    .export(directory);
+
+            LOG.info("exported {} static resources to {}", exported, directory);
+        } finally {
+            tester.destroy();
+        }
+    }
+}
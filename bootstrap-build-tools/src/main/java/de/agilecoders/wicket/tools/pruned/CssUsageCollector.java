@@ -0,0 +1,432 @@
+package de.agilecoders.wicket.tools.pruned;
+
+import de.agilecoders.wicket.core.markup.html.bootstrap.behavior.ICssClassNameProvider;
+import de.agilecoders.wicket.core.util.CssUsage;
+import org.apache.wicket.Page;
+import org.apache.wicket.util.io.IOUtils;
+import org.apache.wicket.util.lang.Args;
+import org.apache.wicket.util.tester.BaseWicketTester;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.regex.Pattern;
+
+/**
+ * #### Description
+ *
+ * Collects the css class names, ids and element names an application uses, so unused rules can be removed from
+ * the stylesheets of its themes. The usage is collected from
+ *
+ * - the markup files of a directory of compiled classes and of the libraries on the classpath, e.g. the
+ * {@code navbar-header} of the navbar markup,
+ * - pages rendered by a {@link BaseWicketTester}, which contain the class names added by components at runtime,
+ * - the string constants of the compiled classes and libraries, e.g. {@code new CssClassNameAppender("btn-toolbar")}
+ * or the {@code form-group} and {@code has-error} of a {@code FormGroup},
+ * - the {@link ICssClassNameProvider} constants referenced by the compiled classes and libraries, e.g. {@code Navbar.Position.TOP}
+ * or {@code LabelType.Success} (which keeps all prefixed names like {@code label-success}),
+ * - the class names the bootstrap javascript adds and a safelist.
+ *
+ * The usage is conservative: a class name that is used anywhere is regarded as used by all pages.
+ *
+ * #### Usage
+ *
+ * ```java
+ * CssUsage usage = new CssUsageCollector()
+ *     .addClasses(Paths.get("target/classes"), getClass().getClassLoader())
+ *     .addLibraries(getClass().getClassLoader(), CssUsageCollector.LIBRARY_PACKAGE)
+ *     .addRenderedPages(tester, HomePage.class)
+ *     .addSafelist("alert-danger")
+ *     .getUsage();
+ * ```
+ *
+ * @see PrunedCssGenerator
+ */
+public class CssUsageCollector {
+    private static final Logger LOG = LoggerFactory.getLogger(CssUsageCollector.class);
+
+    /**
+     * the package of the wicket-bootstrap libraries, whose markup and classes add css class names at runtime
+     */
+    public static final String LIBRARY_PACKAGE = "de.agilecoders.wicket";
+
+    /**
+     * the css class names the bootstrap javascript adds and removes
+     */
+    private static final String[] JAVASCRIPT_CLASS_NAMES = {
+            "in", "fade", "active", "open", "disabled", "collapse", "collapsing", "modal-open", "modal-backdrop",
+            "modal-scrollbar-measure", "dropdown-backdrop", "tooltip", "tooltip-inner", "tooltip-arrow", "popover",
+            "popover-title", "popover-content", "arrow", "top", "bottom", "left", "right", "affix", "affix-top",
+            "affix-bottom", "item", "next", "prev"
+    };
+
+    /**
+     * the elements the bootstrap javascript adds
+     */
+    private static final String[] JAVASCRIPT_ELEMENT_NAMES = {"html", "body", "div", "h3"};
+
+    private static final Pattern CLASS_NAME = Pattern.compile("-?[_a-zA-Z][_a-zA-Z0-9-]*");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final CssUsage usage = new CssUsage();
+
+    /**
+     * Construct.
+     */
+    public CssUsageCollector() {
+        usage.addClassNames(JAVASCRIPT_CLASS_NAMES).addElementNames(JAVASCRIPT_ELEMENT_NAMES);
+    }
+
+    /**
+     * @return the collected usage
+     */
+    public CssUsage getUsage() {
+        return usage;
+    }
+
+    /**
+     * @param classNames css class names that are always kept
+     * @return this instance for chaining
+     */
+    public CssUsageCollector addSafelist(final String... classNames) {
+        usage.addClassNames(classNames);
+        return this;
+    }
+
+    /**
+     * @param patterns patterns of css class names that are always kept, e.g. {@code col-(xs|sm)-.*}
+     * @return this instance for chaining
+     */
+    public CssUsageCollector addSafelist(final Pattern... patterns) {
+        usage.addClassNamePatterns(patterns);
+        return this;
+    }
+
+    /**
+     * @param providers css class name providers that are used
+     * @return this instance for chaining
+     */
+    public CssUsageCollector addProviders(final ICssClassNameProvider... providers) {
+        for (ICssClassNameProvider provider : providers) {
+            addProvider(provider);
+        }
+        return this;
+    }
+
+    /**
+     * adds the markup of the given pages
+     *
+     * @param tester      the tester to render the pages with
+     * @param pageClasses the pages to render
+     * @return this instance for chaining
+     */
+    @SafeVarargs
+    public final CssUsageCollector addRenderedPages(final BaseWicketTester tester, final Class<? extends Page>... pageClasses) {
+        for (Class<? extends Page> pageClass : pageClasses) {
+            tester.startPage(pageClass);
+            usage.addMarkup(tester.getLastResponseAsString());
+        }
+        return this;
+    }
+
+    /**
+     * adds the markup files, string constants and referenced css class name providers of a directory of compiled classes
+     *
+     * @param root        the directory of compiled classes
+     * @param classLoader the class loader to load referenced providers with
+     * @return this instance for chaining
+     * @throws IOException if a file can't be read
+     */
+    public CssUsageCollector addClasses(final Path root, final ClassLoader classLoader) throws IOException {
+        Args.notNull(classLoader, "classLoader");
+
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                try (InputStream input = Files.newInputStream(file)) {
+                    addFile(file.toString(), input, classLoader);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return this;
+    }
+
+    /**
+     * adds the markup files, string constants and referenced css class name providers of the given packages in all
+     * directories and jars of the classpath, e.g. of the wicket-bootstrap libraries the application uses. Their
+     * components add css class names at runtime which neither the markup nor the classes of the application contain.
+     * The packages are found by their directory entries, which jars built by maven contain.
+     *
+     * @param classLoader  the class loader to find the packages and to load referenced providers with
+     * @param packageNames the packages to add, e.g. {@link #LIBRARY_PACKAGE}
+     * @return this instance for chaining
+     * @throws IOException if a file can't be read
+     */
+    public CssUsageCollector addLibraries(final ClassLoader classLoader, final String... packageNames) throws IOException {
+        Args.notNull(classLoader, "classLoader");
+
+        for (String packageName : packageNames) {
+            final String path = packageName.replace('.', '/') + "/";
+            final Enumeration<URL> locations = classLoader.getResources(path);
+
+            if (!locations.hasMoreElements()) {
+                LOG.warn("package {} not found on the classpath", packageName);
+            }
+
+            while (locations.hasMoreElements()) {
+                final URL location = locations.nextElement();
+
+                if ("file".equals(location.getProtocol())) {
+                    try {
+                        addClasses(Paths.get(location.toURI()), classLoader);
+                    } catch (URISyntaxException e) {
+                        throw new IOException("invalid location: " + location, e);
+                    }
+                } else if ("jar".equals(location.getProtocol())) {
+                    addJar(location, path, classLoader);
+                } else {
+                    LOG.debug("skip location {}", location);
+                }
+            }
+        }
+        return this;
+    }
+
+    private void addJar(final URL location, final String path, final ClassLoader classLoader) throws IOException {
+        final JarURLConnection connection = (JarURLConnection) location.openConnection();
+        connection.setUseCaches(false);
+
+        try (JarFile jar = connection.getJarFile()) {
+            final Enumeration<JarEntry> entries = jar.entries();
+
+            while (entries.hasMoreElements()) {
+                final JarEntry entry = entries.nextElement();
+
+                if (!entry.isDirectory() && entry.getName().startsWith(path)) {
+                    try (InputStream input = jar.getInputStream(entry)) {
+                        addFile(entry.getName(), input, classLoader);
+                    }
+                }
+            }
+        }
+    }
+
+    private void addFile(final String name, final InputStream input, final ClassLoader classLoader) throws IOException {
+        if (name.endsWith(".html")) {
+            usage.addMarkup(IOUtils.toString(input, "UTF-8"));
+        } else if (name.endsWith(".class")) {
+            addClassFile(name, input, classLoader);
+        }
+    }
+
+    private void addClassFile(final String name, final InputStream input, final ClassLoader classLoader) throws IOException {
+        final ConstantPool constants = ConstantPool.read(new DataInputStream(new BufferedInputStream(input)));
+
+        if (constants == null) {
+            LOG.debug("skip invalid class file: {}", name);
+            return;
+        }
+
+        for (String value : constants.strings) {
+            addClassNameValue(value);
+        }
+
+        for (String[] field : constants.fieldReferences) {
+            final ICssClassNameProvider provider = provider(field[0], field[1], classLoader);
+
+            if (provider != null) {
+                addProvider(provider);
+            }
+        }
+    }
+
+    /**
+     * adds the css class name of the provider. Some providers are used with a prefix, e.g.
+     * {@code LabelType.Success.cssClassName("label")}, so all prefixed class names are kept for them.
+     */
+    private void addProvider(final ICssClassNameProvider provider) {
+        final String value = provider.cssClassName();
+
+        addClassNameValue(value);
+
+        if (value != null && isPrefixable(provider.getClass())) {
+            for (String token : WHITESPACE.split(value.trim())) {
+                if (CLASS_NAME.matcher(token).matches()) {
+                    usage.addClassNamePatterns(Pattern.compile("[_a-zA-Z0-9-]+-" + Pattern.quote(token)));
+                }
+            }
+        }
+    }
+
+    private static boolean isPrefixable(final Class<?> type) {
+        try {
+            type.getMethod("cssClassName", String.class);
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * adds all tokens of a string constant which may be a css class name
+     */
+    private void addClassNameValue(final String value) {
+        if (value == null || value.length() > 256) {
+            return;
+        }
+
+        for (String token : WHITESPACE.split(value.trim())) {
+            if (CLASS_NAME.matcher(token).matches()) {
+                usage.addClassNames(token);
+            }
+        }
+    }
+
+    /**
+     * @return the value of the referenced static field, if it is a css class name provider
+     */
+    private static ICssClassNameProvider provider(final String owner, final String fieldName, final ClassLoader classLoader) {
+        try {
+            final Class<?> type = Class.forName(owner.replace('/', '.'), false, classLoader);
+            final Field field = findField(type, fieldName);
+
+            // enum constants and constants of other provider types, e.g. icon types
+            return field != null && ICssClassNameProvider.class.isAssignableFrom(field.getType()) ? value(field) : null;
+        } catch (ClassNotFoundException | LinkageError e) {
+            LOG.debug("skip field {}.{}: {}", owner, fieldName, e.getMessage());
+            return null;
+        }
+    }
+
+    private static Field findField(final Class<?> type, final String name) {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (field.getName().equals(name)) {
+                    return Modifier.isStatic(field.getModifiers()) ? field : null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static ICssClassNameProvider value(final Field field) {
+        try {
+            field.setAccessible(true);
+            final Object value = field.get(null);
+
+            return value instanceof ICssClassNameProvider ? (ICssClassNameProvider) value : null;
+        } catch (IllegalAccessException | RuntimeException | LinkageError e) {
+            LOG.debug("skip field {}: {}", field, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * the string constants and field references of a class file
+     */
+    private static final class ConstantPool {
+        private final Set<String> strings = new HashSet<>();
+        private final List<String[]> fieldReferences = new ArrayList<>();
+
+        /**
+         * @return the constants or {@code null} if the input isn't a class file
+         */
+        private static ConstantPool read(final DataInputStream input) throws IOException {
+            if (input.readInt() != 0xCAFEBABE) {
+                return null;
+            }
+            input.readUnsignedShort(); // minor version
+            input.readUnsignedShort(); // major version
+
+            final int count = input.readUnsignedShort();
+            final String[] utf8 = new String[count];
+            final int[] classNames = new int[count];
+            final int[] stringValues = new int[count];
+            final int[][] fields = new int[count][];
+            final int[][] nameAndTypes = new int[count][];
+
+            for (int i = 1; i < count; i++) {
+                final int tag = input.readUnsignedByte();
+
+                switch (tag) {
+                    case 1: // utf8
+                        utf8[i] = input.readUTF();
+                        break;
+                    case 7: // class
+                        classNames[i] = input.readUnsignedShort();
+                        break;
+                    case 8: // string
+                        stringValues[i] = input.readUnsignedShort();
+                        break;
+                    case 9: // field reference
+                        fields[i] = new int[]{input.readUnsignedShort(), input.readUnsignedShort()};
+                        break;
+                    case 12: // name and type
+                        nameAndTypes[i] = new int[]{input.readUnsignedShort(), input.readUnsignedShort()};
+                        break;
+                    case 3: // integer
+                    case 4: // float
+                    case 10: // method reference
+                    case 11: // interface method reference
+                    case 17: // dynamic
+                    case 18: // invoke dynamic
+                        input.readInt();
+                        break;
+                    case 5: // long
+                    case 6: // double
+                        input.readLong();
+                        i++;
+                        break;
+                    case 15: // method handle
+                        input.readUnsignedByte();
+                        input.readUnsignedShort();
+                        break;
+                    case 16: // method type
+                    case 19: // module
+                    case 20: // package
+                        input.readUnsignedShort();
+                        break;
+                    default:
+                        return null;
+                }
+            }
+
+            final ConstantPool pool = new ConstantPool();
+            for (int i = 1; i < count; i++) {
+                if (stringValues[i] > 0) {
+                    pool.strings.add(utf8[stringValues[i]]);
+                } else if (fields[i] != null) {
+                    final String owner = utf8[classNames[fields[i][0]]];
+                    final int[] nameAndType = nameAndTypes[fields[i][1]];
+
+                    if (owner != null && nameAndType != null) {
+                        pool.fieldReferences.add(new String[]{owner, utf8[nameAndType[0]]});
+                    }
+                }
+            }
+            return pool;
+        }
+    }
+}
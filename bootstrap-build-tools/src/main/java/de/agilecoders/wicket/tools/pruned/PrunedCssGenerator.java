@@ -0,0 +1,216 @@
+package de.agilecoders.wicket.tools.pruned;
+
+import de.agilecoders.wicket.core.markup.html.themes.pruned.PrunedCss;
+import de.agilecoders.wicket.core.settings.ITheme;
+import de.agilecoders.wicket.core.settings.ThemeProvider;
+import de.agilecoders.wicket.core.util.CssRuleFilter;
+import de.agilecoders.wicket.core.util.CssUsage;
+import org.apache.wicket.markup.head.CssReferenceHeaderItem;
+import org.apache.wicket.markup.head.HeaderItem;
+import org.apache.wicket.request.resource.ResourceReference;
+import org.apache.wicket.util.io.IOUtils;
+import org.apache.wicket.util.lang.Args;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * #### Description
+ *
+ * Removes the rules that an application doesn't use from the stylesheets of its themes and writes them as pruned
+ * siblings to a directory of compiled classes, e.g. {@code target/classes/de/agilecoders/wicket/themes/markup/html/bootswatch/css/bootstrap.flatly_pruned.css}.
+ * They are served instead of the original stylesheets if
+ * {@link de.agilecoders.wicket.core.settings.IBootstrapSettings#setUsePrunedCss(boolean)} is active.
+ *
+ * It runs at build time, after the classes of the application were compiled, so it's not part of the runtime modules:
+ *
+ * <pre>
+ * java PrunedCssGenerator target/classes de.agilecoders.wicket.themes.markup.html.bootswatch.BootswatchTheme --safelist=alert-danger,has-error
+ * </pre>
+ *
+ * The themes are given by class names of {@link ITheme} enums, {@link ThemeProvider}s or {@link ITheme}s with a
+ * default constructor. More precise usages, e.g. including rendered pages, can be collected with a
+ * {@link CssUsageCollector} in a test of the application.
+ *
+ * @see PrunedCss
+ */
+public class PrunedCssGenerator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PrunedCssGenerator.class);
+
+    private static final String SAFELIST = "--safelist=";
+
+    private final CssRuleFilter filter;
+    private final ClassLoader classLoader;
+
+    /**
+     * Construct.
+     *
+     * @param usage the used element names, ids and css class names of the application
+     */
+    public PrunedCssGenerator(final CssUsage usage) {
+        this(usage, PrunedCssGenerator.class.getClassLoader());
+    }
+
+    /**
+     * Construct.
+     *
+     * @param usage       the used element names, ids and css class names of the application
+     * @param classLoader the class loader to read the stylesheets with
+     */
+    public PrunedCssGenerator(final CssUsage usage, final ClassLoader classLoader) {
+        this.filter = new CssRuleFilter(usage);
+        this.classLoader = Args.notNull(classLoader, "classLoader");
+    }
+
+    /**
+     * prunes the stylesheets of the given theme
+     *
+     * @param theme the theme
+     * @return the pruned stylesheets by the classpath paths of their pruned siblings
+     * @throws IOException if a stylesheet can't be read
+     */
+    public Map<String, String> prune(final ITheme theme) throws IOException {
+        final Map<String, String> result = new LinkedHashMap<>();
+
+        for (ResourceReference reference : references(theme)) {
+            final String css = read(PrunedCss.path(reference));
+
+            if (css != null) {
+                result.put(PrunedCss.prunedPath(reference), filter.filter(css));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * prunes the stylesheets of the given theme and writes them to the given directory
+     *
+     * @param theme            the theme
+     * @param classesDirectory the directory of compiled classes
+     * @return the number of bytes of the original and of the pruned stylesheets
+     * @throws IOException if a stylesheet can't be read or written
+     */
+    public long[] write(final ITheme theme, final Path classesDirectory) throws IOException {
+        final long[] sizes = new long[2];
+
+        for (ResourceReference reference : references(theme)) {
+            final String css = read(PrunedCss.path(reference));
+
+            if (css != null) {
+                final byte[] pruned = filter.filter(css).getBytes(StandardCharsets.UTF_8);
+                final Path file = classesDirectory.resolve(PrunedCss.prunedPath(reference));
+
+                Files.createDirectories(file.getParent());
+                Files.write(file, pruned);
+
+                sizes[0] += css.getBytes(StandardCharsets.UTF_8).length;
+                sizes[1] += pruned.length;
+            }
+        }
+        return sizes;
+    }
+
+    /**
+     * @return the css references of the theme that can be pruned
+     */
+    private static List<ResourceReference> references(final ITheme theme) {
+        final List<ResourceReference> references = new ArrayList<>();
+
+        for (HeaderItem item : theme.getDependencies()) {
+            if (item instanceof CssReferenceHeaderItem && PrunedCss.canBePruned(((CssReferenceHeaderItem) item).getReference())) {
+                references.add(((CssReferenceHeaderItem) item).getReference());
+            }
+        }
+        return references;
+    }
+
+    private String read(final String path) throws IOException {
+        final InputStream inputStream = classLoader.getResourceAsStream(path);
+
+        if (inputStream == null) {
+            return null;
+        }
+
+        try {
+            return IOUtils.toString(inputStream, "UTF-8");
+        } finally {
+            IOUtils.closeQuietly(inputStream);
+        }
+    }
+
+    /**
+     * @param className the class name of an {@link ITheme} enum, a {@link ThemeProvider} or an {@link ITheme}
+     * @param classLoader the class loader to load the class with
+     * @return the themes
+     */
+    static List<ITheme> themes(final String className, final ClassLoader classLoader) {
+        try {
+            final Class<?> type = Class.forName(className, true, classLoader);
+
+            if (type.isEnum() && ITheme.class.isAssignableFrom(type)) {
+                final List<ITheme> themes = new ArrayList<>();
+                for (Object constant : type.getEnumConstants()) {
+                    themes.add((ITheme) constant);
+                }
+                return themes;
+            } else if (ThemeProvider.class.isAssignableFrom(type)) {
+                return ((ThemeProvider) type.newInstance()).available();
+            } else if (ITheme.class.isAssignableFrom(type)) {
+                return Collections.singletonList((ITheme) type.newInstance());
+            }
+            throw new IllegalArgumentException("neither a theme nor a theme provider: " + className);
+        } catch (ClassNotFoundException | InstantiationException | IllegalAccessException e) {
+            throw new IllegalArgumentException("unable to create themes: " + className, e);
+        }
+    }
+
+    /**
+     * writes the pruned stylesheets of the given themes, using the markup, string constants and css class name providers
+     * of the classes directory and of the wicket-bootstrap libraries on the classpath
+     *
+     * @param args the directory of compiled classes, theme classes and an optional {@code --safelist=name,name}
+     * @throws IOException if a file can't be read or written
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("usage: PrunedCssGenerator <classes directory> <theme class>... [--safelist=name,...]");
+        }
+
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        final Path root = Paths.get(args[0]);
+        final CssUsageCollector collector = new CssUsageCollector()
+                .addClasses(root, classLoader)
+                .addLibraries(classLoader, CssUsageCollector.LIBRARY_PACKAGE);
+        final List<ITheme> themes = new ArrayList<>();
+
+        for (String arg : Arrays.asList(args).subList(1, args.length)) {
+            if (arg.startsWith(SAFELIST)) {
+                collector.addSafelist(arg.substring(SAFELIST.length()).split(","));
+            } else {
+                themes.addAll(themes(arg, classLoader));
+            }
+        }
+
+        final PrunedCssGenerator generator = new PrunedCssGenerator(collector.getUsage(), classLoader);
+        for (ITheme theme : themes) {
+            final long[] sizes = generator.write(theme, root);
+
+            if (sizes[0] > 0) {
+                LOG.info("pruned theme {}: {} -> {} bytes", theme.name(), sizes[0], sizes[1]);
+            }
+        }
+    }
+}
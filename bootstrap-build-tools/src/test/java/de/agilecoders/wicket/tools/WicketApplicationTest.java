@@ -0,0 +1,67 @@
+package de.agilecoders.wicket.tools;
+
+import de.agilecoders.wicket.core.Bootstrap;
+import de.agilecoders.wicket.core.settings.BootstrapSettings;
+import de.agilecoders.wicket.core.settings.IBootstrapSettings;
+import org.apache.wicket.Page;
+import org.apache.wicket.protocol.http.WebApplication;
+import org.apache.wicket.util.tester.WicketTester;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+
+/**
+ * Base integration test class
+ */
+public class WicketApplicationTest extends Assert {
+
+    private WebApplication application;
+    private WicketTester tester;
+
+    @Before
+    public final void before() {
+        application = new WebApplication() {
+
+            @Override
+            protected void init() {
+                super.init();
+
+                Bootstrap.builder()
+                    .withBootstrapSettings(WicketApplicationTest.this.createBootstrapSettings())
+                    .install(this);
+            }
+
+            @Override
+            public Class<? extends Page> getHomePage() {
+                return Page.class;
+            }
+        };
+
+        tester = new WicketTester(application);
+        onBefore();
+    }
+
+    @After
+    public final void tearDown() {
+        tester.destroy();
+    }
+
+    protected void onBefore() {
+    }
+
+    protected IBootstrapSettings createBootstrapSettings() {
+        return new BootstrapSettings();
+    }
+
+    protected final WicketTester tester() {
+        return tester;
+    }
+
+    protected final WebApplication application() {
+        return application;
+    }
+
+    protected final IBootstrapSettings getBootstrapSettings() {
+        return Bootstrap.getSettings(application);
+    }
+}
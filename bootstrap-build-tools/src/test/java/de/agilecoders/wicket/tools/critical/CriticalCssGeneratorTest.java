@@ -0,0 +1,83 @@
+package de.agilecoders.wicket.tools.critical;
+
+import de.agilecoders.wicket.core.Bootstrap;
+import de.agilecoders.wicket.core.markup.html.themes.critical.CriticalCss;
+import de.agilecoders.wicket.core.settings.BootstrapSettings;
+import de.agilecoders.wicket.core.settings.IBootstrapSettings;
+import de.agilecoders.wicket.core.settings.SingleThemeProvider;
+import de.agilecoders.wicket.core.settings.Theme;
+import de.agilecoders.wicket.tools.WicketApplicationTest;
+import org.apache.wicket.MarkupContainer;
+import org.apache.wicket.markup.IMarkupResourceStreamProvider;
+import org.apache.wicket.markup.head.IHeaderResponse;
+import org.apache.wicket.markup.html.WebPage;
+import org.apache.wicket.request.resource.CssResourceReference;
+import org.apache.wicket.util.resource.IResourceStream;
+import org.apache.wicket.util.resource.StringResourceStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests the {@link CriticalCssGenerator}
+ */
+public class CriticalCssGeneratorTest extends WicketApplicationTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Theme theme = new Theme("critical", new CssResourceReference(CriticalCssGeneratorTest.class, "res/theme.css"));
+
+    @Override
+    protected IBootstrapSettings createBootstrapSettings() {
+        return new BootstrapSettings().setThemeProvider(new SingleThemeProvider(theme));
+    }
+
+    @Test
+    public void generatorKeepsTheRulesOfTheFirstElements() {
+        String css = new CriticalCssGenerator(tester(), 1).generate(theme, CriticalPage.class);
+
+        assertThat(css, is(equalTo("/*wb:0*/body{margin: 0;}.navbar{background: url(img/navbar.png) no-repeat;}"
+                                   + "@media (min-width: 768px){.navbar{height: 50px;}}")));
+    }
+
+    @Test
+    public void criticalCssIsPutAndWritten() throws Exception {
+        Path classes = folder.getRoot().toPath();
+        CriticalCssGenerator generator = new CriticalCssGenerator(tester(), 1);
+        generator.generate(theme, CriticalPage.class);
+
+        assertThat(generator.write(classes), is(equalTo(1)));
+        assertThat(CriticalCss.get(application()).find("critical", CriticalPage.class), containsString(".navbar{"));
+
+        Path file = classes.resolve(CriticalCss.LOCATION + "critical/" + CriticalPage.class.getName() + ".css");
+        assertThat(new String(Files.readAllBytes(file), "UTF-8"), containsString(".navbar{"));
+    }
+
+    /**
+     * a page that renders the active theme
+     */
+    public static class CriticalPage extends WebPage implements IMarkupResourceStreamProvider {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void renderHead(IHeaderResponse response) {
+            super.renderHead(response);
+
+            Bootstrap.renderHead(response);
+        }
+
+        @Override
+        public IResourceStream getMarkupResourceStream(MarkupContainer container, Class<?> containerClass) {
+            return new StringResourceStream("<html><head></head><body><div class=\"navbar\">nav</div><div class=\"footer\">footer</div></body></html>");
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package de.agilecoders.wicket.tools.export;
+
+import de.agilecoders.wicket.core.Bootstrap;
+import de.agilecoders.wicket.extensions.request.StaticResourceRewriteMapper;
+import de.agilecoders.wicket.tools.WicketApplicationTest;
+import org.apache.wicket.request.handler.resource.ResourceReferenceRequestHandler;
+import org.apache.wicket.request.resource.ResourceReference;
+import org.apache.wicket.resource.JQueryResourceReference;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests the {@link StaticResourceExporter}
+ */
+public class StaticResourceExporterTest extends WicketApplicationTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Override
+    protected void onBefore() {
+        StaticResourceRewriteMapper.withBaseUrl("//cdn.example.com").withContentHash(true).install(application());
+    }
+
+    @Test
+    public void resourceIsExportedToPathOfRewrittenUrl() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        ResourceReference reference = JQueryResourceReference.get();
+
+        int exported = new StaticResourceExporter(tester()).add(reference).export(directory);
+
+        Path file = directory.resolve(pathOf(reference));
+        assertThat(exported, is(equalTo(1)));
+        assertThat(Files.isRegularFile(file), is(true));
+        assertThat(new String(Files.readAllBytes(file), "UTF-8").contains("jQuery"), is(true));
+        assertThat(Files.isRegularFile(file.resolveSibling(file.getFileName() + ".gz")), is(true));
+    }
+
+    @Test
+    public void relativeUrlsOfStylesheetsAreExported() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        ResourceReference reference = Bootstrap.getSettings(application()).getCssResourceReference();
+
+        new StaticResourceExporter(tester()).add(reference).export(directory);
+
+        Path fonts = directory.resolve(pathOf(reference)).getParent().resolveSibling("fonts");
+        assertThat(Files.isRegularFile(fonts.resolve("glyphicons-halflings-regular.woff")), is(true));
+    }
+
+    @Test
+    public void relativePathsAreResolved() {
+        String css = "a{background:url('../img/a.png?v=1')} b{background:url(data:image/png;base64,AAA)}"
+                     + " i{src:url(\"//cdn.example.com/b.woff\")} p{background:url(./c.gif#x)}";
+
+        assertThat(StaticResourceExporter.relativePaths("_1/wicket/resource/css/x.css", css),
+                   is(equalTo((Set<String>) new TreeSet<>(Arrays.asList("_1/wicket/resource/css/c.gif",
+                                                                         "_1/wicket/resource/img/a.png")))));
+    }
+
+    @Test
+    public void themesAreAdded() {
+        StaticResourceExporter exporter = new StaticResourceExporter(tester()).addBootstrap();
+
+        assertThat(exporter.getReferences(), hasItem(JQueryResourceReference.get()));
+    }
+
+    private String pathOf(ResourceReference reference) {
+        return StaticResourceExporter.path(tester().getRequestCycle().mapUrlFor(new ResourceReferenceRequestHandler(reference)));
+    }
+}
@@ -0,0 +1,128 @@
+package de.agilecoders.wicket.tools.pruned;
+
+import de.agilecoders.wicket.core.markup.html.bootstrap.block.LabelType;
+import de.agilecoders.wicket.core.markup.html.bootstrap.navbar.Navbar;
+import de.agilecoders.wicket.core.settings.BootstrapSettings;
+import de.agilecoders.wicket.core.settings.IBootstrapSettings;
+import de.agilecoders.wicket.core.settings.SingleThemeProvider;
+import de.agilecoders.wicket.core.settings.Theme;
+import de.agilecoders.wicket.core.util.CssUsage;
+import de.agilecoders.wicket.tools.WicketApplicationTest;
+import org.apache.wicket.request.resource.CssResourceReference;
+import org.junit.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests the {@link CssUsageCollector} and {@link PrunedCssGenerator}
+ */
+public class PrunedCssGeneratorTest extends WicketApplicationTest {
+
+    /**
+     * the css class names the collector finds in this class
+     */
+    private static final Navbar.Position POSITION = Navbar.Position.TOP;
+    private static final String MARKER = "custom-marker";
+
+    private final Theme theme = new Theme("pruned", new CssResourceReference(PrunedCssGeneratorTest.class, "res/theme.css"));
+
+    @Override
+    protected IBootstrapSettings createBootstrapSettings() {
+        return new BootstrapSettings().setThemeProvider(new SingleThemeProvider(theme));
+    }
+
+    @Test
+    public void collectorFindsStringConstantsAndProviders() throws Exception {
+        CssUsage usage = collect().getUsage();
+
+        assertThat(usage.matches("." + MARKER), is(equalTo(true)));
+        assertThat(usage.matches(".navbar-fixed-top"), is(equalTo(true)));
+        assertThat(usage.matches(".label-success"), is(equalTo(true)));
+        assertThat(usage.matches(".modal-open"), is(equalTo(true)));
+        assertThat(usage.matches(".navbar-fixed-bottom"), is(equalTo(false)));
+        assertThat(usage.matches(".label-danger"), is(equalTo(false)));
+        assertThat(POSITION.cssClassName(), is(equalTo("navbar-fixed-top")));
+    }
+
+    @Test
+    public void collectorFindsMarkupAndConstantsOfLibraries() throws Exception {
+        CssUsage usage = new CssUsageCollector()
+                .addLibraries(PrunedCssGeneratorTest.class.getClassLoader(), CssUsageCollector.LIBRARY_PACKAGE)
+                .getUsage();
+
+        assertThat(usage.matches(".navbar-header"), is(equalTo(true)));
+        assertThat(usage.matches(".icon-bar"), is(equalTo(true)));
+        assertThat(usage.matches(".form-group"), is(equalTo(true)));
+        assertThat(usage.matches(".has-error"), is(equalTo(true)));
+    }
+
+    @Test
+    public void collectorFindsMarkupOfLibraryJars() throws Exception {
+        Path jar = Files.createTempFile("library", ".jar");
+
+        try {
+            try (JarOutputStream output = new JarOutputStream(Files.newOutputStream(jar))) {
+                // the directory entries are found by the class loader, maven adds them to all jars
+                output.putNextEntry(new JarEntry("de/"));
+                output.putNextEntry(new JarEntry("de/agilecoders/"));
+                output.putNextEntry(new JarEntry("de/agilecoders/wicket/"));
+                output.putNextEntry(new JarEntry("de/agilecoders/wicket/library/"));
+                output.putNextEntry(new JarEntry("de/agilecoders/wicket/library/Panel.html"));
+                output.write("<wicket:panel><div class=\"library-marker\"></div></wicket:panel>".getBytes(StandardCharsets.UTF_8));
+                output.putNextEntry(new JarEntry("other/Panel.html"));
+                output.write("<div class=\"other-marker\"></div>".getBytes(StandardCharsets.UTF_8));
+            }
+
+            try (URLClassLoader classLoader = new URLClassLoader(new URL[]{jar.toUri().toURL()}, null)) {
+                CssUsage usage = new CssUsageCollector().addLibraries(classLoader, CssUsageCollector.LIBRARY_PACKAGE).getUsage();
+
+                assertThat(usage.matches(".library-marker"), is(equalTo(true)));
+                assertThat(usage.matches(".other-marker"), is(equalTo(false)));
+            }
+        } finally {
+            Files.deleteIfExists(jar);
+        }
+    }
+
+    @Test
+    public void unusedRulesArePruned() throws Exception {
+        CssUsageCollector collector = collect().addProviders(LabelType.Success);
+        Map<String, String> pruned = new PrunedCssGenerator(collector.getUsage()).prune(theme);
+
+        assertThat(pruned.size(), is(equalTo(1)));
+        assertThat(pruned.get("de/agilecoders/wicket/tools/pruned/res/theme_pruned.css"),
+                   is(equalTo("@font-face{font-family: \"Icons\"; src: url(\"../fonts/icons.woff2\") format(\"woff2\");}body{margin: 0;}"
+                              + ".navbar-fixed-top{top: 0;}.custom-marker{color: red;}.label-success{color: green;}.modal-open{overflow: hidden;}")));
+    }
+
+    @Test
+    public void safelistPatternsAreKept() throws Exception {
+        CssUsageCollector collector = new CssUsageCollector().addSafelist(Pattern.compile("label-.*"));
+        String pruned = new PrunedCssGenerator(collector.getUsage()).prune(theme).values().iterator().next();
+
+        assertThat(pruned, containsString(".label-success{"));
+        assertThat(pruned, containsString(".label-danger{"));
+        assertThat(pruned, not(containsString(".navbar-fixed-top")));
+    }
+
+    private CssUsageCollector collect() throws Exception {
+        Path classes = Paths.get(PrunedCssGeneratorTest.class.getResource("PrunedCssGeneratorTest.class").toURI()).getParent();
+
+        return new CssUsageCollector().addClasses(classes, PrunedCssGeneratorTest.class.getClassLoader());
+    }
+}
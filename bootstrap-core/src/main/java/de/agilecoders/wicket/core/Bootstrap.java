@@ -12,6 +12,8 @@ import org.apache.wicket.markup.html.IPackageResourceGuard;
 import org.apache.wicket.markup.html.SecurePackageResourceGuard;
 import org.apache.wicket.settings.MarkupSettings;
 import org.apache.wicket.protocol.http.WebApplication;
+import org.apache.wicket.request.resource.ResourceReference;
+import org.apache.wicket.request.resource.ResourceReferenceRegistry;
 import org.apache.wicket.util.lang.Args;
 
 import com.fasterxml.jackson.core.JsonGenerator;
@@ -23,6 +25,9 @@ import com.fasterxml.jackson.databind.module.SimpleModule;
 
 import de.agilecoders.wicket.core.markup.html.bootstrap.behavior.BootstrapResourcesBehavior;
 import de.agilecoders.wicket.core.markup.html.bootstrap.image.IconType;
+import de.agilecoders.wicket.core.request.cdn.CdnResourceReference;
+import de.agilecoders.wicket.core.request.cdn.SubresourceIntegrity;
+import de.agilecoders.wicket.core.request.resource.PrecompressedResourceReferenceFactory;
 import de.agilecoders.wicket.core.settings.BootstrapResourceAppender;
 import de.agilecoders.wicket.core.settings.BootstrapSettings;
 import de.agilecoders.wicket.core.settings.IBootstrapSettings;
@@ -42,7 +47,7 @@ import de.agilecoders.wicket.webjars.WicketWebjars;
  * is true).
  * `Bootstrap` initializes and uses wicket-webjars to load its web resources, therefor wicket-webjars will be initialized
  * when calling `install` too (only if `settings.useWebjars()` returns true). If you use your own resources or
- * the cdn resources, wicket-webjars won't be initialized. wicket-webjars can be initialized by calling
+ * the cdn resources without failover, wicket-webjars won't be initialized. wicket-webjars can be initialized by calling
  * `WicketWebjars.install(yourWicketApplication)` manually if needed.
  * <p/>
  * #### Usage
@@ -156,6 +161,15 @@ public final class Bootstrap {
                 updateSecurityManager(app);
             }
 
+            if (settings.servePrecompressedResources()) {
+                final ResourceReferenceRegistry registry = app.getResourceReferenceRegistry();
+                registry.setResourceReferenceFactory(new PrecompressedResourceReferenceFactory(registry.getResourceReferenceFactory()));
+            }
+
+            if (settings.useCdnResources() && settings.cdnFailover()) {
+                precomputeIntegrity(app, settings);
+            }
+
             if (settings.autoAppendResources()) {
                 app.getComponentInstantiationListeners().add(new BootstrapResourceAppender());
             }
@@ -179,6 +193,18 @@ public final class Bootstrap {
      *
      * @param application current application
      */
+    /**
+     * computes the subresource integrity of the CDN resources at startup, so the first request doesn't read them
+     */
+    private static void precomputeIntegrity(final Application app, final IBootstrapSettings settings) {
+        for (ResourceReference reference : new ResourceReference[]{settings.getCssResourceReference(),
+                settings.getJsResourceReference(), settings.getModernizrResourceReference()}) {
+            if (reference instanceof CdnResourceReference) {
+                SubresourceIntegrity.precompute(app, ((CdnResourceReference) reference).getIntegritySource());
+            }
+        }
+    }
+
     private static void configureMarkupSettings(Application application) {
         MarkupSettings markupSettings = application.getMarkupSettings();
 
@@ -3,24 +3,40 @@ package de.agilecoders.wicket.core.markup.html.bootstrap.behavior;
 import de.agilecoders.wicket.core.Bootstrap;
 import de.agilecoders.wicket.core.markup.html.references.Html5ShivJavaScriptReference;
 import de.agilecoders.wicket.core.markup.html.references.RespondJavaScriptReference;
+import de.agilecoders.wicket.core.request.preload.PreloadHeaders;
+import de.agilecoders.wicket.core.request.preload.PreloadResource;
+import de.agilecoders.wicket.core.request.resource.bundles.AutomaticResourceBundles;
+import de.agilecoders.wicket.core.request.useragent.UserAgentClassifier;
 import de.agilecoders.wicket.core.settings.IBootstrapSettings;
 import de.agilecoders.wicket.core.settings.ITheme;
+import de.agilecoders.wicket.core.settings.ThemeHeaderItems;
+import org.apache.wicket.Application;
 import org.apache.wicket.Component;
+import org.apache.wicket.ResourceBundles;
 import org.apache.wicket.WicketRuntimeException;
 import org.apache.wicket.behavior.Behavior;
+import org.apache.wicket.markup.head.CssReferenceHeaderItem;
+import org.apache.wicket.markup.head.HeaderItem;
 import org.apache.wicket.markup.head.IHeaderResponse;
+import org.apache.wicket.markup.head.IWrappedHeaderItem;
 import org.apache.wicket.markup.head.JavaScriptHeaderItem;
-import org.apache.wicket.protocol.http.ClientProperties;
-import org.apache.wicket.protocol.http.WebSession;
-import org.apache.wicket.protocol.http.request.WebClientInfo;
+import org.apache.wicket.markup.head.JavaScriptReferenceHeaderItem;
 import org.apache.wicket.util.lang.Args;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 /**
  * #### Description
  *
  * The {@code BootstrapBaseBehavior} renders the current active
  * {@link ITheme} which includes the {@link de.agilecoders.wicket.core.markup.html.themes.bootstrap.BootstrapCssReference}
- * if enabled to the response.
+ * if enabled to the response. If {@link IBootstrapSettings#preloadResources()} is enabled, it also adds
+ * {@code Link: <url>; rel=preload} headers for the theme and bootstrap javascript to the response, so the
+ * browser can start to download them before it parsed the page. Internet Explorer 6-8 additionally gets the
+ * html5shiv and respond.js shims unless {@link IBootstrapSettings#legacyInternetExplorerShims()} is disabled.
  *
  * @author Michael Haitz <michael.haitz@agilecoders.de>
  */
@@ -97,18 +113,95 @@ public class BootstrapBaseBehavior extends Behavior {
 
         theme.renderHead(headerResponse);
 
-        contributeIE8Dependencies(headerResponse);
+        if (settings.legacyInternetExplorerShims()) {
+            contributeIE8Dependencies(headerResponse);
+        }
+    }
+
+    /**
+     * Adds the preload headers before the component is rendered, because the head section is
+     * rendered to a temporary response.
+     */
+    @Override
+    public void beforeRender(final Component component) {
+        super.beforeRender(component);
+
+        final IBootstrapSettings settings = getBootstrapSettings(component);
+        if (settings.preloadResources()) {
+            final ITheme theme = settings.getActiveThemeProvider().getActiveTheme();
+
+            PreloadHeaders.add(getPreloadResources(settings, theme), settings.getEarlyHintsSender());
+        }
+    }
+
+    /**
+     * Collects the resources which are announced by preload headers: the css and javascript references the
+     * active {@link ITheme} renders, the bootstrap javascript and the additional resources of the
+     * {@link IBootstrapSettings}. References that are part of a resource bundle are replaced by the bundle,
+     * because the bundle is what the page loads.
+     *
+     * @param settings the bound {@link IBootstrapSettings}
+     * @param theme    the active theme
+     * @return the resources to preload
+     */
+    protected List<PreloadResource> getPreloadResources(final IBootstrapSettings settings, final ITheme theme) {
+        final Application application = Application.get();
+        final Set<PreloadResource> resources = new LinkedHashSet<>();
+
+        for (HeaderItem item : ThemeHeaderItems.get(application).of(theme, settings)) {
+            addPreloadResource(resources, application, item);
+        }
+
+        if (settings.getJsResourceReference() != null) {
+            addPreloadResource(resources, application, JavaScriptHeaderItem.forReference(settings.getJsResourceReference()));
+        }
+        resources.addAll(settings.getPreloadResources());
+
+        return new ArrayList<>(resources);
+    }
+
+    /**
+     * adds the css or javascript reference of the given header item or of the bundle that contains it
+     */
+    private static void addPreloadResource(final Set<PreloadResource> resources, final Application application,
+                                           final HeaderItem headerItem) {
+        HeaderItem item = unwrap(headerItem);
+
+        final ResourceBundles bundles = application.getResourceBundles();
+        // automatic bundles would take the lookup for a render of the item while they are learning
+        if (!(bundles instanceof AutomaticResourceBundles) || ((AutomaticResourceBundles) bundles).isBuilt()) {
+            final HeaderItem bundle = bundles.findBundle(item);
+
+            if (bundle != null) {
+                item = unwrap(bundle);
+            }
+        }
+
+        if (item instanceof CssReferenceHeaderItem) {
+            resources.add(PreloadResource.style(((CssReferenceHeaderItem) item).getReference()));
+        } else if (item instanceof JavaScriptReferenceHeaderItem) {
+            resources.add(PreloadResource.script(((JavaScriptReferenceHeaderItem) item).getReference()));
+        }
+    }
+
+    private static HeaderItem unwrap(final HeaderItem headerItem) {
+        HeaderItem item = headerItem;
+
+        while (item instanceof IWrappedHeaderItem) {
+            item = ((IWrappedHeaderItem) item).getWrapped();
+        }
+        return item;
     }
 
     /**
-     * Contributes dependencies needed for proper behavior in older browsers (IE 6-8)
+     * Contributes dependencies needed for proper behavior in older browsers (IE 6-8). The browser is classified
+     * by the {@link UserAgentClassifier}, so the session isn't touched.
      *
      * @param headerResponse the current {@link IHeaderResponse}
+     * @see IBootstrapSettings#setLegacyInternetExplorerShims(boolean)
      */
     protected void contributeIE8Dependencies(IHeaderResponse headerResponse) {
-        WebClientInfo clientInfo = WebSession.get().getClientInfo();
-        ClientProperties properties = clientInfo.getProperties();
-        if (properties.isBrowserInternetExplorer() && properties.getBrowserVersionMajor() < 9) {
+        if (UserAgentClassifier.isLegacyInternetExplorer()) {
             headerResponse.render(JavaScriptHeaderItem.forReference(RespondJavaScriptReference.instance()));
             headerResponse.render(JavaScriptHeaderItem.forReference(Html5ShivJavaScriptReference.instance()));
         }
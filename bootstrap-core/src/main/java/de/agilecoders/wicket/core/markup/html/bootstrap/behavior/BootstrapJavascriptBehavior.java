@@ -5,6 +5,7 @@ import org.apache.wicket.markup.head.JavaScriptHeaderItem;
 import org.apache.wicket.markup.head.JavaScriptReferenceHeaderItem;
 import org.apache.wicket.request.mapper.parameter.PageParameters;
 
+import de.agilecoders.wicket.core.request.cdn.CdnFailover;
 import de.agilecoders.wicket.core.settings.IBootstrapSettings;
 import de.agilecoders.wicket.core.util.References;
 
@@ -30,7 +31,7 @@ public class BootstrapJavascriptBehavior extends BootstrapBaseBehavior {
     public void renderHead(IBootstrapSettings settings, IHeaderResponse headerResponse) {
         super.renderHead(settings, headerResponse);
 
-        final JavaScriptReferenceHeaderItem jsReference = JavaScriptHeaderItem.forReference(settings.getJsResourceReference(), new PageParameters(), "bootstrap-js", settings.deferJavascript());
+        final JavaScriptReferenceHeaderItem jsReference = CdnFailover.forJavaScript(JavaScriptHeaderItem.forReference(settings.getJsResourceReference(), new PageParameters(), "bootstrap-js", settings.deferJavascript()));
         References.renderWithFilter(settings, headerResponse, jsReference);
     }
 }
@@ -1,5 +1,6 @@
 package de.agilecoders.wicket.core.markup.html.bootstrap.behavior;
 
+import de.agilecoders.wicket.core.util.CssClassList;
 import de.agilecoders.wicket.core.util.CssClassNames;
 
 import de.agilecoders.wicket.jquery.util.Generics2;
@@ -93,6 +94,6 @@ public class CssClassNameAppender extends AttributeAppender {
             return currentValue;
         }
 
-        return CssClassNames.parse(currentValue).addRaw(appendValue).asString();
+        return CssClassList.add(currentValue, appendValue);
     }
 }
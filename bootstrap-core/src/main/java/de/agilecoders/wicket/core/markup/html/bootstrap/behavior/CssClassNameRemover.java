@@ -16,6 +16,7 @@
  */
 package de.agilecoders.wicket.core.markup.html.bootstrap.behavior;
 
+import de.agilecoders.wicket.core.util.CssClassList;
 import de.agilecoders.wicket.core.util.CssClassNames;
 
 import de.agilecoders.wicket.jquery.util.Generics2;
@@ -91,6 +92,6 @@ public class CssClassNameRemover extends CssClassNameAppender {
             return currentValue != null ? currentValue : null;
         }
 
-        return CssClassNames.parse(currentValue).remove(CssClassNames.parse(removeValue)).asString();
+        return CssClassList.remove(currentValue, removeValue);
     }
 }
@@ -50,7 +50,7 @@ public class CodeBehavior extends Behavior {
      * enum that holds all possible languages
      */
     public enum Language implements ICssClassNameProvider {
-        DYNAMIC, // use this or don't set a lang for auto detection
+        DYNAMIC(""), // use this or don't set a lang for auto detection
 
         // auto detected
         BSH, C, CC, CPP, CS, CSH, CYC, CV, HTM, HTML,
@@ -62,13 +62,19 @@ public class CodeBehavior extends Behavior {
         LLVM, LUA, MATLAB, ML, MUMPS, N, PASCAL, PROTO, R, RD,
         SCALA, SQL, TCL, TEX, VB, VHDL, WIKI, XQ, YAML;
 
+        private final String cssClassName;
+
+        Language() {
+            this.cssClassName = ("lang-" + name().toLowerCase()).intern();
+        }
+
+        Language(String cssClassName) {
+            this.cssClassName = cssClassName;
+        }
+
         @Override
         public String cssClassName() {
-            if (!DYNAMIC.equals(this)) {
-                return "lang-" + name().toLowerCase();
-            }
-
-            return "";
+            return cssClassName;
         }
 
     }
@@ -21,13 +21,19 @@ public enum LabelType implements ICssClassNameProvider, ICssClassNameModifier {
     Info,
     Danger;
 
+    private final String cssClassName;
+
+    LabelType() {
+        this.cssClassName = name().toLowerCase().intern();
+    }
+
     @Override
     public String cssClassName() {
-        return name().toLowerCase();
+        return cssClassName;
     }
 
     public String cssClassName(final String prefix) {
-        return prefix + "-" + name().toLowerCase();
+        return prefix + "-" + cssClassName;
     }
 
     @Override
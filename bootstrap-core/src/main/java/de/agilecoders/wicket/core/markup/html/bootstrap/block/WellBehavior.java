@@ -43,15 +43,15 @@ public class WellBehavior extends Behavior {
         // TODO miha: add documentation
         Default(""), Small("-sm"), Large("-lg");
 
-        private final String cssName;
+        private final String cssClassName;
 
         private Size(String cssName) {
-            this.cssName = cssName;
+            this.cssClassName = cssName.isEmpty() ? "" : ("well" + cssName).intern();
         }
 
         @Override
         public String cssClassName() {
-            return equals(Default) ? "" : "well" + cssName;
+            return cssClassName;
         }
     }
 
@@ -23,14 +23,14 @@ public abstract class ButtonGroup extends Panel {
     public enum Size implements ICssClassNameProvider {
         ExtraSmall("xs"), Small("sm"), Default(""), Large("lg");
 
-        private final String cssName;
+        private final String cssClassName;
 
         Size(String cssName) {
-            this.cssName = cssName;
+            this.cssClassName = ("btn-group-" + cssName).intern();
         }
 
         public String cssClassName() {
-            return "btn-group-" +cssName;
+            return cssClassName;
         }
     }
 
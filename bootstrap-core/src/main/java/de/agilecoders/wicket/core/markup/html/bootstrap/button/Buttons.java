@@ -74,12 +74,22 @@ public final class Buttons {
      * Make a set of buttons appear vertically or horizontally stacked.
      */
     public enum Orientation implements ICssClassNameProvider {
-        Horizontal,
+        Horizontal(""),
         Vertical;
 
+        private final String cssClassName;
+
+        Orientation() {
+            this.cssClassName = ("btn-group-" + name().toLowerCase()).intern();
+        }
+
+        Orientation(String cssClassName) {
+            this.cssClassName = cssClassName;
+        }
+
         @Override
         public String cssClassName() {
-            return equals(Horizontal) ? "" : "btn-group-" + name().toLowerCase();
+            return cssClassName;
         }
     }
 
@@ -25,6 +25,12 @@ public enum Width implements ICssClassNameProvider, ICssClassNameModifier {
     SPAN11,
     SPAN12;
 
+    private final String cssClassName;
+
+    Width() {
+        this.cssClassName = name().toLowerCase().intern();
+    }
+
     /**
      * adds width css class name modifier to given component
      *
@@ -36,7 +42,7 @@ public enum Width implements ICssClassNameProvider, ICssClassNameModifier {
     
     @Override
     public String cssClassName() {
-        return name().toLowerCase();
+        return cssClassName;
     }
 
     @Override
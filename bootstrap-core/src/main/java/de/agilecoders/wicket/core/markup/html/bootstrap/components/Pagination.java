@@ -30,11 +30,21 @@ public abstract class Pagination extends Panel {
     public enum Alignment implements ICssClassNameProvider {
         Centered,
         Right,
-        Left;
+        Left("");
+
+        private final String cssClassName;
+
+        Alignment() {
+            this.cssClassName = ("pagination-" + name().toLowerCase()).intern();
+        }
+
+        Alignment(String cssClassName) {
+            this.cssClassName = cssClassName;
+        }
 
         @Override
         public String cssClassName() {
-            return equals(Left) ? "" : "pagination-" + name().toLowerCase();
+            return cssClassName;
         }
     }
 
@@ -43,14 +53,15 @@ public abstract class Pagination extends Panel {
         Small("sm"),
         Default("");
 
-        private final String size;
-
-        Size(String size) {this.size = size;}
+        private final String cssClassName;
 
+        Size(String size) {
+            this.cssClassName = size.isEmpty() ? "" : ("pagination-" + size).intern();
+        }
 
         @Override
         public String cssClassName() {
-            return equals(Default) ? "" : "pagination-" + size;
+            return cssClassName;
         }
     }
 
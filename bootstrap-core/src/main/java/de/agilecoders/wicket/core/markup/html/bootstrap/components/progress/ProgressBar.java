@@ -24,10 +24,20 @@ public class ProgressBar extends GenericPanel<Integer> {
     public static final int MAX = 100;
 
     public enum Type implements ICssClassNameProvider {
-        DEFAULT, INFO, SUCCESS, WARNING, DANGER;
+        DEFAULT(""), INFO, SUCCESS, WARNING, DANGER;
+
+        private final String cssClassName;
+
+        Type() {
+            this.cssClassName = ("progress-bar-" + name().toLowerCase()).intern();
+        }
+
+        Type(String cssClassName) {
+            this.cssClassName = cssClassName;
+        }
 
         public String cssClassName() {
-            return equals(DEFAULT) ? "" : "progress-bar-" + name().toLowerCase();
+            return cssClassName;
         }
     }
 
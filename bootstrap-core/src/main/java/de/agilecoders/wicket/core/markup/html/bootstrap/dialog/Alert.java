@@ -34,9 +34,15 @@ public class Alert extends GenericPanel<String> {
     public enum Type implements ICssClassNameProvider {
         Danger, Success, Info, Warning;
 
+        private final String cssClassName;
+
+        Type() {
+            this.cssClassName = ("alert-" + name().toLowerCase()).intern();
+        }
+
         @Override
         public String cssClassName() {
-            return "alert-" + name().toLowerCase();
+            return cssClassName;
         }
 
         public static Type from(String level) {
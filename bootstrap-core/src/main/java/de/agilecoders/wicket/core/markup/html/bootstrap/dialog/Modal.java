@@ -54,7 +54,7 @@ public class Modal<T> extends GenericPanel<T> {
          * @param cssClassName the css class name of button type
          */
         Size(final String cssClassName) {
-            this.cssClassName = cssClassName;
+            this.cssClassName = ("modal-" + cssClassName).intern();
         }
 
         /**
@@ -62,7 +62,7 @@ public class Modal<T> extends GenericPanel<T> {
          */
         @Override
         public String cssClassName() {
-            return "modal-" + cssClassName;
+            return cssClassName;
         }
     }
 
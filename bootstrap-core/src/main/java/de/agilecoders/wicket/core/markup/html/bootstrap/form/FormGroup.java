@@ -37,15 +37,15 @@ public class FormGroup extends Border {
     public enum Size implements ICssClassNameProvider {
         Small("sm"), Large("lg");
 
-        private final String cssName;
+        private final String cssClassName;
 
         Size(String cssName) {
-            this.cssName = cssName;
+            this.cssClassName = ("form-group-" + cssName).intern();
         }
 
         @Override
         public String cssClassName() {
-            return "form-group-" + cssName;
+            return cssClassName;
         }
 
     }
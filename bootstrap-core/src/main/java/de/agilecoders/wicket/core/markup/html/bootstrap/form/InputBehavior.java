@@ -18,17 +18,17 @@ public class InputBehavior extends BootstrapBaseBehavior {
      * Holder class for all possible input element height sizes
      */
     public enum Size implements ICssClassNameProvider {
-        Small("sm"), Medium("md"), Large("lg");
+        Small("sm"), Medium(""), Large("lg");
 
-        private final String cssName;
+        private final String cssClassName;
 
         Size(String cssName) {
-            this.cssName = cssName;
+            this.cssClassName = cssName.isEmpty() ? "" : ("input-" + cssName).intern();
         }
 
         @Override
         public String cssClassName() {
-            return this == Medium ? "" : "input-" + cssName;
+            return cssClassName;
         }
 
     }
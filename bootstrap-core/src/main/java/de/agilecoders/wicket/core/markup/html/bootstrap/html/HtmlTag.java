@@ -2,6 +2,7 @@ package de.agilecoders.wicket.core.markup.html.bootstrap.html;
 
 import de.agilecoders.wicket.core.Bootstrap;
 import de.agilecoders.wicket.core.markup.html.references.ModernizrJavaScriptReference;
+import de.agilecoders.wicket.core.request.useragent.UserAgentClassifier;
 import de.agilecoders.wicket.core.util.CssClassNames;
 import org.apache.wicket.markup.ComponentTag;
 import org.apache.wicket.markup.head.HeaderItem;
@@ -9,7 +10,6 @@ import org.apache.wicket.markup.head.IHeaderResponse;
 import org.apache.wicket.markup.head.JavaScriptHeaderItem;
 import org.apache.wicket.markup.html.TransparentWebMarkupContainer;
 import org.apache.wicket.protocol.http.ClientProperties;
-import org.apache.wicket.protocol.http.request.WebClientInfo;
 
 import java.util.HashSet;
 import java.util.Locale;
@@ -50,7 +50,6 @@ import java.util.Set;
 public class HtmlTag extends TransparentWebMarkupContainer {
     private final boolean useModernizr;
     private final Locale locale;
-    private final ClientProperties clientProperties;
 
     /**
      * Construct.
@@ -64,7 +63,6 @@ public class HtmlTag extends TransparentWebMarkupContainer {
 
         this.locale = locale;
         this.useModernizr = useModernizr;
-        this.clientProperties = newWebClientInfo();
     }
 
     /**
@@ -100,10 +98,17 @@ public class HtmlTag extends TransparentWebMarkupContainer {
     }
 
     /**
-     * @return new {@link WebClientInfo} instance
+     * Called on each render of the tag. Override it to create the browser shortcuts from other client
+     * properties, e.g. the ones of a {@link org.apache.wicket.protocol.http.request.WebClientInfo}.
+     *
+     * @return the client properties to create the browser shortcuts from or {@code null} to use the
+     * {@link UserAgentClassifier}. Default: {@code null}
+     * @deprecated the browser shortcuts are created by the {@link UserAgentClassifier}, which shares the
+     * classification of the current request with all components and doesn't need a session.
      */
+    @Deprecated
     protected ClientProperties newWebClientInfo() {
-        return new WebClientInfo(getRequestCycle()).getProperties();
+        return null;
     }
 
     /**
@@ -131,29 +136,43 @@ public class HtmlTag extends TransparentWebMarkupContainer {
             cssClassNames.add("no-js");
         }
 
-        cssClassNames.add(createBrowserShortcut(clientProperties));
+        cssClassNames.add(createBrowserShortcut(internetExplorerVersion()));
         cssClassNames.add("theme-" + Bootstrap.getSettings().getActiveThemeProvider().getActiveTheme().name());
 
         tag.put("class", cssClassNames.asString());
     }
 
+    /**
+     * @return the major version of the Internet Explorer or {@link UserAgentClassifier#NOT_INTERNET_EXPLORER}
+     */
+    private int internetExplorerVersion() {
+        final ClientProperties clientProperties = newWebClientInfo();
+
+        if (clientProperties == null) {
+            return UserAgentClassifier.internetExplorerVersion();
+        }
+        return clientProperties.isBrowserInternetExplorer()
+               ? clientProperties.getBrowserVersionMajor() : UserAgentClassifier.NOT_INTERNET_EXPLORER;
+    }
+
     /**
      * creates a browser shortcuts to identify old IE versions.
      *
-     * @param clientProperties current client properties
+     * @param internetExplorerVersion the major version of the Internet Explorer or
+     *                                {@link UserAgentClassifier#NOT_INTERNET_EXPLORER}
      * @return a set of browser shortcuts
      */
-    private Set<String> createBrowserShortcut(final ClientProperties clientProperties) {
+    private Set<String> createBrowserShortcut(final int internetExplorerVersion) {
         Set<String> shortcut = new HashSet<>();
 
-        if (clientProperties.isBrowserInternetExplorer()) {
-            if (clientProperties.getBrowserVersionMajor() < 9) {
+        if (internetExplorerVersion != UserAgentClassifier.NOT_INTERNET_EXPLORER) {
+            if (internetExplorerVersion < 9) {
                 shortcut.add("lt-ie9");
 
-                if (clientProperties.getBrowserVersionMajor() < 8) {
+                if (internetExplorerVersion < 8) {
                     shortcut.add("lt-ie8");
 
-                    if (clientProperties.getBrowserVersionMajor() < 7) {
+                    if (internetExplorerVersion < 7) {
                         shortcut.add("lt-ie7");
                     }
                 }
@@ -210,12 +210,16 @@ public class GlyphIconType extends IconType {
     public static final GlyphIconType zoomout = new GlyphIconType("zoom-out");
     
 
+    private final String glyphIconClassName;
+
     private GlyphIconType(String cssClassName) {
 	    super(cssClassName);
+
+        this.glyphIconClassName = ("glyphicon glyphicon-" + getCssClassName()).intern();
     }
 
 	@Override
     public String cssClassName() {
-        return "glyphicon glyphicon-" + getCssClassName();
+        return glyphIconClassName;
     }
 }
@@ -19,11 +19,21 @@ public class ImageBehavior extends BootstrapBaseBehavior {
      * Holder class for all possible border types
      */
     public enum Type implements ICssClassNameProvider {
-        Rounded, Circle, Polaroid, Default;
+        Rounded, Circle, Polaroid, Default("");
+
+        private final String cssClassName;
+
+        Type() {
+            this.cssClassName = ("img-" + name().toLowerCase()).intern();
+        }
+
+        Type(String cssClassName) {
+            this.cssClassName = cssClassName;
+        }
 
         @Override
         public String cssClassName() {
-            return equals(Default) ? "" : "img-" + name().toLowerCase();
+            return cssClassName;
         }
 
     }
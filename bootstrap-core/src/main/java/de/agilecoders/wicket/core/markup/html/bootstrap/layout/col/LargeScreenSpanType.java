@@ -15,7 +15,7 @@ public enum LargeScreenSpanType implements SpanType {
      * Constructor.
      */
     private LargeScreenSpanType() {
-        this.cssClassName = "col-lg-" + name().toLowerCase().replace("span", "");
+        this.cssClassName = ("col-lg-" + name().toLowerCase().replace("span", "")).intern();
     }
 
     @Override
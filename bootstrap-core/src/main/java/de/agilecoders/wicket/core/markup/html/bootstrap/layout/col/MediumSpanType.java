@@ -15,7 +15,7 @@ public enum MediumSpanType implements SpanType {
      * Constructor.
      */
     private MediumSpanType() {
-        this.cssClassName = "col-md-" + name().toLowerCase().replace("span", "");
+        this.cssClassName = ("col-md-" + name().toLowerCase().replace("span", "")).intern();
     }
 
     @Override
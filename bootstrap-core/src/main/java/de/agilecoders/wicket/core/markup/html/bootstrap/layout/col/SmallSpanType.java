@@ -15,7 +15,7 @@ public enum SmallSpanType implements SpanType {
      * Constructor.
      */
     private SmallSpanType() {
-        this.cssClassName = "col-sm-" + name().toLowerCase().replace("span", "");
+        this.cssClassName = ("col-sm-" + name().toLowerCase().replace("span", "")).intern();
     }
 
     @Override
@@ -16,12 +16,14 @@ public enum ExtraLargeOffsetType implements OffsetType {
      * Constructor.
      */
     private ExtraLargeOffsetType() {
-        this.cssClassName = name().toLowerCase();
+        final String size = name().toLowerCase().replace("offset", "");
+
+        this.cssClassName = "0".equals(size) ? "" : ("col-lg-offset-" + size).intern();
     }
 
     @Override
     public String cssClassName() {
-        return equals(OFFSET0) ? "" : "col-lg-offset-" + cssClassName.replace("offset", "");
+        return cssClassName;
     }
 
 }
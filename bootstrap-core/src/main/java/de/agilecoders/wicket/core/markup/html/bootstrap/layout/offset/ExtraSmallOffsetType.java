@@ -16,12 +16,14 @@ public enum ExtraSmallOffsetType implements OffsetType {
      * Constructor.
      */
     private ExtraSmallOffsetType() {
-        this.cssClassName = name().toLowerCase();
+        final String size = name().toLowerCase().replace("offset", "");
+
+        this.cssClassName = "0".equals(size) ? "" : ("col-xs-offset-" + size).intern();
     }
 
     @Override
     public String cssClassName() {
-        return equals(OFFSET0) ? "" : "col-xs-offset-" + cssClassName.replace("offset", "");
+        return cssClassName;
     }
 
 }
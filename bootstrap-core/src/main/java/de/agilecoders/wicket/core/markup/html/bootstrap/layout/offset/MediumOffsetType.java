@@ -16,12 +16,14 @@ public enum MediumOffsetType implements OffsetType {
      * Constructor.
      */
     private MediumOffsetType() {
-        this.cssClassName = name().toLowerCase();
+        final String size = name().toLowerCase().replace("offset", "");
+
+        this.cssClassName = "0".equals(size) ? "" : ("col-md-offset-" + size).intern();
     }
 
     @Override
     public String cssClassName() {
-        return equals(OFFSET0) ? "" : "col-md-offset-" + cssClassName.replace("offset", "");
+        return cssClassName;
     }
 
 }
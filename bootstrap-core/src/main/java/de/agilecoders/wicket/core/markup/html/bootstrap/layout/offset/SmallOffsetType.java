@@ -16,12 +16,14 @@ public enum SmallOffsetType implements OffsetType {
      * Constructor.
      */
     private SmallOffsetType() {
-        this.cssClassName = name().toLowerCase();
+        final String size = name().toLowerCase().replace("offset", "");
+
+        this.cssClassName = "0".equals(size) ? "" : ("col-sm-offset-" + size).intern();
     }
 
     @Override
     public String cssClassName() {
-        return equals(OFFSET0) ? "" : "col-sm-offset-" + cssClassName.replace("offset", "");
+        return cssClassName;
     }
 
 }
@@ -16,12 +16,14 @@ public enum ExtraLargePullType implements PullType {
      * Constructor.
      */
     private ExtraLargePullType() {
-        this.cssClassName = name().toLowerCase();
+        final String size = name().toLowerCase().replace("pull", "");
+
+        this.cssClassName = "0".equals(size) ? "" : ("col-lg-pull-" + size).intern();
     }
 
     @Override
     public String cssClassName() {
-        return equals(PULL0) ? "" : "col-lg-pull-" + cssClassName.replace("pull", "");
+        return cssClassName;
     }
 
 }
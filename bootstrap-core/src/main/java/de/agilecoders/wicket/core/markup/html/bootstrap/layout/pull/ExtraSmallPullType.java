@@ -16,12 +16,14 @@ public enum ExtraSmallPullType implements PullType {
      * Constructor.
      */
     private ExtraSmallPullType() {
-        this.cssClassName = name().toLowerCase();
+        final String size = name().toLowerCase().replace("pull", "");
+
+        this.cssClassName = "0".equals(size) ? "" : ("col-xs-pull-" + size).intern();
     }
 
     @Override
     public String cssClassName() {
-        return equals(PULL0) ? "" : "col-xs-pull-" + cssClassName.replace("pull", "");
+        return cssClassName;
     }
 
 }
@@ -16,12 +16,14 @@ public enum MediumPullType implements PullType {
      * Constructor.
      */
     private MediumPullType() {
-        this.cssClassName = name().toLowerCase();
+        final String size = name().toLowerCase().replace("pull", "");
+
+        this.cssClassName = "0".equals(size) ? "" : ("col-md-pull-" + size).intern();
     }
 
     @Override
     public String cssClassName() {
-        return equals(PULL0) ? "" : "col-md-pull-" + cssClassName.replace("pull", "");
+        return cssClassName;
     }
 
 }
@@ -16,12 +16,14 @@ public enum SmallPullType implements PullType {
      * Constructor.
      */
     private SmallPullType() {
-        this.cssClassName = name().toLowerCase();
+        final String size = name().toLowerCase().replace("pull", "");
+
+        this.cssClassName = "0".equals(size) ? "" : ("col-sm-pull-" + size).intern();
     }
 
     @Override
     public String cssClassName() {
-        return equals(PULL0) ? "" : "col-sm-pull-" + cssClassName.replace("pull", "");
+        return cssClassName;
     }
 
 }
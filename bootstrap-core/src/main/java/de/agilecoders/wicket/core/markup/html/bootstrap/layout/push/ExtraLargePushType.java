@@ -16,12 +16,14 @@ public enum ExtraLargePushType implements PushType {
      * Constructor.
      */
     private ExtraLargePushType() {
-        this.cssClassName = name().toLowerCase();
+        final String size = name().toLowerCase().replace("push", "");
+
+        this.cssClassName = "0".equals(size) ? "" : ("col-lg-push-" + size).intern();
     }
 
     @Override
     public String cssClassName() {
-        return equals(PUSH0) ? "" : "col-lg-push-" + cssClassName.replace("push", "");
+        return cssClassName;
     }
 
 }
@@ -16,12 +16,14 @@ public enum ExtraSmallPushType implements PushType {
      * Constructor.
      */
     private ExtraSmallPushType() {
-        this.cssClassName = name().toLowerCase();
+        final String size = name().toLowerCase().replace("push", "");
+
+        this.cssClassName = "0".equals(size) ? "" : ("col-xs-push-" + size).intern();
     }
 
     @Override
     public String cssClassName() {
-        return equals(PUSH0) ? "" : "col-xs-push-" + cssClassName.replace("push", "");
+        return cssClassName;
     }
 
 }
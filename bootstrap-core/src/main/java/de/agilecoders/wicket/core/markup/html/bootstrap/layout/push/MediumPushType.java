@@ -16,12 +16,14 @@ public enum MediumPushType implements PushType {
      * Constructor.
      */
     private MediumPushType() {
-        this.cssClassName = name().toLowerCase();
+        final String size = name().toLowerCase().replace("push", "");
+
+        this.cssClassName = "0".equals(size) ? "" : ("col-md-push-" + size).intern();
     }
 
     @Override
     public String cssClassName() {
-        return equals(PUSH0) ? "" : "col-md-push-" + cssClassName.replace("push", "");
+        return cssClassName;
     }
 
 }
@@ -16,12 +16,14 @@ public enum SmallPushType implements PushType {
      * Constructor.
      */
     private SmallPushType() {
-        this.cssClassName = name().toLowerCase();
+        final String size = name().toLowerCase().replace("push", "");
+
+        this.cssClassName = "0".equals(size) ? "" : ("col-sm-push-" + size).intern();
     }
 
     @Override
     public String cssClassName() {
-        return equals(PUSH0) ? "" : "col-sm-push-" + cssClassName.replace("push", "");
+        return cssClassName;
     }
 
 }
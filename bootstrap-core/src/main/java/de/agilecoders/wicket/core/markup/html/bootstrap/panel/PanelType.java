@@ -20,9 +20,15 @@ public enum PanelType implements ICssClassNameProvider, ICssClassNameModifier {
 	Warning,
 	Danger;
 
+    private final String cssClassName;
+
+    PanelType() {
+        this.cssClassName = ("panel-" + name().toLowerCase()).intern();
+    }
+
     @Override
     public String cssClassName() {
-        return "panel-" + name().toLowerCase();
+        return cssClassName;
     }
 
     @Override
@@ -24,11 +24,21 @@ public class TableBehavior extends BootstrapBaseBehavior {
      * all possible table styles.
      */
     private static enum Type implements ICssClassNameProvider {
-        Basic, Bordered, Striped, Condensed, Hover;
+        Basic("table"), Bordered, Striped, Condensed, Hover;
+
+        private final String cssClassName;
+
+        Type() {
+            this.cssClassName = ("table-" + name().toLowerCase()).intern();
+        }
+
+        Type(String cssClassName) {
+            this.cssClassName = cssClassName;
+        }
 
         @Override
         public String cssClassName() {
-            return equals(Basic) ? "table" : "table-" + name().toLowerCase();
+            return cssClassName;
         }
 
     }
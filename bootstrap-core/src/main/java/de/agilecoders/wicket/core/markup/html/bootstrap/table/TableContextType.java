@@ -21,7 +21,13 @@ public enum TableContextType implements ICssClassNameProvider, ICssClassNameModi
 	Success,
 	Warning,
 	Danger;
-	
+
+	private final String cssClassName;
+
+	TableContextType() {
+		this.cssClassName = name().toLowerCase().intern();
+	}
+
 	@Override
 	public AttributeModifier newCssClassNameModifier() {
 		return new CssClassNameAppender(cssClassName());
@@ -29,7 +35,7 @@ public enum TableContextType implements ICssClassNameProvider, ICssClassNameModi
 
 	@Override
 	public String cssClassName() {
-		return name().toLowerCase();
+		return cssClassName;
 	}
 
 }
@@ -3,7 +3,6 @@ package de.agilecoders.wicket.core.markup.html.references;
 import org.apache.wicket.markup.head.HeaderItem;
 import org.apache.wicket.markup.head.JavaScriptContentHeaderItem;
 import org.apache.wicket.markup.head.JavaScriptHeaderItem;
-import org.apache.wicket.resource.JQueryPluginResourceReference;
 
 import java.util.Arrays;
 import java.util.List;
@@ -40,6 +39,6 @@ public class BootlintHeaderItem extends JavaScriptContentHeaderItem {
     @Override
     public List<HeaderItem> getDependencies() {
 
-        return Arrays.<HeaderItem>asList(JavaScriptHeaderItem.forReference(new JQueryPluginResourceReference(BootlintHeaderItem.class, "js/bootlint.js")));
+        return Arrays.<HeaderItem>asList(JavaScriptHeaderItem.forReference(BootlintJavaScriptReference.instance()));
     }
 }
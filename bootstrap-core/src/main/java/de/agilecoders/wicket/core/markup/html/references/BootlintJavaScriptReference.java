@@ -0,0 +1,47 @@
+package de.agilecoders.wicket.core.markup.html.references;
+
+import de.agilecoders.wicket.core.request.resource.PrecompressedJavaScriptResourceReference;
+import de.agilecoders.wicket.core.util.Dependencies;
+import org.apache.wicket.Application;
+import org.apache.wicket.markup.head.HeaderItem;
+import org.apache.wicket.markup.head.JavaScriptHeaderItem;
+
+import java.util.List;
+
+/**
+ * A resource reference for <a href="https://github.com/twbs/bootlint">bootlint.js</a>, which
+ * writes its pre-compressed sibling {@code bootlint.js.gz} if there is one.
+ *
+ * @see BootlintHeaderItem
+ */
+public class BootlintJavaScriptReference extends PrecompressedJavaScriptResourceReference {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Singleton instance of this reference
+     */
+    private static final class Holder {
+        private static final BootlintJavaScriptReference INSTANCE = new BootlintJavaScriptReference();
+    }
+
+    /**
+     * @return the single instance of the resource reference
+     */
+    public static BootlintJavaScriptReference instance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Private constructor.
+     */
+    private BootlintJavaScriptReference() {
+        super(BootlintJavaScriptReference.class, "js/bootlint.js");
+    }
+
+    @Override
+    public List<HeaderItem> getDependencies() {
+        return Dependencies.combine(
+                super.getDependencies(),
+                JavaScriptHeaderItem.forReference(Application.get().getJavaScriptLibrarySettings().getJQueryReference()));
+    }
+}
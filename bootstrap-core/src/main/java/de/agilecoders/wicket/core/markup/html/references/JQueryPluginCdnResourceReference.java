@@ -0,0 +1,43 @@
+package de.agilecoders.wicket.core.markup.html.references;
+
+import de.agilecoders.wicket.core.request.cdn.CdnResourceReference;
+import de.agilecoders.wicket.core.util.Dependencies;
+import org.apache.wicket.Application;
+import org.apache.wicket.markup.head.HeaderItem;
+import org.apache.wicket.markup.head.JavaScriptHeaderItem;
+import org.apache.wicket.request.Url;
+import org.apache.wicket.request.resource.ResourceReference;
+import org.apache.wicket.resource.JQueryResourceReference;
+
+import java.util.List;
+
+/**
+ * A specialization of CdnResourceReference that depends on JQuery
+ *
+ * @see JQueryPluginUrlResourceReference
+ */
+public class JQueryPluginCdnResourceReference extends CdnResourceReference {
+
+    /**
+     * Constructor.
+     *
+     * @param url      the url of the resource at the CDN network
+     * @param fallback the local resource or {@code null} if there is none
+     */
+    public JQueryPluginCdnResourceReference(Url url, ResourceReference fallback) {
+        super(url, fallback);
+    }
+
+    @Override
+    protected List<HeaderItem> getCdnDependencies() {
+        final ResourceReference backingLibraryReference;
+        if (Application.exists()) {
+            backingLibraryReference = Application.get()
+                    .getJavaScriptLibrarySettings()
+                    .getJQueryReference();
+        } else {
+            backingLibraryReference = JQueryResourceReference.get();
+        }
+        return Dependencies.combine(super.getCdnDependencies(), JavaScriptHeaderItem.forReference(backingLibraryReference));
+    }
+}
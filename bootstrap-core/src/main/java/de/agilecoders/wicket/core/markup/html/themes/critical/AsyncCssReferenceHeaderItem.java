@@ -0,0 +1,59 @@
+package de.agilecoders.wicket.core.markup.html.themes.critical;
+
+import org.apache.wicket.markup.head.CssReferenceHeaderItem;
+import org.apache.wicket.request.Response;
+import org.apache.wicket.request.cycle.RequestCycle;
+import org.apache.wicket.util.string.Strings;
+
+/**
+ * #### Description
+ *
+ * Renders a css reference that doesn't block rendering of the page: the stylesheet is preloaded and applied
+ * as soon as it was loaded. Browsers without support for preload apply the stylesheet immediately, browsers
+ * without javascript use the {@code noscript} fallback.
+ *
+ * ```html
+ * <link rel="preload" as="style" href="..." id="wb-theme" onload="this.onload=null;this.rel='stylesheet'" />
+ * <noscript><link rel="stylesheet" type="text/css" href="..." /></noscript>
+ * ```
+ *
+ * The item has the same render tokens as the css reference it replaces.
+ *
+ * @see CriticalCss
+ */
+public class AsyncCssReferenceHeaderItem extends CssReferenceHeaderItem {
+
+    /**
+     * Construct.
+     *
+     * @param item the css reference to load asynchronously
+     */
+    public AsyncCssReferenceHeaderItem(final CssReferenceHeaderItem item) {
+        super(item.getReference(), item.getPageParameters(), item.getMedia(), item.getCondition());
+
+        setId(item.getId());
+    }
+
+    @Override
+    public void render(final Response response) {
+        if (!Strings.isEmpty(getCondition())) {
+            super.render(response);
+            return;
+        }
+
+        final String url = Strings.escapeMarkup(RequestCycle.get().urlFor(getReference(), getPageParameters())).toString();
+        final String id = Strings.isEmpty(getId()) ? "wb-css-" + Integer.toHexString(url.hashCode()) : getId();
+        final String media = Strings.isEmpty(getMedia()) ? "" : " media=\"" + Strings.escapeMarkup(getMedia()) + "\"";
+
+        response.write("<link rel=\"preload\" as=\"style\" href=\"" + url + "\" id=\"" + id + "\"" + media
+                       + " onload=\"this.onload=null;this.rel='stylesheet'\" />\n");
+        response.write("<noscript><link rel=\"stylesheet\" type=\"text/css\" href=\"" + url + "\"" + media + " /></noscript>\n");
+        response.write("<script type=\"text/javascript\">(function(l){try{if(l.relList.supports('preload'))return}catch(e){}"
+                       + "l.rel='stylesheet'})(document.getElementById('" + id + "'));</script>\n");
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncCssReferenceHeaderItem(" + getReference() + ")";
+    }
+}
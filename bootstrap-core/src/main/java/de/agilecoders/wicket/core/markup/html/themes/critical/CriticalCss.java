@@ -0,0 +1,288 @@
+package de.agilecoders.wicket.core.markup.html.themes.critical;
+
+import de.agilecoders.wicket.core.settings.ITheme;
+import org.apache.wicket.Application;
+import org.apache.wicket.MetaDataKey;
+import org.apache.wicket.core.request.handler.IPageClassRequestHandler;
+import org.apache.wicket.markup.head.CssHeaderItem;
+import org.apache.wicket.markup.head.CssReferenceHeaderItem;
+import org.apache.wicket.markup.head.HeaderItem;
+import org.apache.wicket.markup.head.IHeaderResponse;
+import org.apache.wicket.request.IRequestHandler;
+import org.apache.wicket.request.cycle.RequestCycle;
+import org.apache.wicket.request.http.WebRequest;
+import org.apache.wicket.util.io.IOUtils;
+import org.apache.wicket.util.lang.Args;
+import org.apache.wicket.util.string.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * #### Description
+ *
+ * Holds the critical css of each theme and page class, i.e. the rules of the theme's stylesheets that are
+ * needed to render the visible part of the page, and renders it inline. If there is critical css for the
+ * active theme and the current page, the stylesheets of the theme are loaded asynchronously by
+ * {@link AsyncCssReferenceHeaderItem}s; otherwise they are rendered as they are.
+ *
+ * The critical css is put by the {@code CriticalCssGenerator} of the wicket-bootstrap-build-tools module at build
+ * time or read from the classpath, e.g. from
+ * {@code META-INF/wicket-bootstrap/critical-css/flatly/com.example.HomePage.css}. It consists of one section per
+ * css reference of the theme, each starting with a comment like <code>/&#42;wb:0&#42;/</code>. Relative urls in a section
+ * are resolved against the url of its css reference while rendering.
+ *
+ * @see ITheme#renderHead(IHeaderResponse)
+ */
+public final class CriticalCss {
+    private static final Logger LOG = LoggerFactory.getLogger(CriticalCss.class);
+
+    /**
+     * the classpath location of critical css files
+     */
+    public static final String LOCATION = "META-INF/wicket-bootstrap/critical-css/";
+
+    /**
+     * the markup id of the inline critical css
+     */
+    public static final String MARKUP_ID = "wb-critical-css";
+
+    private static final MetaDataKey<CriticalCss> KEY = new MetaDataKey<CriticalCss>() {
+        private static final long serialVersionUID = 1L;
+    };
+
+    private static final Pattern SECTION = Pattern.compile("/\\*wb:(\\d+)\\*/");
+    private static final Pattern URL = Pattern.compile("url\\(\\s*(['\"]?)([^'\")]+)\\1\\s*\\)");
+
+    /**
+     * marks a theme and page class without critical css
+     */
+    private static final Entry MISSING = new Entry("");
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ClassLoader classLoader;
+    private final boolean cacheMisses;
+
+    private CriticalCss(final ClassLoader classLoader, final boolean cacheMisses) {
+        this.classLoader = classLoader;
+        this.cacheMisses = cacheMisses;
+    }
+
+    /**
+     * @return the critical css of the current application
+     */
+    public static CriticalCss get() {
+        return get(Application.get());
+    }
+
+    /**
+     * @param application the application
+     * @return the critical css of the given application
+     */
+    public static CriticalCss get(final Application application) {
+        CriticalCss criticalCss = application.getMetaData(KEY);
+
+        if (criticalCss == null) {
+            synchronized (KEY) {
+                criticalCss = application.getMetaData(KEY);
+
+                if (criticalCss == null) {
+                    final ClassLoader classLoader = application.getApplicationSettings().getClassResolver().getClassLoader();
+
+                    criticalCss = new CriticalCss(classLoader, !application.usesDevelopmentConfig());
+                    application.setMetaData(KEY, criticalCss);
+                }
+            }
+        }
+        return criticalCss;
+    }
+
+    /**
+     * @param themeName the name of the theme
+     * @param pageClass the page class
+     * @param css       the critical css, in sections per css reference of the theme
+     * @return this instance for chaining
+     */
+    public CriticalCss put(final String themeName, final Class<?> pageClass, final String css) {
+        entries.put(key(themeName, pageClass), Strings.isEmpty(css) ? MISSING : new Entry(css));
+        return this;
+    }
+
+    /**
+     * @param themeName the name of the theme
+     * @param pageClass the page class
+     * @return the critical css or {@code null} if there is none
+     */
+    public String find(final String themeName, final Class<?> pageClass) {
+        final Entry entry = entry(themeName, pageClass);
+
+        return entry != MISSING ? entry.css : null;
+    }
+
+    private Entry entry(final String themeName, final Class<?> pageClass) {
+        final String key = key(themeName, pageClass);
+        Entry entry = entries.get(key);
+
+        if (entry == null) {
+            entry = load(key);
+
+            if (cacheMisses || entry != MISSING) {
+                entries.put(key, entry);
+            }
+        }
+        return entry;
+    }
+
+    private Entry load(final String key) {
+        final InputStream inputStream = classLoader.getResourceAsStream(LOCATION + key + ".css");
+
+        if (inputStream != null) {
+            try {
+                final String css = IOUtils.toString(inputStream, "UTF-8");
+
+                return Strings.isEmpty(css) ? MISSING : new Entry(css);
+            } catch (IOException e) {
+                LOG.warn("unable to read critical css: {}", key, e);
+            } finally {
+                IOUtils.closeQuietly(inputStream);
+            }
+        }
+        return MISSING;
+    }
+
+    /**
+     * renders the given dependencies of a theme. If there is critical css for the theme and the current page,
+     * it is rendered inline and the css references are loaded asynchronously. Ajax requests render the
+     * dependencies as they are.
+     *
+     * @param response     the header response
+     * @param theme        the active theme
+     * @param dependencies the header items of the theme
+     */
+    public static void renderHead(final IHeaderResponse response, final ITheme theme, final List<HeaderItem> dependencies) {
+        final Class<?> pageClass = currentPageClass();
+        final Entry entry = pageClass != null ? get().entry(theme.name(), pageClass) : MISSING;
+
+        if (entry == MISSING) {
+            for (HeaderItem item : dependencies) {
+                response.render(item);
+            }
+            return;
+        }
+
+        final List<String> urls = new ArrayList<>();
+        for (HeaderItem item : dependencies) {
+            if (item instanceof CssReferenceHeaderItem) {
+                final CssReferenceHeaderItem cssItem = (CssReferenceHeaderItem) item;
+
+                urls.add(RequestCycle.get().urlFor(cssItem.getReference(), cssItem.getPageParameters()).toString());
+            }
+        }
+
+        response.render(CssHeaderItem.forCSS(entry.resolve(urls), MARKUP_ID));
+
+        for (HeaderItem item : dependencies) {
+            response.render(item instanceof CssReferenceHeaderItem ? new AsyncCssReferenceHeaderItem((CssReferenceHeaderItem) item) : item);
+        }
+    }
+
+    private static Class<?> currentPageClass() {
+        final RequestCycle cycle = RequestCycle.get();
+
+        if (cycle == null || !Application.exists()
+            || (cycle.getRequest() instanceof WebRequest && ((WebRequest) cycle.getRequest()).isAjax())) {
+            return null;
+        }
+
+        final IRequestHandler handler = cycle.getActiveRequestHandler();
+        return handler instanceof IPageClassRequestHandler ? ((IPageClassRequestHandler) handler).getPageClass() : null;
+    }
+
+    private static String key(final String themeName, final Class<?> pageClass) {
+        return Args.notEmpty(themeName, "themeName") + "/" + Args.notNull(pageClass, "pageClass").getName();
+    }
+
+    /**
+     * resolves the relative urls of the given css against the given base url
+     *
+     * @param css     the css
+     * @param baseUrl the url of the stylesheet the css was extracted from
+     * @return css with resolvable urls
+     */
+    static String resolveUrls(final String css, final String baseUrl) {
+        final String base = baseUrl.substring(0, baseUrl.lastIndexOf('/') + 1);
+
+        if (base.isEmpty()) {
+            return css;
+        }
+
+        final Matcher matcher = URL.matcher(css);
+        final StringBuffer result = new StringBuffer(css.length() + 64);
+
+        while (matcher.find()) {
+            final String url = matcher.group(2).trim();
+            final boolean relative = !url.startsWith("/") && !url.startsWith("#") && !url.startsWith("data:")
+                                     && !url.matches("^[a-zA-Z][a-zA-Z0-9+.-]*:.*");
+
+            final String replacement = relative ? "url(" + matcher.group(1) + base + url + matcher.group(1) + ")" : matcher.group();
+            matcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
+        }
+        matcher.appendTail(result);
+
+        return result.toString();
+    }
+
+    /**
+     * the critical css of a theme and page
+     */
+    private static final class Entry {
+        private final String css;
+
+        /**
+         * the css with resolved urls, by the urls of the stylesheets
+         */
+        private final ConcurrentMap<List<String>, String> resolved = new ConcurrentHashMap<>();
+
+        private Entry(final String css) {
+            this.css = css;
+        }
+
+        private String resolve(final List<String> urls) {
+            String result = resolved.get(urls);
+
+            if (result == null) {
+                final StringBuilder builder = new StringBuilder(css.length());
+                final Matcher section = SECTION.matcher(css);
+                int start = 0;
+                int index = -1;
+
+                while (section.find()) {
+                    builder.append(resolve(css.substring(start, section.start()), index, urls));
+                    index = Integer.parseInt(section.group(1));
+                    start = section.end();
+                }
+                builder.append(resolve(css.substring(start), index, urls));
+
+                result = builder.toString();
+
+                // the urls differ by the depth of the page url only
+                if (resolved.size() < 16) {
+                    resolved.put(urls, result);
+                }
+            }
+            return result;
+        }
+
+        private static String resolve(final String css, final int index, final List<String> urls) {
+            return index >= 0 && index < urls.size() ? resolveUrls(css, urls.get(index)) : css;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package de.agilecoders.wicket.core.markup.html.themes.pruned;
+
+import de.agilecoders.wicket.core.Bootstrap;
+import de.agilecoders.wicket.core.request.resource.PrecompressedCssResourceReference;
+import org.apache.wicket.Application;
+import org.apache.wicket.markup.head.CssHeaderItem;
+import org.apache.wicket.markup.head.CssReferenceHeaderItem;
+import org.apache.wicket.markup.head.HeaderItem;
+import org.apache.wicket.request.resource.CssPackageResource;
+import org.apache.wicket.request.resource.CssResourceReference;
+import org.apache.wicket.request.resource.ResourceReference;
+import org.apache.wicket.util.lang.Packages;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * #### Description
+ *
+ * Replaces the css references of a theme by their pruned variation, if
+ * {@link de.agilecoders.wicket.core.settings.IBootstrapSettings#usePrunedCss()} is active. The pruned stylesheet
+ * is a sibling of the original one, e.g. {@code css/bootstrap.flatly_pruned.css} next to
+ * {@code css/bootstrap.flatly.css}, written by the {@code PrunedCssGenerator} of the wicket-bootstrap-build-tools
+ * module at build time. Because it's in the same directory, relative urls of fonts and images stay valid; if there is
+ * no pruned sibling, the resource locator falls back to the original stylesheet.
+ *
+ * Only package resources can be pruned; other references, e.g. webjars or cdn urls, are kept as they are.
+ */
+public final class PrunedCss {
+
+    /**
+     * the resource variation of pruned stylesheets
+     */
+    public static final String VARIATION = "pruned";
+
+    /**
+     * whether the references of a class create plain (or pre-compressed) css package resources
+     */
+    private static final ClassValue<Boolean> PACKAGE_RESOURCE_REFERENCES = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+            try {
+                final Class<?> declaringClass = type.getMethod("getResource").getDeclaringClass();
+
+                return declaringClass == CssResourceReference.class || declaringClass == PrecompressedCssResourceReference.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
+    private PrunedCss() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @param dependencies the header items of a theme
+     * @return the header items with pruned stylesheets, if they should be used
+     */
+    public static List<HeaderItem> dependencies(final List<HeaderItem> dependencies) {
+        if (!Application.exists() || !Bootstrap.getSettings().usePrunedCss()) {
+            return dependencies;
+        }
+
+        final List<HeaderItem> result = new ArrayList<>(dependencies.size());
+        for (HeaderItem item : dependencies) {
+            result.add(item instanceof CssReferenceHeaderItem ? pruned((CssReferenceHeaderItem) item) : item);
+        }
+        return result;
+    }
+
+    /**
+     * @param item a css reference
+     * @return the css reference to its pruned variation, if it can be pruned
+     */
+    static HeaderItem pruned(final CssReferenceHeaderItem item) {
+        final ResourceReference reference = item.getReference();
+
+        if (!canBePruned(reference)) {
+            return item;
+        }
+
+        final ResourceReference pruned = new PrunedCssResourceReference((CssResourceReference) reference);
+
+        return CssHeaderItem.forReference(pruned, item.getPageParameters(), item.getMedia(), item.getCondition()).setId(item.getId());
+    }
+
+    /**
+     * @param reference a resource reference
+     * @return true, if it's a package css reference without variation, which resource isn't customized (e.g. by webjars)
+     */
+    public static boolean canBePruned(final ResourceReference reference) {
+        return reference instanceof CssResourceReference && reference.getVariation() == null
+               && PACKAGE_RESOURCE_REFERENCES.get(reference.getClass());
+    }
+
+    /**
+     * @param reference a package css reference
+     * @return the classpath path of the original stylesheet
+     */
+    public static String path(final ResourceReference reference) {
+        return Packages.absolutePath(reference.getScope(), reference.getName());
+    }
+
+    /**
+     * @param reference a package css reference
+     * @return the classpath path of the pruned stylesheet
+     */
+    public static String prunedPath(final ResourceReference reference) {
+        final String path = path(reference);
+        final int dot = path.lastIndexOf('.');
+
+        return dot > path.lastIndexOf('/') ? path.substring(0, dot) + "_" + VARIATION + path.substring(dot) : path + "_" + VARIATION;
+    }
+
+    /**
+     * the pruned variation of a css reference, with the dependencies of the original one
+     */
+    private static final class PrunedCssResourceReference extends CssResourceReference {
+        private static final long serialVersionUID = 1L;
+
+        private final CssResourceReference original;
+
+        private PrunedCssResourceReference(final CssResourceReference original) {
+            super(original.getScope(), original.getName(), original.getLocale(), original.getStyle(), VARIATION);
+
+            this.original = original;
+        }
+
+        @Override
+        public CssPackageResource getResource() {
+            return original instanceof PrecompressedCssResourceReference
+                   ? new PrecompressedCssResourceReference(getKey()).getResource()
+                   : super.getResource();
+        }
+
+        @Override
+        public List<HeaderItem> getDependencies() {
+            return original.getDependencies();
+        }
+    }
+}
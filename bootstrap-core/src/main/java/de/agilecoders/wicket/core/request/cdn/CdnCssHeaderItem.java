@@ -0,0 +1,112 @@
+package de.agilecoders.wicket.core.request.cdn;
+
+import org.apache.wicket.core.util.string.JavaScriptUtils;
+import org.apache.wicket.markup.head.CssReferenceHeaderItem;
+import org.apache.wicket.markup.head.HeaderItem;
+import org.apache.wicket.request.Response;
+import org.apache.wicket.request.cycle.RequestCycle;
+import org.apache.wicket.request.handler.resource.ResourceReferenceRequestHandler;
+import org.apache.wicket.util.lang.Args;
+import org.apache.wicket.util.string.Strings;
+import org.apache.wicket.util.time.Duration;
+
+import java.util.List;
+
+/**
+ * #### Description
+ *
+ * Renders the stylesheet of a {@link CdnResourceReference} and a loader, that inserts the local stylesheet
+ * after it if the CDN stylesheet fails, is rejected or isn't loaded within the timeout. Stylesheets with
+ * a condition are rendered without failover.
+ *
+ * @see CdnFailover#forCss(CssReferenceHeaderItem)
+ */
+public class CdnCssHeaderItem extends CssReferenceHeaderItem {
+
+    private final Duration timeout;
+
+    /**
+     * Construct.
+     *
+     * @param reference the CDN reference
+     * @param media     the media type or {@code null}
+     * @param condition the condition or {@code null}
+     * @param timeout   the time to wait for the CDN stylesheet
+     */
+    public CdnCssHeaderItem(final CdnResourceReference reference, final String media, final String condition,
+                            final Duration timeout) {
+        super(reference, null, media, condition);
+
+        this.timeout = Args.notNull(timeout, "timeout");
+    }
+
+    @Override
+    public void render(final Response response) {
+        final CdnResourceReference reference = (CdnResourceReference) getReference();
+
+        if (!Strings.isEmpty(getCondition()) || reference.getFallback() == null) {
+            super.render(response);
+            return;
+        }
+
+        final CharSequence url = RequestCycle.get().urlFor(new ResourceReferenceRequestHandler(reference, getPageParameters()));
+        final String id = CdnFailover.id(getId(), url);
+
+        response.write("<link rel=\"stylesheet\" type=\"text/css\" href=\"");
+        response.write(Strings.escapeMarkup(url));
+        response.write("\" id=\"");
+        response.write(Strings.escapeMarkup(id));
+        response.write("\"");
+
+        if (!Strings.isEmpty(getMedia())) {
+            response.write(" media=\"");
+            response.write(Strings.escapeMarkup(getMedia()));
+            response.write("\"");
+        }
+
+        response.write(CdnFailover.integrityAttributes(reference));
+        response.write(" onload=\"this.wbLoaded=true\" onerror=\"this.wbFailed=true\" />\n");
+
+        JavaScriptUtils.writeJavaScript(response, loader(id, CdnFailover.fallbackUrl(reference.getFallback())), id + "-fallback");
+    }
+
+    /**
+     * @param id  the id of the CDN link tag
+     * @param url the escaped url of the local stylesheet
+     * @return the loader script
+     */
+    private String loader(final String id, final String url) {
+        return "(function(l,u,t){"
+               + "function f(){if(l.wbFallback)return;l.wbFallback=true;"
+               + "var n=document.createElement('link');n.rel='stylesheet';n.type='text/css';n.href=u;"
+               + (Strings.isEmpty(getMedia()) ? "" : "n.media=l.media;")
+               + "l.parentNode.insertBefore(n,l.nextSibling)}"
+               + "if(!l)return;"
+               + "if(l.wbFailed)f();"
+               + "else{l.onerror=f;setTimeout(function(){if(!l.wbLoaded&&!l.sheet)f()},t)}"
+               + "})(document.getElementById('" + JavaScriptUtils.escapeQuotes(id) + "'),'" + url + "'," + timeout.getMilliseconds() + ");";
+    }
+
+    @Override
+    public List<HeaderItem> getDependencies() {
+        return ((CdnResourceReference) getReference()).getCdnDependencies();
+    }
+
+    /**
+     * differs from the plain header item of the reference, which has this one as dependency
+     */
+    @Override
+    public boolean equals(final Object o) {
+        return o instanceof CdnCssHeaderItem && super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + 1;
+    }
+
+    @Override
+    public String toString() {
+        return "CdnCssHeaderItem(" + getReference() + ")";
+    }
+}
@@ -0,0 +1,142 @@
+package de.agilecoders.wicket.core.request.cdn;
+
+import de.agilecoders.wicket.core.Bootstrap;
+import de.agilecoders.wicket.core.settings.IBootstrapSettings;
+import org.apache.wicket.Application;
+import org.apache.wicket.core.util.string.JavaScriptUtils;
+import org.apache.wicket.markup.head.CssHeaderItem;
+import org.apache.wicket.markup.head.CssReferenceHeaderItem;
+import org.apache.wicket.markup.head.HeaderItem;
+import org.apache.wicket.markup.head.JavaScriptReferenceHeaderItem;
+import org.apache.wicket.request.Request;
+import org.apache.wicket.request.cycle.RequestCycle;
+import org.apache.wicket.request.http.WebRequest;
+import org.apache.wicket.request.resource.ResourceReference;
+import org.apache.wicket.util.string.Strings;
+
+/**
+ * #### Description
+ *
+ * Creates the header items of {@link CdnResourceReference}s. If
+ * {@link IBootstrapSettings#cdnFailover()} is active, the CDN resource is rendered with its
+ * {@link SubresourceIntegrity} and an inline loader, that loads the local resource if the CDN resource
+ * fails, is rejected or (for stylesheets) doesn't load within {@link IBootstrapSettings#getCdnFailoverTimeout()}.
+ * Otherwise, and for ajax requests, the header items are the plain ones.
+ *
+ * #### Usage
+ *
+ * ```java
+ * response.render(CdnFailover.forCss(settings.getCssResourceReference()));
+ * ```
+ */
+public final class CdnFailover {
+
+    private CdnFailover() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @param reference a css reference
+     * @return the header item of the css reference
+     */
+    public static CssReferenceHeaderItem forCss(final ResourceReference reference) {
+        return forCss(CssHeaderItem.forReference(reference));
+    }
+
+    /**
+     * @param item the header item of a css reference
+     * @return the header item with failover or the given one
+     */
+    public static CssReferenceHeaderItem forCss(final CssReferenceHeaderItem item) {
+        final IBootstrapSettings settings = activeSettings(item.getReference());
+
+        if (settings == null) {
+            return item;
+        }
+
+        final CdnCssHeaderItem cdnItem = new CdnCssHeaderItem((CdnResourceReference) item.getReference(), item.getMedia(),
+                                                              item.getCondition(), settings.getCdnFailoverTimeout());
+        cdnItem.setId(item.getId());
+        return cdnItem;
+    }
+
+    /**
+     * @param item the header item of a javascript reference
+     * @return the header item with failover or the given one
+     */
+    public static JavaScriptReferenceHeaderItem forJavaScript(final JavaScriptReferenceHeaderItem item) {
+        if (activeSettings(item.getReference()) == null) {
+            return item;
+        }
+
+        final CdnJavaScriptHeaderItem cdnItem = new CdnJavaScriptHeaderItem((CdnResourceReference) item.getReference(),
+                                                                            item.getPageParameters(), item.getId(),
+                                                                            item.isDefer(), item.getCharset(), item.getCondition());
+        cdnItem.setAsync(item.isAsync());
+        return cdnItem;
+    }
+
+    /**
+     * @param reference a CDN reference
+     * @return the header item with failover of the reference, a stylesheet if its url ends with {@code .css} and a
+     * javascript otherwise; {@code null} if failover isn't active
+     */
+    static HeaderItem forReference(final CdnResourceReference reference) {
+        final IBootstrapSettings settings = activeSettings(reference);
+
+        if (settings == null) {
+            return null;
+        } else if (reference.getUrl().getPath().endsWith(".css")) {
+            return new CdnCssHeaderItem(reference, null, null, settings.getCdnFailoverTimeout());
+        }
+        return new CdnJavaScriptHeaderItem(reference, null, null, false, null, null);
+    }
+
+    /**
+     * @return the settings, if the reference should be rendered with failover; {@code null} otherwise
+     */
+    private static IBootstrapSettings activeSettings(final ResourceReference reference) {
+        if (!(reference instanceof CdnResourceReference) || ((CdnResourceReference) reference).getFallback() == null
+            || !Application.exists() || isAjax()) {
+            return null;
+        }
+
+        final IBootstrapSettings settings = Bootstrap.getSettings();
+        return settings != null && settings.cdnFailover() ? settings : null;
+    }
+
+    private static boolean isAjax() {
+        final RequestCycle cycle = RequestCycle.get();
+        final Request request = cycle != null ? cycle.getRequest() : null;
+
+        return request instanceof WebRequest && ((WebRequest) request).isAjax();
+    }
+
+    /**
+     * @param reference a CDN reference
+     * @return the {@code integrity} and {@code crossorigin} attributes or an empty string
+     */
+    static String integrityAttributes(final CdnResourceReference reference) {
+        final ResourceReference source = reference.getIntegritySource();
+        final String integrity = source != null ? SubresourceIntegrity.of(source) : null;
+
+        return integrity != null ? " integrity=\"" + integrity + "\" crossorigin=\"anonymous\"" : "";
+    }
+
+    /**
+     * @param reference a reference
+     * @return the escaped url of the reference, e.g. to use it in a javascript string
+     */
+    static String fallbackUrl(final ResourceReference reference) {
+        return JavaScriptUtils.escapeQuotes(RequestCycle.get().urlFor(reference, null)).toString();
+    }
+
+    /**
+     * @param id  the markup id or {@code null}
+     * @param url the url of the CDN resource
+     * @return the given id or one that is generated from the url
+     */
+    static String id(final String id, final CharSequence url) {
+        return Strings.isEmpty(id) ? "wb-cdn-" + Integer.toHexString(url.toString().hashCode()) : id;
+    }
+}
@@ -0,0 +1,129 @@
+package de.agilecoders.wicket.core.request.cdn;
+
+import org.apache.wicket.core.util.string.JavaScriptUtils;
+import org.apache.wicket.markup.head.HeaderItem;
+import org.apache.wicket.markup.head.JavaScriptReferenceHeaderItem;
+import org.apache.wicket.request.Response;
+import org.apache.wicket.request.cycle.RequestCycle;
+import org.apache.wicket.request.handler.resource.ResourceReferenceRequestHandler;
+import org.apache.wicket.request.mapper.parameter.PageParameters;
+import org.apache.wicket.util.string.Strings;
+
+import java.util.List;
+
+/**
+ * #### Description
+ *
+ * Renders the javascript of a {@link CdnResourceReference} and a loader, that loads the local javascript if
+ * the CDN javascript fails, is rejected or its {@link CdnResourceReference#getFallbackTest() test} is false.
+ * The loader runs right after a synchronous javascript, so the local javascript is executed before the
+ * following scripts; deferred javascripts are checked when the document was parsed, asynchronous ones when
+ * the window was loaded. Javascripts with a condition are rendered without failover.
+ *
+ * @see CdnFailover#forJavaScript(JavaScriptReferenceHeaderItem)
+ */
+public class CdnJavaScriptHeaderItem extends JavaScriptReferenceHeaderItem {
+
+    /**
+     * Construct.
+     *
+     * @param reference      the CDN reference
+     * @param pageParameters the parameters or {@code null}
+     * @param id             the markup id or {@code null}
+     * @param defer          whether the javascript is deferred
+     * @param charset        the charset or {@code null}
+     * @param condition      the condition or {@code null}
+     */
+    public CdnJavaScriptHeaderItem(final CdnResourceReference reference, final PageParameters pageParameters,
+                                   final String id, final boolean defer, final String charset, final String condition) {
+        super(reference, pageParameters, id, defer, charset, condition);
+    }
+
+    @Override
+    public void render(final Response response) {
+        final CdnResourceReference reference = (CdnResourceReference) getReference();
+
+        if (!Strings.isEmpty(getCondition()) || reference.getFallback() == null) {
+            super.render(response);
+            return;
+        }
+
+        final CharSequence url = RequestCycle.get().urlFor(new ResourceReferenceRequestHandler(reference, getPageParameters()));
+        final String id = CdnFailover.id(getId(), url);
+
+        response.write("<script type=\"text/javascript\" id=\"");
+        response.write(Strings.escapeMarkup(id));
+        response.write("\"");
+
+        if (isDefer()) {
+            response.write(" defer=\"defer\"");
+        }
+        if (isAsync()) {
+            response.write(" async=\"async\"");
+        }
+        if (!Strings.isEmpty(getCharset())) {
+            response.write(" charset=\"");
+            response.write(Strings.escapeMarkup(getCharset()));
+            response.write("\"");
+        }
+
+        response.write(" src=\"");
+        response.write(Strings.escapeMarkup(url));
+        response.write("\"");
+        response.write(CdnFailover.integrityAttributes(reference));
+        response.write(" onerror=\"this.wbFailed=true\"></script>\n");
+
+        JavaScriptUtils.writeJavaScript(response, loader(id, CdnFailover.fallbackUrl(reference.getFallback()),
+                                                         reference.getFallbackTest()), id + "-fallback");
+    }
+
+    /**
+     * @param id   the id of the CDN script tag
+     * @param url  the escaped url of the local javascript
+     * @param test the javascript expression that is true if the CDN javascript was loaded or {@code null}
+     * @return the loader script
+     */
+    private String loader(final String id, final String url, final String test) {
+        final String loaded = "!s.wbFailed" + (Strings.isEmpty(test) ? "" : "&&(" + test + ")");
+        final String append = "var n=document.createElement('script');n.type='text/javascript';n.src=u;"
+                              + "document.getElementsByTagName('head')[0].appendChild(n)";
+        final String check;
+
+        if (isAsync()) {
+            check = "window.addEventListener('load',function(){if(!(" + loaded + ")){" + append + "}})";
+        } else if (isDefer()) {
+            check = "document.addEventListener('DOMContentLoaded',function(){if(!(" + loaded + ")){" + append + "}})";
+        } else {
+            check = "if(" + loaded + ")return;"
+                    + "if(document.readyState==='loading')"
+                    + "document.write('<script type=\"text/javascript\" src=\"'+u+'\"><\\/script>');"
+                    + "else{" + append + "}";
+        }
+
+        return "(function(s,u){if(!s)return;" + check + "})"
+               + "(document.getElementById('" + JavaScriptUtils.escapeQuotes(id) + "'),'" + url + "');";
+    }
+
+    @Override
+    public List<HeaderItem> getDependencies() {
+        return ((CdnResourceReference) getReference()).getCdnDependencies();
+    }
+
+    /**
+     * differs from the plain header item of the reference, which has this one as dependency
+     */
+    @Override
+    public boolean equals(final Object o) {
+        return o instanceof CdnJavaScriptHeaderItem && super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + 1;
+    }
+
+    @Override
+    public String toString() {
+        return "CdnJavaScriptHeaderItem(" + getReference() + ")";
+    }
+}
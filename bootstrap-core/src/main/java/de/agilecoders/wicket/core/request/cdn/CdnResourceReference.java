@@ -0,0 +1,111 @@
+package de.agilecoders.wicket.core.request.cdn;
+
+import org.apache.wicket.markup.head.HeaderItem;
+import org.apache.wicket.request.Url;
+import org.apache.wicket.request.resource.ResourceReference;
+import org.apache.wicket.request.resource.UrlResourceReference;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * #### Description
+ *
+ * A {@link UrlResourceReference} to a resource at a CDN network, which knows the local resource it can fall
+ * back to. If {@link de.agilecoders.wicket.core.settings.IBootstrapSettings#cdnFailover()} is active,
+ * {@link CdnFailover} renders it with a loader, that loads the local resource if the CDN resource fails.
+ *
+ * The integrity source is a local resource with the same content as the CDN resource, e.g. the minified
+ * stylesheet of the bundled webjar. Its {@link SubresourceIntegrity} is added to the tag, so the browser
+ * rejects modified CDN resources; a rejected resource is handled like a failed one.
+ *
+ * #### Usage
+ *
+ * ```java
+ * new CdnResourceReference(Url.parse("//cdn.example.com/theme.min.css"), new CssResourceReference(Theme.class, "theme.css"))
+ *     .setIntegritySource(new CssResourceReference(Theme.class, "theme.min.css"));
+ * ```
+ */
+public class CdnResourceReference extends UrlResourceReference {
+    private static final long serialVersionUID = 1L;
+
+    private final ResourceReference fallback;
+    private ResourceReference integritySource;
+    private String fallbackTest;
+
+    /**
+     * Construct.
+     *
+     * @param url      the url of the resource at the CDN network
+     * @param fallback the local resource or {@code null} if there is none
+     */
+    public CdnResourceReference(final Url url, final ResourceReference fallback) {
+        super(url);
+
+        this.fallback = fallback;
+    }
+
+    /**
+     * @return the local resource or {@code null} if there is none
+     */
+    public ResourceReference getFallback() {
+        return fallback;
+    }
+
+    /**
+     * @param integritySource a local resource with the same content as the CDN resource or {@code null}
+     * @return this instance for chaining
+     */
+    public CdnResourceReference setIntegritySource(final ResourceReference integritySource) {
+        this.integritySource = integritySource;
+        return this;
+    }
+
+    /**
+     * @return a local resource with the same content as the CDN resource or {@code null}
+     */
+    public ResourceReference getIntegritySource() {
+        return integritySource;
+    }
+
+    /**
+     * @param fallbackTest a javascript expression that is true, if a CDN javascript was loaded,
+     *                     e.g. {@code window.jQuery && jQuery.fn.modal}. If it's {@code null},
+     *                     only load errors are detected.
+     * @return this instance for chaining
+     */
+    public CdnResourceReference setFallbackTest(final String fallbackTest) {
+        this.fallbackTest = fallbackTest;
+        return this;
+    }
+
+    /**
+     * @return a javascript expression that is true, if a CDN javascript was loaded, or {@code null}
+     */
+    public String getFallbackTest() {
+        return fallbackTest;
+    }
+
+    /**
+     * @return the dependencies of the CDN resource and, if failover is active, the header item with failover of this
+     * reference. So a plain header item of this reference, e.g. a dependency of another resource, renders with failover
+     * too; the plain one is skipped because it has the same url.
+     */
+    @Override
+    public final List<HeaderItem> getDependencies() {
+        final HeaderItem failover = CdnFailover.forReference(this);
+        final List<HeaderItem> dependencies = new ArrayList<>(getCdnDependencies());
+
+        if (failover != null) {
+            dependencies.add(failover);
+        }
+        return dependencies;
+    }
+
+    /**
+     * @return the dependencies of the CDN resource, e.g. jQuery
+     */
+    protected List<HeaderItem> getCdnDependencies() {
+        return super.getDependencies();
+    }
+}
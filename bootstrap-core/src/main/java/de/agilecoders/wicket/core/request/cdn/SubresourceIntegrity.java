@@ -0,0 +1,141 @@
+package de.agilecoders.wicket.core.request.cdn;
+
+import org.apache.wicket.Application;
+import org.apache.wicket.MetaDataKey;
+import org.apache.wicket.request.resource.IResource;
+import org.apache.wicket.request.resource.PackageResource;
+import org.apache.wicket.request.resource.ResourceReference;
+import org.apache.wicket.request.resource.caching.IStaticCacheableResource;
+import org.apache.wicket.util.crypt.Base64;
+import org.apache.wicket.util.io.IOUtils;
+import org.apache.wicket.util.resource.IResourceStream;
+import org.apache.wicket.util.resource.ResourceStreamNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * #### Description
+ *
+ * Computes the <a href="https://www.w3.org/TR/SRI/">subresource integrity</a> of local resources, e.g.
+ * {@code sha384-Tc5IQib027qvyjSMfHjOMaLkfuWVxZxUPnCJA7l2mCWNIpG9mGCD8wGNIcPD7Txa}. Each integrity is computed
+ * once per application; {@link #precompute(Application, ResourceReference...)} computes them at startup, which
+ * {@link de.agilecoders.wicket.core.Bootstrap#install(Application, de.agilecoders.wicket.core.settings.IBootstrapSettings)}
+ * does for the bootstrap resources if {@link de.agilecoders.wicket.core.settings.IBootstrapSettings#cdnFailover()} is active.
+ */
+public final class SubresourceIntegrity {
+    private static final Logger LOG = LoggerFactory.getLogger(SubresourceIntegrity.class);
+
+    private static final MetaDataKey<ConcurrentMap<ResourceReference.Key, String>> KEY = new MetaDataKey<ConcurrentMap<ResourceReference.Key, String>>() {
+        private static final long serialVersionUID = 1L;
+    };
+
+    /**
+     * marks a resource without integrity, because it can't be read
+     */
+    private static final String NONE = "";
+
+    private SubresourceIntegrity() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * computes the integrity of the given resources
+     *
+     * @param application the application
+     * @param references  the local resources
+     */
+    public static void precompute(final Application application, final ResourceReference... references) {
+        for (ResourceReference reference : references) {
+            if (reference != null) {
+                of(application, reference);
+            }
+        }
+    }
+
+    /**
+     * @param reference a local resource
+     * @return the integrity of the resource of the current application or {@code null} if it can't be read
+     */
+    public static String of(final ResourceReference reference) {
+        return of(Application.get(), reference);
+    }
+
+    /**
+     * @param application the application
+     * @param reference   a local resource
+     * @return the integrity of the resource or {@code null} if it can't be read
+     */
+    public static String of(final Application application, final ResourceReference reference) {
+        final ConcurrentMap<ResourceReference.Key, String> cache = cache(application);
+        String integrity = cache.get(reference.getKey());
+
+        if (integrity == null) {
+            integrity = compute(reference);
+            cache.putIfAbsent(reference.getKey(), integrity);
+        }
+        return integrity.isEmpty() ? null : integrity;
+    }
+
+    /**
+     * @return true, if the integrity of the resource has been computed for the given application
+     */
+    static boolean isComputed(final Application application, final ResourceReference reference) {
+        return cache(application).containsKey(reference.getKey());
+    }
+
+    private static ConcurrentMap<ResourceReference.Key, String> cache(final Application application) {
+        ConcurrentMap<ResourceReference.Key, String> cache = application.getMetaData(KEY);
+
+        if (cache == null) {
+            synchronized (KEY) {
+                cache = application.getMetaData(KEY);
+
+                if (cache == null) {
+                    cache = new ConcurrentHashMap<>();
+                    application.setMetaData(KEY, cache);
+                }
+            }
+        }
+        return cache;
+    }
+
+    private static String compute(final ResourceReference reference) {
+        final IResource resource = reference.getResource();
+
+        if (resource instanceof PackageResource) {
+            // the integrity must match the content at the CDN network, not the compressed one
+            ((PackageResource) resource).setCompress(false);
+        }
+
+        final IResourceStream stream = resource instanceof IStaticCacheableResource
+                                       ? ((IStaticCacheableResource) resource).getResourceStream() : null;
+
+        if (stream == null) {
+            LOG.warn("unable to compute the integrity of {}, it isn't a static resource", reference);
+            return NONE;
+        }
+
+        try (InputStream inputStream = stream.getInputStream()) {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-384");
+            final byte[] buffer = new byte[8192];
+            int read;
+
+            while ((read = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return "sha384-" + new String(Base64.encodeBase64(digest.digest()), "US-ASCII");
+        } catch (IOException | ResourceStreamNotFoundException | NoSuchAlgorithmException e) {
+            LOG.warn("unable to compute the integrity of {}", reference, e);
+            return NONE;
+        } finally {
+            IOUtils.closeQuietly(stream);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package de.agilecoders.wicket.core.request.preload;
+
+import org.apache.wicket.request.http.WebResponse;
+
+import java.util.List;
+
+/**
+ * #### Description
+ *
+ * Sends an interim {@code 103 Early Hints} response with the {@code Link} headers of the preloaded resources,
+ * so the browser can start to download them while the page is still rendered. The servlet api has no support
+ * for interim responses, so an implementation has to use the api of its container, e.g. by casting
+ * {@link org.apache.wicket.protocol.http.servlet.ServletWebResponse#getContainerResponse()}.
+ *
+ * @see PreloadHeaders
+ */
+public interface IEarlyHintsSender {
+
+    /**
+     * sends the early hints; has to do nothing if the response is committed already or
+     * the container doesn't support interim responses
+     *
+     * @param response the original response of the current request
+     * @param links    the values of the {@code Link} headers
+     */
+    void sendEarlyHints(WebResponse response, List<String> links);
+}
@@ -0,0 +1,79 @@
+package de.agilecoders.wicket.core.request.preload;
+
+import org.apache.wicket.MetaDataKey;
+import org.apache.wicket.request.Response;
+import org.apache.wicket.request.cycle.RequestCycle;
+import org.apache.wicket.request.http.WebRequest;
+import org.apache.wicket.request.http.WebResponse;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * #### Description
+ *
+ * Adds {@code Link: <url>; rel=preload} headers of resources to the response of a page request and
+ * optionally sends them as {@code 103 Early Hints} before. Each link is added once per request; ajax
+ * requests are ignored, because the browser loaded the page already.
+ *
+ * @see PreloadResource
+ */
+public final class PreloadHeaders {
+
+    /**
+     * the links that were added to the current response already
+     */
+    private static final MetaDataKey<Set<String>> ADDED_LINKS = new MetaDataKey<Set<String>>() {
+        private static final long serialVersionUID = 1L;
+    };
+
+    private PreloadHeaders() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * adds the {@code Link} headers of the given resources to the response of the current request
+     *
+     * @param resources the resources to preload
+     * @param sender    the sender of early hints, may be {@code null}
+     * @return the added links
+     */
+    public static List<String> add(final Collection<PreloadResource> resources, final IEarlyHintsSender sender) {
+        final RequestCycle cycle = RequestCycle.get();
+        final List<String> links = new ArrayList<>();
+
+        if (cycle == null || !(cycle.getResponse() instanceof WebResponse) || isAjax(cycle)) {
+            return links;
+        }
+
+        Set<String> added = cycle.getMetaData(ADDED_LINKS);
+        if (added == null) {
+            added = new LinkedHashSet<>();
+            cycle.setMetaData(ADDED_LINKS, added);
+        }
+
+        final WebResponse response = (WebResponse) cycle.getResponse();
+        for (PreloadResource resource : resources) {
+            final String link = resource.toLinkValue(cycle);
+
+            if (added.add(link)) {
+                response.addHeader("Link", link);
+                links.add(link);
+            }
+        }
+
+        final Response originalResponse = cycle.getOriginalResponse();
+        if (sender != null && !links.isEmpty() && originalResponse instanceof WebResponse) {
+            sender.sendEarlyHints((WebResponse) originalResponse, links);
+        }
+
+        return links;
+    }
+
+    private static boolean isAjax(final RequestCycle cycle) {
+        return cycle.getRequest() instanceof WebRequest && ((WebRequest) cycle.getRequest()).isAjax();
+    }
+}
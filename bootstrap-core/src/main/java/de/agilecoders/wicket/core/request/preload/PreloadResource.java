@@ -0,0 +1,161 @@
+package de.agilecoders.wicket.core.request.preload;
+
+import org.apache.wicket.request.Url;
+import org.apache.wicket.request.cycle.RequestCycle;
+import org.apache.wicket.request.handler.resource.ResourceReferenceRequestHandler;
+import org.apache.wicket.request.resource.ResourceReference;
+import org.apache.wicket.util.io.IClusterable;
+import org.apache.wicket.util.lang.Args;
+import org.apache.wicket.util.string.Strings;
+
+import java.util.Locale;
+
+/**
+ * #### Description
+ *
+ * A resource the browser should start to download before it discovers the resource while parsing the
+ * page, announced as {@code Link: <url>; rel=preload; as=style} response header.
+ *
+ * #### Usage
+ *
+ * ```java
+ * settings.setPreloadResources(true)
+ *         .addPreloadResources(PreloadResource.script(MyJavaScriptReference.instance()),
+ *                              // the font the css of FontAwesome loads from ../fonts/
+ *                              PreloadResource.font(FontAwesomeCssReference.instance(), "../fonts/fontawesome-webfont.woff2?v=4.7.0"));
+ * ```
+ *
+ * @see IEarlyHintsSender
+ */
+public class PreloadResource implements IClusterable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The type of content that is preloaded; the value of the {@code as} attribute
+     */
+    public enum Destination {
+        STYLE, SCRIPT, FONT, IMAGE;
+
+        /**
+         * @return the value of the {@code as} attribute
+         */
+        public String value() {
+            return name().toLowerCase(Locale.ENGLISH);
+        }
+    }
+
+    private final ResourceReference reference;
+    private final String relativePath;
+    private final Destination destination;
+
+    /**
+     * Construct.
+     *
+     * @param reference    the resource reference to preload
+     * @param relativePath the path of the preloaded resource relative to the url of the given reference, or
+     *                     {@code null} to preload the reference itself
+     * @param destination  the type of content
+     */
+    public PreloadResource(final ResourceReference reference, final String relativePath, final Destination destination) {
+        this.reference = Args.notNull(reference, "reference");
+        this.relativePath = relativePath;
+        this.destination = Args.notNull(destination, "destination");
+    }
+
+    /**
+     * @param reference the css resource reference
+     * @return preload of a stylesheet
+     */
+    public static PreloadResource style(final ResourceReference reference) {
+        return new PreloadResource(reference, null, Destination.STYLE);
+    }
+
+    /**
+     * @param reference the javascript resource reference
+     * @return preload of a script
+     */
+    public static PreloadResource script(final ResourceReference reference) {
+        return new PreloadResource(reference, null, Destination.SCRIPT);
+    }
+
+    /**
+     * @param reference    the css resource reference that loads the font
+     * @param relativePath the path of the font relative to the css file, exactly as in the css
+     * @return preload of a font
+     */
+    public static PreloadResource font(final ResourceReference reference, final String relativePath) {
+        return new PreloadResource(reference, Args.notEmpty(relativePath, "relativePath"), Destination.FONT);
+    }
+
+    /**
+     * @return the resource reference
+     */
+    public ResourceReference getReference() {
+        return reference;
+    }
+
+    /**
+     * @return the path relative to the url of the reference or {@code null}
+     */
+    public String getRelativePath() {
+        return relativePath;
+    }
+
+    /**
+     * @return the type of content
+     */
+    public Destination getDestination() {
+        return destination;
+    }
+
+    /**
+     * creates the value of the {@code Link} header. Fonts are always fetched in cors mode, so their
+     * preload needs the {@code crossorigin} attribute to be used.
+     *
+     * @param cycle the current request cycle
+     * @return value of the {@code Link} header
+     */
+    public String toLinkValue(final RequestCycle cycle) {
+        final Url url = cycle.mapUrlFor(new ResourceReferenceRequestHandler(reference));
+
+        if (!Strings.isEmpty(relativePath)) {
+            url.resolveRelative(Url.parse(relativePath, url.getCharset()));
+        }
+
+        final StringBuilder value = new StringBuilder()
+                .append('<').append(cycle.getUrlRenderer().renderFullUrl(url)).append(">; rel=preload; as=")
+                .append(destination.value());
+
+        if (destination == Destination.FONT) {
+            value.append("; crossorigin");
+        }
+        return value.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        final PreloadResource that = (PreloadResource) o;
+        return reference.equals(that.reference) && destination == that.destination
+               && (relativePath != null ? relativePath.equals(that.relativePath) : that.relativePath == null);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = reference.hashCode();
+        result = 31 * result + (relativePath != null ? relativePath.hashCode() : 0);
+        result = 31 * result + destination.hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return reference + (relativePath != null ? " -> " + relativePath : "") + " as " + destination.value();
+    }
+}
@@ -0,0 +1,59 @@
+package de.agilecoders.wicket.core.request.resource;
+
+import org.apache.wicket.request.resource.CssPackageResource;
+import org.apache.wicket.request.resource.CssResourceReference;
+
+import java.util.Locale;
+
+/**
+ * #### Description
+ *
+ * A {@link CssResourceReference} which resource writes a pre-compressed sibling of the
+ * css file, e.g. {@code bootstrap.cerulean.css.gz}, if the client accepts its content coding.
+ *
+ * @see PrecompressedResourceGenerator
+ */
+public class PrecompressedCssResourceReference extends CssResourceReference {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Construct.
+     *
+     * @param scope     mandatory parameter
+     * @param name      mandatory parameter
+     * @param locale    resource locale
+     * @param style     resource style
+     * @param variation resource variation
+     */
+    public PrecompressedCssResourceReference(final Class<?> scope, final String name, final Locale locale,
+                                             final String style, final String variation) {
+        super(scope, name, locale, style, variation);
+    }
+
+    /**
+     * Construct.
+     *
+     * @param scope mandatory parameter
+     * @param name  mandatory parameter
+     */
+    public PrecompressedCssResourceReference(final Class<?> scope, final String name) {
+        super(scope, name);
+    }
+
+    /**
+     * Construct.
+     *
+     * @param key the data making up the resource reference
+     */
+    public PrecompressedCssResourceReference(final Key key) {
+        super(key);
+    }
+
+    @Override
+    public CssPackageResource getResource() {
+        final CssPackageResource resource = new PrecompressedCssPackageResource(getScope(), getName(), getLocale(), getStyle(),
+                                                                                getVariation());
+        removeCompressFlagIfUnnecessary(resource);
+        return resource;
+    }
+}
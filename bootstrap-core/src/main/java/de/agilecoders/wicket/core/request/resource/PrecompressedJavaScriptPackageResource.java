@@ -0,0 +1,51 @@
+package de.agilecoders.wicket.core.request.resource;
+
+import org.apache.wicket.request.resource.JavaScriptPackageResource;
+import org.apache.wicket.util.lang.Packages;
+
+import java.util.Locale;
+
+/**
+ * #### Description
+ *
+ * A {@link JavaScriptPackageResource} that writes a pre-compressed sibling of the javascript file, e.g.
+ * {@code bootlint.js.gz}, if the client accepts its content coding. The sibling is only used if no
+ * javascript compressor is configured, because it contains the content of the file as it is.
+ *
+ * @see PrecompressedJavaScriptResourceReference
+ */
+public class PrecompressedJavaScriptPackageResource extends JavaScriptPackageResource {
+    private static final long serialVersionUID = 1L;
+
+    private final String absolutePath;
+
+    /**
+     * Construct.
+     *
+     * @param scope     This argument will be used to get the class loader for loading the package resource, and to
+     *                  determine what package it is in
+     * @param name      The relative path to the resource
+     * @param locale    The locale of the resource
+     * @param style     The style of the resource
+     * @param variation The component's variation (of the style)
+     */
+    public PrecompressedJavaScriptPackageResource(final Class<?> scope, final String name, final Locale locale,
+                                                  final String style, final String variation) {
+        super(scope, name, locale, style, variation);
+
+        this.absolutePath = Packages.absolutePath(scope, name);
+    }
+
+    @Override
+    protected ResourceResponse newResourceResponse(final Attributes attributes) {
+        if (getCompressor() == null && accept(absolutePath)) {
+            final ResourceResponse response = PrecompressedResources.newResourceResponse(this, attributes);
+
+            if (response != null) {
+                return response;
+            }
+            return PrecompressedResources.varyByEncoding(this, super.newResourceResponse(attributes));
+        }
+        return super.newResourceResponse(attributes);
+    }
+}
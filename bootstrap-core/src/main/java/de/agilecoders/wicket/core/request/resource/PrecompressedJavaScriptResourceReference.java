@@ -0,0 +1,60 @@
+package de.agilecoders.wicket.core.request.resource;
+
+import org.apache.wicket.request.resource.JavaScriptPackageResource;
+import org.apache.wicket.request.resource.JavaScriptResourceReference;
+
+import java.util.Locale;
+
+/**
+ * #### Description
+ *
+ * A {@link JavaScriptResourceReference} which resource writes a pre-compressed sibling of the
+ * javascript file, e.g. {@code bootlint.js.gz}, if the client accepts its content coding.
+ *
+ * @see PrecompressedResourceGenerator
+ */
+public class PrecompressedJavaScriptResourceReference extends JavaScriptResourceReference {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Construct.
+     *
+     * @param scope     mandatory parameter
+     * @param name      mandatory parameter
+     * @param locale    resource locale
+     * @param style     resource style
+     * @param variation resource variation
+     */
+    public PrecompressedJavaScriptResourceReference(final Class<?> scope, final String name, final Locale locale,
+                                                    final String style, final String variation) {
+        super(scope, name, locale, style, variation);
+    }
+
+    /**
+     * Construct.
+     *
+     * @param scope mandatory parameter
+     * @param name  mandatory parameter
+     */
+    public PrecompressedJavaScriptResourceReference(final Class<?> scope, final String name) {
+        super(scope, name);
+    }
+
+    /**
+     * Construct.
+     *
+     * @param key the data making up the resource reference
+     */
+    public PrecompressedJavaScriptResourceReference(final Key key) {
+        super(key);
+    }
+
+    @Override
+    public JavaScriptPackageResource getResource() {
+        final JavaScriptPackageResource resource = new PrecompressedJavaScriptPackageResource(getScope(), getName(),
+                                                                                              getLocale(), getStyle(),
+                                                                                              getVariation());
+        removeCompressFlagIfUnnecessary(resource);
+        return resource;
+    }
+}
@@ -0,0 +1,92 @@
+package de.agilecoders.wicket.core.request.resource;
+
+import org.apache.wicket.request.cycle.RequestCycle;
+import org.apache.wicket.request.resource.PackageResource;
+import org.apache.wicket.request.resource.PackageResourceReference;
+import org.apache.wicket.resource.ResourceUtil;
+
+import java.util.Locale;
+
+/**
+ * #### Description
+ *
+ * A {@link PackageResourceReference} which resource writes a pre-compressed sibling of the
+ * file, e.g. {@code glyphicons-halflings-regular.ttf.gz}, if the client accepts its content coding.
+ * It is created for all package resources without a registered reference by the
+ * {@link PrecompressedResourceReferenceFactory}, e.g. for the fonts of the themes.
+ *
+ * @see PrecompressedResourceGenerator
+ */
+public class PrecompressedPackageResourceReference extends PackageResourceReference {
+    private static final long serialVersionUID = 1L;
+
+    private boolean readBuffered = true;
+
+    /**
+     * Construct.
+     *
+     * @param scope     mandatory parameter
+     * @param name      mandatory parameter
+     * @param locale    resource locale
+     * @param style     resource style
+     * @param variation resource variation
+     */
+    public PrecompressedPackageResourceReference(final Class<?> scope, final String name, final Locale locale,
+                                                 final String style, final String variation) {
+        super(scope, name, locale, style, variation);
+    }
+
+    /**
+     * Construct.
+     *
+     * @param scope mandatory parameter
+     * @param name  mandatory parameter
+     */
+    public PrecompressedPackageResourceReference(final Class<?> scope, final String name) {
+        super(scope, name);
+    }
+
+    /**
+     * Construct.
+     *
+     * @param key the data making up the resource reference
+     */
+    public PrecompressedPackageResourceReference(final Key key) {
+        super(key);
+    }
+
+    @Override
+    public PrecompressedPackageResourceReference readBuffered(final boolean readBuffered) {
+        super.readBuffered(readBuffered);
+        this.readBuffered = readBuffered;
+        return this;
+    }
+
+    /**
+     * creates the resource like {@link PackageResourceReference#getResource()} does, with the locale, style
+     * and variation of the current request
+     */
+    @Override
+    public PackageResource getResource() {
+        final UrlAttributes urlAttributes = RequestCycle.get() != null
+                                            ? ResourceUtil.decodeResourceReferenceAttributes(RequestCycle.get().getRequest().getUrl())
+                                            : null;
+        final Locale locale = urlAttributes != null && urlAttributes.getLocale() != null ? urlAttributes.getLocale() : getLocale();
+        final String style = urlAttributes != null && urlAttributes.getStyle() != null ? urlAttributes.getStyle() : getStyle();
+        final String variation = urlAttributes != null && urlAttributes.getVariation() != null ? urlAttributes.getVariation() : getVariation();
+        final String extension = getExtension();
+
+        final PackageResource resource;
+        if ("css".equals(extension)) {
+            resource = new PrecompressedCssPackageResource(getScope(), getName(), locale, style, variation);
+        } else if ("js".equals(extension)) {
+            resource = new PrecompressedJavaScriptPackageResource(getScope(), getName(), locale, style, variation);
+        } else {
+            resource = new PrecompressedPackageResource(getScope(), getName(), locale, style, variation);
+        }
+
+        resource.readBuffered(readBuffered);
+        removeCompressFlagIfUnnecessary(resource);
+        return resource;
+    }
+}
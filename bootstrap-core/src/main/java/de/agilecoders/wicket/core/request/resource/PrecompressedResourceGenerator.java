@@ -0,0 +1,136 @@
+package de.agilecoders.wicket.core.request.resource;
+
+import org.apache.wicket.util.lang.Args;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * #### Description
+ *
+ * Writes a gzip compressed sibling, e.g. {@code bootlint.js.gz}, of each compressible static resource in a
+ * directory of compiled classes, e.g. {@code target/classes}. The siblings are written by the
+ * {@code precompressed-resources} profile:
+ *
+ * <pre>
+ * mvn package -DprecompressResources
+ * </pre>
+ *
+ * Siblings which aren't smaller than the resource are not kept. Brotli compressed siblings ({@code .br})
+ * are served as well, but have to be written by an external tool.
+ *
+ * @see PrecompressedCssResourceReference
+ * @see PrecompressedJavaScriptResourceReference
+ * @see PrecompressedPackageResourceReference
+ */
+public class PrecompressedResourceGenerator {
+    private static final Logger LOG = LoggerFactory.getLogger(PrecompressedResourceGenerator.class);
+
+    /**
+     * the file extensions of the compressible resources; woff, woff2 and images are compressed already
+     */
+    private static final Set<String> EXTENSIONS = new HashSet<>(Arrays.asList("css", "js", "map", "svg", "ttf", "eot", "otf"));
+
+    private final long minimumSize;
+
+    /**
+     * Construct.
+     */
+    public PrecompressedResourceGenerator() {
+        this(1024);
+    }
+
+    /**
+     * Construct.
+     *
+     * @param minimumSize the size in bytes from which on resources are compressed
+     */
+    public PrecompressedResourceGenerator(final long minimumSize) {
+        this.minimumSize = Args.withinRange(0L, Long.MAX_VALUE, minimumSize, "minimumSize");
+    }
+
+    /**
+     * writes the gzip compressed siblings of all compressible resources in the given directory
+     *
+     * @param root the directory of compiled classes
+     * @return the number of written siblings
+     * @throws IOException if a resource can't be read or a sibling can't be written
+     */
+    public int write(final Path root) throws IOException {
+        final int[] written = {0};
+
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                if (attributes.isRegularFile() && attributes.size() >= minimumSize && isCompressible(file)) {
+                    final Path sibling = file.resolveSibling(file.getFileName() + ".gz");
+                    final byte[] content = Files.readAllBytes(file);
+
+                    try (OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(sibling)) {
+                        {
+                            def.setLevel(Deflater.BEST_COMPRESSION);
+                        }
+                    }) {
+                        outputStream.write(content);
+                    }
+
+                    if (Files.size(sibling) < content.length) {
+                        written[0]++;
+                    } else {
+                        Files.delete(sibling);
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        return written[0];
+    }
+
+    /**
+     * @param file a file
+     * @return true, if the given file is a compressible static resource
+     */
+    protected boolean isCompressible(final Path file) {
+        final String name = file.getFileName().toString();
+        final int dot = name.lastIndexOf('.');
+
+        return dot > 0 && EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ENGLISH));
+    }
+
+    /**
+     * writes the gzip compressed siblings of the static resources in the given directories
+     *
+     * @param args the directories of compiled classes
+     * @throws IOException if a resource can't be read or a sibling can't be written
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("usage: PrecompressedResourceGenerator <classes directory>...");
+        }
+
+        final PrecompressedResourceGenerator generator = new PrecompressedResourceGenerator();
+
+        for (String directory : args) {
+            final Path root = Paths.get(directory);
+
+            if (Files.isDirectory(root)) {
+                LOG.info("wrote {} pre-compressed resources to {}", generator.write(root), root);
+            }
+        }
+    }
+}
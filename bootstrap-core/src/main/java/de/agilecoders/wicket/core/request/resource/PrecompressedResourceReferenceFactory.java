@@ -0,0 +1,52 @@
+package de.agilecoders.wicket.core.request.resource;
+
+import org.apache.wicket.request.resource.CssResourceReference;
+import org.apache.wicket.request.resource.IResourceReferenceFactory;
+import org.apache.wicket.request.resource.JavaScriptResourceReference;
+import org.apache.wicket.request.resource.PackageResourceReference;
+import org.apache.wicket.request.resource.ResourceReference;
+import org.apache.wicket.util.lang.Args;
+
+/**
+ * #### Description
+ *
+ * A factory that replaces the plain {@link PackageResourceReference}, {@link CssResourceReference} and
+ * {@link JavaScriptResourceReference} created by its delegate with the ones which resources write
+ * pre-compressed siblings, e.g. for the fonts that are referenced by the css files of the themes.
+ * All other references are returned as they are.
+ */
+public class PrecompressedResourceReferenceFactory implements IResourceReferenceFactory {
+
+    /**
+     * the factory that creates the references
+     */
+    private final IResourceReferenceFactory delegate;
+
+    /**
+     * Construct.
+     *
+     * @param delegate the factory that creates the references
+     */
+    public PrecompressedResourceReferenceFactory(final IResourceReferenceFactory delegate) {
+        this.delegate = Args.notNull(delegate, "delegate");
+    }
+
+    @Override
+    public ResourceReference create(final ResourceReference.Key key) {
+        final ResourceReference reference = delegate.create(key);
+
+        if (reference == null) {
+            return null;
+        }
+
+        final Class<?> type = reference.getClass();
+        if (type == PackageResourceReference.class) {
+            return new PrecompressedPackageResourceReference(key);
+        } else if (type == CssResourceReference.class) {
+            return new PrecompressedCssResourceReference(key);
+        } else if (type == JavaScriptResourceReference.class) {
+            return new PrecompressedJavaScriptResourceReference(key);
+        }
+        return reference;
+    }
+}
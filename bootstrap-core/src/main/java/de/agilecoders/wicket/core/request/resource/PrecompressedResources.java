@@ -0,0 +1,318 @@
+package de.agilecoders.wicket.core.request.resource;
+
+import org.apache.wicket.Application;
+import org.apache.wicket.core.util.resource.UrlResourceStream;
+import org.apache.wicket.request.Request;
+import org.apache.wicket.request.cycle.RequestCycle;
+import org.apache.wicket.request.http.WebRequest;
+import org.apache.wicket.request.resource.AbstractResource;
+import org.apache.wicket.request.resource.IResource;
+import org.apache.wicket.request.resource.PackageResource;
+import org.apache.wicket.request.resource.PartWriterCallback;
+import org.apache.wicket.util.io.IOUtils;
+import org.apache.wicket.util.resource.FileResourceStream;
+import org.apache.wicket.util.resource.IResourceStream;
+import org.apache.wicket.util.resource.ResourceStreamNotFoundException;
+import org.apache.wicket.util.resource.ResourceStreamWrapper;
+import org.apache.wicket.util.string.Strings;
+import org.apache.wicket.util.time.Time;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * #### Description
+ *
+ * Creates the responses of package resources that have pre-compressed siblings, e.g. {@code bootlint.js.gz}
+ * next to {@code bootlint.js}. If the client accepts the content coding of a sibling, the sibling is written
+ * as it is, with {@code Content-Encoding}, {@code Vary} and {@code Content-Length} headers and support for
+ * byte ranges. Siblings that are older than the resource itself are ignored. The resource itself is written with
+ * a {@code Vary} header as well if it has a sibling.
+ *
+ * The siblings are looked up once per resource unless the application runs in development mode.
+ *
+ * @see PrecompressedResourceGenerator
+ */
+final class PrecompressedResources {
+    private static final Logger LOG = LoggerFactory.getLogger(PrecompressedResources.class);
+
+    /**
+     * the content codings of the siblings, in the order of preference
+     */
+    private static final String[] ENCODINGS = {"br", "gzip"};
+
+    /**
+     * the file extensions of the siblings per content coding
+     */
+    private static final String[] EXTENSIONS = {".br", ".gz"};
+
+    /**
+     * whether a sibling exists, by its url
+     */
+    private static final ConcurrentMap<String, Boolean> SIBLINGS = new ConcurrentHashMap<>();
+
+    private PrecompressedResources() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * creates the response that writes a pre-compressed sibling of the given resource
+     *
+     * @param resource   the package resource
+     * @param attributes the attributes of the request
+     * @return the response or {@code null} if there is no sibling the client accepts
+     */
+    static AbstractResource.ResourceResponse newResourceResponse(final PackageResource resource,
+                                                                 final IResource.Attributes attributes) {
+        final String acceptEncoding = getHeader(attributes.getRequest(), "Accept-Encoding");
+
+        if (Strings.isEmpty(acceptEncoding)) {
+            return null;
+        }
+
+        final IResourceStream stream = resource.getResourceStream();
+        if (stream == null) {
+            return null;
+        }
+
+        try {
+            final URL url = toUrl(stream);
+
+            if (url != null) {
+                UrlResourceStream selected = null;
+                String selectedEncoding = null;
+                float selectedQuality = 0;
+
+                for (int i = 0; i < ENCODINGS.length; i++) {
+                    final float quality = quality(acceptEncoding, ENCODINGS[i]);
+
+                    if (quality > selectedQuality) {
+                        final UrlResourceStream sibling = sibling(url, EXTENSIONS[i], stream.lastModifiedTime());
+
+                        if (sibling != null) {
+                            selected = sibling;
+                            selectedEncoding = ENCODINGS[i];
+                            selectedQuality = quality;
+                        }
+                    }
+                }
+
+                if (selected != null) {
+                    return newResourceResponse(resource, attributes, stream, selected, selectedEncoding);
+                }
+            }
+        } finally {
+            IOUtils.closeQuietly(stream);
+        }
+
+        return null;
+    }
+
+    /**
+     * adds a {@code Vary} header to the response that writes the resource itself if the resource has a
+     * pre-compressed sibling, because other clients get the sibling for the same url
+     *
+     * @param resource the package resource
+     * @param response the response that writes the resource itself
+     * @return the given response
+     */
+    static AbstractResource.ResourceResponse varyByEncoding(final PackageResource resource,
+                                                            final AbstractResource.ResourceResponse response) {
+        final IResourceStream stream = resource.getResourceStream();
+        if (stream == null) {
+            return response;
+        }
+
+        try {
+            final URL url = toUrl(stream);
+
+            if (url != null) {
+                for (String extension : EXTENSIONS) {
+                    if (sibling(url, extension, stream.lastModifiedTime()) != null) {
+                        response.getHeaders().addHeader("Vary", "Accept-Encoding");
+                        break;
+                    }
+                }
+            }
+        } finally {
+            IOUtils.closeQuietly(stream);
+        }
+
+        return response;
+    }
+
+    private static AbstractResource.ResourceResponse newResourceResponse(final PackageResource resource,
+                                                                         final IResource.Attributes attributes,
+                                                                         final IResourceStream stream,
+                                                                         final UrlResourceStream sibling,
+                                                                         final String encoding) {
+        final AbstractResource.ResourceResponse response = new AbstractResource.ResourceResponse();
+        response.setLastModified(stream.lastModifiedTime());
+        response.getHeaders().addHeader("Vary", "Accept-Encoding");
+
+        if (response.dataNeedsToBeWritten(attributes)) {
+            final String contentType = stream.getContentType();
+
+            response.setContentType(contentType);
+            if (contentType != null && contentType.startsWith("text")) {
+                response.setTextEncoding(resource.getTextEncoding());
+            }
+            response.getHeaders().addHeader("Content-Encoding", encoding);
+            response.setAcceptRange(AbstractResource.ContentRangeType.BYTES);
+
+            final long length = sibling.length().bytes();
+            response.setContentLength(length);
+
+            try {
+                final RequestCycle cycle = RequestCycle.get();
+                final Long startbyte = cycle.getMetaData(AbstractResource.CONTENT_RANGE_STARTBYTE);
+                final Long endbyte = cycle.getMetaData(AbstractResource.CONTENT_RANGE_ENDBYTE);
+                final InputStream inputStream = sibling.getInputStream();
+
+                response.setWriteCallback(new PartWriterCallback(inputStream, length, startbyte, endbyte).setClose(true));
+            } catch (ResourceStreamNotFoundException e) {
+                LOG.warn("unable to read pre-compressed resource: " + sibling, e);
+                return null;
+            }
+        }
+
+        return response;
+    }
+
+    /**
+     * @param url           the url of a resource
+     * @param extension     the file extension of the sibling
+     * @param lastModified  the last modification time of the resource
+     * @return the sibling or {@code null} if there is none or it is older than the resource
+     */
+    private static UrlResourceStream sibling(final URL url, final String extension, final Time lastModified) {
+        final URL siblingUrl;
+        try {
+            siblingUrl = new URL(url.toExternalForm() + extension);
+        } catch (MalformedURLException e) {
+            return null;
+        }
+
+        final String key = siblingUrl.toExternalForm();
+        Boolean exists = SIBLINGS.get(key);
+
+        if (exists == null) {
+            exists = exists(siblingUrl);
+
+            if (!Application.exists() || !Application.get().usesDevelopmentConfig()) {
+                SIBLINGS.put(key, exists);
+            }
+        }
+
+        if (exists) {
+            final UrlResourceStream sibling = new UrlResourceStream(siblingUrl);
+            final Time siblingLastModified = sibling.lastModifiedTime();
+
+            if (lastModified == null || siblingLastModified == null || !siblingLastModified.before(lastModified)) {
+                return sibling;
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean exists(final URL url) {
+        try {
+            if ("file".equals(url.getProtocol())) {
+                return new File(url.toURI()).isFile();
+            }
+
+            final URLConnection connection = url.openConnection();
+            if (connection instanceof JarURLConnection) {
+                return ((JarURLConnection) connection).getJarEntry() != null;
+            }
+
+            IOUtils.close(connection.getInputStream());
+            return true;
+        } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @param stream the located resource stream of a package resource
+     * @return the url of the resource or {@code null} if it isn't in the file system or in a jar file
+     */
+    private static URL toUrl(final IResourceStream stream) {
+        IResourceStream unwrapped = stream;
+
+        while (unwrapped instanceof ResourceStreamWrapper) {
+            unwrapped = ((ResourceStreamWrapper) unwrapped).getDelegate();
+        }
+
+        if (unwrapped instanceof UrlResourceStream) {
+            return ((UrlResourceStream) unwrapped).getURL();
+        } else if (unwrapped instanceof FileResourceStream) {
+            try {
+                return ((FileResourceStream) unwrapped).getFile().toURI().toURL();
+            } catch (MalformedURLException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param acceptEncoding the value of the {@code Accept-Encoding} header
+     * @param encoding       a content coding
+     * @return the quality the content coding is accepted with; 0 if it isn't accepted
+     */
+    static float quality(final String acceptEncoding, final String encoding) {
+        float wildcardQuality = 0;
+
+        for (String coding : Strings.split(acceptEncoding, ',')) {
+            String name = coding;
+            float quality = 1;
+
+            final int semicolon = coding.indexOf(';');
+            if (semicolon >= 0) {
+                name = coding.substring(0, semicolon);
+                quality = parseQuality(coding.substring(semicolon + 1));
+            }
+
+            name = name.trim().toLowerCase(Locale.ENGLISH);
+            if (encoding.equals(name)) {
+                return quality;
+            } else if ("*".equals(name)) {
+                wildcardQuality = quality;
+            }
+        }
+
+        return wildcardQuality;
+    }
+
+    private static float parseQuality(final String parameters) {
+        for (String parameter : Strings.split(parameters, ';')) {
+            parameter = parameter.trim();
+
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Float.parseFloat(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static String getHeader(final Request request, final String name) {
+        return request instanceof WebRequest ? ((WebRequest) request).getHeader(name) : null;
+    }
+}
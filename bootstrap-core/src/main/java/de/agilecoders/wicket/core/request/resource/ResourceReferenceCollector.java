@@ -0,0 +1,120 @@
+package de.agilecoders.wicket.core.request.resource;
+
+import de.agilecoders.wicket.core.request.cdn.CdnResourceReference;
+import org.apache.wicket.markup.head.HeaderItem;
+import org.apache.wicket.markup.head.IReferenceHeaderItem;
+import org.apache.wicket.markup.head.IWrappedHeaderItem;
+import org.apache.wicket.request.resource.ResourceReference;
+import org.apache.wicket.request.resource.UrlResourceReference;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * #### Description
+ *
+ * Collects resource references together with all their dependencies, e.g. to process the resources of all
+ * themes when the application starts. Header items are unwrapped, CDN references are replaced by their local
+ * fallbacks and references to external urls are skipped. Each reference and header item is visited once.
+ *
+ * #### Usage
+ *
+ * ```java
+ * Set<ResourceReference> references = new ResourceReferenceCollector()
+ *     .add(settings.getCssResourceReference())
+ *     .addAll(theme.getDependencies())
+ *     .getReferences();
+ * ```
+ *
+ * Override {@link #accept(ResourceReference)} to collect only some of the references; the dependencies of
+ * the others are collected nevertheless.
+ */
+public class ResourceReferenceCollector {
+
+    /**
+     * the collected resource references in the order of their first occurrence
+     */
+    private final Set<ResourceReference> references = new LinkedHashSet<>();
+
+    /**
+     * all references and header items that have been visited
+     */
+    private final Set<Object> visited = new HashSet<>();
+
+    /**
+     * adds the given resource references and their dependencies
+     *
+     * @param references the references to add
+     * @return this instance for chaining
+     */
+    public ResourceReferenceCollector add(final ResourceReference... references) {
+        for (ResourceReference reference : references) {
+            collect(reference);
+        }
+        return this;
+    }
+
+    /**
+     * adds the resource references of the given header items and their dependencies
+     *
+     * @param headerItems the header items to add, e.g. {@code theme.getDependencies()}
+     * @return this instance for chaining
+     */
+    public ResourceReferenceCollector addAll(final Iterable<? extends HeaderItem> headerItems) {
+        for (HeaderItem headerItem : headerItems) {
+            collect(headerItem);
+        }
+        return this;
+    }
+
+    /**
+     * @return all collected resource references in the order of their first occurrence
+     */
+    public Set<ResourceReference> getReferences() {
+        return Collections.unmodifiableSet(references);
+    }
+
+    /**
+     * @param reference a resource reference of the application
+     * @return true, if the reference should be collected. Default: true
+     */
+    protected boolean accept(final ResourceReference reference) {
+        return true;
+    }
+
+    private void collect(final ResourceReference reference) {
+        if (reference == null || !visited.add(reference)) {
+            return;
+        }
+
+        if (reference instanceof CdnResourceReference) {
+            collect(((CdnResourceReference) reference).getFallback());
+        } else if (!(reference instanceof UrlResourceReference) && accept(reference)) {
+            references.add(reference);
+        }
+
+        for (HeaderItem dependency : reference.getDependencies()) {
+            collect(dependency);
+        }
+    }
+
+    private void collect(final HeaderItem headerItem) {
+        if (headerItem == null || !visited.add(headerItem)) {
+            return;
+        }
+
+        if (headerItem instanceof IWrappedHeaderItem) {
+            collect(((IWrappedHeaderItem) headerItem).getWrapped());
+        }
+
+        if (headerItem instanceof IReferenceHeaderItem) {
+            collect(((IReferenceHeaderItem) headerItem).getReference());
+        }
+
+        for (HeaderItem dependency : headerItem.getDependencies()) {
+            collect(dependency);
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package de.agilecoders.wicket.core.request.resource.bundles;
+
+import org.apache.wicket.Application;
+import org.apache.wicket.MetaDataKey;
+import org.apache.wicket.ResourceBundles;
+import org.apache.wicket.core.request.handler.IPageClassRequestHandler;
+import org.apache.wicket.markup.head.CssHeaderItem;
+import org.apache.wicket.markup.head.CssReferenceHeaderItem;
+import org.apache.wicket.markup.head.HeaderItem;
+import org.apache.wicket.markup.head.IReferenceHeaderItem;
+import org.apache.wicket.markup.head.JavaScriptHeaderItem;
+import org.apache.wicket.markup.head.JavaScriptReferenceHeaderItem;
+import org.apache.wicket.request.IRequestHandler;
+import org.apache.wicket.request.Request;
+import org.apache.wicket.request.cycle.RequestCycle;
+import org.apache.wicket.request.http.WebRequest;
+import org.apache.wicket.request.resource.IResource;
+import org.apache.wicket.request.resource.ResourceReference;
+import org.apache.wicket.request.resource.ResourceReferenceRegistry;
+import org.apache.wicket.request.resource.caching.IStaticCacheableResource;
+import org.apache.wicket.resource.IScopeAwareTextResourceProcessor;
+import org.apache.wicket.resource.bundles.ConcatResourceBundleReference;
+import org.apache.wicket.resource.bundles.IResourceBundle;
+import org.apache.wicket.util.lang.Args;
+import org.apache.wicket.util.string.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * #### Description
+ *
+ * {@link ResourceBundles} that builds the bundles on its own: while learning, it counts how often each page class
+ * is rendered and on how many of these renders each javascript and css reference header item is rendered.
+ * Afterwards all items which are rendered on every render of exactly the same page classes are concatenated to one
+ * bundle, so every page references only a few bundles instead of each of its header items. Items that are rendered
+ * by a single page class are bundled as well. Items that are missing on some renders of a page class, e.g. those of
+ * components that aren't always visible, are never bundled, so no page loads members of a bundle it doesn't need.
+ *
+ * A bundle is named by a digest of its members, e.g. {@code bundle-2fd4e1c67a2d28fc.js}, so the names are stable
+ * across restarts as long as the same items are rendered together; the version of its content is added by the
+ * resource caching strategy as for every other static resource. The members keep the order they were rendered in,
+ * which is the order of their dependencies. Bundles are built once and are never changed afterwards: items that
+ * weren't observed while learning are rendered as they are.
+ *
+ * Only items of static package resources without condition, media, async or defer flag are bundled. Css items are
+ * bundled only if the css compressor rewrites relative urls (e.g. {@link org.apache.wicket.resource.CssUrlReplacer}),
+ * because the bundle is served from another path than its members. Bundles that were added manually are used
+ * as before and their items aren't observed. Ajax requests are not observed.
+ *
+ * #### Usage
+ *
+ * ```java
+ * public class MyApplication extends WebApplication {
+ *     &#64;Override
+ *     protected ResourceBundles newResourceBundles(ResourceReferenceRegistry registry) {
+ *         // learn from 100 page renders, then build the bundles
+ *         return new AutomaticResourceBundles(registry, 100);
+ *     }
+ * }
+ * ```
+ *
+ * @see org.apache.wicket.Application#newResourceBundles(ResourceReferenceRegistry)
+ */
+public class AutomaticResourceBundles extends ResourceBundles {
+    private static final Logger LOG = LoggerFactory.getLogger(AutomaticResourceBundles.class);
+
+    /**
+     * the header items that have been observed in the current request cycle
+     */
+    private static final MetaDataKey<Set<HeaderItem>> OBSERVED = new MetaDataKey<Set<HeaderItem>>() {
+        private static final long serialVersionUID = 1L;
+    };
+
+    private final ResourceReferenceRegistry registry;
+    private final int learningRenders;
+
+    private final ConcurrentMap<HeaderItem, Observation> observations = new ConcurrentHashMap<>();
+    private final ConcurrentMap<HeaderItem, HeaderItem> bundles = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicInteger> pageRenders = new ConcurrentHashMap<>();
+    private final AtomicInteger renders = new AtomicInteger();
+    private final AtomicInteger sequence = new AtomicInteger();
+    private volatile List<HeaderItem> builtBundles = Collections.emptyList();
+    private volatile boolean built = false;
+
+    /**
+     * Construct. The bundles have to be built by calling {@link #build()}.
+     *
+     * @param registry the registry that keeps track of the bundle resource references
+     */
+    public AutomaticResourceBundles(final ResourceReferenceRegistry registry) {
+        this(registry, 0);
+    }
+
+    /**
+     * Construct.
+     *
+     * @param registry        the registry that keeps track of the bundle resource references
+     * @param learningRenders the number of observed page renders; the bundles are built on the next one. 0 if
+     *                        the bundles are built by calling {@link #build()} only
+     */
+    public AutomaticResourceBundles(final ResourceReferenceRegistry registry, final int learningRenders) {
+        super(registry);
+
+        this.registry = Args.notNull(registry, "registry");
+        this.learningRenders = Args.withinRange(0, Integer.MAX_VALUE, learningRenders, "learningRenders");
+    }
+
+    @Override
+    public HeaderItem findBundle(final HeaderItem item) {
+        final HeaderItem bundle = super.findBundle(item);
+
+        if (bundle != null) {
+            return bundle;
+        } else if (!built) {
+            observe(item);
+        }
+
+        return built ? bundles.get(item) : null;
+    }
+
+    /**
+     * @return true, if the bundles are built
+     */
+    public boolean isBuilt() {
+        return built;
+    }
+
+    /**
+     * @return all built bundles, in the order they were built
+     */
+    public List<HeaderItem> getBundles() {
+        return builtBundles;
+    }
+
+    /**
+     * builds the bundles from the observations so far and stops observing. Does nothing if the bundles
+     * are built already.
+     */
+    public synchronized void build() {
+        if (built) {
+            return;
+        }
+
+        final Map<String, List<Observation>> groups = new LinkedHashMap<>();
+        final List<Observation> ordered = new ArrayList<>(observations.values());
+        Collections.sort(ordered, Observation.BY_SEQUENCE);
+
+        for (Observation observation : ordered) {
+            final String signature = observation.signature(pageRenders);
+
+            if (signature != null) {
+                List<Observation> group = groups.get(signature);
+
+                if (group == null) {
+                    group = new ArrayList<>();
+                    groups.put(signature, group);
+                }
+                group.add(observation);
+            }
+        }
+
+        final List<HeaderItem> newBundles = new ArrayList<>();
+        for (List<Observation> group : groups.values()) {
+            if (group.size() > 1) {
+                final HeaderItem bundle = newBundle(group);
+                newBundles.add(bundle);
+
+                for (Observation observation : group) {
+                    bundles.put(observation.item, bundle);
+                }
+            }
+        }
+
+        builtBundles = Collections.unmodifiableList(newBundles);
+        observations.clear();
+        pageRenders.clear();
+        built = true;
+
+        LOG.info("built {} resource bundles of {} header items", newBundles.size(), bundles.size());
+    }
+
+    /**
+     * creates the bundle of the given items and registers its resource reference
+     *
+     * @param group the observations of the items, in render order
+     * @return the header item of the bundle
+     */
+    private HeaderItem newBundle(final List<Observation> group) {
+        final boolean javaScript = group.get(0).item instanceof JavaScriptReferenceHeaderItem;
+        final List<HeaderItem> items = new ArrayList<>(group.size());
+
+        for (Observation observation : group) {
+            items.add(observation.item);
+        }
+
+        final String name = "bundle-" + digest(items) + (javaScript ? ".js" : ".css");
+        final ResourceReference reference = newBundleResourceReference(name, items);
+        registry.registerResourceReference(reference);
+
+        return javaScript ? JavaScriptHeaderItem.forReference(reference) : CssHeaderItem.forReference(reference);
+    }
+
+    /**
+     * creates the resource reference of a bundle
+     *
+     * @param name  the name of the bundle
+     * @param items the items of the bundle, in render order
+     * @return new resource reference
+     */
+    @SuppressWarnings("unchecked")
+    protected ResourceReference newBundleResourceReference(final String name, final List<HeaderItem> items) {
+        return new ConcatResourceBundleReference(AutomaticResourceBundles.class, name, items);
+    }
+
+    /**
+     * counts the render of the given item by the page class of the current request, once per request
+     *
+     * @param item the rendered header item
+     */
+    private void observe(final HeaderItem item) {
+        final RequestCycle cycle = RequestCycle.get();
+        if (cycle == null || isAjax(cycle.getRequest())) {
+            return;
+        }
+
+        final IRequestHandler handler = cycle.getActiveRequestHandler();
+        if (!(handler instanceof IPageClassRequestHandler)) {
+            return;
+        }
+
+        final String pageClass = ((IPageClassRequestHandler) handler).getPageClass().getName();
+        Set<HeaderItem> observed = cycle.getMetaData(OBSERVED);
+
+        if (observed == null) {
+            // the bundles are built on the first render after the learning renders, when those are complete
+            if (learningRenders > 0 && renders.getAndIncrement() >= learningRenders) {
+                build();
+                return;
+            }
+
+            observed = new HashSet<>();
+            cycle.setMetaData(OBSERVED, observed);
+            increment(pageRenders, pageClass);
+        }
+
+        if (!observed.add(item)) {
+            return;
+        }
+
+        Observation observation = observations.get(item);
+        if (observation == null) {
+            final Observation newObservation = new Observation(item, sequence.getAndIncrement(), isBundleable(item));
+
+            observation = observations.putIfAbsent(item, newObservation);
+            if (observation == null) {
+                observation = newObservation;
+            }
+        }
+
+        if (observation.bundleable) {
+            increment(observation.renders, pageClass);
+        }
+    }
+
+    private static void increment(final ConcurrentMap<String, AtomicInteger> counters, final String key) {
+        AtomicInteger counter = counters.get(key);
+
+        if (counter == null) {
+            final AtomicInteger newCounter = new AtomicInteger();
+
+            counter = counters.putIfAbsent(key, newCounter);
+            if (counter == null) {
+                counter = newCounter;
+            }
+        }
+        counter.incrementAndGet();
+    }
+
+    /**
+     * @param item the header item to check
+     * @return true, if the given item can be concatenated with others
+     */
+    protected boolean isBundleable(final HeaderItem item) {
+        if (item instanceof JavaScriptReferenceHeaderItem) {
+            final JavaScriptReferenceHeaderItem javaScriptItem = (JavaScriptReferenceHeaderItem) item;
+
+            return Strings.isEmpty(javaScriptItem.getCondition()) && !javaScriptItem.isAsync()
+                   && !javaScriptItem.isDefer() && isStatic(javaScriptItem);
+        } else if (item instanceof CssReferenceHeaderItem) {
+            final CssReferenceHeaderItem cssItem = (CssReferenceHeaderItem) item;
+
+            return Strings.isEmpty(cssItem.getCondition()) && Strings.isEmpty(cssItem.getMedia())
+                   && Application.get().getResourceSettings().getCssCompressor() instanceof IScopeAwareTextResourceProcessor
+                   && isStatic(cssItem);
+        }
+        return false;
+    }
+
+    private static boolean isStatic(final IReferenceHeaderItem item) {
+        final ResourceReference reference = item.getReference();
+
+        if (reference instanceof IResourceBundle || !reference.canBeRegistered()) {
+            return false;
+        }
+
+        final IResource resource = reference.getResource();
+        return resource instanceof IStaticCacheableResource && ((IStaticCacheableResource) resource).isCachingEnabled();
+    }
+
+    private static boolean isAjax(final Request request) {
+        return request instanceof WebRequest && ((WebRequest) request).isAjax();
+    }
+
+    /**
+     * @param items the items of a bundle
+     * @return a stable digest of the resource references of the given items
+     */
+    private static String digest(final List<HeaderItem> items) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+
+            for (HeaderItem item : items) {
+                final ResourceReference.Key key = ((IReferenceHeaderItem) item).getReference().getKey();
+
+                digest.update((key.getScope() + '/' + key.getName() + '/' + key.getLocale() + '/'
+                               + key.getStyle() + '/' + key.getVariation() + '\n').getBytes(StandardCharsets.UTF_8));
+            }
+
+            return Strings.toHexString(digest.digest()).substring(0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * the number of renders of a header item per page class
+     */
+    private static final class Observation {
+        private static final Comparator<Observation> BY_SEQUENCE = new Comparator<Observation>() {
+            @Override
+            public int compare(Observation o1, Observation o2) {
+                return o1.sequence < o2.sequence ? -1 : (o1.sequence == o2.sequence ? 0 : 1);
+            }
+        };
+
+        private final HeaderItem item;
+        private final int sequence;
+        private final boolean bundleable;
+        private final ConcurrentMap<String, AtomicInteger> renders = new ConcurrentHashMap<>();
+
+        private Observation(final HeaderItem item, final int sequence, final boolean bundleable) {
+            this.item = item;
+            this.sequence = sequence;
+            this.bundleable = bundleable;
+        }
+
+        /**
+         * @param pageRenders the number of renders per page class
+         * @return the type of the item and the page classes that render it, or {@code null} if the item can't be
+         *         bundled or is missing on some renders of a page class
+         */
+        private String signature(final Map<String, AtomicInteger> pageRenders) {
+            if (!bundleable || renders.isEmpty()) {
+                return null;
+            }
+
+            for (Map.Entry<String, AtomicInteger> entry : renders.entrySet()) {
+                final AtomicInteger total = pageRenders.get(entry.getKey());
+
+                if (total == null || entry.getValue().get() < total.get()) {
+                    return null;
+                }
+            }
+            return (item instanceof JavaScriptReferenceHeaderItem ? "js:" : "css:") + new TreeSet<>(renders.keySet());
+        }
+    }
+}
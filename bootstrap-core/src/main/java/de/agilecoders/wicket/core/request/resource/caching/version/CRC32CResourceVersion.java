@@ -0,0 +1,83 @@
+package de.agilecoders.wicket.core.request.resource.caching.version;
+
+import java.lang.reflect.Constructor;
+import java.util.zip.Checksum;
+
+/**
+ * #### Description
+ *
+ * A checksum resource version that uses CRC32C (Castagnoli). On Java 9 and later the
+ * hardware accelerated {@code java.util.zip.CRC32C} is used, on older versions a
+ * table-driven implementation.
+ */
+public class CRC32CResourceVersion extends ChecksumResourceVersion {
+
+    /**
+     * the constructor of {@code java.util.zip.CRC32C} or {@code null} if it isn't available
+     */
+    private static final Constructor<? extends Checksum> JDK_CRC32C = lookupJdkCrc32c();
+
+    @Override
+    protected Checksum newChecksumBuilder() {
+        if (JDK_CRC32C != null) {
+            try {
+                return JDK_CRC32C.newInstance();
+            } catch (ReflectiveOperationException e) {
+                // fall through to the table-driven implementation
+            }
+        }
+
+        return new CRC32C();
+    }
+
+    private static Constructor<? extends Checksum> lookupJdkCrc32c() {
+        try {
+            return Class.forName("java.util.zip.CRC32C").asSubclass(Checksum.class).getConstructor();
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A table-driven CRC32C implementation for Java versions without {@code java.util.zip.CRC32C}
+     */
+    static final class CRC32C implements Checksum {
+        private static final int[] TABLE = new int[256];
+
+        static {
+            for (int i = 0; i < TABLE.length; i++) {
+                int crc = i;
+                for (int bit = 0; bit < 8; bit++) {
+                    crc = (crc & 1) != 0 ? (crc >>> 1) ^ 0x82F63B78 : crc >>> 1;
+                }
+                TABLE[i] = crc;
+            }
+        }
+
+        private int crc = 0xFFFFFFFF;
+
+        @Override
+        public void update(int b) {
+            crc = (crc >>> 8) ^ TABLE[(crc ^ b) & 0xFF];
+        }
+
+        @Override
+        public void update(byte[] b, int off, int len) {
+            int value = crc;
+            for (int i = off, end = off + len; i < end; i++) {
+                value = (value >>> 8) ^ TABLE[(value ^ b[i]) & 0xFF];
+            }
+            crc = value;
+        }
+
+        @Override
+        public long getValue() {
+            return ~crc & 0xFFFFFFFFL;
+        }
+
+        @Override
+        public void reset() {
+            crc = 0xFFFFFFFF;
+        }
+    }
+}
@@ -3,12 +3,36 @@ package de.agilecoders.wicket.core.request.resource.caching.version;
 import com.google.common.base.Charsets;
 import com.google.common.base.Strings;
 import org.apache.wicket.Application;
+import org.apache.wicket.core.util.resource.UrlResourceStream;
+import org.apache.wicket.request.resource.CssPackageResource;
+import org.apache.wicket.request.resource.JavaScriptPackageResource;
+import org.apache.wicket.request.resource.PackageResource;
+import org.apache.wicket.request.resource.caching.IStaticCacheableResource;
 import org.apache.wicket.request.resource.caching.version.MessageDigestResourceVersion;
+import org.apache.wicket.settings.ResourceSettings;
 import org.apache.wicket.util.io.IOUtils;
+import org.apache.wicket.util.resource.FileResourceStream;
+import org.apache.wicket.util.resource.IResourceStream;
+import org.apache.wicket.util.resource.ResourceStreamNotFoundException;
+import org.apache.wicket.util.resource.ResourceStreamWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
 import java.util.regex.Pattern;
 import java.util.zip.Checksum;
 
@@ -20,10 +44,17 @@ import java.util.zip.Checksum;
  * <p/>
  * Using a {@link Checksum} is faster than using a {@link java.security.MessageDigest} but it has
  * a higher collision rate.
+ * <p/>
+ * Resources in the file system, e.g. in an exploded war, are read with a {@link FileChannel} and
+ * large ones are memory-mapped. Resources in jar files are read directly from the (cached) {@link JarFile}.
+ * All other resources are read from their input stream, as are package resources whose content is compressed
+ * while it's read, so the checksum is always the one of the served content.
  *
  * @author Michael Haitz <michael.haitz@agilecoders.de>
  */
 public abstract class ChecksumResourceVersion extends MessageDigestResourceVersion {
+    private static final Logger LOG = LoggerFactory.getLogger(ChecksumResourceVersion.class);
+
     private static final Pattern NON_PRINTABLE = Pattern.compile("[\\x00\\x08\\x0B\\x0C\\x0E-\\x1F]");
 
     /**
@@ -50,7 +81,185 @@ public abstract class ChecksumResourceVersion extends MessageDigestResourceVersi
      * @return the buffer size which is used to read the file content.
      */
     protected int bufferSize() {
-        return 1024;
+        return 8192;
+    }
+
+    /**
+     * @return the size in bytes from which on files are memory-mapped instead of being read at once.
+     */
+    protected long mappingThreshold() {
+        return 1024 * 1024;
+    }
+
+    @Override
+    public String getVersion(final IStaticCacheableResource resource) {
+        final IResourceStream stream = resource.getResourceStream();
+
+        if (stream == null) {
+            return null;
+        }
+
+        try {
+            final IResourceStream source = unwrap(resource, stream);
+            byte[] digest = null;
+
+            if (source instanceof FileResourceStream) {
+                digest = computeDigest(((FileResourceStream) source).getFile().toPath());
+            } else if (source instanceof UrlResourceStream) {
+                digest = computeDigest(((UrlResourceStream) source).getURL());
+            }
+
+            if (digest == null) {
+                digest = computeDigest(stream.getInputStream());
+            }
+
+            return org.apache.wicket.util.string.Strings.toHexString(digest);
+        } catch (IOException | ResourceStreamNotFoundException e) {
+            LOG.warn("unable to compute version of resource: " + resource, e);
+            return null;
+        } finally {
+            IOUtils.closeQuietly(stream);
+        }
+    }
+
+    /**
+     * unwraps the resource stream of a {@link PackageResource}, which wraps the located stream to process its
+     * content while it's read. The stream is only unwrapped if the resource serves the located content as it is,
+     * i.e. if it's a plain package resource or a css or javascript package resource without compressor, so the
+     * checksum is always computed of the served content.
+     *
+     * @param resource the resource
+     * @param stream   the resource stream of the resource
+     * @return the innermost wrapped resource stream or the given one if the resource processes its content
+     */
+    static IResourceStream unwrap(final IStaticCacheableResource resource, final IResourceStream stream) {
+        if (processesContent(resource)) {
+            return stream;
+        }
+
+        IResourceStream unwrapped = stream;
+
+        while (unwrapped instanceof ResourceStreamWrapper) {
+            unwrapped = ((ResourceStreamWrapper) unwrapped).getDelegate();
+        }
+        return unwrapped;
+    }
+
+    /**
+     * @param resource the resource
+     * @return true, if the content of the resource may be changed while it's read, e.g. by a compressor
+     */
+    private static boolean processesContent(final IStaticCacheableResource resource) {
+        final Class<?> type = resource.getClass();
+
+        if (type == PackageResource.class) {
+            return false;
+        } else if (type != CssPackageResource.class && type != JavaScriptPackageResource.class) {
+            // subclasses may process the content in any way
+            return true;
+        } else if (!((PackageResource) resource).getCompress()) {
+            return false;
+        } else if (!Application.exists()) {
+            return true;
+        }
+
+        final ResourceSettings settings = Application.get().getResourceSettings();
+        return type == CssPackageResource.class
+               ? settings.getCssCompressor() != null
+               : settings.getJavaScriptCompressor() != null;
+    }
+
+    /**
+     * compute checksum for a resource in the file system or in a jar file
+     *
+     * @param url the url of the resource
+     * @return binary checksum or {@code null} if the resource has to be read from its input stream
+     * @throws IOException if there are any io problems
+     */
+    protected byte[] computeDigest(final URL url) throws IOException {
+        final String protocol = url.getProtocol();
+
+        if ("file".equals(protocol)) {
+            try {
+                return computeDigest(Paths.get(url.toURI()));
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                return null;
+            }
+        } else if ("jar".equals(protocol)) {
+            final URLConnection connection = url.openConnection();
+
+            if (connection instanceof JarURLConnection) {
+                return computeDigest((JarURLConnection) connection);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * compute checksum for a file
+     *
+     * @param path the path to the file
+     * @return binary checksum
+     * @throws IOException if there are any io problems
+     */
+    protected byte[] computeDigest(final Path path) throws IOException {
+        final Checksum checksum = newChecksumBuilder();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+
+            if (size > mappingThreshold()) {
+                final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                final byte[] bytes = new byte[bufferSize()];
+
+                while (buffer.hasRemaining()) {
+                    final int len = Math.min(bytes.length, buffer.remaining());
+                    buffer.get(bytes, 0, len);
+                    checksum.update(bytes, 0, len);
+                }
+            } else {
+                final ByteBuffer buffer = ByteBuffer.allocate((int) size);
+
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer) < 0) {
+                        break;
+                    }
+                }
+                checksum.update(buffer.array(), 0, buffer.position());
+            }
+        }
+
+        return toDigest(checksum);
+    }
+
+    /**
+     * compute checksum for an entry of a jar file
+     *
+     * @param connection the connection to the jar entry
+     * @return binary checksum or {@code null} if the url doesn't point to an entry
+     * @throws IOException if there are any io problems
+     */
+    private byte[] computeDigest(final JarURLConnection connection) throws IOException {
+        final JarFile jarFile = connection.getJarFile();
+
+        try {
+            final JarEntry entry = connection.getJarEntry();
+
+            if (entry == null) {
+                return null;
+            }
+
+            final long size = entry.getSize();
+            final int length = size > 0 && size <= mappingThreshold() ? (int) size : bufferSize();
+
+            return computeDigest(jarFile.getInputStream(entry), length);
+        } finally {
+            // cached jar files are shared by all connections to them
+            if (!connection.getUseCaches()) {
+                jarFile.close();
+            }
+        }
     }
 
     /**
@@ -62,8 +271,20 @@ public abstract class ChecksumResourceVersion extends MessageDigestResourceVersi
      */
     @Override
     protected byte[] computeDigest(final InputStream inputStream) throws IOException {
+        return computeDigest(inputStream, bufferSize());
+    }
+
+    /**
+     * compute checksum for resource stream
+     *
+     * @param inputStream input stream to compute checksum for
+     * @param bufferSize  the size of the buffer to read the input stream with
+     * @return binary checksum
+     * @throws IOException if there are any io problems
+     */
+    private byte[] computeDigest(final InputStream inputStream, final int bufferSize) throws IOException {
         final Checksum checksum = newChecksumBuilder();
-        final byte[] bytes = new byte[bufferSize()];
+        final byte[] bytes = new byte[bufferSize];
         int len;
 
         try {
@@ -78,6 +299,14 @@ public abstract class ChecksumResourceVersion extends MessageDigestResourceVersi
             IOUtils.close(inputStream);
         }
 
+        return toDigest(checksum);
+    }
+
+    /**
+     * @param checksum the checksum of the resource content
+     * @return the checksum as binary version string
+     */
+    private byte[] toDigest(final Checksum checksum) {
         return stripNonVisibleChars(Long.toHexString(checksum.getValue())).getBytes(charset());
     }
 
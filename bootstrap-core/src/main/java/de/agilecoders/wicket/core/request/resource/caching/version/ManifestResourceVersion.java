@@ -0,0 +1,152 @@
+package de.agilecoders.wicket.core.request.resource.caching.version;
+
+import org.apache.wicket.core.util.resource.UrlResourceStream;
+import org.apache.wicket.request.resource.caching.IStaticCacheableResource;
+import org.apache.wicket.request.resource.caching.version.IResourceVersion;
+import org.apache.wicket.util.io.IOUtils;
+import org.apache.wicket.util.lang.Args;
+import org.apache.wicket.util.resource.FileResourceStream;
+import org.apache.wicket.util.resource.IResourceStream;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.regex.Pattern;
+
+/**
+ * #### Description
+ *
+ * A resource version that answers from the {@link ResourceVersionManifest manifests} which have been
+ * generated at build time, so the content of the resources doesn't have to be read. Resources that
+ * aren't in a manifest are versioned by the fallback resource version.
+ * <p/>
+ * Resources in jar files are looked up by the path of their jar entry. Resources in the file system,
+ * e.g. in an exploded war or in {@code target/classes} while developing, are looked up by the
+ * longest matching path and only if the size of the file is still the one in the manifest.
+ *
+ * <pre>
+ * CachingResourceVersion resourceVersion = new CachingResourceVersion(new ManifestResourceVersion());
+ * getResourceSettings().setCachingStrategy(new FilenameWithVersionResourceCachingStrategy(resourceVersion));
+ * </pre>
+ *
+ * The manifests contain {@link Adler32ResourceVersion Adler32} versions by default, so the versions
+ * don't change when a resource isn't in the manifest. The manifests describe the files as they are, so
+ * css and javascript resources that are compressed while they are served, e.g. by the javascript compressor
+ * of the resource settings, are always versioned by the fallback.
+ *
+ * @see ResourceVersionManifestGenerator
+ */
+public class ManifestResourceVersion implements IResourceVersion {
+
+    private final ResourceVersionManifest manifest;
+    private final IResourceVersion fallback;
+
+    /**
+     * Construct.
+     * <p/>
+     * Loads the manifests with the class loader of this class and uses {@link Adler32ResourceVersion} as fallback.
+     */
+    public ManifestResourceVersion() {
+        this(new Adler32ResourceVersion());
+    }
+
+    /**
+     * Construct.
+     * <p/>
+     * Loads the manifests with the class loader of this class.
+     *
+     * @param fallback the resource version of resources that aren't in the manifests, e.g. {@link CRC32ResourceVersion}
+     */
+    public ManifestResourceVersion(final IResourceVersion fallback) {
+        this(ResourceVersionManifest.load(ManifestResourceVersion.class.getClassLoader()), fallback);
+    }
+
+    /**
+     * Construct.
+     *
+     * @param manifest the manifest to answer from
+     * @param fallback the resource version of resources that aren't in the manifest
+     */
+    public ManifestResourceVersion(final ResourceVersionManifest manifest, final IResourceVersion fallback) {
+        this.manifest = Args.notNull(manifest, "manifest");
+        this.fallback = Args.notNull(fallback, "fallback");
+    }
+
+    @Override
+    public String getVersion(final IStaticCacheableResource resource) {
+        final IResourceStream stream = resource.getResourceStream();
+
+        if (stream == null) {
+            return null;
+        }
+
+        final ResourceVersionManifest.Entry entry;
+        try {
+            entry = find(ChecksumResourceVersion.unwrap(resource, stream));
+        } finally {
+            IOUtils.closeQuietly(stream);
+        }
+
+        return entry != null ? entry.getVersion() : fallback.getVersion(resource);
+    }
+
+    @Override
+    public Pattern getVersionPattern() {
+        return fallback.getVersionPattern();
+    }
+
+    /**
+     * @return the manifest this resource version answers from
+     */
+    public ResourceVersionManifest getManifest() {
+        return manifest;
+    }
+
+    /**
+     * @param stream the resource stream of a resource
+     * @return the entry of the resource or {@code null} if it isn't in the manifest
+     */
+    private ResourceVersionManifest.Entry find(final IResourceStream stream) {
+        if (manifest.size() == 0) {
+            return null;
+        } else if (stream instanceof UrlResourceStream) {
+            final URL url = ((UrlResourceStream) stream).getURL();
+
+            if ("jar".equals(url.getProtocol())) {
+                final String path = url.getPath();
+                final int separator = path.indexOf("!/");
+
+                return separator >= 0 ? manifest.get(path.substring(separator + 2)) : null;
+            } else if ("file".equals(url.getProtocol())) {
+                try {
+                    return find(new File(url.toURI()));
+                } catch (URISyntaxException | IllegalArgumentException e) {
+                    return null;
+                }
+            }
+        } else if (stream instanceof FileResourceStream) {
+            return find(((FileResourceStream) stream).getFile());
+        }
+
+        return null;
+    }
+
+    /**
+     * @param file a resource in the file system
+     * @return the entry with the longest path the file ends with or {@code null} if there is none or the
+     * size of the file has changed
+     */
+    private ResourceVersionManifest.Entry find(final File file) {
+        final String path = file.getPath().replace(File.separatorChar, '/');
+
+        for (int index = path.indexOf('/'); index >= 0; index = path.indexOf('/', index + 1)) {
+            final ResourceVersionManifest.Entry entry = manifest.get(path.substring(index + 1));
+
+            if (entry != null) {
+                return entry.getSize() == file.length() ? entry : null;
+            }
+        }
+
+        return null;
+    }
+}
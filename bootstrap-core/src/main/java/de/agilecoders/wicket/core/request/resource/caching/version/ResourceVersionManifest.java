@@ -0,0 +1,229 @@
+package de.agilecoders.wicket.core.request.resource.caching.version;
+
+import com.google.common.base.Charsets;
+import org.apache.wicket.util.io.IOUtils;
+import org.apache.wicket.util.lang.Args;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * #### Description
+ *
+ * A manifest of the versions of static resources that has been generated at build time by the
+ * {@link ResourceVersionManifestGenerator}. Each entry maps the path of a resource in the classpath,
+ * e.g. {@code de/agilecoders/wicket/core/markup/html/references/respond.js}, to its version,
+ * size and content type.
+ * <p/>
+ * The manifests are stored at {@link #LOCATION} in the jar files.
+ *
+ * @see ManifestResourceVersion
+ */
+public class ResourceVersionManifest {
+    private static final Logger LOG = LoggerFactory.getLogger(ResourceVersionManifest.class);
+
+    /**
+     * the location of the manifests in the classpath
+     */
+    public static final String LOCATION = "META-INF/wicket-bootstrap/resource-versions.properties";
+
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /**
+     * loads and merges all manifests in the classpath
+     *
+     * @param classLoader the class loader to load the manifests with
+     * @return the merged manifest, empty if there is none
+     */
+    public static ResourceVersionManifest load(final ClassLoader classLoader) {
+        final ResourceVersionManifest manifest = new ResourceVersionManifest();
+
+        try {
+            final Enumeration<URL> urls = classLoader.getResources(LOCATION);
+
+            while (urls.hasMoreElements()) {
+                final URL url = urls.nextElement();
+                final InputStream inputStream = url.openStream();
+
+                try {
+                    manifest.read(inputStream);
+                } finally {
+                    IOUtils.closeQuietly(inputStream);
+                }
+            }
+        } catch (IOException e) {
+            LOG.warn("unable to load the resource version manifests", e);
+        }
+
+        return manifest;
+    }
+
+    /**
+     * @param path the path of the resource in the classpath, without leading slash
+     * @return the entry of the resource or {@code null} if it isn't in the manifest
+     */
+    public Entry get(final String path) {
+        return entries.get(path);
+    }
+
+    /**
+     * adds or replaces the entry of a resource
+     *
+     * @param path  the path of the resource in the classpath, without leading slash
+     * @param entry the entry of the resource
+     * @return this instance for chaining
+     */
+    public ResourceVersionManifest put(final String path, final Entry entry) {
+        entries.put(Args.notEmpty(path, "path"), Args.notNull(entry, "entry"));
+        return this;
+    }
+
+    /**
+     * @return the paths of all resources in the manifest
+     */
+    public Set<String> getPaths() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    /**
+     * @return the number of resources in the manifest
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * reads the entries of a manifest and adds them to this one
+     *
+     * @param inputStream the manifest in the properties format
+     * @throws IOException if the manifest can't be read
+     */
+    public void read(final InputStream inputStream) throws IOException {
+        final Properties properties = new Properties();
+        properties.load(new InputStreamReader(inputStream, Charsets.UTF_8));
+
+        for (String path : properties.stringPropertyNames()) {
+            final Entry entry = Entry.parse(properties.getProperty(path));
+
+            if (entry != null) {
+                entries.put(path, entry);
+            } else {
+                LOG.debug("ignoring invalid entry of resource: {}", path);
+            }
+        }
+    }
+
+    /**
+     * writes all entries in the properties format, sorted by their paths
+     *
+     * @param outputStream the stream to write to; not closed
+     * @throws IOException if the manifest can't be written
+     */
+    public void write(final OutputStream outputStream) throws IOException {
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, Charsets.UTF_8));
+
+        writer.write("# resource path = version,size,content type\n");
+        for (Map.Entry<String, Entry> entry : new TreeMap<>(entries).entrySet()) {
+            writer.write(escape(entry.getKey()));
+            writer.write('=');
+            writer.write(entry.getValue().toString());
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    /**
+     * escapes the characters of a path that have a special meaning in a properties key
+     */
+    private static String escape(final String path) {
+        final StringBuilder escaped = new StringBuilder(path.length());
+
+        for (int i = 0; i < path.length(); i++) {
+            final char c = path.charAt(i);
+
+            if (c == ' ' || c == '=' || c == ':' || c == '#' || c == '!' || c == '\\') {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * the version, size and content type of a resource
+     */
+    public static final class Entry {
+        private final String version;
+        private final long size;
+        private final String contentType;
+
+        /**
+         * Construct.
+         *
+         * @param version     the version of the resource
+         * @param size        the size of the resource in bytes
+         * @param contentType the content type of the resource or {@code null} if it is unknown
+         */
+        public Entry(final String version, final long size, final String contentType) {
+            this.version = Args.notEmpty(version, "version");
+            this.size = size;
+            this.contentType = contentType;
+        }
+
+        /**
+         * @return the version of the resource
+         */
+        public String getVersion() {
+            return version;
+        }
+
+        /**
+         * @return the size of the resource in bytes
+         */
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * @return the content type of the resource or {@code null} if it is unknown
+         */
+        public String getContentType() {
+            return contentType;
+        }
+
+        private static Entry parse(final String value) {
+            final String[] parts = value.split(",", 3);
+
+            if (parts.length < 2 || parts[0].isEmpty()) {
+                return null;
+            }
+
+            try {
+                final String contentType = parts.length > 2 && !parts[2].isEmpty() ? parts[2] : null;
+                return new Entry(parts[0], Long.parseLong(parts[1]), contentType);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return version + ',' + size + ',' + (contentType != null ? contentType : "");
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package de.agilecoders.wicket.core.request.resource.caching.version;
+
+import org.apache.wicket.util.lang.Args;
+import org.apache.wicket.util.string.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * #### Description
+ *
+ * Generates the {@link ResourceVersionManifest} of all static resources in a directory of compiled
+ * classes, e.g. {@code target/classes}. It is run at build time by the {@code resource-version-manifest}
+ * profile:
+ *
+ * <pre>
+ * mvn package -DresourceVersionManifest
+ * </pre>
+ *
+ * The versions are computed with the given {@link ChecksumResourceVersion}, so they are the same as
+ * the ones that are computed at runtime for resources that aren't in the manifest.
+ *
+ * @see ManifestResourceVersion
+ */
+public class ResourceVersionManifestGenerator {
+    private static final Logger LOG = LoggerFactory.getLogger(ResourceVersionManifestGenerator.class);
+
+    /**
+     * the content types of the static resources by their file extensions
+     */
+    private static final Map<String, String> CONTENT_TYPES = new HashMap<>();
+
+    static {
+        CONTENT_TYPES.put("css", "text/css");
+        CONTENT_TYPES.put("js", "text/javascript");
+        CONTENT_TYPES.put("map", "application/json");
+        CONTENT_TYPES.put("png", "image/png");
+        CONTENT_TYPES.put("gif", "image/gif");
+        CONTENT_TYPES.put("jpg", "image/jpeg");
+        CONTENT_TYPES.put("jpeg", "image/jpeg");
+        CONTENT_TYPES.put("svg", "image/svg+xml");
+        CONTENT_TYPES.put("ico", "image/x-icon");
+        CONTENT_TYPES.put("eot", "application/vnd.ms-fontobject");
+        CONTENT_TYPES.put("ttf", "application/x-font-ttf");
+        CONTENT_TYPES.put("otf", "application/x-font-opentype");
+        CONTENT_TYPES.put("woff", "application/font-woff");
+        CONTENT_TYPES.put("woff2", "font/woff2");
+        CONTENT_TYPES.put("swf", "application/x-shockwave-flash");
+    }
+
+    private final ChecksumResourceVersion resourceVersion;
+
+    /**
+     * Construct.
+     */
+    public ResourceVersionManifestGenerator() {
+        this(new Adler32ResourceVersion());
+    }
+
+    /**
+     * Construct.
+     *
+     * @param resourceVersion the resource version to compute the versions with
+     */
+    public ResourceVersionManifestGenerator(final ChecksumResourceVersion resourceVersion) {
+        this.resourceVersion = Args.notNull(resourceVersion, "resourceVersion");
+    }
+
+    /**
+     * generates the manifest of all static resources in the given directory
+     *
+     * @param root the directory of compiled classes
+     * @return the manifest with the paths of the resources relative to the given directory
+     * @throws IOException if a resource can't be read
+     */
+    public ResourceVersionManifest generate(final Path root) throws IOException {
+        final ResourceVersionManifest manifest = new ResourceVersionManifest();
+
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                final String contentType = contentType(file);
+
+                if (contentType != null && attributes.isRegularFile()) {
+                    final String version = Strings.toHexString(resourceVersion.computeDigest(file));
+                    manifest.put(toResourcePath(root.relativize(file)),
+                                 new ResourceVersionManifest.Entry(version, attributes.size(), contentType));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        return manifest;
+    }
+
+    /**
+     * generates the manifest of all static resources in the given directory and writes it to
+     * {@link ResourceVersionManifest#LOCATION} in that directory
+     *
+     * @param root the directory of compiled classes
+     * @return the generated manifest
+     * @throws IOException if a resource can't be read or the manifest can't be written
+     */
+    public ResourceVersionManifest write(final Path root) throws IOException {
+        final ResourceVersionManifest manifest = generate(root);
+        final Path file = root.resolve(ResourceVersionManifest.LOCATION);
+
+        Files.createDirectories(file.getParent());
+        try (OutputStream outputStream = Files.newOutputStream(file)) {
+            manifest.write(outputStream);
+        }
+
+        return manifest;
+    }
+
+    /**
+     * @param file a file
+     * @return the content type of the given file or {@code null} if it isn't a static resource
+     */
+    protected String contentType(final Path file) {
+        final String name = file.getFileName().toString();
+        final int dot = name.lastIndexOf('.');
+
+        return dot > 0 ? CONTENT_TYPES.get(name.substring(dot + 1).toLowerCase(Locale.ENGLISH)) : null;
+    }
+
+    private static String toResourcePath(final Path relativePath) {
+        final StringBuilder path = new StringBuilder();
+
+        for (Path segment : relativePath) {
+            if (path.length() > 0) {
+                path.append('/');
+            }
+            path.append(segment.toString());
+        }
+        return path.toString();
+    }
+
+    /**
+     * writes the manifest of the static resources in the given directories
+     *
+     * @param args the directories of compiled classes
+     * @throws IOException if a resource can't be read or the manifest can't be written
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("usage: ResourceVersionManifestGenerator <classes directory>...");
+        }
+
+        final ResourceVersionManifestGenerator generator = new ResourceVersionManifestGenerator();
+
+        for (String directory : args) {
+            final Path root = Paths.get(directory);
+
+            if (Files.isDirectory(root)) {
+                final ResourceVersionManifest manifest = generator.write(root);
+                LOG.info("wrote versions of {} resources to {}", manifest.size(), root.resolve(ResourceVersionManifest.LOCATION));
+            }
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package de.agilecoders.wicket.core.request.resource.caching.version;
+
+import de.agilecoders.wicket.core.request.resource.ResourceReferenceCollector;
+import de.agilecoders.wicket.core.settings.IBootstrapSettings;
+import de.agilecoders.wicket.core.settings.ITheme;
+import org.apache.wicket.Application;
+import org.apache.wicket.IApplicationListener;
+import org.apache.wicket.ThreadContext;
+import org.apache.wicket.markup.head.HeaderItem;
+import org.apache.wicket.request.resource.IResource;
+import org.apache.wicket.request.resource.ResourceReference;
+import org.apache.wicket.request.resource.caching.IStaticCacheableResource;
+import org.apache.wicket.request.resource.caching.version.IResourceVersion;
+import org.apache.wicket.util.lang.Args;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * #### Description
+ *
+ * Computes the versions of static resources on a fork-join pool when the application starts, so
+ * the first page render doesn't have to wait for the checksums. Use it with the
+ * {@link org.apache.wicket.request.resource.caching.version.CachingResourceVersion} of the
+ * application's caching strategy, which keeps the computed versions.
+ *
+ * <pre>
+ * CachingResourceVersion resourceVersion = new CachingResourceVersion(new CRC32CResourceVersion());
+ * getResourceSettings().setCachingStrategy(new FilenameWithVersionResourceCachingStrategy(resourceVersion));
+ *
+ * new ResourceVersionPrecomputer(this, resourceVersion)
+ *     .addAll(Bootstrap.getSettings(this))
+ *     .add(MyPage.CSS, MyPage.JS)
+ *     .start();
+ * </pre>
+ *
+ * The resource references are collected together with all their dependencies.
+ */
+public class ResourceVersionPrecomputer {
+    private static final Logger LOG = LoggerFactory.getLogger(ResourceVersionPrecomputer.class);
+
+    private final Application application;
+    private final IResourceVersion resourceVersion;
+
+    /**
+     * collects the resource references to compute the versions for
+     */
+    private final ResourceReferenceCollector collector = new ResourceReferenceCollector();
+
+    private final AtomicInteger computed = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * the running computation or {@code null} until started
+     */
+    private volatile ForkJoinTask<?> task;
+
+    /**
+     * Construct.
+     *
+     * @param application     the application the resources belong to
+     * @param resourceVersion the resource version that computes and keeps the versions
+     */
+    public ResourceVersionPrecomputer(final Application application, final IResourceVersion resourceVersion) {
+        this.application = Args.notNull(application, "application");
+        this.resourceVersion = Args.notNull(resourceVersion, "resourceVersion");
+    }
+
+    /**
+     * adds the given resource references and their dependencies
+     *
+     * @param references the references to add
+     * @return this instance for chaining
+     */
+    public ResourceVersionPrecomputer add(final ResourceReference... references) {
+        collector.add(references);
+        return this;
+    }
+
+    /**
+     * adds the resource references of the given header items and their dependencies
+     *
+     * @param headerItems the header items to add, e.g. {@code theme.getDependencies()}
+     * @return this instance for chaining
+     */
+    public ResourceVersionPrecomputer addAll(final Iterable<? extends HeaderItem> headerItems) {
+        collector.addAll(headerItems);
+        return this;
+    }
+
+    /**
+     * adds the css, javascript and modernizr references of the given settings and the
+     * dependencies of all available themes
+     *
+     * @param settings the bootstrap settings
+     * @return this instance for chaining
+     */
+    public ResourceVersionPrecomputer addAll(final IBootstrapSettings settings) {
+        add(settings.getCssResourceReference(), settings.getJsResourceReference(), settings.getModernizrResourceReference());
+
+        for (ITheme theme : settings.getThemeProvider().available()) {
+            addAll(theme.getDependencies());
+        }
+        return this;
+    }
+
+    /**
+     * @param parallelism the parallelism of the fork-join pool. Default: number of processors
+     * @return this instance for chaining
+     */
+    public ResourceVersionPrecomputer setParallelism(final int parallelism) {
+        this.parallelism = Args.withinRange(1, (int) Short.MAX_VALUE, parallelism, "parallelism");
+        return this;
+    }
+
+    /**
+     * @return all collected resource references
+     */
+    public Set<ResourceReference> getReferences() {
+        return collector.getReferences();
+    }
+
+    /**
+     * starts the computation in the background
+     *
+     * @return this instance for chaining
+     */
+    public synchronized ResourceVersionPrecomputer start() {
+        if (task != null) {
+            throw new IllegalStateException("the precomputation has been started already");
+        }
+
+        final List<ResourceReference> toCompute = new ArrayList<>(collector.getReferences());
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+
+        LOG.debug("computing the versions of {} resources in the background", toCompute.size());
+
+        application.getApplicationListeners().add(new IApplicationListener() {
+            @Override
+            public void onAfterInitialized(Application application) {
+            }
+
+            @Override
+            public void onBeforeDestroyed(Application application) {
+                pool.shutdownNow();
+            }
+        });
+
+        task = pool.submit(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                try {
+                    new PrecomputeAction(toCompute, 0, toCompute.size()).invoke();
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        });
+
+        return this;
+    }
+
+    /**
+     * @return {@code true} if the computation has been started and all versions have been computed (or failed)
+     */
+    public boolean isDone() {
+        final ForkJoinTask<?> current = task;
+        return current != null && current.isDone();
+    }
+
+    /**
+     * waits until all versions have been computed
+     *
+     * @param timeout the maximum time to wait
+     * @param unit    the unit of the timeout
+     * @return {@code true} if all versions have been computed, {@code false} if the timeout elapsed before
+     * @throws InterruptedException if the current thread has been interrupted while waiting
+     */
+    public boolean awaitDone(final long timeout, final TimeUnit unit) throws InterruptedException {
+        final ForkJoinTask<?> current = task;
+        if (current == null) {
+            throw new IllegalStateException("the precomputation has not been started yet");
+        }
+
+        try {
+            current.get(timeout, unit);
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            LOG.warn("the precomputation of the resource versions failed", e.getCause());
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of resources which versions have been computed
+     */
+    public int getComputed() {
+        return computed.get();
+    }
+
+    /**
+     * @return the number of resources which versions couldn't be computed
+     */
+    public int getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * computes the version of a single resource. Called with the application assigned to the current thread.
+     *
+     * @param reference the reference to the resource
+     */
+    protected void compute(final ResourceReference reference) {
+        final IResource resource = reference.getResource();
+
+        if (resource instanceof IStaticCacheableResource) {
+            if (resourceVersion.getVersion((IStaticCacheableResource) resource) != null) {
+                computed.incrementAndGet();
+            } else {
+                failures.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * computes the versions of a range of resource references, splitting it in halves
+     */
+    private final class PrecomputeAction extends RecursiveAction {
+        private final List<ResourceReference> references;
+        private final int from;
+        private final int to;
+
+        private PrecomputeAction(final List<ResourceReference> references, final int from, final int to) {
+            this.references = references;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new PrecomputeAction(references, from, middle), new PrecomputeAction(references, middle, to));
+            } else if (to > from) {
+                final ResourceReference reference = references.get(from);
+                final ThreadContext previous = ThreadContext.detach();
+
+                try {
+                    ThreadContext.setApplication(application);
+                    ResourceVersionPrecomputer.this.compute(reference);
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                    LOG.warn("unable to compute version of resource: " + reference, e);
+                } finally {
+                    ThreadContext.restore(previous);
+                }
+            }
+        }
+    }
+}
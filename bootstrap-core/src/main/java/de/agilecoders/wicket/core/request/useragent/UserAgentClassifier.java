@@ -0,0 +1,207 @@
+package de.agilecoders.wicket.core.request.useragent;
+
+import org.apache.wicket.Application;
+import org.apache.wicket.MetaDataKey;
+import org.apache.wicket.request.Request;
+import org.apache.wicket.request.cycle.RequestCycle;
+import org.apache.wicket.request.http.WebRequest;
+import org.apache.wicket.util.lang.Args;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * #### Description
+ *
+ * Classifies browsers by the {@code User-Agent} header of the request, e.g. to decide whether shims for legacy
+ * Internet Explorer versions are needed or which {@code lt-ie*} css classes the {@code <html>} tag gets. Unlike
+ * {@link org.apache.wicket.protocol.http.request.WebClientInfo} it neither needs a session nor creates one, so
+ * stateless pages stay stateless. The header is scanned in place without creating strings; the results are cached
+ * per header value in a bounded cache of the application, in which the least recently used entries are evicted,
+ * and once per request for all components and behaviors. The cache is locked only to look up and to add an entry,
+ * not while a header is scanned.
+ *
+ * #### Usage
+ *
+ * ```java
+ * if (UserAgentClassifier.isLegacyInternetExplorer()) {
+ *     response.render(JavaScriptHeaderItem.forReference(Html5ShivJavaScriptReference.instance()));
+ * }
+ * ```
+ */
+public final class UserAgentClassifier {
+
+    /**
+     * the version of browsers that aren't a legacy Internet Explorer
+     */
+    public static final int NOT_INTERNET_EXPLORER = -1;
+
+    /**
+     * the default maximum number of cached user agents
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 256;
+
+    private static final MetaDataKey<UserAgentClassifier> KEY = new MetaDataKey<UserAgentClassifier>() {
+        private static final long serialVersionUID = 1L;
+    };
+
+    /**
+     * the classification of the user agent of the current request
+     */
+    private static final MetaDataKey<Integer> INTERNET_EXPLORER_VERSION = new MetaDataKey<Integer>() {
+        private static final long serialVersionUID = 1L;
+    };
+
+    private static final String MSIE = "MSIE ";
+
+    /**
+     * The classifications per user agent in the order of the last access
+     */
+    private final Map<String, Integer> entries;
+
+    /**
+     * Construct.
+     *
+     * @param maximumSize the maximum number of cached user agents
+     */
+    public UserAgentClassifier(final int maximumSize) {
+        Args.withinRange(0, Integer.MAX_VALUE, maximumSize, "maximumSize");
+
+        this.entries = new LinkedHashMap<String, Integer>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Integer> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    /**
+     * @param application the application
+     * @return the classifier of the given application
+     */
+    public static UserAgentClassifier get(final Application application) {
+        UserAgentClassifier classifier = application.getMetaData(KEY);
+
+        if (classifier == null) {
+            synchronized (KEY) {
+                classifier = application.getMetaData(KEY);
+
+                if (classifier == null) {
+                    classifier = new UserAgentClassifier(DEFAULT_MAXIMUM_SIZE);
+                    application.setMetaData(KEY, classifier);
+                }
+            }
+        }
+        return classifier;
+    }
+
+    /**
+     * @return true, if the current request was sent by Internet Explorer 6-8
+     */
+    public static boolean isLegacyInternetExplorer() {
+        final int version = internetExplorerVersion();
+
+        return version != NOT_INTERNET_EXPLORER && version < 9;
+    }
+
+    /**
+     * @return the major version of the Internet Explorer that sent the current request or
+     * {@link #NOT_INTERNET_EXPLORER}
+     */
+    public static int internetExplorerVersion() {
+        final RequestCycle cycle = RequestCycle.get();
+
+        if (cycle == null) {
+            return NOT_INTERNET_EXPLORER;
+        }
+
+        Integer result = cycle.getMetaData(INTERNET_EXPLORER_VERSION);
+        if (result == null) {
+            final String userAgent = userAgent(cycle.getRequest());
+
+            if (userAgent == null) {
+                result = NOT_INTERNET_EXPLORER;
+            } else if (Application.exists()) {
+                result = get(Application.get()).internetExplorerVersion(userAgent);
+            } else {
+                result = parseInternetExplorerVersion(userAgent);
+            }
+            cycle.setMetaData(INTERNET_EXPLORER_VERSION, result);
+        }
+        return result;
+    }
+
+    /**
+     * @param userAgent the value of a {@code User-Agent} header
+     * @return the major version of the Internet Explorer or {@link #NOT_INTERNET_EXPLORER}
+     */
+    public int internetExplorerVersion(final String userAgent) {
+        Args.notNull(userAgent, "userAgent");
+
+        synchronized (entries) {
+            final Integer cached = entries.get(userAgent);
+
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        final int result = parseInternetExplorerVersion(userAgent);
+
+        synchronized (entries) {
+            entries.put(userAgent, result);
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of cached user agents
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @param userAgent the value of a {@code User-Agent} header
+     * @return true, if the classification of the user agent is cached
+     */
+    boolean contains(final String userAgent) {
+        synchronized (entries) {
+            return entries.containsKey(userAgent);
+        }
+    }
+
+    /**
+     * Internet Explorer up to version 10 sends {@code MSIE <version>}; old Opera versions pretend to be
+     * Internet Explorer but add their own name.
+     *
+     * @param userAgent the value of a {@code User-Agent} header
+     * @return the major version of the Internet Explorer or {@link #NOT_INTERNET_EXPLORER}
+     */
+    static int parseInternetExplorerVersion(final String userAgent) {
+        final int index = userAgent.indexOf(MSIE);
+
+        if (index < 0 || userAgent.contains("Opera")) {
+            return NOT_INTERNET_EXPLORER;
+        }
+
+        final int length = userAgent.length();
+        final int start = index + MSIE.length();
+        int i = start;
+        int major = 0;
+
+        while (i < length && major < 100 && Character.isDigit(userAgent.charAt(i))) {
+            major = major * 10 + (userAgent.charAt(i) - '0');
+            i++;
+        }
+        return i > start ? major : NOT_INTERNET_EXPLORER;
+    }
+
+    private static String userAgent(final Request request) {
+        return request instanceof WebRequest ? ((WebRequest) request).getHeader("User-Agent") : null;
+    }
+}
@@ -1,12 +1,24 @@
 package de.agilecoders.wicket.core.settings;
 
 import de.agilecoders.wicket.core.markup.html.references.BootstrapJavaScriptReference;
+import de.agilecoders.wicket.core.markup.html.references.JQueryPluginCdnResourceReference;
 import de.agilecoders.wicket.core.markup.html.references.JQueryPluginUrlResourceReference;
 import de.agilecoders.wicket.core.markup.html.references.ModernizrJavaScriptReference;
 import de.agilecoders.wicket.core.markup.html.themes.bootstrap.BootstrapCssReference;
+import de.agilecoders.wicket.core.request.cdn.CdnResourceReference;
+import de.agilecoders.wicket.core.request.preload.IEarlyHintsSender;
+import de.agilecoders.wicket.core.request.preload.PreloadResource;
+import de.agilecoders.wicket.webjars.request.resource.WebjarsCssResourceReference;
+import de.agilecoders.wicket.webjars.request.resource.WebjarsJavaScriptResourceReference;
 import org.apache.wicket.request.Url;
 import org.apache.wicket.request.resource.ResourceReference;
 import org.apache.wicket.request.resource.UrlResourceReference;
+import org.apache.wicket.util.lang.Args;
+import org.apache.wicket.util.time.Duration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * #### Description
@@ -22,6 +34,10 @@ public class BootstrapSettings implements IBootstrapSettings {
         private static ResourceReference bootstrapJavaScriptReference = BootstrapJavaScriptReference.instance();
         private static ResourceReference modernizrJavaScriptReference = ModernizrJavaScriptReference.instance();
         private static ResourceReference bootstrapCssReference = BootstrapCssReference.instance();
+
+        // the minified webjar files are identical to the ones at the CDN network
+        private static ResourceReference bootstrapMinJavaScriptReference = new WebjarsJavaScriptResourceReference("/bootstrap/current/js/bootstrap.min.js");
+        private static ResourceReference bootstrapMinCssReference = new WebjarsCssResourceReference("/bootstrap/current/css/bootstrap.min.css");
     }
 
     private ResourceReference bootstrapJavaScriptReference = null;
@@ -32,8 +48,16 @@ public class BootstrapSettings implements IBootstrapSettings {
     private ActiveThemeProvider activeThemeProvider;
     private String resourceFilterName;
     private boolean updateSecurityManager;
+    private boolean servePrecompressedResources;
+    private boolean usePrunedCss;
+    private boolean preloadResources;
+    private boolean legacyInternetExplorerShims;
+    private final List<PreloadResource> preloadResourceList = new ArrayList<>();
+    private IEarlyHintsSender earlyHintsSender;
     private boolean autoAppendResources;
     private boolean useCdnResources;
+    private boolean cdnFailover;
+    private Duration cdnFailoverTimeout;
 
     private boolean deferJavascript;
     private String version = VERSION;
@@ -47,8 +71,14 @@ public class BootstrapSettings implements IBootstrapSettings {
         this.themeProvider = new NoopThemeProvider();
         this.resourceFilterName = "";
         this.updateSecurityManager = true;
+        this.servePrecompressedResources = false;
+        this.usePrunedCss = false;
+        this.preloadResources = false;
+        this.legacyInternetExplorerShims = true;
         this.autoAppendResources = true;
         this.useCdnResources = false;
+        this.cdnFailover = false;
+        this.cdnFailoverTimeout = Duration.seconds(3);
         this.deferJavascript = false;
     }
 
@@ -90,6 +120,11 @@ public class BootstrapSettings implements IBootstrapSettings {
 
         if (useCdnResources()) {
             String cdnUrl = String.format(CSS_CDN_PATTERN, getVersion());
+
+            if (cdnFailover()) {
+                return new CdnResourceReference(Url.parse(cdnUrl), bootstrapCssReference != null ? bootstrapCssReference : Holder.bootstrapCssReference)
+                        .setIntegritySource(bootstrapCssReference == null && VERSION.equals(getVersion()) ? Holder.bootstrapMinCssReference : null);
+            }
             ref = new UrlResourceReference(Url.parse(cdnUrl));
         } else {
             ref = bootstrapCssReference;
@@ -104,6 +139,12 @@ public class BootstrapSettings implements IBootstrapSettings {
 
         if (useCdnResources()) {
             String cdnUrl = String.format(JS_CDN_PATTERN, getVersion());
+
+            if (cdnFailover()) {
+                return new JQueryPluginCdnResourceReference(Url.parse(cdnUrl), bootstrapJavaScriptReference != null ? bootstrapJavaScriptReference : Holder.bootstrapJavaScriptReference)
+                        .setIntegritySource(bootstrapJavaScriptReference == null && VERSION.equals(getVersion()) ? Holder.bootstrapMinJavaScriptReference : null)
+                        .setFallbackTest("window.jQuery && jQuery.fn.modal");
+            }
             jsReference = new JQueryPluginUrlResourceReference(Url.parse(cdnUrl));
         } else {
             jsReference = bootstrapJavaScriptReference;
@@ -118,6 +159,11 @@ public class BootstrapSettings implements IBootstrapSettings {
 
         if (useCdnResources()) {
             String cdnUrl = String.format(MODERNIZR_CDN_PATTERN, getModernizrVersion());
+
+            if (cdnFailover()) {
+                return new CdnResourceReference(Url.parse(cdnUrl), modernizrJavaScriptReference != null ? modernizrJavaScriptReference : Holder.modernizrJavaScriptReference)
+                        .setFallbackTest("window.Modernizr");
+            }
             jsReference = new UrlResourceReference(Url.parse(cdnUrl));
         } else {
             jsReference = modernizrJavaScriptReference;
@@ -184,6 +230,72 @@ public class BootstrapSettings implements IBootstrapSettings {
         return this;
     }
 
+    @Override
+    public IBootstrapSettings setServePrecompressedResources(boolean activate) {
+        servePrecompressedResources = activate;
+        return this;
+    }
+
+    @Override
+    public boolean servePrecompressedResources() {
+        return servePrecompressedResources;
+    }
+
+    @Override
+    public IBootstrapSettings setUsePrunedCss(boolean activate) {
+        usePrunedCss = activate;
+        return this;
+    }
+
+    @Override
+    public boolean usePrunedCss() {
+        return usePrunedCss;
+    }
+
+    @Override
+    public IBootstrapSettings setPreloadResources(boolean activate) {
+        preloadResources = activate;
+        return this;
+    }
+
+    @Override
+    public boolean preloadResources() {
+        return preloadResources;
+    }
+
+    @Override
+    public IBootstrapSettings setLegacyInternetExplorerShims(boolean activate) {
+        legacyInternetExplorerShims = activate;
+        return this;
+    }
+
+    @Override
+    public boolean legacyInternetExplorerShims() {
+        return legacyInternetExplorerShims;
+    }
+
+    @Override
+    public IBootstrapSettings addPreloadResources(PreloadResource... resources) {
+        Collections.addAll(preloadResourceList, resources);
+        return this;
+    }
+
+    @Override
+    public List<PreloadResource> getPreloadResources() {
+        return Collections.unmodifiableList(preloadResourceList);
+    }
+
+    @Override
+    public IBootstrapSettings setEarlyHintsSender(IEarlyHintsSender sender) {
+        earlyHintsSender = sender;
+        return this;
+    }
+
+    @Override
+    public IEarlyHintsSender getEarlyHintsSender() {
+        return earlyHintsSender;
+    }
+
     @Override
     public IBootstrapSettings setDeferJavascript(boolean defer) {
         deferJavascript = defer;
@@ -209,7 +321,7 @@ public class BootstrapSettings implements IBootstrapSettings {
 
     @Override
     public final boolean useWebjars() {
-        return !useCdnResources() &&
+        return (!useCdnResources() || cdnFailover()) &&
             (bootstrapCssReference == null ||
                 bootstrapJavaScriptReference == null ||
                 modernizrJavaScriptReference == null);
@@ -220,4 +332,26 @@ public class BootstrapSettings implements IBootstrapSettings {
         this.useCdnResources = useCdnResources;
         return this;
     }
+
+    @Override
+    public boolean cdnFailover() {
+        return cdnFailover;
+    }
+
+    @Override
+    public IBootstrapSettings setCdnFailover(boolean activate) {
+        cdnFailover = activate;
+        return this;
+    }
+
+    @Override
+    public Duration getCdnFailoverTimeout() {
+        return cdnFailoverTimeout;
+    }
+
+    @Override
+    public IBootstrapSettings setCdnFailoverTimeout(Duration timeout) {
+        cdnFailoverTimeout = Args.notNull(timeout, "timeout");
+        return this;
+    }
 }
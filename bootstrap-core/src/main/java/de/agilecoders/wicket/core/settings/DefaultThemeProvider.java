@@ -6,13 +6,18 @@ import org.apache.wicket.WicketRuntimeException;
 import org.apache.wicket.util.string.Strings;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * #### Description
  *
  * A default {@link ThemeProvider} implementation that only contains
  * the {@link de.agilecoders.wicket.core.markup.html.themes.bootstrap.BootstrapTheme}.
+ * Themes are looked up by their lower case name, so {@link #byName(String)} doesn't depend
+ * on the number of themes.
  *
  * #### Usage
  *
@@ -25,6 +30,7 @@ import java.util.List;
 public class DefaultThemeProvider implements ThemeProvider {
 
     private final List<ITheme> themes = Generics2.newArrayList();
+    private final Map<String, ITheme> themesByName = new HashMap<>();
     private ITheme defaultTheme;
 
     /**
@@ -43,7 +49,12 @@ public class DefaultThemeProvider implements ThemeProvider {
     public DefaultThemeProvider add(final ITheme... themes) {
         assertNoDuplicateNames(themes);
 
-        this.themes.addAll(Generics2.newArrayList(themes));
+        for (ITheme theme : themes) {
+            this.themes.add(theme);
+            if (!themesByName.containsKey(key(theme.name()))) {
+                themesByName.put(key(theme.name()), theme);
+            }
+        }
         return this;
     }
 
@@ -62,14 +73,13 @@ public class DefaultThemeProvider implements ThemeProvider {
                 throw new WicketRuntimeException("theme is null");
             }
 
-            for (ITheme existingTheme : this.themes) {
+            final ITheme existingTheme = themesByName.get(key(newTheme.name()));
+            if (existingTheme != null) {
                 if (existingTheme.equals(newTheme)) {
                     throw new WicketRuntimeException("duplicated theme entry: " + newTheme.name());
                 }
 
-                if (newTheme.name().equalsIgnoreCase(existingTheme.name())) {
-                    throw new WicketRuntimeException("duplicated theme name: " + newTheme.name());
-                }
+                throw new WicketRuntimeException("duplicated theme name: " + newTheme.name());
             }
         }
     }
@@ -113,16 +123,24 @@ public class DefaultThemeProvider implements ThemeProvider {
     @Override
     public ITheme byName(String name) {
         if (!Strings.isEmpty(name)) {
-            for (ITheme theme : themes) {
-                if (name.equalsIgnoreCase(theme.name())) {
-                    return theme;
-                }
+            final ITheme theme = themesByName.get(key(name));
+
+            if (theme != null) {
+                return theme;
             }
         }
 
         throw new WicketRuntimeException("theme does not exists: " + name);
     }
 
+    /**
+     * @param name a theme name
+     * @return the key of the theme name in the index
+     */
+    private static String key(final String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
     @Override
     public List<ITheme> available() {
         return Collections.unmodifiableList(themes);
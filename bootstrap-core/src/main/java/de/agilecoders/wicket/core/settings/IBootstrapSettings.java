@@ -1,6 +1,11 @@
 package de.agilecoders.wicket.core.settings;
 
+import de.agilecoders.wicket.core.request.preload.IEarlyHintsSender;
+import de.agilecoders.wicket.core.request.preload.PreloadResource;
 import org.apache.wicket.request.resource.ResourceReference;
+import org.apache.wicket.util.time.Duration;
+
+import java.util.List;
 
 /**
  * #### Description
@@ -150,6 +155,94 @@ public interface IBootstrapSettings {
      */
     boolean updateSecurityManager();
 
+    /**
+     * if true, the package resources will write their pre-compressed siblings, e.g. {@code bootlint.js.gz},
+     * to clients that accept their content coding. The siblings are only part of jars that have been built
+     * with {@code -DprecompressResources}. (default is false)
+     *
+     * @param activate true, if pre-compressed siblings should be written
+     * @return same instance for chaining
+     */
+    IBootstrapSettings setServePrecompressedResources(boolean activate);
+
+    /**
+     * @return true, if pre-compressed siblings of package resources should be written
+     */
+    boolean servePrecompressedResources();
+
+    /**
+     * if true, themes render the pruned variations of their stylesheets, which the
+     * {@code PrunedCssGenerator} of the wicket-bootstrap-build-tools module writes at build time.
+     * Stylesheets without pruned variation are rendered as they are. (default is false)
+     *
+     * @param activate true, if pruned stylesheets should be used
+     * @return same instance for chaining
+     */
+    IBootstrapSettings setUsePrunedCss(boolean activate);
+
+    /**
+     * @return true, if pruned stylesheets should be used
+     */
+    boolean usePrunedCss();
+
+    /**
+     * if true, the {@link de.agilecoders.wicket.core.markup.html.bootstrap.behavior.BootstrapBaseBehavior} adds
+     * {@code Link: <url>; rel=preload} headers for the css of the active theme, the bootstrap javascript and all
+     * additional preload resources to the response of a page. (default is false)
+     *
+     * @param activate true, if preload headers should be added
+     * @return same instance for chaining
+     */
+    IBootstrapSettings setPreloadResources(boolean activate);
+
+    /**
+     * @return true, if preload headers should be added
+     */
+    boolean preloadResources();
+
+    /**
+     * if true, the {@link de.agilecoders.wicket.core.markup.html.bootstrap.behavior.BootstrapBaseBehavior} adds the
+     * html5shiv and respond.js shims to pages requested by Internet Explorer 6-8. The browser is classified by the
+     * {@code User-Agent} header of the request, without access to the session. (default is true)
+     *
+     * @param activate true, if the shims for legacy Internet Explorer versions should be added
+     * @return same instance for chaining
+     */
+    IBootstrapSettings setLegacyInternetExplorerShims(boolean activate);
+
+    /**
+     * @return true, if the shims for legacy Internet Explorer versions should be added
+     */
+    boolean legacyInternetExplorerShims();
+
+    /**
+     * adds resources which are preloaded in addition to the theme and bootstrap javascript,
+     * e.g. the fonts of an icon set.
+     *
+     * @param resources the resources to preload
+     * @return same instance for chaining
+     */
+    IBootstrapSettings addPreloadResources(PreloadResource... resources);
+
+    /**
+     * @return the additional resources to preload
+     */
+    List<PreloadResource> getPreloadResources();
+
+    /**
+     * sets the sender of {@code 103 Early Hints} responses for the preload headers. (default is null, because
+     * the servlet api doesn't support interim responses)
+     *
+     * @param sender the container specific sender or null
+     * @return same instance for chaining
+     */
+    IBootstrapSettings setEarlyHintsSender(IEarlyHintsSender sender);
+
+    /**
+     * @return the sender of {@code 103 Early Hints} responses or null
+     */
+    IEarlyHintsSender getEarlyHintsSender();
+
     /**
      * The {@link ActiveThemeProvider} provides access to the active theme
      *
@@ -183,7 +276,8 @@ public interface IBootstrapSettings {
 
     /**
      * @return true, if wicket bootstrap uses the webjars library. If you don't want to use the webjars libraries,
-     * please set bootstrap css/js, modernizr reference to your own instance or call {@link #useCdnResources(boolean)}.
+     * please set bootstrap css/js, modernizr reference to your own instance or call {@link #useCdnResources(boolean)}
+     * without {@link #setCdnFailover(boolean)}, which falls back to the webjars.
      * Some components uses webjars references internally, so if you want to use them,
      * please override the provided {@code newXYHeaderItem()} methods.
      */
@@ -194,4 +288,32 @@ public interface IBootstrapSettings {
      * @return this instance
      */
     IBootstrapSettings useCdnResources(boolean useCdnResources);
+
+    /**
+     * if true and {@link #useCdnResources()} is active, the bootstrap css/js, modernizr and theme resources are
+     * rendered with a loader, that loads the local resources if the CDN network fails. The bootstrap css/js are
+     * checked with their subresource integrity, if they are the bundled version. (default is false)
+     *
+     * @param activate true, if local resources should be loaded if the CDN network fails
+     * @return same instance for chaining
+     */
+    IBootstrapSettings setCdnFailover(boolean activate);
+
+    /**
+     * @return true, if local resources should be loaded if the CDN network fails
+     */
+    boolean cdnFailover();
+
+    /**
+     * sets the time to wait for a CDN stylesheet, before the local one is loaded. (default is 3 seconds)
+     *
+     * @param timeout the time to wait for a CDN stylesheet
+     * @return same instance for chaining
+     */
+    IBootstrapSettings setCdnFailoverTimeout(Duration timeout);
+
+    /**
+     * @return the time to wait for a CDN stylesheet, before the local one is loaded
+     */
+    Duration getCdnFailoverTimeout();
 }
@@ -40,7 +40,8 @@ public interface ITheme {
     void renderHead(IHeaderResponse response);
 
     /**
-     * @return The urls to CDN CSS resources to use for this theme
+     * @return The urls to CDN CSS resources to use for this theme, in the order of the css dependencies that are
+     * their local fallbacks
      */
     Iterable<String> getCdnUrls();
 
@@ -44,12 +44,15 @@ public class NoopThemeProvider implements ThemeProvider {
 
         @Override
         public List<HeaderItem> getDependencies() {
-            return Collections.emptyList();
+            return Collections.<HeaderItem>singletonList(CssHeaderItem.forReference(Bootstrap.getSettings().getCssResourceReference()));
         }
 
+        /**
+         * renders the css resource reference of the settings, which is cached by {@link ThemeHeaderItems}
+         */
         @Override
         public void renderHead(IHeaderResponse response) {
-            response.render(CssHeaderItem.forReference(Bootstrap.getSettings().getCssResourceReference()));
+            ThemeHeaderItems.renderHead(response, this);
         }
 
         @Override
@@ -6,11 +6,9 @@ import org.apache.wicket.markup.head.CssHeaderItem;
 import org.apache.wicket.markup.head.HeaderItem;
 import org.apache.wicket.markup.head.IHeaderResponse;
 import org.apache.wicket.markup.head.JavaScriptHeaderItem;
-import org.apache.wicket.request.Url;
 import org.apache.wicket.request.resource.CssResourceReference;
 import org.apache.wicket.request.resource.JavaScriptResourceReference;
 import org.apache.wicket.request.resource.ResourceReference;
-import org.apache.wicket.request.resource.UrlResourceReference;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -66,33 +64,12 @@ public class Theme implements ITheme {
         return headerItems;
     }
 
+    /**
+     * renders the CDN stylesheets or the dependencies of this theme, which are cached by {@link ThemeHeaderItems}
+     */
     @Override
     public void renderHead(IHeaderResponse response) {
-        if (useCdnResources()) {
-            Iterable<String> cdnUrls = getCdnUrls();
-            if (cdnUrls != null && cdnUrls.iterator().hasNext()) {
-                for (String cdnUrl : cdnUrls) {
-                    response.render(CssHeaderItem.forReference(new UrlResourceReference(Url.parse(cdnUrl))));
-                }
-            }
-            else {
-                renderPackageReferences(response);
-            }
-        }
-        else {
-            renderPackageReferences(response);
-        }
-    }
-
-    private boolean useCdnResources() {
-        boolean result = false;
-
-        if (Application.exists()) {
-            IBootstrapSettings settings = Bootstrap.getSettings();
-            result = settings.useCdnResources();
-        }
-
-        return result;
+        ThemeHeaderItems.renderHead(response, this);
     }
 
     @Override
@@ -100,12 +77,6 @@ public class Theme implements ITheme {
         return Collections.emptyList();
     }
 
-    private void renderPackageReferences(IHeaderResponse response) {
-        for (HeaderItem headerItem : getDependencies()) {
-            response.render(headerItem);
-        }
-    }
-
     /**
      * @return The configured version of Bootstrap
      */
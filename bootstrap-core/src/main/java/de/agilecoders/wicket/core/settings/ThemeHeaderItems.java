@@ -0,0 +1,234 @@
+package de.agilecoders.wicket.core.settings;
+
+import de.agilecoders.wicket.core.Bootstrap;
+import de.agilecoders.wicket.core.markup.html.themes.critical.CriticalCss;
+import de.agilecoders.wicket.core.markup.html.themes.pruned.PrunedCss;
+import de.agilecoders.wicket.core.request.cdn.CdnResourceReference;
+import org.apache.wicket.Application;
+import org.apache.wicket.MetaDataKey;
+import org.apache.wicket.markup.head.CssHeaderItem;
+import org.apache.wicket.markup.head.CssReferenceHeaderItem;
+import org.apache.wicket.markup.head.HeaderItem;
+import org.apache.wicket.markup.head.IHeaderResponse;
+import org.apache.wicket.request.Url;
+import org.apache.wicket.request.resource.ResourceReference;
+import org.apache.wicket.util.lang.Args;
+import org.apache.wicket.util.lang.Objects;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * #### Description
+ *
+ * Caches the header items each {@link ITheme} renders per application: either the CDN stylesheets with their
+ * local fallbacks or the (pruned) dependencies of the theme. The items are resolved once per theme and reused by
+ * all requests; the cache is cleared as soon as one of the {@link IBootstrapSettings} they depend on changes, e.g.
+ * the CDN mode or the version. The critical css depends on the current page, so it's rendered by
+ * {@link CriticalCss} on each request.
+ *
+ * #### Usage
+ *
+ * ```java
+ * public void renderHead(IHeaderResponse response) {
+ *     ThemeHeaderItems.renderHead(response, this);
+ * }
+ * ```
+ *
+ * @see Theme#renderHead(IHeaderResponse)
+ */
+public final class ThemeHeaderItems {
+
+    private static final MetaDataKey<ThemeHeaderItems> KEY = new MetaDataKey<ThemeHeaderItems>() {
+        private static final long serialVersionUID = 1L;
+    };
+
+    /**
+     * the entries and the settings they were resolved with, both are replaced at once
+     */
+    private volatile Entries entries = new Entries(null);
+
+    private ThemeHeaderItems() {
+    }
+
+    /**
+     * @param application the application
+     * @return the theme header items of the given application
+     */
+    public static ThemeHeaderItems get(final Application application) {
+        ThemeHeaderItems headerItems = application.getMetaData(KEY);
+
+        if (headerItems == null) {
+            synchronized (KEY) {
+                headerItems = application.getMetaData(KEY);
+
+                if (headerItems == null) {
+                    headerItems = new ThemeHeaderItems();
+                    application.setMetaData(KEY, headerItems);
+                }
+            }
+        }
+        return headerItems;
+    }
+
+    /**
+     * renders the header items of the given theme. The critical css is rendered for the current page unless the
+     * theme uses CDN resources.
+     *
+     * @param response the header response
+     * @param theme    the theme
+     */
+    public static void renderHead(final IHeaderResponse response, final ITheme theme) {
+        final Entry entry = Application.exists() ? get(Application.get()).entry(theme, Bootstrap.getSettings()) : newEntry(theme, null);
+
+        if (entry.cdn) {
+            for (HeaderItem item : entry.items) {
+                response.render(item);
+            }
+        } else {
+            CriticalCss.renderHead(response, theme, entry.items);
+        }
+    }
+
+    /**
+     * @param theme    the theme
+     * @param settings the bootstrap settings of the application or {@code null}
+     * @return the unmodifiable header items the theme renders with the given settings
+     */
+    public List<HeaderItem> of(final ITheme theme, final IBootstrapSettings settings) {
+        return entry(theme, settings).items;
+    }
+
+    /**
+     * removes all cached header items
+     */
+    public void clear() {
+        entries = new Entries(null);
+    }
+
+    private Entry entry(final ITheme theme, final IBootstrapSettings settings) {
+        Args.notNull(theme, "theme");
+
+        Entries current = entries;
+        if (current.state == null || !current.state.matches(settings)) {
+            current = new Entries(new State(settings));
+            entries = current;
+        }
+
+        Entry entry = current.entries.get(theme.name());
+
+        // there may be several instances of a theme with the same name, e.g. in tests
+        if (entry == null || entry.theme != theme) {
+            entry = newEntry(theme, settings);
+            current.entries.put(theme.name(), entry);
+        }
+        return entry;
+    }
+
+    private static Entry newEntry(final ITheme theme, final IBootstrapSettings settings) {
+        if (settings != null && settings.useCdnResources()) {
+            final Iterable<String> cdnUrls = theme.getCdnUrls();
+
+            if (cdnUrls != null && cdnUrls.iterator().hasNext()) {
+                final List<ResourceReference> fallbacks = cssReferences(theme);
+                final List<HeaderItem> items = new ArrayList<>();
+                int i = 0;
+
+                for (String cdnUrl : cdnUrls) {
+                    final ResourceReference fallback = i < fallbacks.size() ? fallbacks.get(i++) : null;
+                    items.add(CssHeaderItem.forReference(new CdnResourceReference(Url.parse(cdnUrl), fallback)));
+                }
+                return new Entry(theme, items, true);
+            }
+        }
+        return new Entry(theme, PrunedCss.dependencies(theme.getDependencies()), false);
+    }
+
+    /**
+     * @return the css references of the dependencies, which are the local fallbacks of the CDN urls in the same order
+     */
+    private static List<ResourceReference> cssReferences(final ITheme theme) {
+        final List<ResourceReference> references = new ArrayList<>();
+
+        for (HeaderItem item : theme.getDependencies()) {
+            if (item instanceof CssReferenceHeaderItem) {
+                references.add(((CssReferenceHeaderItem) item).getReference());
+            }
+        }
+        return references;
+    }
+
+    /**
+     * the resolved header items of a theme
+     */
+    private static final class Entry {
+        private final ITheme theme;
+        private final List<HeaderItem> items;
+        private final boolean cdn;
+
+        private Entry(final ITheme theme, final List<HeaderItem> items, final boolean cdn) {
+            this.theme = theme;
+            this.items = Collections.unmodifiableList(new ArrayList<>(items));
+            this.cdn = cdn;
+        }
+    }
+
+    /**
+     * the entries per theme name, resolved with the given settings
+     */
+    private static final class Entries {
+        private final State state;
+        private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+        private Entries(final State state) {
+            this.state = state;
+        }
+    }
+
+    /**
+     * the settings the header items depend on
+     */
+    private static final class State {
+        private final IBootstrapSettings settings;
+        private final boolean useCdnResources;
+        private final boolean usePrunedCss;
+        private final boolean cdnFailover;
+        private final String version;
+        private final ResourceReference cssResourceReference;
+
+        private State(final IBootstrapSettings settings) {
+            this.settings = settings;
+
+            if (settings != null) {
+                useCdnResources = settings.useCdnResources();
+                usePrunedCss = settings.usePrunedCss();
+                cdnFailover = settings.cdnFailover();
+                version = settings.getVersion();
+                // a new reference is created for each call in CDN mode, it's derived from the version then
+                cssResourceReference = useCdnResources ? null : settings.getCssResourceReference();
+            } else {
+                useCdnResources = false;
+                usePrunedCss = false;
+                cdnFailover = false;
+                version = null;
+                cssResourceReference = null;
+            }
+        }
+
+        private boolean matches(final IBootstrapSettings other) {
+            if (settings != other) {
+                return false;
+            } else if (other == null) {
+                return true;
+            }
+            return useCdnResources == other.useCdnResources()
+                   && usePrunedCss == other.usePrunedCss()
+                   && cdnFailover == other.cdnFailover()
+                   && Objects.equal(version, other.getVersion())
+                   && (useCdnResources || Objects.equal(cssResourceReference, other.getCssResourceReference()));
+        }
+    }
+}
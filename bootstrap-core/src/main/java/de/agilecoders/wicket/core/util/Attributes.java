@@ -1,7 +1,6 @@
 package de.agilecoders.wicket.core.util;
 
 import de.agilecoders.wicket.core.markup.html.bootstrap.behavior.ICssClassNameProvider;
-import de.agilecoders.wicket.jquery.util.Generics2;
 import org.apache.wicket.markup.ComponentTag;
 import org.apache.wicket.util.lang.Args;
 import org.apache.wicket.util.string.Strings;
@@ -36,7 +35,7 @@ public final class Attributes {
         Args.notNull(classNames, "classNames");
         Args.notNull(tag, "tag");
 
-        addClass(tag, Generics2.newHashSet(classNames));
+        setClass(tag, CssClassList.add(tag.getAttribute("class"), classNames));
     }
 
     /**
@@ -58,9 +57,7 @@ public final class Attributes {
         Args.notNull(classNames, "classNames");
         Args.notNull(tag, "tag");
 
-        final String classValue = CssClassNames.parse(tag.getAttribute("class")).add(classNames).asString();
-
-        set(tag, "class", classValue);
+        setClass(tag, CssClassList.add(tag.getAttribute("class"), classNames));
     }
 
     /**
@@ -78,13 +75,31 @@ public final class Attributes {
      * }); // = <tag class="my-class-a"></tag>
      * ```
      *
+     * The class names of the enum providers are precomputed and interned, so the tag isn't parsed if
+     * it has no class yet or the very same class name already.
+     *
      * @param tag      The tag
      * @param provider Provider that provides a class name to add
      * @throws java.lang.IllegalArgumentException if given component tag is null
      */
     public static void addClass(final ComponentTag tag, final ICssClassNameProvider provider) {
         if (provider != null) {
-            addClass(tag, provider.cssClassName());
+            Args.notNull(tag, "tag");
+
+            final String className = provider.cssClassName();
+            if (Strings.isEmpty(className)) {
+                return;
+            }
+
+            final String classValue = tag.getAttribute("class");
+            if (className == classValue) {
+                return;
+            } else if (provider instanceof Enum && Strings.isEmpty(classValue)) {
+                tag.put("class", className);
+                return;
+            }
+
+            addClass(tag, className);
         }
     }
 
@@ -107,9 +122,7 @@ public final class Attributes {
         Args.notNull(classNames, "classNames");
         Args.notNull(tag, "tag");
 
-        final String classValue = CssClassNames.parse(tag.getAttribute("class")).remove(classNames).asString();
-
-        set(tag, "class", classValue);
+        setClass(tag, CssClassList.remove(tag.getAttribute("class"), classNames));
     }
 
     /**
@@ -129,8 +142,9 @@ public final class Attributes {
      */
     public static void removeClass(final ComponentTag tag, final String... classNames) {
         Args.notNull(classNames, "classNames");
+        Args.notNull(tag, "tag");
 
-        removeClass(tag, Generics2.newHashSet(classNames));
+        setClass(tag, CssClassList.remove(tag.getAttribute("class"), classNames));
     }
 
     /**
@@ -187,6 +201,18 @@ public final class Attributes {
         }
     }
 
+    /**
+     * sets the class attribute, unless it has the given (non empty) value already
+     *
+     * @param tag        The tag
+     * @param classValue the new class attribute value
+     */
+    private static void setClass(final ComponentTag tag, final String classValue) {
+        if (Strings.isEmpty(classValue) || !classValue.equals(tag.getAttribute("class"))) {
+            set(tag, "class", classValue);
+        }
+    }
+
     /**
      * private constructor.
      */
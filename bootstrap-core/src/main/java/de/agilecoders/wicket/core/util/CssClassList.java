@@ -0,0 +1,300 @@
+package de.agilecoders.wicket.core.util;
+
+import org.apache.wicket.util.lang.Args;
+
+/**
+ * #### Description
+ *
+ * Adds and removes css class names to/from class attribute values without intermediate collections: the
+ * class names are scanned in place and the result is built in a single buffer sized from the input. The
+ * result is the given value itself if nothing changed, so no string is created for class names that are set
+ * already. Class names are separated by whitespace, given class names may contain several ones; duplicates
+ * are removed and the order of the first occurrences is kept.
+ *
+ * #### Usage
+ *
+ * ```java
+ * CssClassList.add("btn btn-default", "btn", "active"); // = "btn btn-default active"
+ * CssClassList.remove("btn btn-default active", "active"); // = "btn btn-default"
+ * ```
+ *
+ * @see Attributes
+ * @see CssClassNames.Builder
+ */
+public final class CssClassList {
+
+    /**
+     * Constructor.
+     */
+    private CssClassList() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * adds class names to a class attribute value
+     *
+     * @param value      the class attribute value or {@code null}
+     * @param classNames the class names to add; {@code null} elements are ignored
+     * @return the new class attribute value, an empty string if there's no class name
+     */
+    public static String add(final String value, final String... classNames) {
+        Args.notNull(classNames, "classNames");
+
+        if (classNames.length == 1 && isEmpty(value) && isSingleClassName(classNames[0])) {
+            return classNames[0];
+        }
+
+        int capacity = length(value);
+        for (String className : classNames) {
+            capacity += length(className) + 1;
+        }
+
+        final StringBuilder buffer = new StringBuilder(capacity);
+        appendDistinct(buffer, value);
+        for (String className : classNames) {
+            appendDistinct(buffer, className);
+        }
+        return result(buffer, value);
+    }
+
+    /**
+     * adds class names to a class attribute value
+     *
+     * @param value      the class attribute value or {@code null}
+     * @param classNames the class names to add; {@code null} elements are ignored
+     * @return the new class attribute value, an empty string if there's no class name
+     */
+    public static String add(final String value, final Iterable<String> classNames) {
+        Args.notNull(classNames, "classNames");
+
+        int capacity = length(value);
+        for (String className : classNames) {
+            capacity += length(className) + 1;
+        }
+
+        final StringBuilder buffer = new StringBuilder(capacity);
+        appendDistinct(buffer, value);
+        for (String className : classNames) {
+            appendDistinct(buffer, className);
+        }
+        return result(buffer, value);
+    }
+
+    /**
+     * removes class names from a class attribute value
+     *
+     * @param value      the class attribute value or {@code null}
+     * @param classNames the class names to remove; {@code null} elements are ignored
+     * @return the new class attribute value, an empty string if there's no class name left
+     */
+    public static String remove(final String value, final String... classNames) {
+        Args.notNull(classNames, "classNames");
+
+        if (isEmpty(value)) {
+            return "";
+        }
+
+        final int length = value.length();
+        final StringBuilder buffer = new StringBuilder(length);
+        int i = 0;
+
+        while (i < length) {
+            while (i < length && Character.isWhitespace(value.charAt(i))) {
+                i++;
+            }
+            final int start = i;
+            while (i < length && !Character.isWhitespace(value.charAt(i))) {
+                i++;
+            }
+            if (start < i && !containsAny(classNames, value, start, i) && indexOf(buffer, value, start, i) < 0) {
+                append(buffer, value, start, i);
+            }
+        }
+        return result(buffer, value);
+    }
+
+    /**
+     * removes class names from a class attribute value
+     *
+     * @param value      the class attribute value or {@code null}
+     * @param classNames the class names to remove; {@code null} elements are ignored
+     * @return the new class attribute value, an empty string if there's no class name left
+     */
+    public static String remove(final String value, final Iterable<String> classNames) {
+        Args.notNull(classNames, "classNames");
+
+        String result = value;
+        for (String className : classNames) {
+            result = remove(result, className);
+        }
+        return result != null ? result : "";
+    }
+
+    /**
+     * @param value     the class attribute value or {@code null}
+     * @param className a single class name
+     * @return true, if the class attribute value contains the class name
+     */
+    public static boolean contains(final String value, final String className) {
+        if (isEmpty(value) || isEmpty(className)) {
+            return false;
+        }
+
+        final int length = value.length();
+        int i = 0;
+
+        while (i < length) {
+            while (i < length && Character.isWhitespace(value.charAt(i))) {
+                i++;
+            }
+            final int start = i;
+            while (i < length && !Character.isWhitespace(value.charAt(i))) {
+                i++;
+            }
+            if (i - start == className.length() && value.regionMatches(start, className, 0, className.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * appends the class names of the given value, which aren't in the buffer yet
+     */
+    private static void appendDistinct(final StringBuilder buffer, final String value) {
+        if (value == null) {
+            return;
+        }
+
+        final int length = value.length();
+        int i = 0;
+
+        while (i < length) {
+            while (i < length && Character.isWhitespace(value.charAt(i))) {
+                i++;
+            }
+            final int start = i;
+            while (i < length && !Character.isWhitespace(value.charAt(i))) {
+                i++;
+            }
+            if (start < i && indexOf(buffer, value, start, i) < 0) {
+                append(buffer, value, start, i);
+            }
+        }
+    }
+
+    private static void append(final StringBuilder buffer, final String value, final int start, final int end) {
+        if (buffer.length() > 0) {
+            buffer.append(' ');
+        }
+        buffer.append(value, start, end);
+    }
+
+    /**
+     * @return the position of the class name {@code value[start, end)} in the buffer or -1
+     */
+    private static int indexOf(final StringBuilder buffer, final String value, final int start, final int end) {
+        final int length = buffer.length();
+        final int tokenLength = end - start;
+        int i = 0;
+
+        while (i < length) {
+            final int tokenEnd = nextSpace(buffer, i);
+
+            if (tokenEnd - i == tokenLength && regionMatches(buffer, i, value, start, tokenLength)) {
+                return i;
+            }
+            i = tokenEnd + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * @return true, if one of the class names equals {@code value[start, end)}
+     */
+    private static boolean containsAny(final String[] classNames, final String value, final int start, final int end) {
+        for (String className : classNames) {
+            if (className == null) {
+                continue;
+            }
+
+            final int length = className.length();
+            int i = 0;
+
+            while (i < length) {
+                while (i < length && Character.isWhitespace(className.charAt(i))) {
+                    i++;
+                }
+                final int tokenStart = i;
+                while (i < length && !Character.isWhitespace(className.charAt(i))) {
+                    i++;
+                }
+                if (i - tokenStart == end - start && className.regionMatches(tokenStart, value, start, end - start)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean regionMatches(final StringBuilder buffer, final int offset, final String value, final int start,
+                                         final int length) {
+        for (int i = 0; i < length; i++) {
+            if (buffer.charAt(offset + i) != value.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int nextSpace(final StringBuilder buffer, final int from) {
+        final int length = buffer.length();
+        int i = from;
+
+        while (i < length && buffer.charAt(i) != ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return the given value if it equals the buffer, the content of the buffer otherwise
+     */
+    private static String result(final StringBuilder buffer, final String value) {
+        return value != null && contentEquals(buffer, value) ? value : buffer.toString();
+    }
+
+    private static boolean contentEquals(final StringBuilder buffer, final String value) {
+        final int length = value.length();
+
+        if (buffer.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.charAt(i) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int length(final String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    private static boolean isSingleClassName(final String className) {
+        if (isEmpty(className)) {
+            return false;
+        }
+        for (int i = 0; i < className.length(); i++) {
+            if (Character.isWhitespace(className.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isEmpty(final String value) {
+        return value == null || value.isEmpty();
+    }
+}
@@ -4,12 +4,9 @@ import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
 import de.agilecoders.wicket.core.markup.html.bootstrap.behavior.ICssClassNameProvider;
 import de.agilecoders.wicket.jquery.util.Generics2;
-import de.agilecoders.wicket.jquery.util.Strings2;
 import org.apache.wicket.model.IModel;
 import org.apache.wicket.util.lang.Args;
 
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -90,10 +87,10 @@ public final class CssClassNames {
 
     /**
      * Builder for css class names. All css class names will be hold in a
-     * {@link Set} of strings.
+     * single class attribute value, that is changed by {@link CssClassList}.
      */
     public static final class Builder {
-        private final Set<String> classValues;
+        private String classValue;
 
         /**
          * Construct.
@@ -101,9 +98,7 @@ public final class CssClassNames {
          * @param classValue the initial class name string
          */
         private Builder(final String classValue) {
-            classValues = Generics2.newLinkedHashSet(Collections.<String>emptySet());
-
-            addRaw(classValue);
+            this.classValue = CssClassList.add(classValue);
         }
 
         /**
@@ -113,7 +108,7 @@ public final class CssClassNames {
          * @return this instance for chaining
          */
         public Builder addRaw(final String rawCssString) {
-            add(split(Strings2.nullToEmpty(rawCssString)));
+            classValue = CssClassList.add(classValue, rawCssString);
             return this;
         }
 
@@ -126,7 +121,8 @@ public final class CssClassNames {
         public Builder remove(final Builder builder) {
             Args.notNull(builder, "builder");
 
-            return remove(builder.asSet());
+            classValue = CssClassList.remove(classValue, builder.classValue);
+            return this;
         }
 
         /**
@@ -138,7 +134,8 @@ public final class CssClassNames {
         public Builder remove(final String... classNames) {
             Args.notNull(classNames, "classNames");
 
-            return remove(Generics2.newHashSet(classNames));
+            classValue = CssClassList.remove(classValue, classNames);
+            return this;
         }
 
         /**
@@ -150,7 +147,7 @@ public final class CssClassNames {
         public Builder remove(final Set<String> classNames) {
             Args.notNull(classNames, "classNames");
 
-            classValues.removeAll(classNames);
+            classValue = CssClassList.remove(classValue, classNames);
             return this;
         }
 
@@ -163,7 +160,7 @@ public final class CssClassNames {
         public Builder add(final Builder builder) {
             Args.notNull(builder, "builder");
 
-            return add(builder.asSet());
+            return addRaw(builder.classValue);
         }
 
         /**
@@ -175,7 +172,8 @@ public final class CssClassNames {
         public Builder add(final String... classNames) {
             Args.notNull(classNames, "classNames");
 
-            return add(Generics2.newLinkedHashSet(Arrays.asList(classNames)));
+            classValue = CssClassList.add(classValue, classNames);
+            return this;
         }
 
         /**
@@ -187,7 +185,7 @@ public final class CssClassNames {
         public Builder add(final Set<String> classNames) {
             Args.notNull(classNames, "classNames");
 
-            classValues.addAll(classNames);
+            classValue = CssClassList.add(classValue, classNames);
             return this;
         }
 
@@ -195,21 +193,21 @@ public final class CssClassNames {
          * @return all css class names as valid html attribute value
          */
         public String asString() {
-            return join(classValues);
+            return classValue;
         }
 
         /**
          * @return all css class names as list of strings
          */
         public List<String> asList() {
-            return Generics2.newArrayList(classValues);
+            return Generics2.newArrayList(split(classValue));
         }
 
         /**
          * @return all css class names as set of strings
          */
         public Set<String> asSet() {
-            return Generics2.newLinkedHashSet(classValues);
+            return split(classValue);
         }
 
         /**
@@ -219,7 +217,7 @@ public final class CssClassNames {
          * @return true, if class name was set
          */
         public boolean contains(final String className) {
-            return classValues.contains(className);
+            return CssClassList.contains(classValue, className);
         }
     }
 
@@ -0,0 +1,248 @@
+package de.agilecoders.wicket.core.util;
+
+import org.apache.wicket.util.lang.Args;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * #### Description
+ *
+ * Removes the style rules from a stylesheet whose selectors don't match a {@link CssUsage}. Selectors of a rule
+ * that don't match are removed as well. Rules within conditional group rules ({@code @media}, {@code @supports})
+ * are filtered recursively; groups without rules are removed. Comments are removed.
+ *
+ * All other at-rules, e.g. {@code @font-face}, {@code @keyframes} or {@code @import}, are kept only if the filter
+ * keeps them; a filter for the critical css of a page removes them, because they are loaded with the complete
+ * stylesheet later on.
+ *
+ * #### Usage
+ *
+ * ```java
+ * String pruned = new CssRuleFilter(usage).filter(css);
+ * String critical = new CssRuleFilter(usage).keepAtRules(false).filter(css);
+ * ```
+ */
+public class CssRuleFilter {
+
+    /**
+     * the conditional group rules which contain style rules
+     */
+    private static final Set<String> GROUP_RULES = new HashSet<>(Arrays.asList("media", "supports", "document", "-moz-document"));
+
+    private final CssUsage usage;
+    private boolean keepAtRules = true;
+
+    /**
+     * Construct.
+     *
+     * @param usage the used element names, ids and css class names
+     */
+    public CssRuleFilter(final CssUsage usage) {
+        this.usage = Args.notNull(usage, "usage");
+    }
+
+    /**
+     * @param keep true, if at-rules except conditional group rules should be kept (default is true)
+     * @return this instance for chaining
+     */
+    public CssRuleFilter keepAtRules(final boolean keep) {
+        this.keepAtRules = keep;
+        return this;
+    }
+
+    /**
+     * @param css the stylesheet
+     * @return the stylesheet without unused rules
+     */
+    public String filter(final CharSequence css) {
+        final String source = removeComments(Args.notNull(css, "css"));
+        final StringBuilder result = new StringBuilder(source.length() / 4);
+
+        filter(source, 0, source.length(), result);
+        return result.toString();
+    }
+
+    private void filter(final String css, int position, final int end, final StringBuilder result) {
+        while (position < end) {
+            while (position < end && Character.isWhitespace(css.charAt(position))) {
+                position++;
+            }
+            if (position >= end) {
+                return;
+            }
+
+            final int open = indexOf(css, position, end, '{', ';');
+
+            if (open < 0) {
+                // malformed trailing content
+                if (keepAtRules) {
+                    result.append(css, position, end);
+                }
+                return;
+            }
+
+            final String prelude = css.substring(position, open).trim();
+
+            if (css.charAt(open) == ';') {
+                // a statement at-rule, e.g. @import or @charset
+                if (keepAtRules && prelude.startsWith("@")) {
+                    result.append(prelude).append(';');
+                }
+                position = open + 1;
+                continue;
+            }
+
+            final int close = indexOfClosingBrace(css, open + 1, end);
+            final String body = css.substring(open + 1, close);
+
+            if (prelude.startsWith("@")) {
+                if (GROUP_RULES.contains(atRuleName(prelude))) {
+                    final StringBuilder group = new StringBuilder();
+                    filter(css, open + 1, close, group);
+
+                    if (group.length() > 0) {
+                        result.append(prelude).append('{').append(group).append('}');
+                    }
+                } else if (keepAtRules) {
+                    result.append(prelude).append('{').append(body.trim()).append('}');
+                }
+            } else {
+                final List<String> selectors = usedSelectors(prelude);
+
+                if (!selectors.isEmpty()) {
+                    appendJoined(result, selectors);
+                    result.append('{').append(body.trim()).append('}');
+                }
+            }
+
+            position = Math.min(close + 1, end);
+        }
+    }
+
+    private List<String> usedSelectors(final String selectorGroup) {
+        final List<String> used = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+
+        for (int i = 0; i <= selectorGroup.length(); i++) {
+            final char c = i < selectorGroup.length() ? selectorGroup.charAt(i) : ',';
+
+            if (c == '(' || c == '[') {
+                depth++;
+            } else if (c == ')' || c == ']') {
+                depth--;
+            } else if (c == ',' && depth <= 0) {
+                final String selector = selectorGroup.substring(start, i).trim();
+
+                if (!selector.isEmpty() && usage.matches(selector)) {
+                    used.add(selector);
+                }
+                start = i + 1;
+            }
+        }
+        return used;
+    }
+
+    private static void appendJoined(final StringBuilder result, final List<String> selectors) {
+        for (int i = 0; i < selectors.size(); i++) {
+            if (i > 0) {
+                result.append(',');
+            }
+            result.append(selectors.get(i));
+        }
+    }
+
+    private static String atRuleName(final String prelude) {
+        int end = 1;
+        while (end < prelude.length() && !Character.isWhitespace(prelude.charAt(end)) && prelude.charAt(end) != '(') {
+            end++;
+        }
+        return prelude.substring(1, end).toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * @return the position of the first of the given characters outside of strings; -1 if there is none
+     */
+    private static int indexOf(final String css, final int start, final int end, final char c1, final char c2) {
+        char quote = 0;
+
+        for (int i = start; i < end; i++) {
+            final char c = css.charAt(i);
+
+            if (c == '\\') {
+                i++;
+            } else if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == c1 || c == c2) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the position of the brace that closes the block starting at the given position, or the end
+     */
+    private static int indexOfClosingBrace(final String css, final int start, final int end) {
+        char quote = 0;
+        int depth = 1;
+
+        for (int i = start; i < end; i++) {
+            final char c = css.charAt(i);
+
+            if (c == '\\') {
+                i++;
+            } else if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private static String removeComments(final CharSequence source) {
+        final String css = source.toString();
+        final StringBuilder result = new StringBuilder(css.length());
+        char quote = 0;
+
+        for (int i = 0; i < css.length(); i++) {
+            final char c = css.charAt(i);
+
+            if (quote == 0 && c == '/' && i + 1 < css.length() && css.charAt(i + 1) == '*') {
+                final int close = css.indexOf("*/", i + 2);
+
+                i = close < 0 ? css.length() : close + 1;
+                continue;
+            }
+
+            if (c == '\\' && i + 1 < css.length()) {
+                result.append(c).append(css.charAt(++i));
+                continue;
+            } else if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            }
+            result.append(c);
+        }
+        return result.toString();
+    }
+}
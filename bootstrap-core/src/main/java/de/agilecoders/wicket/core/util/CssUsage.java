@@ -0,0 +1,213 @@
+package de.agilecoders.wicket.core.util;
+
+import org.apache.wicket.util.lang.Args;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * #### Description
+ *
+ * Collects the element names, ids and css class names that are used by markup and decides whether
+ * a css selector may match. The decision is conservative: a selector matches if each of its compound
+ * selectors only refers to used names, regardless of the structure of the markup. Pseudo classes,
+ * pseudo elements and attribute selectors are ignored.
+ *
+ * #### Usage
+ *
+ * ```java
+ * CssUsage usage = new CssUsage().addMarkup(markup).addClassNames("active", "in");
+ * usage.matches(".navbar .active > a"); // true, if navbar is used as well
+ * ```
+ *
+ * @see CssRuleFilter
+ */
+public class CssUsage {
+
+    private static final Pattern START_TAG = Pattern.compile("<([a-zA-Z][\\w:-]*)((?:[^>\"']|\"[^\"]*\"|'[^']*')*)>");
+    private static final Pattern ATTRIBUTE = Pattern.compile("(?:^|\\s)(id|class)\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)'|([^\\s>]+))",
+                                                             Pattern.CASE_INSENSITIVE);
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Pattern ATTRIBUTE_SELECTOR = Pattern.compile("\\[[^\\]]*\\]");
+    private static final Pattern PSEUDO_SELECTOR = Pattern.compile("::?[a-zA-Z-]+(?:\\((?:[^()]|\\([^()]*\\))*\\))?");
+    private static final Pattern COMBINATOR = Pattern.compile("\\s*[>+~]\\s*|\\s+");
+    private static final Pattern SIMPLE_SELECTOR = Pattern.compile("([.#]?)((?:\\\\.|[\\w-])+|\\*)");
+
+    private final Set<String> elementNames = new HashSet<>();
+    private final Set<String> ids = new HashSet<>();
+    private final Set<String> classNames = new HashSet<>();
+    private final List<Pattern> classNamePatterns = new ArrayList<>();
+
+    /**
+     * adds the element names, ids and css class names of all start tags of the given markup
+     *
+     * @param markup the markup to scan
+     * @return this instance for chaining
+     */
+    public CssUsage addMarkup(final CharSequence markup) {
+        return addMarkup(markup, Integer.MAX_VALUE);
+    }
+
+    /**
+     * adds the element names, ids and css class names of the start tags of the given markup. All tags up to
+     * and including the {@code body} tag are scanned, but only the given number of tags within the body.
+     *
+     * @param markup           the markup to scan
+     * @param maxBodyElements  the number of tags within the body to scan
+     * @return this instance for chaining
+     */
+    public CssUsage addMarkup(final CharSequence markup, final int maxBodyElements) {
+        Args.notNull(markup, "markup");
+
+        final Matcher tag = START_TAG.matcher(markup);
+        int bodyElements = -1;
+
+        while (tag.find() && bodyElements < maxBodyElements) {
+            final String name = tag.group(1).toLowerCase(Locale.ENGLISH);
+
+            elementNames.add(name);
+            addAttributes(tag.group(2));
+
+            if (bodyElements >= 0) {
+                bodyElements++;
+            } else if ("body".equals(name)) {
+                bodyElements = 0;
+            }
+        }
+        return this;
+    }
+
+    private void addAttributes(final String attributes) {
+        final Matcher attribute = ATTRIBUTE.matcher(attributes);
+
+        while (attribute.find()) {
+            String value = attribute.group(2);
+            if (value == null) {
+                value = attribute.group(3) != null ? attribute.group(3) : attribute.group(4);
+            }
+
+            if ("id".equalsIgnoreCase(attribute.group(1))) {
+                ids.add(value.trim());
+            } else {
+                Collections.addAll(classNames, WHITESPACE.split(value.trim()));
+            }
+        }
+    }
+
+    /**
+     * @param names element names, e.g. {@code table}
+     * @return this instance for chaining
+     */
+    public CssUsage addElementNames(final String... names) {
+        for (String name : names) {
+            elementNames.add(name.toLowerCase(Locale.ENGLISH));
+        }
+        return this;
+    }
+
+    /**
+     * @param names ids of elements
+     * @return this instance for chaining
+     */
+    public CssUsage addIds(final String... names) {
+        Collections.addAll(ids, names);
+        return this;
+    }
+
+    /**
+     * @param names css class names
+     * @return this instance for chaining
+     */
+    public CssUsage addClassNames(final String... names) {
+        Collections.addAll(classNames, names);
+        return this;
+    }
+
+    /**
+     * @param names css class names
+     * @return this instance for chaining
+     */
+    public CssUsage addClassNames(final Collection<String> names) {
+        classNames.addAll(names);
+        return this;
+    }
+
+    /**
+     * @param patterns patterns of css class names that are regarded as used, e.g. {@code col-.*}
+     * @return this instance for chaining
+     */
+    public CssUsage addClassNamePatterns(final Pattern... patterns) {
+        Collections.addAll(classNamePatterns, patterns);
+        return this;
+    }
+
+    /**
+     * @param usage another usage
+     * @return this instance for chaining
+     */
+    public CssUsage addAll(final CssUsage usage) {
+        elementNames.addAll(usage.elementNames);
+        ids.addAll(usage.ids);
+        classNames.addAll(usage.classNames);
+        classNamePatterns.addAll(usage.classNamePatterns);
+        return this;
+    }
+
+    /**
+     * @return the used css class names
+     */
+    public Set<String> getClassNames() {
+        return Collections.unmodifiableSet(classNames);
+    }
+
+    /**
+     * @param selector a single selector, i.e. without commas
+     * @return true, if the selector may match an element of the markup
+     */
+    public boolean matches(final String selector) {
+        final String simplified = PSEUDO_SELECTOR.matcher(ATTRIBUTE_SELECTOR.matcher(selector).replaceAll("")).replaceAll("");
+
+        for (String compound : COMBINATOR.split(simplified.trim())) {
+            final Matcher simple = SIMPLE_SELECTOR.matcher(compound);
+
+            while (simple.find()) {
+                final String type = simple.group(1);
+                final String name = unescape(simple.group(2));
+
+                if (type.isEmpty()) {
+                    if (!"*".equals(name) && !elementNames.contains(name.toLowerCase(Locale.ENGLISH))) {
+                        return false;
+                    }
+                } else if ("#".equals(type)) {
+                    if (!ids.contains(name)) {
+                        return false;
+                    }
+                } else if (!classNames.contains(name) && !matchesPattern(name)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean matchesPattern(final String className) {
+        for (Pattern pattern : classNamePatterns) {
+            if (pattern.matcher(className).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String unescape(final String name) {
+        return name.indexOf('\\') < 0 ? name : name.replaceAll("\\\\(.)", "$1");
+    }
+}
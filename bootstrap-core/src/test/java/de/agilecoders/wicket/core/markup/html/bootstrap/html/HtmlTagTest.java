@@ -5,6 +5,7 @@ import static org.hamcrest.Matchers.is;
 
 import org.apache.wicket.markup.ComponentTag;
 import org.apache.wicket.markup.parser.XmlTag;
+import org.apache.wicket.protocol.http.ClientProperties;
 import org.junit.Test;
 
 import de.agilecoders.wicket.core.WicketApplicationTest;
@@ -28,4 +29,30 @@ public class HtmlTagTest extends WicketApplicationTest {
         htmlTag.onComponentTag(tag);
         assertThat(tag.getAttribute("lang"), is(equalTo("en-US")));
     }
+
+    @Test
+    public void onComponentTagLegacyInternetExplorer() throws Exception {
+        tester().getRequest().setHeader("User-Agent", "Mozilla/4.0 (compatible; MSIE 7.0; Windows NT 5.1)");
+
+        HtmlTag htmlTag = new HtmlTag("id");
+        htmlTag.onComponentTag(tag);
+        assertThat(tag.getAttribute("class").contains("lt-ie9"), is(equalTo(true)));
+        assertThat(tag.getAttribute("class").contains("lt-ie8"), is(equalTo(true)));
+        assertThat(tag.getAttribute("class").contains("lt-ie7"), is(equalTo(false)));
+    }
+
+    @Test
+    public void onComponentTagOverriddenWebClientInfo() throws Exception {
+        HtmlTag htmlTag = new HtmlTag("id") {
+            @Override
+            protected ClientProperties newWebClientInfo() {
+                ClientProperties properties = new ClientProperties();
+                properties.setBrowserInternetExplorer(true);
+                properties.setBrowserVersionMajor(6);
+                return properties;
+            }
+        };
+        htmlTag.onComponentTag(tag);
+        assertThat(tag.getAttribute("class").contains("lt-ie7"), is(equalTo(true)));
+    }
 }
@@ -0,0 +1,92 @@
+package de.agilecoders.wicket.core.markup.html.themes.critical;
+
+import de.agilecoders.wicket.core.Bootstrap;
+import de.agilecoders.wicket.core.WicketApplicationTest;
+import de.agilecoders.wicket.core.settings.BootstrapSettings;
+import de.agilecoders.wicket.core.settings.IBootstrapSettings;
+import de.agilecoders.wicket.core.settings.SingleThemeProvider;
+import de.agilecoders.wicket.core.settings.Theme;
+import org.apache.wicket.MarkupContainer;
+import org.apache.wicket.markup.IMarkupResourceStreamProvider;
+import org.apache.wicket.markup.head.IHeaderResponse;
+import org.apache.wicket.markup.html.WebPage;
+import org.apache.wicket.request.resource.CssResourceReference;
+import org.apache.wicket.util.resource.IResourceStream;
+import org.apache.wicket.util.resource.StringResourceStream;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests the {@link CriticalCss}
+ */
+public class CriticalCssTest extends WicketApplicationTest {
+
+    private final Theme theme = new Theme("critical", new CssResourceReference(CriticalCssTest.class, "res/theme.css"));
+
+    @Override
+    protected IBootstrapSettings createBootstrapSettings() {
+        return new BootstrapSettings().setThemeProvider(new SingleThemeProvider(theme));
+    }
+
+    @Test
+    public void stylesheetsAreRenderedAsTheyAreWithoutCriticalCss() {
+        tester().startPage(CriticalPage.class);
+
+        tester().assertContains("<link rel=\"stylesheet\" type=\"text/css\" href=\"../resource/");
+        assertThat(tester().getLastResponseAsString(), not(containsString(CriticalCss.MARKUP_ID)));
+    }
+
+    @Test
+    public void criticalCssIsInlinedAndStylesheetsAreLoadedAsynchronously() {
+        CriticalCss.get(application()).put(theme.name(), CriticalPage.class,
+                                           "/*wb:0*/body{margin: 0;}.navbar{background: url(img/navbar.png) no-repeat;}");
+
+        tester().startPage(CriticalPage.class);
+
+        String page = tester().getLastResponseAsString();
+        assertThat(page, containsString("id=\"" + CriticalCss.MARKUP_ID + "\""));
+        assertThat(page, containsString("url(../resource/de.agilecoders.wicket.core.markup.html.themes.critical.CriticalCssTest/res/img/navbar.png)"));
+        assertThat(page, containsString("<link rel=\"preload\" as=\"style\" href=\"../resource/"));
+        assertThat(page, containsString("<noscript><link rel=\"stylesheet\""));
+    }
+
+    @Test
+    public void criticalCssIsReadFromTheClasspath() {
+        assertThat(CriticalCss.get(application()).find("critical", CriticalPage.class), is((String) null));
+        assertThat(CriticalCss.get(application()).find("stored", CriticalPage.class), is(equalTo("/*wb:0*/.navbar{color:red}\n")));
+    }
+
+    @Test
+    public void relativeUrlsAreResolved() {
+        String css = ".a{background:url('img/a.png')}.b{background:url(/b.png)}.c{src:url(data:font/woff;base64,AA)}"
+                     + ".d{background:url(https://cdn/d.png)}";
+
+        assertThat(CriticalCss.resolveUrls(css, "./wicket/resource/x/css/theme.css"),
+                   is(equalTo(".a{background:url('./wicket/resource/x/css/img/a.png')}.b{background:url(/b.png)}"
+                              + ".c{src:url(data:font/woff;base64,AA)}.d{background:url(https://cdn/d.png)}")));
+    }
+
+    /**
+     * a page that renders the active theme
+     */
+    public static class CriticalPage extends WebPage implements IMarkupResourceStreamProvider {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void renderHead(IHeaderResponse response) {
+            super.renderHead(response);
+
+            Bootstrap.renderHead(response);
+        }
+
+        @Override
+        public IResourceStream getMarkupResourceStream(MarkupContainer container, Class<?> containerClass) {
+            return new StringResourceStream("<html><head></head><body><div class=\"navbar\">nav</div><div class=\"footer\">footer</div></body></html>");
+        }
+    }
+}
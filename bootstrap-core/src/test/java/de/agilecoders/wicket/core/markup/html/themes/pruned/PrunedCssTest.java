@@ -0,0 +1,80 @@
+package de.agilecoders.wicket.core.markup.html.themes.pruned;
+
+import de.agilecoders.wicket.core.Bootstrap;
+import de.agilecoders.wicket.core.WicketApplicationTest;
+import de.agilecoders.wicket.core.settings.BootstrapSettings;
+import de.agilecoders.wicket.core.settings.IBootstrapSettings;
+import de.agilecoders.wicket.core.settings.SingleThemeProvider;
+import de.agilecoders.wicket.core.settings.Theme;
+import org.apache.wicket.MarkupContainer;
+import org.apache.wicket.markup.IMarkupResourceStreamProvider;
+import org.apache.wicket.markup.head.IHeaderResponse;
+import org.apache.wicket.markup.html.WebPage;
+import org.apache.wicket.request.resource.CssResourceReference;
+import org.apache.wicket.util.resource.IResourceStream;
+import org.apache.wicket.util.resource.StringResourceStream;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests the {@link PrunedCss}
+ */
+public class PrunedCssTest extends WicketApplicationTest {
+
+    private final Theme theme = new Theme("pruned", new CssResourceReference(PrunedCssTest.class, "res/theme.css"));
+
+    @Override
+    protected IBootstrapSettings createBootstrapSettings() {
+        return new BootstrapSettings().setThemeProvider(new SingleThemeProvider(theme));
+    }
+
+    @Test
+    public void prunedVariationIsRenderedAndServedIfActive() {
+        getBootstrapSettings().setUsePrunedCss(true);
+
+        tester().startPage(ThemePage.class);
+        tester().assertContains("res/theme-ver-");
+        tester().assertContains("-pruned");
+
+        tester().executeUrl(cssUrl());
+        assertThat(tester().getLastResponseAsString(), is(equalTo(".navbar-fixed-top{top:0}\n")));
+    }
+
+    @Test
+    public void originalIsRenderedIfInactive() {
+        tester().startPage(ThemePage.class);
+
+        assertThat(tester().getLastResponseAsString(), not(containsString("-pruned")));
+    }
+
+    private String cssUrl() {
+        String page = tester().getLastResponseAsString();
+        int start = page.indexOf("href=\"") + 6;
+
+        return page.substring(start, page.indexOf('"', start)).replace("../", "wicket/");
+    }
+
+    /**
+     * a page that renders the active theme
+     */
+    public static class ThemePage extends WebPage implements IMarkupResourceStreamProvider {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void renderHead(IHeaderResponse response) {
+            super.renderHead(response);
+
+            Bootstrap.renderHead(response);
+        }
+
+        @Override
+        public IResourceStream getMarkupResourceStream(MarkupContainer container, Class<?> containerClass) {
+            return new StringResourceStream("<html><head></head><body></body></html>");
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package de.agilecoders.wicket.core.request.cdn;
+
+import de.agilecoders.wicket.core.Bootstrap;
+import de.agilecoders.wicket.core.WicketApplicationTest;
+import de.agilecoders.wicket.core.markup.html.bootstrap.behavior.BootstrapBaseBehavior;
+import de.agilecoders.wicket.core.markup.html.bootstrap.behavior.BootstrapJavascriptBehavior;
+import de.agilecoders.wicket.core.settings.BootstrapSettings;
+import de.agilecoders.wicket.core.settings.IBootstrapSettings;
+import org.apache.wicket.Component;
+import org.apache.wicket.MarkupContainer;
+import org.apache.wicket.behavior.Behavior;
+import org.apache.wicket.markup.IMarkupResourceStreamProvider;
+import org.apache.wicket.markup.head.IHeaderResponse;
+import org.apache.wicket.markup.head.JavaScriptHeaderItem;
+import org.apache.wicket.markup.html.WebPage;
+import org.apache.wicket.util.resource.IResourceStream;
+import org.apache.wicket.util.resource.StringResourceStream;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests the {@link CdnFailover} of the bootstrap resources
+ */
+public class CdnFailoverTest extends WicketApplicationTest {
+
+    @Override
+    protected IBootstrapSettings createBootstrapSettings() {
+        return new BootstrapSettings()
+                .useCdnResources(true)
+                .setCdnFailover(true);
+    }
+
+    @Test
+    public void integrityIsPrecomputedOnInstall() {
+        CdnResourceReference css = (CdnResourceReference) getBootstrapSettings().getCssResourceReference();
+        CdnResourceReference js = (CdnResourceReference) getBootstrapSettings().getJsResourceReference();
+
+        assertThat(SubresourceIntegrity.isComputed(tester().getApplication(), css.getIntegritySource()), is(equalTo(true)));
+        assertThat(SubresourceIntegrity.isComputed(tester().getApplication(), js.getIntegritySource()), is(equalTo(true)));
+    }
+
+    @Test
+    public void cssIsRenderedWithIntegrityAndLocalFallback() {
+        tester().startPage(new CdnPage(BootstrapBaseBehavior.instance()));
+
+        String page = tester().getLastResponseAsString();
+        assertThat(page, containsString("href=\"//maxcdn.bootstrapcdn.com/bootstrap/3.3.7/css/bootstrap.min.css\""));
+        assertThat(page, containsString("integrity=\"sha384-BVYiiSIFeK1dGmJRAkycuHAHRg32OmUcww7on3RYdg4Va+PmSTsz/K68vbdEjh4u\" crossorigin=\"anonymous\""));
+        assertThat(page, containsString("WebjarsCssResourceReference/webjars/bootstrap/3.3.7-1/css/bootstrap-ver-"));
+    }
+
+    @Test
+    public void javaScriptIsRenderedWithIntegrityAndLocalFallback() {
+        tester().startPage(new CdnPage(new BootstrapJavascriptBehavior()));
+
+        String page = tester().getLastResponseAsString();
+        assertThat(page, containsString("id=\"bootstrap-js\" src=\"//maxcdn.bootstrapcdn.com/bootstrap/3.3.7/js/bootstrap.min.js\""));
+        assertThat(page, containsString("integrity=\"sha384-Tc5IQib027qvyjSMfHjOMaLkfuWVxZxUPnCJA7l2mCWNIpG9mGCD8wGNIcPD7Txa\" crossorigin=\"anonymous\""));
+        assertThat(page, containsString("document.getElementById('bootstrap-js')"));
+        assertThat(page, containsString("window.jQuery && jQuery.fn.modal"));
+        assertThat(page, containsString("WebjarsJavaScriptResourceReference/webjars/bootstrap/3.3.7-1/js/bootstrap-ver-"));
+    }
+
+    @Test
+    public void dependencyIsRenderedWithFailover() {
+        tester().startPage(new CdnPage(new Behavior() {
+            @Override
+            public void renderHead(Component component, IHeaderResponse response) {
+                response.render(JavaScriptHeaderItem.forReference(Bootstrap.getSettings().getJsResourceReference()));
+            }
+        }));
+
+        String page = tester().getLastResponseAsString();
+        assertThat(page, containsString("id=\"wb-cdn-"));
+        assertThat(page, containsString("onerror=\"this.wbFailed=true\""));
+        assertThat(page.indexOf("bootstrap.min.js"), is(equalTo(page.lastIndexOf("bootstrap.min.js"))));
+    }
+
+    @Test
+    public void integrityIsOmittedForOtherVersions() {
+        getBootstrapSettings().setVersion("3.3.6");
+
+        tester().startPage(new CdnPage(BootstrapBaseBehavior.instance()));
+
+        String page = tester().getLastResponseAsString();
+        assertThat(page, containsString("onerror=\"this.wbFailed=true\""));
+        assertThat(page, not(containsString("integrity=")));
+    }
+
+    @Test
+    public void nothingIsAddedIfDisabled() {
+        getBootstrapSettings().setCdnFailover(false);
+
+        tester().startPage(new CdnPage(BootstrapBaseBehavior.instance()));
+
+        String page = tester().getLastResponseAsString();
+        assertThat(page, containsString("//maxcdn.bootstrapcdn.com/bootstrap/3.3.7/css/bootstrap.min.css"));
+        assertThat(page, not(containsString("wbFailed")));
+        assertThat(page, not(containsString("integrity=")));
+    }
+
+    /**
+     * a page with the given behaviors
+     */
+    private static class CdnPage extends WebPage implements IMarkupResourceStreamProvider {
+        private static final long serialVersionUID = 1L;
+
+        private CdnPage(Behavior... behaviors) {
+            add(behaviors);
+        }
+
+        @Override
+        public IResourceStream getMarkupResourceStream(MarkupContainer container, Class<?> containerClass) {
+            return new StringResourceStream("<html><head></head><body></body></html>");
+        }
+    }
+}
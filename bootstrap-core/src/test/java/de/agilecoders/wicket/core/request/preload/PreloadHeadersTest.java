@@ -0,0 +1,102 @@
+package de.agilecoders.wicket.core.request.preload;
+
+import de.agilecoders.wicket.core.WicketApplicationTest;
+import de.agilecoders.wicket.core.markup.html.bootstrap.behavior.BootstrapBaseBehavior;
+import de.agilecoders.wicket.core.settings.BootstrapSettings;
+import de.agilecoders.wicket.core.settings.IBootstrapSettings;
+import org.apache.wicket.request.http.WebResponse;
+import org.apache.wicket.request.resource.CssResourceReference;
+import org.apache.wicket.request.resource.JavaScriptResourceReference;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.endsWith;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests the preload headers of the {@link BootstrapBaseBehavior}
+ */
+public class PreloadHeadersTest extends WicketApplicationTest {
+
+    private final RecordingEarlyHintsSender sender = new RecordingEarlyHintsSender();
+
+    @Override
+    protected IBootstrapSettings createBootstrapSettings() {
+        return new BootstrapSettings()
+                .setPreloadResources(true)
+                .setEarlyHintsSender(sender)
+                .addPreloadResources(PreloadResource.font(new CssResourceReference(PreloadHeadersTest.class, "res/icons.css"),
+                                                          "../fonts/icons.woff2?v=1"));
+    }
+
+    @Test
+    public void themeAndJavaScriptArePreloaded() {
+        startBehaviorInPage(BootstrapBaseBehavior.instance());
+
+        List<String> links = sender.links;
+        assertThat(links.size(), is(equalTo(3)));
+        assertThat(links.get(0), endsWith(".css>; rel=preload; as=style"));
+        assertThat(links.get(0).contains("/bootstrap/"), is(equalTo(true)));
+        assertThat(links.get(1), endsWith(".js>; rel=preload; as=script"));
+    }
+
+    @Test
+    public void fontIsResolvedRelativeToItsCss() {
+        startBehaviorInPage(BootstrapBaseBehavior.instance());
+
+        List<String> links = sender.links;
+        assertThat(links.get(2), endsWith(".PreloadHeadersTest/fonts/icons.woff2?v=1>; rel=preload; as=font; crossorigin"));
+        assertThat(links.get(2).startsWith("<http://localhost/"), is(equalTo(true)));
+    }
+
+    @Test
+    public void headersAreAddedAndEarlyHintsAreSentOnce() {
+        startBehaviorInPage(BootstrapBaseBehavior.instance());
+
+        // the mock response returns the first value of a header only
+        assertThat(tester().getLastResponse().getHeader("Link"), is(equalTo(sender.links.get(0))));
+        assertThat(sender.calls, is(equalTo(1)));
+    }
+
+    @Test
+    public void bundleIsPreloadedInsteadOfItsMembers() {
+        application().getResourceBundles().addJavaScriptBundle(PreloadHeadersTest.class, "bundle.js",
+                                                               (JavaScriptResourceReference) getBootstrapSettings().getJsResourceReference());
+
+        startBehaviorInPage(BootstrapBaseBehavior.instance());
+
+        List<String> links = sender.links;
+        assertThat(links.size(), is(equalTo(3)));
+        assertThat(links.get(1), containsString("/bundle"));
+        assertThat(links.get(1), endsWith(".js>; rel=preload; as=script"));
+    }
+
+    @Test
+    public void nothingIsPreloadedIfDisabled() {
+        getBootstrapSettings().setPreloadResources(false);
+
+        startBehaviorInPage(BootstrapBaseBehavior.instance());
+
+        assertThat(tester().getLastResponse().getHeaderNames().contains("Link"), is(equalTo(false)));
+        assertThat(sender.calls, is(equalTo(0)));
+    }
+
+    /**
+     * stub that records the early hints instead of sending them
+     */
+    private static final class RecordingEarlyHintsSender implements IEarlyHintsSender {
+        private final List<String> links = new ArrayList<>();
+        private int calls = 0;
+
+        @Override
+        public void sendEarlyHints(WebResponse response, List<String> links) {
+            this.links.addAll(links);
+            calls++;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package de.agilecoders.wicket.core.request.resource;
+
+import de.agilecoders.wicket.core.WicketApplicationTest;
+import de.agilecoders.wicket.core.settings.BootstrapSettings;
+import de.agilecoders.wicket.core.settings.IBootstrapSettings;
+import org.apache.wicket.protocol.http.mock.MockHttpServletResponse;
+import org.apache.wicket.request.resource.IResourceReferenceFactory;
+import org.apache.wicket.request.resource.JavaScriptResourceReference;
+import org.apache.wicket.request.resource.ResourceReference;
+import org.apache.wicket.util.io.IOUtils;
+import org.junit.Test;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests the pre-compressed resources and the {@link PrecompressedResourceGenerator}
+ */
+public class PrecompressedResourcesTest extends WicketApplicationTest {
+
+    private static final String NAME = "res/precompressed.js";
+
+    private final ResourceReference reference = new PrecompressedJavaScriptResourceReference(PrecompressedResourcesTest.class, NAME);
+
+    private byte[] content;
+    private byte[] compressed;
+
+    @Override
+    protected IBootstrapSettings createBootstrapSettings() {
+        return new BootstrapSettings().setServePrecompressedResources(true);
+    }
+
+    @Override
+    protected void onBefore() {
+        try {
+            Path file = Paths.get(PrecompressedResourcesTest.class.getResource(NAME).toURI());
+
+            assertThat(new PrecompressedResourceGenerator(0).write(file.getParent()), is(equalTo(1)));
+
+            content = Files.readAllBytes(file);
+            compressed = Files.readAllBytes(file.resolveSibling(file.getFileName() + ".gz"));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    public void siblingIsWrittenIfClientAcceptsGzip() throws Exception {
+        tester().getRequest().setHeader("Accept-Encoding", "gzip, deflate");
+        tester().startResourceReference(reference);
+
+        MockHttpServletResponse response = tester().getLastResponse();
+        assertThat(response.getHeader("Content-Encoding"), is(equalTo("gzip")));
+        assertThat(response.getHeader("Vary"), is(equalTo("Accept-Encoding")));
+        assertThat(response.getHeader("Content-Length"), is(equalTo(String.valueOf(compressed.length))));
+        assertThat(response.getBinaryContent(), is(equalTo(compressed)));
+        assertThat(IOUtils.toByteArray(new GZIPInputStream(new ByteArrayInputStream(response.getBinaryContent()))), is(equalTo(content)));
+    }
+
+    @Test
+    public void resourceIsWrittenIfClientDoesNotAcceptSibling() {
+        tester().getRequest().setHeader("Accept-Encoding", "br, gzip;q=0");
+        tester().startResourceReference(reference);
+
+        MockHttpServletResponse response = tester().getLastResponse();
+        assertThat(response.getHeader("Content-Encoding"), is(nullValue()));
+        assertThat(response.getHeader("Vary"), is(equalTo("Accept-Encoding")));
+        assertThat(response.getBinaryContent(), is(equalTo(content)));
+    }
+
+    @Test
+    public void rangeOfSiblingIsWritten() {
+        tester().getRequest().setHeader("Accept-Encoding", "gzip");
+        tester().getRequest().setHeader("range", "bytes=0-9");
+        tester().startResourceReference(reference);
+
+        MockHttpServletResponse response = tester().getLastResponse();
+        assertThat(response.getStatus(), is(equalTo(HttpServletResponse.SC_PARTIAL_CONTENT)));
+        assertThat(response.getBinaryContent(), is(equalTo(Arrays.copyOf(compressed, 10))));
+    }
+
+    @Test
+    public void qualityOfContentCoding() {
+        assertThat(PrecompressedResources.quality("gzip, deflate", "gzip"), is(equalTo(1f)));
+        assertThat(PrecompressedResources.quality("br;q=0.5, *;q=0.1", "br"), is(equalTo(0.5f)));
+        assertThat(PrecompressedResources.quality("br;q=0.5, *;q=0.1", "gzip"), is(equalTo(0.1f)));
+        assertThat(PrecompressedResources.quality("deflate", "gzip"), is(equalTo(0f)));
+    }
+
+    @Test
+    public void factoryCreatesPrecompressedReferences() {
+        ResourceReference created = tester().getApplication().getResourceReferenceRegistry()
+                .getResourceReference(PrecompressedResourcesTest.class, NAME, null, null, null, false, true);
+
+        assertThat(created, is(instanceOf(PrecompressedPackageResourceReference.class)));
+        assertThat(created.getResource(), is(instanceOf(PrecompressedJavaScriptPackageResource.class)));
+        assertThat(new PrecompressedResourceReferenceFactory(new JavaScriptReferenceFactory()).create(new ResourceReference.Key(
+                PrecompressedResourcesTest.class.getName(), NAME, null, null, null)), is(instanceOf(PrecompressedJavaScriptResourceReference.class)));
+    }
+
+    private static final class JavaScriptReferenceFactory implements IResourceReferenceFactory {
+        @Override
+        public ResourceReference create(ResourceReference.Key key) {
+            return new JavaScriptResourceReference(key);
+        }
+    }
+}
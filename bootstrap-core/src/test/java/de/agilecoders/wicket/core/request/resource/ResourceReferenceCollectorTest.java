@@ -0,0 +1,70 @@
+package de.agilecoders.wicket.core.request.resource;
+
+import de.agilecoders.wicket.core.WicketApplicationTest;
+import de.agilecoders.wicket.core.request.cdn.CdnResourceReference;
+import org.apache.wicket.markup.head.CssHeaderItem;
+import org.apache.wicket.markup.head.HeaderItem;
+import org.apache.wicket.markup.head.JavaScriptHeaderItem;
+import org.apache.wicket.markup.head.PriorityHeaderItem;
+import org.apache.wicket.request.Url;
+import org.apache.wicket.request.resource.CssResourceReference;
+import org.apache.wicket.request.resource.JavaScriptResourceReference;
+import org.apache.wicket.request.resource.ResourceReference;
+import org.apache.wicket.request.resource.UrlResourceReference;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests the {@link ResourceReferenceCollector} class
+ */
+public class ResourceReferenceCollectorTest extends WicketApplicationTest {
+
+    private static final JavaScriptResourceReference BASE = new JavaScriptResourceReference(ResourceReferenceCollectorTest.class, "base.js");
+
+    private static final JavaScriptResourceReference PLUGIN = new JavaScriptResourceReference(ResourceReferenceCollectorTest.class, "plugin.js") {
+        @Override
+        public List<HeaderItem> getDependencies() {
+            return Collections.<HeaderItem>singletonList(JavaScriptHeaderItem.forReference(BASE));
+        }
+    };
+
+    @Test
+    public void collectsDependenciesOnce() {
+        ResourceReferenceCollector collector = new ResourceReferenceCollector()
+                .add(PLUGIN, BASE)
+                .addAll(Arrays.asList(JavaScriptHeaderItem.forReference(BASE)));
+
+        assertThat(collector.getReferences(), contains((ResourceReference) PLUGIN, BASE));
+    }
+
+    @Test
+    public void unwrapsHeaderItemsAndReplacesCdnReferences() {
+        CssResourceReference fallback = new CssResourceReference(ResourceReferenceCollectorTest.class, "theme.css");
+
+        ResourceReferenceCollector collector = new ResourceReferenceCollector()
+                .addAll(Arrays.<HeaderItem>asList(
+                        new PriorityHeaderItem(JavaScriptHeaderItem.forReference(PLUGIN)),
+                        CssHeaderItem.forReference(new CdnResourceReference(Url.parse("//cdn.example.com/theme.css"), fallback)),
+                        CssHeaderItem.forReference(new UrlResourceReference(Url.parse("//cdn.example.com/other.css")))));
+
+        assertThat(collector.getReferences(), contains((ResourceReference) PLUGIN, BASE, fallback));
+    }
+
+    @Test
+    public void collectsDependenciesOfRejectedReferences() {
+        ResourceReferenceCollector collector = new ResourceReferenceCollector() {
+            @Override
+            protected boolean accept(ResourceReference reference) {
+                return reference != PLUGIN;
+            }
+        }.add(PLUGIN);
+
+        assertThat(collector.getReferences(), contains((ResourceReference) BASE));
+    }
+}
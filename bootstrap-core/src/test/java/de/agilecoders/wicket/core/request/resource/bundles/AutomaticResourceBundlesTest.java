@@ -0,0 +1,207 @@
+package de.agilecoders.wicket.core.request.resource.bundles;
+
+import de.agilecoders.wicket.core.Bootstrap;
+import de.agilecoders.wicket.core.WicketApplicationTest;
+import org.apache.wicket.MarkupContainer;
+import org.apache.wicket.Page;
+import org.apache.wicket.ResourceBundles;
+import org.apache.wicket.markup.IMarkupResourceStreamProvider;
+import org.apache.wicket.markup.head.CssHeaderItem;
+import org.apache.wicket.markup.head.HeaderItem;
+import org.apache.wicket.markup.head.IHeaderResponse;
+import org.apache.wicket.markup.head.IReferenceHeaderItem;
+import org.apache.wicket.markup.head.JavaScriptHeaderItem;
+import org.apache.wicket.markup.html.WebPage;
+import org.apache.wicket.protocol.http.WebApplication;
+import org.apache.wicket.request.mapper.parameter.PageParameters;
+import org.apache.wicket.request.resource.CssResourceReference;
+import org.apache.wicket.request.resource.JavaScriptResourceReference;
+import org.apache.wicket.request.resource.ResourceReferenceRegistry;
+import org.apache.wicket.util.resource.IResourceStream;
+import org.apache.wicket.util.resource.StringResourceStream;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests the {@link AutomaticResourceBundles}
+ */
+public class AutomaticResourceBundlesTest extends WicketApplicationTest {
+
+    @Override
+    protected WebApplication newWebApplication() {
+        return new WebApplication() {
+            @Override
+            protected void init() {
+                super.init();
+
+                Bootstrap.install(this, createBootstrapSettings());
+            }
+
+            @Override
+            protected ResourceBundles newResourceBundles(ResourceReferenceRegistry registry) {
+                return new AutomaticResourceBundles(registry, 2);
+            }
+
+            @Override
+            public Class<? extends Page> getHomePage() {
+                return PageA.class;
+            }
+        };
+    }
+
+    @Test
+    public void itemsAreRenderedAsTheyAreWhileLearning() {
+        tester().startPage(PageA.class);
+
+        assertThat(bundles().isBuilt(), is(equalTo(false)));
+        tester().assertContains("res/common-a-ver-");
+        tester().assertContains("res/page-a2-ver-");
+    }
+
+    @Test
+    public void itemsRenderedTogetherAreBundled() {
+        learn();
+
+        List<HeaderItem> built = bundles().getBundles();
+        assertThat(built.size(), is(equalTo(2)));
+        assertThat(bundles().findBundle(JavaScriptHeaderItem.forReference(PageA.COMMON_B)), is(equalTo(built.get(0))));
+        assertThat(bundles().findBundle(JavaScriptHeaderItem.forReference(PageB.PAGE_B)), is((HeaderItem) null));
+
+        String page = tester().getLastResponseAsString();
+
+        assertThat(page, containsString(baseNameOf(built.get(0))));
+        assertThat(page, containsString(baseNameOf(built.get(1))));
+        assertThat(page, not(containsString("res/common-a-ver-")));
+        assertThat(page, not(containsString("res/page-a2-ver-")));
+        assertThat(page, containsString("res/page-a-ver-"));
+    }
+
+    @Test
+    public void bundleConcatenatesItemsInRenderOrder() {
+        learn();
+
+        tester().startResourceReference(((IReferenceHeaderItem) bundles().getBundles().get(0)).getReference());
+
+        String content = tester().getLastResponseAsString();
+        assertThat(content, containsString("window['common-a']"));
+        assertThat(content.indexOf("window['common-a']") < content.indexOf("window['common-b']"), is(equalTo(true)));
+    }
+
+    @Test
+    public void namesOfBundlesAreStable() throws Exception {
+        learn();
+        String name = baseNameOf(bundles().getBundles().get(0));
+
+        tearDown();
+        before();
+        learn();
+
+        assertThat(baseNameOf(bundles().getBundles().get(0)), is(equalTo(name)));
+    }
+
+    @Test
+    public void itemsMissingOnSomeRendersAreNotBundled() {
+        tester().startPage(PageC.class, new PageParameters().set("optional", true));
+        tester().startPage(PageC.class);
+        tester().startPage(PageC.class);
+        assertThat(bundles().isBuilt(), is(equalTo(true)));
+
+        List<HeaderItem> built = bundles().getBundles();
+        assertThat(built.size(), is(equalTo(1)));
+        assertThat(bundles().findBundle(JavaScriptHeaderItem.forReference(PageC.PAGE_C)), is(equalTo(built.get(0))));
+        assertThat(bundles().findBundle(JavaScriptHeaderItem.forReference(PageC.OPTIONAL_C)), is((HeaderItem) null));
+    }
+
+    /**
+     * renders both pages while learning and page A once more, which builds the bundles
+     */
+    private void learn() {
+        tester().startPage(PageA.class);
+        tester().startPage(PageB.class);
+        assertThat(bundles().isBuilt(), is(equalTo(false)));
+
+        tester().startPage(PageA.class);
+        assertThat(bundles().isBuilt(), is(equalTo(true)));
+    }
+
+    private AutomaticResourceBundles bundles() {
+        return (AutomaticResourceBundles) tester().getApplication().getResourceBundles();
+    }
+
+    private static String baseNameOf(HeaderItem bundle) {
+        String name = ((IReferenceHeaderItem) bundle).getReference().getName();
+
+        return name.substring(0, name.lastIndexOf('.'));
+    }
+
+    public static class PageA extends WebPage implements IMarkupResourceStreamProvider {
+        static final JavaScriptResourceReference COMMON_A = new JavaScriptResourceReference(AutomaticResourceBundlesTest.class, "res/common-a.js");
+        static final JavaScriptResourceReference COMMON_B = new JavaScriptResourceReference(AutomaticResourceBundlesTest.class, "res/common-b.js");
+
+        @Override
+        public void renderHead(IHeaderResponse response) {
+            super.renderHead(response);
+
+            response.render(JavaScriptHeaderItem.forReference(COMMON_A));
+            response.render(JavaScriptHeaderItem.forReference(COMMON_B));
+            response.render(JavaScriptHeaderItem.forReference(new JavaScriptResourceReference(AutomaticResourceBundlesTest.class, "res/page-a.js")));
+            response.render(JavaScriptHeaderItem.forReference(new JavaScriptResourceReference(AutomaticResourceBundlesTest.class, "res/page-a2.js")));
+            response.render(CssHeaderItem.forReference(new CssResourceReference(AutomaticResourceBundlesTest.class, "res/page-a.css")));
+        }
+
+        @Override
+        public IResourceStream getMarkupResourceStream(MarkupContainer container, Class<?> containerClass) {
+            return new StringResourceStream("<html><head></head><body></body></html>");
+        }
+    }
+
+    public static class PageB extends WebPage implements IMarkupResourceStreamProvider {
+        static final JavaScriptResourceReference PAGE_B = new JavaScriptResourceReference(AutomaticResourceBundlesTest.class, "res/page-b.js");
+
+        @Override
+        public void renderHead(IHeaderResponse response) {
+            super.renderHead(response);
+
+            response.render(JavaScriptHeaderItem.forReference(PageA.COMMON_A));
+            response.render(JavaScriptHeaderItem.forReference(PageA.COMMON_B));
+            response.render(JavaScriptHeaderItem.forReference(PAGE_B));
+        }
+
+        @Override
+        public IResourceStream getMarkupResourceStream(MarkupContainer container, Class<?> containerClass) {
+            return new StringResourceStream("<html><head></head><body></body></html>");
+        }
+    }
+
+    public static class PageC extends WebPage implements IMarkupResourceStreamProvider {
+        static final JavaScriptResourceReference PAGE_C = new JavaScriptResourceReference(AutomaticResourceBundlesTest.class, "res/page-c.js");
+        static final JavaScriptResourceReference OPTIONAL_C = new JavaScriptResourceReference(AutomaticResourceBundlesTest.class, "res/optional-c.js");
+
+        public PageC(PageParameters parameters) {
+            super(parameters);
+        }
+
+        @Override
+        public void renderHead(IHeaderResponse response) {
+            super.renderHead(response);
+
+            response.render(JavaScriptHeaderItem.forReference(PAGE_C));
+            response.render(JavaScriptHeaderItem.forReference(new JavaScriptResourceReference(AutomaticResourceBundlesTest.class, "res/page-c2.js")));
+            if (getPageParameters().get("optional").toBoolean(false)) {
+                response.render(JavaScriptHeaderItem.forReference(OPTIONAL_C));
+            }
+        }
+
+        @Override
+        public IResourceStream getMarkupResourceStream(MarkupContainer container, Class<?> containerClass) {
+            return new StringResourceStream("<html><head></head><body></body></html>");
+        }
+    }
+}
@@ -0,0 +1 @@
+window['common-a'] = true;
@@ -0,0 +1 @@
+window['common-b'] = true;
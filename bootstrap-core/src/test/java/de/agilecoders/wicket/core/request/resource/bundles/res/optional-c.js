@@ -0,0 +1 @@
+window['optional-c'] = true;
@@ -0,0 +1 @@
+window['page-a'] = true;
@@ -0,0 +1 @@
+window['page-a2'] = true;
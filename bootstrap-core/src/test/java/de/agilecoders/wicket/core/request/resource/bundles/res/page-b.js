@@ -0,0 +1 @@
+window['page-b'] = true;
@@ -0,0 +1 @@
+window['page-c'] = true;
@@ -0,0 +1 @@
+window['page-c2'] = true;
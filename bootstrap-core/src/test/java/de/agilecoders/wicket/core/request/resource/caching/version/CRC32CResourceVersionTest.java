@@ -0,0 +1,61 @@
+package de.agilecoders.wicket.core.request.resource.caching.version;
+
+import com.google.common.base.Charsets;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.zip.Checksum;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests the {@link CRC32CResourceVersion}
+ */
+@RunWith(value = Parameterized.class)
+public class CRC32CResourceVersionTest extends ChecksumResourceVersionTest {
+
+    private final Map.Entry<String, String> content;
+
+    public CRC32CResourceVersionTest(final Map.Entry<String, String> content) {
+        this.content = content;
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> data() {
+        Object[][] data = new Object[][] {
+                { new AbstractMap.SimpleEntry<String, String>("a", "c1d04330") },
+                { new AbstractMap.SimpleEntry<String, String>("a1", "a0d70011") },
+                { new AbstractMap.SimpleEntry<String, String>("a1b", "301523a8") },
+                { new AbstractMap.SimpleEntry<String, String>("a1bX", "a1232907") },
+                { new AbstractMap.SimpleEntry<String, String>("a1bXl", "aa934821") },
+                { new AbstractMap.SimpleEntry<String, String>("123456789", "e3069283") }
+        };
+        return Arrays.asList(data);
+    }
+
+    @Test
+    public void checkChecksum() {
+        check(content.getKey(), content.getValue());
+    }
+
+    @Test
+    public void tableDrivenImplementationMatchesCheckValue() {
+        final byte[] bytes = content.getKey().getBytes(Charsets.UTF_8);
+        final Checksum checksum = new CRC32CResourceVersion.CRC32C();
+        checksum.update(bytes, 0, bytes.length);
+
+        assertThat(Long.toHexString(checksum.getValue()), is(equalTo(content.getValue())));
+    }
+
+    @Override
+    protected ChecksumResourceVersion newChecksumResourceVersion() {
+        return new CRC32CResourceVersion();
+    }
+}
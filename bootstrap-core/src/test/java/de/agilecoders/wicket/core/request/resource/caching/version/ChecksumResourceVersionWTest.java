@@ -2,6 +2,13 @@ package de.agilecoders.wicket.core.request.resource.caching.version;
 
 import com.google.common.base.Charsets;
 import de.agilecoders.wicket.core.WicketApplicationTest;
+import de.agilecoders.wicket.core.markup.html.references.BootstrapJavaScriptReference;
+import de.agilecoders.wicket.core.markup.html.references.RespondJavaScriptReference;
+import org.apache.wicket.javascript.IJavaScriptCompressor;
+import org.apache.wicket.request.resource.ResourceReference;
+import org.apache.wicket.request.resource.caching.IStaticCacheableResource;
+import org.apache.wicket.util.resource.IResourceStream;
+import org.apache.wicket.util.string.Strings;
 import org.junit.Test;
 
 import static org.hamcrest.CoreMatchers.equalTo;
@@ -41,4 +48,34 @@ public class ChecksumResourceVersionWTest extends WicketApplicationTest {
         assertThat(new Adler32ResourceVersion().charset(), is(equalTo(Charsets.UTF_8)));
     }
 
+    @Test
+    public void fileAndJarResourcesHaveSameVersionAsTheirStreams() throws Exception {
+        assertSameVersionAsStream(RespondJavaScriptReference.instance());
+        assertSameVersionAsStream(BootstrapJavaScriptReference.instance());
+    }
+
+    @Test
+    public void compressedResourcesHaveVersionOfTheirCompressedContent() throws Exception {
+        application().getResourceSettings().setJavaScriptCompressor(new IJavaScriptCompressor() {
+            @Override
+            public String compress(String original) {
+                return "/* compressed */" + original;
+            }
+        });
+
+        assertSameVersionAsStream(RespondJavaScriptReference.instance());
+    }
+
+    private void assertSameVersionAsStream(ResourceReference reference) throws Exception {
+        ChecksumResourceVersion version = new CRC32ResourceVersion();
+        IStaticCacheableResource resource = (IStaticCacheableResource) reference.getResource();
+        IResourceStream stream = resource.getResourceStream();
+
+        try {
+            String expected = Strings.toHexString(version.computeDigest(stream.getInputStream()));
+            assertThat(version.getVersion(resource), is(equalTo(expected)));
+        } finally {
+            stream.close();
+        }
+    }
 }
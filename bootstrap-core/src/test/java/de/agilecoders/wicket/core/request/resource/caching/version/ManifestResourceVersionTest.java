@@ -0,0 +1,100 @@
+package de.agilecoders.wicket.core.request.resource.caching.version;
+
+import de.agilecoders.wicket.core.WicketApplicationTest;
+import de.agilecoders.wicket.core.markup.html.references.BootstrapJavaScriptReference;
+import de.agilecoders.wicket.core.markup.html.references.RespondJavaScriptReference;
+import org.apache.wicket.request.resource.caching.IStaticCacheableResource;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests the {@link ManifestResourceVersion} and the {@link ResourceVersionManifestGenerator}
+ */
+public class ManifestResourceVersionTest extends WicketApplicationTest {
+
+    private ResourceVersionManifest manifest;
+    private CountingResourceVersion fallback;
+
+    @Before
+    public void generateManifest() throws Exception {
+        Path classes = Paths.get(RespondJavaScriptReference.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+
+        manifest = new ResourceVersionManifestGenerator().generate(classes);
+        fallback = new CountingResourceVersion();
+    }
+
+    @Test
+    public void generatedManifestContainsStaticResources() {
+        ResourceVersionManifest.Entry entry = manifest.get("de/agilecoders/wicket/core/markup/html/references/js/respond.js");
+
+        assertThat(entry, is(notNullValue()));
+        assertThat(entry.getContentType(), is(equalTo("text/javascript")));
+        assertThat(manifest.get("de/agilecoders/wicket/core/markup/html/references/RespondJavaScriptReference.class"), is((ResourceVersionManifest.Entry) null));
+    }
+
+    @Test
+    public void versionIsReadFromManifest() {
+        IStaticCacheableResource resource = (IStaticCacheableResource) RespondJavaScriptReference.instance().getResource();
+
+        String version = new ManifestResourceVersion(manifest, fallback).getVersion(resource);
+
+        assertThat(version, is(equalTo(new Adler32ResourceVersion().getVersion(resource))));
+        assertThat(fallback.calls.get(), is(equalTo(0)));
+    }
+
+    @Test
+    public void fallbackIsUsedForUnknownResources() {
+        IStaticCacheableResource resource = (IStaticCacheableResource) BootstrapJavaScriptReference.instance().getResource();
+
+        String version = new ManifestResourceVersion(manifest, fallback).getVersion(resource);
+
+        assertThat(version, is(equalTo(new Adler32ResourceVersion().getVersion(resource))));
+        assertThat(fallback.calls.get(), is(equalTo(1)));
+    }
+
+    @Test
+    public void fallbackIsUsedIfSizeOfFileHasChanged() {
+        IStaticCacheableResource resource = (IStaticCacheableResource) RespondJavaScriptReference.instance().getResource();
+        for (String path : manifest.getPaths().toArray(new String[0])) {
+            manifest.put(path, new ResourceVersionManifest.Entry("stale", manifest.get(path).getSize() + 1, null));
+        }
+
+        new ManifestResourceVersion(manifest, fallback).getVersion(resource);
+
+        assertThat(fallback.calls.get(), is(equalTo(1)));
+    }
+
+    @Test
+    public void manifestCanBeWrittenAndRead() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        manifest.put("path with spaces/a=b.css", new ResourceVersionManifest.Entry("1a", 42, null));
+        manifest.write(outputStream);
+
+        ResourceVersionManifest read = new ResourceVersionManifest();
+        read.read(new ByteArrayInputStream(outputStream.toByteArray()));
+
+        assertThat(read.getPaths(), is(equalTo(manifest.getPaths())));
+        assertThat(read.get("path with spaces/a=b.css").toString(), is(equalTo("1a,42,")));
+    }
+
+    private static final class CountingResourceVersion extends Adler32ResourceVersion {
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public String getVersion(IStaticCacheableResource resource) {
+            calls.incrementAndGet();
+            return super.getVersion(resource);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package de.agilecoders.wicket.core.request.resource.caching.version;
+
+import de.agilecoders.wicket.core.Bootstrap;
+import de.agilecoders.wicket.core.WicketApplicationTest;
+import org.apache.wicket.request.resource.caching.version.CachingResourceVersion;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+/**
+ * Tests the {@link ResourceVersionPrecomputer} class
+ */
+public class ResourceVersionPrecomputerTest extends WicketApplicationTest {
+
+    @Test
+    public void computesVersionsOfBootstrapResources() throws Exception {
+        final CachingResourceVersion resourceVersion = new CachingResourceVersion(new CRC32CResourceVersion());
+
+        ResourceVersionPrecomputer precomputer = new ResourceVersionPrecomputer(application(), resourceVersion)
+                .addAll(Bootstrap.getSettings(application()))
+                .setParallelism(2)
+                .start();
+
+        assertThat(precomputer.awaitDone(30, TimeUnit.SECONDS), is(true));
+        assertThat(precomputer.isDone(), is(true));
+        assertThat(precomputer.getComputed(), is(greaterThan(0)));
+        assertThat(precomputer.getFailures(), is(equalTo(0)));
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * a javascript file that is served with a pre-compressed sibling
+ */
+var precompressed = {};
+precompressed.value0 = "the value number 0 of the precompressed test resource";
+precompressed.value1 = "the value number 1 of the precompressed test resource";
+precompressed.value2 = "the value number 2 of the precompressed test resource";
+precompressed.value3 = "the value number 3 of the precompressed test resource";
+precompressed.value4 = "the value number 4 of the precompressed test resource";
+precompressed.value5 = "the value number 5 of the precompressed test resource";
+precompressed.value6 = "the value number 6 of the precompressed test resource";
+precompressed.value7 = "the value number 7 of the precompressed test resource";
+precompressed.value8 = "the value number 8 of the precompressed test resource";
+precompressed.value9 = "the value number 9 of the precompressed test resource";
+precompressed.value10 = "the value number 10 of the precompressed test resource";
+precompressed.value11 = "the value number 11 of the precompressed test resource";
+precompressed.value12 = "the value number 12 of the precompressed test resource";
+precompressed.value13 = "the value number 13 of the precompressed test resource";
+precompressed.value14 = "the value number 14 of the precompressed test resource";
+precompressed.value15 = "the value number 15 of the precompressed test resource";
+precompressed.value16 = "the value number 16 of the precompressed test resource";
+precompressed.value17 = "the value number 17 of the precompressed test resource";
+precompressed.value18 = "the value number 18 of the precompressed test resource";
+precompressed.value19 = "the value number 19 of the precompressed test resource";
+precompressed.value20 = "the value number 20 of the precompressed test resource";
+precompressed.value21 = "the value number 21 of the precompressed test resource";
+precompressed.value22 = "the value number 22 of the precompressed test resource";
+precompressed.value23 = "the value number 23 of the precompressed test resource";
+precompressed.value24 = "the value number 24 of the precompressed test resource";
+precompressed.value25 = "the value number 25 of the precompressed test resource";
+precompressed.value26 = "the value number 26 of the precompressed test resource";
+precompressed.value27 = "the value number 27 of the precompressed test resource";
+precompressed.value28 = "the value number 28 of the precompressed test resource";
+precompressed.value29 = "the value number 29 of the precompressed test resource";
+precompressed.value30 = "the value number 30 of the precompressed test resource";
+precompressed.value31 = "the value number 31 of the precompressed test resource";
+precompressed.value32 = "the value number 32 of the precompressed test resource";
+precompressed.value33 = "the value number 33 of the precompressed test resource";
+precompressed.value34 = "the value number 34 of the precompressed test resource";
+precompressed.value35 = "the value number 35 of the precompressed test resource";
+precompressed.value36 = "the value number 36 of the precompressed test resource";
+precompressed.value37 = "the value number 37 of the precompressed test resource";
+precompressed.value38 = "the value number 38 of the precompressed test resource";
+precompressed.value39 = "the value number 39 of the precompressed test resource";
+precompressed.value40 = "the value number 40 of the precompressed test resource";
+precompressed.value41 = "the value number 41 of the precompressed test resource";
+precompressed.value42 = "the value number 42 of the precompressed test resource";
+precompressed.value43 = "the value number 43 of the precompressed test resource";
+precompressed.value44 = "the value number 44 of the precompressed test resource";
+precompressed.value45 = "the value number 45 of the precompressed test resource";
+precompressed.value46 = "the value number 46 of the precompressed test resource";
+precompressed.value47 = "the value number 47 of the precompressed test resource";
+precompressed.value48 = "the value number 48 of the precompressed test resource";
+precompressed.value49 = "the value number 49 of the precompressed test resource";
+precompressed.value50 = "the value number 50 of the precompressed test resource";
+precompressed.value51 = "the value number 51 of the precompressed test resource";
+precompressed.value52 = "the value number 52 of the precompressed test resource";
+precompressed.value53 = "the value number 53 of the precompressed test resource";
+precompressed.value54 = "the value number 54 of the precompressed test resource";
+precompressed.value55 = "the value number 55 of the precompressed test resource";
+precompressed.value56 = "the value number 56 of the precompressed test resource";
+precompressed.value57 = "the value number 57 of the precompressed test resource";
+precompressed.value58 = "the value number 58 of the precompressed test resource";
+precompressed.value59 = "the value number 59 of the precompressed test resource";
@@ -0,0 +1,105 @@
+package de.agilecoders.wicket.core.request.useragent;
+
+import de.agilecoders.wicket.core.Bootstrap;
+import de.agilecoders.wicket.core.WicketApplicationTest;
+import de.agilecoders.wicket.core.markup.html.bootstrap.behavior.BootstrapBaseBehavior;
+import org.apache.wicket.MarkupContainer;
+import org.apache.wicket.markup.IMarkupResourceStreamProvider;
+import org.apache.wicket.markup.head.IHeaderResponse;
+import org.apache.wicket.markup.html.WebPage;
+import org.apache.wicket.util.resource.IResourceStream;
+import org.apache.wicket.util.resource.StringResourceStream;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests the {@link UserAgentClassifier} and the shims of the {@link BootstrapBaseBehavior}
+ */
+public class UserAgentClassifierTest extends WicketApplicationTest {
+
+    private static final String IE8 = "Mozilla/4.0 (compatible; MSIE 8.0; Windows NT 6.1; Trident/4.0)";
+    private static final String IE10 = "Mozilla/5.0 (compatible; MSIE 10.0; Windows NT 6.1; Trident/6.0)";
+    private static final String IE11 = "Mozilla/5.0 (Windows NT 6.3; Trident/7.0; rv:11.0) like Gecko";
+    private static final String OPERA = "Mozilla/4.0 (compatible; MSIE 6.0; Windows NT 5.1; en) Opera 8.50";
+
+    @Test
+    public void internetExplorerVersionIsParsed() {
+        assertThat(UserAgentClassifier.parseInternetExplorerVersion(IE8), is(equalTo(8)));
+        assertThat(UserAgentClassifier.parseInternetExplorerVersion(IE10), is(equalTo(10)));
+        assertThat(UserAgentClassifier.parseInternetExplorerVersion(IE11), is(equalTo(UserAgentClassifier.NOT_INTERNET_EXPLORER)));
+        assertThat(UserAgentClassifier.parseInternetExplorerVersion(OPERA), is(equalTo(UserAgentClassifier.NOT_INTERNET_EXPLORER)));
+        assertThat(UserAgentClassifier.parseInternetExplorerVersion("MSIE x"), is(equalTo(UserAgentClassifier.NOT_INTERNET_EXPLORER)));
+    }
+
+    @Test
+    public void leastRecentlyUsedUserAgentIsEvicted() {
+        UserAgentClassifier classifier = new UserAgentClassifier(2);
+
+        classifier.internetExplorerVersion(IE8);
+        classifier.internetExplorerVersion(IE10);
+        classifier.internetExplorerVersion(IE8);
+        classifier.internetExplorerVersion(IE11);
+
+        assertThat(classifier.size(), is(equalTo(2)));
+        assertThat(classifier.contains(IE8), is(equalTo(true)));
+        assertThat(classifier.contains(IE10), is(equalTo(false)));
+        assertThat(classifier.contains(IE11), is(equalTo(true)));
+        assertThat(classifier.internetExplorerVersion(IE10), is(equalTo(10)));
+    }
+
+    @Test
+    public void nothingIsCachedWithoutSize() {
+        UserAgentClassifier classifier = new UserAgentClassifier(0);
+
+        assertThat(classifier.internetExplorerVersion(IE8), is(equalTo(8)));
+        assertThat(classifier.size(), is(equalTo(0)));
+    }
+
+    @Test
+    public void shimsAreRenderedForLegacyInternetExplorer() {
+        tester().addRequestHeader("User-Agent", IE8);
+        tester().startPage(ShimPage.class);
+
+        tester().assertContains("html5shiv");
+        tester().assertContains("respond");
+    }
+
+    @Test
+    public void shimsAreNotRenderedForOtherBrowsers() {
+        tester().addRequestHeader("User-Agent", IE10);
+        tester().startPage(ShimPage.class);
+
+        assertThat(tester().getLastResponseAsString(), not(containsString("html5shiv")));
+    }
+
+    @Test
+    public void shimsCanBeDisabled() {
+        getBootstrapSettings().setLegacyInternetExplorerShims(false);
+
+        tester().addRequestHeader("User-Agent", IE8);
+        tester().startPage(ShimPage.class);
+
+        assertThat(tester().getLastResponseAsString(), not(containsString("html5shiv")));
+    }
+
+    public static class ShimPage extends WebPage implements IMarkupResourceStreamProvider {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void renderHead(IHeaderResponse response) {
+            super.renderHead(response);
+
+            Bootstrap.renderHead(response);
+        }
+
+        @Override
+        public IResourceStream getMarkupResourceStream(MarkupContainer container, Class<?> containerClass) {
+            return new StringResourceStream("<html><head></head><body></body></html>");
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package de.agilecoders.wicket.core.settings;
+
+import org.apache.wicket.WicketRuntimeException;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests the {@link DefaultThemeProvider}
+ */
+public class DefaultThemeProviderTest {
+
+    @Test
+    public void byNameIgnoresCase() throws Exception {
+        ITheme theme = new Theme("My-Theme");
+        DefaultThemeProvider provider = new DefaultThemeProvider().add(theme);
+
+        assertThat(provider.byName("my-theme"), is(theme));
+        assertThat(provider.byName("MY-THEME"), is(theme));
+        assertThat(provider.byName("Bootstrap"), is(provider.defaultTheme()));
+    }
+
+    @Test(expected = WicketRuntimeException.class)
+    public void byNameThrowsExceptionForUnknownTheme() throws Exception {
+        new DefaultThemeProvider().byName("unknown");
+    }
+
+    @Test(expected = WicketRuntimeException.class)
+    public void duplicatedNamesAreRejected() throws Exception {
+        new DefaultThemeProvider().add(new Theme("My-Theme"), new Theme("my-theme2")).add(new Theme("MY-THEME"));
+    }
+}
@@ -0,0 +1,63 @@
+package de.agilecoders.wicket.core.settings;
+
+import de.agilecoders.wicket.core.WicketApplicationTest;
+import de.agilecoders.wicket.core.request.cdn.CdnResourceReference;
+import org.apache.wicket.markup.head.CssReferenceHeaderItem;
+import org.apache.wicket.markup.head.HeaderItem;
+import org.apache.wicket.request.resource.CssResourceReference;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.endsWith;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests the {@link ThemeHeaderItems}
+ */
+public class ThemeHeaderItemsTest extends WicketApplicationTest {
+
+    private final Theme theme = new Theme("cached", new CssResourceReference(ThemeHeaderItemsTest.class, "theme.css")) {
+        @Override
+        public Iterable<String> getCdnUrls() {
+            return Collections.singletonList("//cdn.example.com/" + getVersion() + "/theme.css");
+        }
+    };
+
+    @Test
+    public void headerItemsAreCached() {
+        List<HeaderItem> items = headerItems();
+
+        assertThat(headerItems(), is(sameInstance(items)));
+        assertThat(items, is(equalTo(theme.getDependencies())));
+    }
+
+    @Test
+    public void headerItemsAreInvalidatedIfSettingsChange() {
+        List<HeaderItem> items = headerItems();
+
+        getBootstrapSettings().useCdnResources(true);
+        List<HeaderItem> cdnItems = headerItems();
+
+        assertThat(cdnItems, is(not(sameInstance(items))));
+        assertThat(((CssReferenceHeaderItem) cdnItems.get(0)).getReference(), is(instanceOf(CdnResourceReference.class)));
+        assertThat(((CdnResourceReference) ((CssReferenceHeaderItem) cdnItems.get(0)).getReference()).getFallback(),
+                   is(equalTo(((CssReferenceHeaderItem) items.get(0)).getReference())));
+
+        getBootstrapSettings().setVersion("3.0.0");
+        List<HeaderItem> otherVersion = headerItems();
+
+        assertThat(otherVersion, is(not(sameInstance(cdnItems))));
+        assertThat(((CssReferenceHeaderItem) otherVersion.get(0)).getReference().getName(), endsWith("/3.0.0/theme.css"));
+    }
+
+    private List<HeaderItem> headerItems() {
+        return ThemeHeaderItems.get(application()).of(theme, getBootstrapSettings());
+    }
+}
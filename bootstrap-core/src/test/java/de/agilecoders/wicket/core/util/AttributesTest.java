@@ -1,6 +1,10 @@
 package de.agilecoders.wicket.core.util;
 
 import de.agilecoders.wicket.core.WicketApplicationTest;
+import de.agilecoders.wicket.core.markup.html.bootstrap.block.CodeBehavior;
+import de.agilecoders.wicket.core.markup.html.bootstrap.button.Buttons;
+import de.agilecoders.wicket.core.markup.html.bootstrap.dialog.Modal;
+import de.agilecoders.wicket.core.markup.html.bootstrap.layout.pull.SmallPullType;
 import org.apache.wicket.Component;
 import org.apache.wicket.markup.ComponentTag;
 import org.apache.wicket.markup.html.WebMarkupContainer;
@@ -11,6 +15,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 
 /**
  * Tests the {@link Attributes} class
@@ -55,6 +60,28 @@ public class AttributesTest extends WicketApplicationTest {
         assertThat(tag.getAttribute("class"), is(equalTo("class1 class2")));
     }
 
+    @Test
+    public void enumClassNameIsPrecomputed() {
+        assertThat(Modal.Size.Large.cssClassName(), is(sameInstance("modal-lg")));
+        assertThat(CodeBehavior.Language.JAVA.cssClassName(), is(sameInstance("lang-java")));
+        assertThat(CodeBehavior.Language.DYNAMIC.cssClassName(), is(equalTo("")));
+        assertThat(SmallPullType.PULL0.cssClassName(), is(equalTo("")));
+        assertThat(SmallPullType.PULL3.cssClassName(), is(sameInstance("col-sm-pull-3")));
+    }
+
+    @Test
+    public void enumClassNameIsAddedToTag() {
+        ComponentTag tag = new ComponentTag("span", XmlTag.TagType.OPEN_CLOSE);
+
+        Attributes.addClass(tag, Buttons.Orientation.Vertical);
+        Attributes.addClass(tag, Buttons.Orientation.Vertical);
+        Attributes.addClass(tag, Buttons.Orientation.Horizontal);
+        assertThat(tag.getAttribute("class"), is(sameInstance("btn-group-vertical")));
+
+        Attributes.addClass(tag, Buttons.Size.Large);
+        assertThat(tag.getAttribute("class"), is(equalTo("btn-group-vertical btn-lg")));
+    }
+
     /**
      * creates a new component with an onComponentTag method that adds
      * given class names.
@@ -0,0 +1,59 @@
+package de.agilecoders.wicket.core.util;
+
+import de.agilecoders.wicket.core.test.TestCategory;
+import de.agilecoders.wicket.jquery.util.Generics2;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+/**
+ * Tests the {@link CssClassList} class
+ */
+@Category(TestCategory.UnitTest.class)
+public class CssClassListTest {
+
+    @Test
+    public void addAppendsNewClassNamesInOrder() {
+        assertThat(CssClassList.add("btn btn-default", "active", "btn", "pull-right"), is(equalTo("btn btn-default active pull-right")));
+    }
+
+    @Test
+    public void addSplitsAndNormalizesClassNames() {
+        assertThat(CssClassList.add("  btn\tbtn  btn-default ", " active  btn ", null), is(equalTo("btn btn-default active")));
+        assertThat(CssClassList.add(null, Generics2.newArrayList("a", "b a", "")), is(equalTo("a b")));
+    }
+
+    @Test
+    public void addReturnsSameValueIfNothingChanged() {
+        String value = "btn btn-default";
+
+        assertThat(CssClassList.add(value, "btn"), is(sameInstance(value)));
+        assertThat(CssClassList.add(null, "btn"), is(equalTo("btn")));
+        assertThat(CssClassList.add(null), is(equalTo("")));
+    }
+
+    @Test
+    public void removeRemovesClassNames() {
+        assertThat(CssClassList.remove("btn btn-default active", "active btn"), is(equalTo("btn-default")));
+        assertThat(CssClassList.remove("btn btn-default", Generics2.newHashSet("btn-default", "btn")), is(equalTo("")));
+        assertThat(CssClassList.remove(null, "btn"), is(equalTo("")));
+    }
+
+    @Test
+    public void removeReturnsSameValueIfNothingChanged() {
+        String value = "btn btn-default";
+
+        assertThat(CssClassList.remove(value, "btn-primary", "bt"), is(sameInstance(value)));
+    }
+
+    @Test
+    public void containsMatchesWholeClassNames() {
+        assertThat(CssClassList.contains("btn btn-default", "btn-default"), is(true));
+        assertThat(CssClassList.contains("btn btn-default", "btn-def"), is(false));
+        assertThat(CssClassList.contains(null, "btn"), is(false));
+    }
+}
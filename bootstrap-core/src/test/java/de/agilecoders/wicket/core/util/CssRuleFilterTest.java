@@ -0,0 +1,59 @@
+package de.agilecoders.wicket.core.util;
+
+import de.agilecoders.wicket.core.test.TestCategory;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Tests the {@link CssRuleFilter} and {@link CssUsage} classes
+ */
+@Category(TestCategory.UnitTest.class)
+public class CssRuleFilterTest {
+
+    private final CssUsage usage = new CssUsage().addMarkup("<html><body><div id=\"main\" class=\"navbar navbar-default\"><a class='active'>x</a></div></body></html>");
+
+    @Test
+    public void unusedSelectorsAreRemoved() {
+        String css = ".navbar { color: red; }\n.btn, .navbar-default > a.active:hover { color: blue; }\n.btn { margin: 0 }";
+
+        assertThat(new CssRuleFilter(usage).filter(css), is(equalTo(".navbar{color: red;}.navbar-default > a.active:hover{color: blue;}")));
+    }
+
+    @Test
+    public void elementsIdsAndUniversalSelectorsMatch() {
+        assertThat(usage.matches("body #main"), is(equalTo(true)));
+        assertThat(usage.matches("*"), is(equalTo(true)));
+        assertThat(usage.matches("DIV::after"), is(equalTo(true)));
+        assertThat(usage.matches("a[href^=\"http\"]"), is(equalTo(true)));
+        assertThat(usage.matches("table"), is(equalTo(false)));
+        assertThat(usage.matches("#other"), is(equalTo(false)));
+        assertThat(usage.matches("div:not(.btn)"), is(equalTo(true)));
+    }
+
+    @Test
+    public void emptyGroupRulesAreRemoved() {
+        String css = "@media (min-width: 768px) { .btn { float: left } .navbar { float: none } }\n@media print { .btn { display: none } }";
+
+        assertThat(new CssRuleFilter(usage).filter(css), is(equalTo("@media (min-width: 768px){.navbar{float: none}}")));
+    }
+
+    @Test
+    public void atRulesAreKeptOnlyIfConfigured() {
+        String css = "@charset \"UTF-8\";@font-face { font-family: x; src: url(x.woff) }\n@keyframes spin { from { opacity: 0 } to { opacity: 1 } }";
+
+        assertThat(new CssRuleFilter(usage).filter(css),
+                   is(equalTo("@charset \"UTF-8\";@font-face{font-family: x; src: url(x.woff)}@keyframes spin{from { opacity: 0 } to { opacity: 1 }}")));
+        assertThat(new CssRuleFilter(usage).keepAtRules(false).filter(css), is(equalTo("")));
+    }
+
+    @Test
+    public void commentsAreRemovedButNotWithinStrings() {
+        String css = "/* .navbar { } */.navbar::before { content: \"/* } */\" }";
+
+        assertThat(new CssRuleFilter(usage).filter(css), is(equalTo(".navbar::before{content: \"/* } */\"}")));
+    }
+}
@@ -6,13 +6,13 @@ import org.apache.wicket.markup.head.HeaderItem;
 import org.apache.wicket.markup.head.IHeaderResponse;
 import org.apache.wicket.markup.head.JavaScriptHeaderItem;
 import org.apache.wicket.markup.html.IHeaderContributor;
-import org.apache.wicket.request.resource.JavaScriptResourceReference;
 
+import de.agilecoders.wicket.core.request.resource.PrecompressedJavaScriptResourceReference;
 import de.agilecoders.wicket.core.util.Dependencies;
 
 import java.util.List;
 
-public final class FileinputJsReference extends JavaScriptResourceReference implements IHeaderContributor {
+public final class FileinputJsReference extends PrecompressedJavaScriptResourceReference implements IHeaderContributor {
 
     public static final FileinputJsReference INSTANCE = new FileinputJsReference();
 
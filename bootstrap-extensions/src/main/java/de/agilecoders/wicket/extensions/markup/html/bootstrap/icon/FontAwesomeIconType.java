@@ -814,6 +814,8 @@ public class FontAwesomeIconType extends IconType {
     public static final FontAwesomeIconType youtube_square = on(FontAwesomeGraphic.youtube_square).build();
     public static final FontAwesomeIconType yen = on(FontAwesomeGraphic.jpy).build();
 
+    private final String fontAwesomeClassName;
+
     /**
      * Constructor.
      *
@@ -821,10 +823,12 @@ public class FontAwesomeIconType extends IconType {
      */
     FontAwesomeIconType(final String... cssClassName) {
         super(Strings.join(" ", cssClassName));
+
+        this.fontAwesomeClassName = ("fa fa-" + getCssClassName()).intern();
     }
 
     @Override
     public String cssClassName() {
-        return "fa fa-" + getCssClassName();
+        return fontAwesomeClassName;
     }
 }
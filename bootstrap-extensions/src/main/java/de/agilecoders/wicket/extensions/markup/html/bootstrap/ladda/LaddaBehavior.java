@@ -27,9 +27,15 @@ public class LaddaBehavior extends Behavior {
         SLIDE_LEFT, SLIDE_RIGHT, SLIDE_UP, SLIDE_DOWN,
         CONTRACT;
 
+        private final String cssClassName;
+
+        Effect() {
+            this.cssClassName = name().toLowerCase().replace('_', '-').intern();
+        }
+
         @Override
         public String cssClassName() {
-            return name().toLowerCase().replace('_', '-');
+            return cssClassName;
         }
     }
 
@@ -1,18 +1,40 @@
 package de.agilecoders.wicket.extensions.request;
 
+import org.apache.wicket.Application;
+import org.apache.wicket.IApplicationListener;
+import org.apache.wicket.MetaDataKey;
 import org.apache.wicket.core.request.mapper.ResourceReferenceMapper;
 import org.apache.wicket.protocol.http.WebApplication;
 import org.apache.wicket.request.IRequestHandler;
 import org.apache.wicket.request.IRequestMapper;
 import org.apache.wicket.request.Request;
 import org.apache.wicket.request.Url;
+import org.apache.wicket.request.cycle.RequestCycle;
 import org.apache.wicket.request.handler.resource.ResourceReferenceRequestHandler;
+import org.apache.wicket.request.http.WebResponse;
+import org.apache.wicket.request.mapper.parameter.PageParameters;
 import org.apache.wicket.request.mapper.parameter.PageParametersEncoder;
+import org.apache.wicket.request.resource.AbstractResource;
+import org.apache.wicket.request.resource.IResource;
+import org.apache.wicket.request.resource.ResourceReference;
 import org.apache.wicket.request.resource.caching.IResourceCachingStrategy;
 import org.apache.wicket.request.resource.caching.IStaticCacheableResource;
+import org.apache.wicket.request.resource.caching.ResourceUrl;
+import org.apache.wicket.request.resource.caching.version.CachingResourceVersion;
+import org.apache.wicket.request.resource.caching.version.IResourceVersion;
+import org.apache.wicket.request.resource.caching.version.MessageDigestResourceVersion;
 import org.apache.wicket.util.IProvider;
+import org.apache.wicket.util.encoding.UrlEncoder;
+import org.apache.wicket.util.lang.Args;
+import org.apache.wicket.util.lang.Objects;
 import org.apache.wicket.util.string.Strings;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Enables a Wicket application to have its static resources proxied by a CDN, for example
  * by Amazon Cloudfront. This works by intercepting Wicket's default behavior for rendering
@@ -54,12 +76,50 @@ import org.apache.wicket.util.string.Strings;
  * This trick ensures that "http" or "https" will be automatically selected by the
  * browser based on the enclosing web page.
  * <p/>
+ * <b>Content hashes:</b> with {@link Builder#withContentHash(boolean)} the content hash of a resource is added
+ * as first path segment, e.g.
+ * <pre class="example">
+ * //age39p8hg23.cloudfront.net/_9a0364b9e99bb480dd25e1f0284c8555/wicket/resource/com.mycompany.WicketApplication/test.css</pre>
+ * <p/>
+ * The URL changes with the content, so the CDN and the browsers can cache it forever. The mapper removes the
+ * segment from requests of the CDN host and, if the content hash still matches, adds {@code Cache-Control: immutable}
+ * to the maximum cache duration. The hash is computed by an {@link IResourceVersion}, by default a cached
+ * MD5 digest; pass the version of your caching strategy to {@link Builder#withResourceVersion(IResourceVersion)}
+ * to compute it only once.
+ * <p/>
+ * <b>Please note: with content hashes the mapper decorates the caching strategy of the application, so
+ * {@link Builder#install(WebApplication)} must be called after the caching strategy was configured.</b> If the
+ * caching strategy is replaced afterwards, the application fails to start.
+ * <pre class="example">
+ * getResourceSettings().setCachingStrategy(new FilenameWithVersionResourceCachingStrategy(version));
+ * StaticResourceRewriteMapper.withBaseUrl("//age39p8hg23.cloudfront.net").withContentHash(true).install(this);</pre>
+ * <p/>
+ * <b>Sharding:</b> with several base URLs each resource is served by one of them, chosen by a stable hash of
+ * its scope and name.
+ * <pre class="example">
+ * StaticResourceRewriteMapper.withBaseUrls("//cdn1.example.com", "//cdn2.example.com").install(this);</pre>
+ * <p/>
+ * The rewritten URLs are cached per resource reference, url attributes and version; {@link #getHits()} and
+ * {@link #getMisses()} count the lookups.
+ * <p/>
  * <em>For those familiar with Ruby on Rails, {@code StaticResourceRewriteMapper} is inspired by the Rails
  * {@code action_controller.asset_host} configuration setting.</em>
  * <em>This class is a fork of https://github.com/55minutes/fiftyfive-wicket/blob/v3.2/fiftyfive-wicket-core/src/main/java/fiftyfive/wicket/resource/SimpleCDN.java</em>
  */
 public class StaticResourceRewriteMapper implements IRequestMapper {
 
+    /**
+     * prefix of the content hash segment
+     */
+    private static final String HASH_PREFIX = "_";
+
+    /**
+     * marks a request of a resource whose content hash matches the one of its url
+     */
+    private static final MetaDataKey<Boolean> IMMUTABLE = new MetaDataKey<Boolean>() {
+        private static final long serialVersionUID = 1L;
+    };
+
     /**
      * creates a new {@link Builder} with given base url
      *
@@ -70,25 +130,46 @@ public class StaticResourceRewriteMapper implements IRequestMapper {
         return new Builder(baseUrl);
     }
 
-    private final String baseUrl;
+    /**
+     * creates a new {@link Builder} with given base urls, the resources are sharded across them
+     *
+     * @param baseUrls the base urls
+     * @return new builder instance
+     */
+    public static Builder withBaseUrls(final String... baseUrls) {
+        return new Builder(baseUrls);
+    }
+
+    private final String[] baseUrls;
     private final IRequestMapper chain;
+    private final IResourceVersion resourceVersion;
+    private final boolean contentHash;
+    private final ConcurrentMap<Key, Url> urls = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
 
     /**
      * Construct a {@code StaticResourceRewriteMapper} that will rewrite resource reference URLs
-     * by prepending the given {@code baseUrl}.
+     * by prepending one of the given {@code baseUrls}.
      *
-     * @param baseUrl  For example, "//age39p8hg23.cloudfront.net"
-     * @param chain the base request mapper
+     * @param baseUrls        For example, "//age39p8hg23.cloudfront.net"
+     * @param chain           the base request mapper
+     * @param resourceVersion the version of the resources
+     * @param contentHash     whether the version is added as path segment
      */
-    private StaticResourceRewriteMapper(final String baseUrl, final IRequestMapper chain) {
-        this.baseUrl = baseUrl;
+    private StaticResourceRewriteMapper(final String[] baseUrls, final IRequestMapper chain,
+                                        final IResourceVersion resourceVersion, final boolean contentHash) {
+        this.baseUrls = baseUrls;
         this.chain = chain;
+        this.resourceVersion = resourceVersion;
+        this.contentHash = contentHash;
     }
 
     /**
      * If the {@code requestHandler} is a {@link ResourceReferenceRequestHandler}, delegate to
      * Wicket's default mapper for creating an appropriate URL, and then prepend the
      * {@code baseUrl} that was provided to the {@code StaticResourceRewriteMapper} constructor.
+     * The rewritten URL is cached per reference, url attributes and version of the resource.
      *
      * @return a rewritten Url to the resource, or {@code null} if {@code requestHandler} is
      *         not for a resource reference
@@ -98,16 +179,35 @@ public class StaticResourceRewriteMapper implements IRequestMapper {
         // StaticResourceRewriteMapper doesn't apply to non-resources
         if (requestHandler instanceof ResourceReferenceRequestHandler) {
             final ResourceReferenceRequestHandler resourceReferenceRequestHandler = (ResourceReferenceRequestHandler) requestHandler;
+            final IResource resource = resourceReferenceRequestHandler.getResource();
 
             // StaticResourceRewriteMapper doesn't apply to non-static resources
-            if (resourceReferenceRequestHandler.getResource() instanceof IStaticCacheableResource) {
-                final Url url = chain.mapHandler(requestHandler);
+            if (resource instanceof IStaticCacheableResource) {
+                final String version = hasParameters(resourceReferenceRequestHandler.getPageParameters())
+                                       ? null : resourceVersion.getVersion((IStaticCacheableResource) resource);
 
-                if (url != null && url.getQueryParameters().isEmpty()) {
-                    return Url.parse(Strings.join("/", baseUrl, url.toString()));
+                if (version == null) {
+                    return rewrite(chain.mapHandler(requestHandler), resourceReferenceRequestHandler.getResourceReference(), null);
+                }
+
+                final ResourceReference reference = resourceReferenceRequestHandler.getResourceReference();
+                final Key key = new Key(reference.getKey(), reference.getUrlAttributes(), version);
+                Url url = urls.get(key);
+
+                if (url != null) {
+                    hits.incrementAndGet();
                 } else {
-                    return url;
+                    misses.incrementAndGet();
+
+                    url = rewrite(chain.mapHandler(requestHandler), reference, version);
+                    if (url == null || !url.getQueryParameters().isEmpty()) {
+                        return url;
+                    }
+                    urls.putIfAbsent(key, url);
                 }
+
+                // urls are mutable
+                return new Url(url);
             }
         }
 
@@ -115,21 +215,182 @@ public class StaticResourceRewriteMapper implements IRequestMapper {
     }
 
     /**
-     * Always return {@code null}, since {@code StaticResourceRewriteMapper} does not play any part in handling requests
-     * (they will be handled by Wicket's default mechanism).
+     * @param url       the url of Wicket's default mapper
+     * @param reference the resource reference
+     * @param version   the version of the resource or {@code null}
+     * @return the url prefixed with a base url and content hash or the given one if it has query parameters
+     */
+    private Url rewrite(final Url url, final ResourceReference reference, final String version) {
+        if (url == null || !url.getQueryParameters().isEmpty()) {
+            return url;
+        }
+
+        final String baseUrl = baseUrl(reference);
+        if (contentHash && version != null) {
+            final String segment = HASH_PREFIX + UrlEncoder.PATH_INSTANCE.encode(version, StandardCharsets.UTF_8);
+            return Url.parse(Strings.join("/", baseUrl, segment, url.toString()));
+        }
+        return Url.parse(Strings.join("/", baseUrl, url.toString()));
+    }
+
+    /**
+     * @return the base url of the given reference, which is the same for each version of it
+     */
+    private String baseUrl(final ResourceReference reference) {
+        if (baseUrls.length == 1) {
+            return baseUrls[0];
+        }
+
+        final int hash = (reference.getScope().getName() + '/' + reference.getName()).hashCode();
+        return baseUrls[(hash & Integer.MAX_VALUE) % baseUrls.length];
+    }
+
+    private static boolean hasParameters(final PageParameters parameters) {
+        return parameters != null && !parameters.isEmpty();
+    }
+
+    /**
+     * Maps requests of the CDN host, which are prefixed with a content hash, to the resource
+     * and marks them as immutable if the hash matches the current version of the resource.
      */
     @Override
     public IRequestHandler mapRequest(final Request request) {
+        final Request resourceRequest = withoutContentHash(request);
+
+        if (resourceRequest != null) {
+            final IRequestHandler handler = chain.mapRequest(resourceRequest);
+
+            if (handler instanceof ResourceReferenceRequestHandler) {
+                final IResource resource = ((ResourceReferenceRequestHandler) handler).getResource();
+                final String hash = request.getUrl().getSegments().get(0).substring(HASH_PREFIX.length());
+
+                if (resource instanceof IStaticCacheableResource
+                    && hash.equals(resourceVersion.getVersion((IStaticCacheableResource) resource))) {
+                    RequestCycle.get().setMetaData(IMMUTABLE, Boolean.TRUE);
+                }
+                return handler;
+            }
+        }
         return null;
     }
 
     /**
-     * Always return {@code 0}, since {@code StaticResourceRewriteMapper} does not play any part in handling requests
+     * Returns the score of Wicket's default mapper for requests with content hash, {@code 0} otherwise
      * (they will be handled by Wicket's default mechanism).
      */
     @Override
     public int getCompatibilityScore(final Request request) {
-        return 0;
+        final Request resourceRequest = withoutContentHash(request);
+
+        return resourceRequest != null ? chain.getCompatibilityScore(resourceRequest) : 0;
+    }
+
+    /**
+     * @return the request without content hash segment or {@code null} if it has none
+     */
+    private Request withoutContentHash(final Request request) {
+        final List<String> segments = request.getUrl().getSegments();
+
+        if (!contentHash || segments.size() < 2 || !segments.get(0).startsWith(HASH_PREFIX)) {
+            return null;
+        }
+
+        final Url url = new Url(request.getUrl());
+        url.getSegments().remove(0);
+        return request.cloneWithUrl(url);
+    }
+
+    /**
+     * @return the number of urls that were taken from the cache
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of urls that were computed
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * removes all cached urls, e.g. after the base urls were moved
+     */
+    public void clearCache() {
+        urls.clear();
+    }
+
+    /**
+     * the cache key of a rewritten url
+     */
+    private static final class Key {
+        private final ResourceReference.Key reference;
+        private final ResourceReference.UrlAttributes attributes;
+        private final String version;
+
+        private Key(final ResourceReference.Key reference, final ResourceReference.UrlAttributes attributes, final String version) {
+            this.reference = reference;
+            this.attributes = attributes;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            } else if (!(o instanceof Key)) {
+                return false;
+            }
+
+            final Key key = (Key) o;
+            return reference.equals(key.reference) && Objects.equal(attributes, key.attributes) && version.equals(key.version);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * reference.hashCode() + Objects.hashCode(attributes)) + version.hashCode();
+        }
+    }
+
+    /**
+     * decorates the caching strategy of the application and adds {@code immutable} to the
+     * {@code Cache-Control} header of resources whose content hash matches the one of their url
+     */
+    private static final class ImmutableResourceCachingStrategy implements IResourceCachingStrategy {
+        private final IResourceCachingStrategy delegate;
+
+        private ImmutableResourceCachingStrategy(final IResourceCachingStrategy delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void decorateUrl(final ResourceUrl url, final IStaticCacheableResource resource) {
+            delegate.decorateUrl(url, resource);
+        }
+
+        @Override
+        public void undecorateUrl(final ResourceUrl url) {
+            delegate.undecorateUrl(url);
+        }
+
+        @Override
+        public void decorateResponse(final AbstractResource.ResourceResponse response, final IStaticCacheableResource resource) {
+            delegate.decorateResponse(response, resource);
+
+            final RequestCycle requestCycle = RequestCycle.get();
+            if (requestCycle != null && Boolean.TRUE.equals(requestCycle.getMetaData(IMMUTABLE))) {
+                response.setCacheDurationToMaximum();
+                response.setCacheScope(WebResponse.CacheScope.PUBLIC);
+                // combined with the cache control of the duration and scope by the browser
+                response.getHeaders().addHeader("Cache-Control", "immutable");
+            }
+        }
+
+        @Override
+        public void clearCache() {
+            delegate.clearCache();
+        }
     }
 
     /**
@@ -137,28 +398,79 @@ public class StaticResourceRewriteMapper implements IRequestMapper {
      */
     public static final class Builder {
 
-        private final String url;
+        private final String[] urls;
+        private IResourceVersion resourceVersion;
+        private boolean contentHash = false;
 
         /**
          * Construct.
          *
-         * @param url base url
+         * @param urls base urls
          */
-        private Builder(String url) {
-            this.url = url;
+        private Builder(String... urls) {
+            this.urls = Args.notNull(urls, "urls");
+            Args.isTrue(urls.length > 0, "at least one base url is required");
+        }
+
+        /**
+         * @param resourceVersion the version of the resources, e.g. the one of the caching strategy. Default: a
+         *                        cached MD5 digest of the content
+         * @return this instance for chaining
+         */
+        public Builder withResourceVersion(final IResourceVersion resourceVersion) {
+            this.resourceVersion = Args.notNull(resourceVersion, "resourceVersion");
+            return this;
+        }
+
+        /**
+         * @param contentHash whether the version of a resource is added as path segment and requests with matching
+         *                    version are served as immutable. Default: false
+         * @return this instance for chaining
+         */
+        public Builder withContentHash(final boolean contentHash) {
+            this.contentHash = contentHash;
+            return this;
         }
 
         /**
          * Install this {@code StaticResourceRewriteMapper} into the given application. The
          * {@code StaticResourceRewriteMapper} instance will not have any effect unless it is installed.
+         * With content hashes it must be installed after the caching strategy was configured.
+         *
+         * @param app the application
+         * @return the installed mapper
+         * @throws IllegalStateException on start of the application if the caching strategy was replaced
+         *                               after the mapper was installed with content hashes
          */
-        public void install(final WebApplication app) {
+        public StaticResourceRewriteMapper install(final WebApplication app) {
             final IRequestMapper delegate = new ResourceReferenceMapper(new PageParametersEncoder(),
                                                                         newParentFolderPlaceholder(app),
                                                                         newResourceCachingStrategy(app));
 
-            final StaticResourceRewriteMapper mapper = new StaticResourceRewriteMapper(url, delegate);
+            if (contentHash) {
+                final IResourceCachingStrategy cachingStrategy = new ImmutableResourceCachingStrategy(app.getResourceSettings().getCachingStrategy());
+
+                app.getResourceSettings().setCachingStrategy(cachingStrategy);
+                app.getApplicationListeners().add(new IApplicationListener() {
+                    @Override
+                    public void onAfterInitialized(final Application application) {
+                        if (app.getResourceSettings().getCachingStrategy() != cachingStrategy) {
+                            throw new IllegalStateException("The caching strategy was replaced after the StaticResourceRewriteMapper "
+                                                            + "was installed; install it after the caching strategy was configured");
+                        }
+                    }
+
+                    @Override
+                    public void onBeforeDestroyed(final Application application) {
+                    }
+                });
+            }
+
+            final IResourceVersion version = resourceVersion != null
+                                             ? resourceVersion : new CachingResourceVersion(new MessageDigestResourceVersion());
+            final StaticResourceRewriteMapper mapper = new StaticResourceRewriteMapper(urls, delegate, version, contentHash);
             app.mount(mapper);
+            return mapper;
         }
 
         /**
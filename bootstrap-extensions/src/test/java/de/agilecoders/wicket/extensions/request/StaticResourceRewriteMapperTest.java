@@ -0,0 +1,86 @@
+package de.agilecoders.wicket.extensions.request;
+
+import de.agilecoders.wicket.extensions.markup.html.bootstrap.WicketApplicationTest;
+import org.apache.wicket.request.handler.resource.ResourceReferenceRequestHandler;
+import org.apache.wicket.request.resource.ResourceReference;
+import org.apache.wicket.request.resource.caching.IStaticCacheableResource;
+import org.apache.wicket.request.resource.caching.NoOpResourceCachingStrategy;
+import org.apache.wicket.request.resource.caching.version.MessageDigestResourceVersion;
+import org.apache.wicket.resource.JQueryResourceReference;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests the {@link StaticResourceRewriteMapper}
+ */
+public class StaticResourceRewriteMapperTest extends WicketApplicationTest {
+
+    private final ResourceReference reference = JQueryResourceReference.get();
+    private StaticResourceRewriteMapper mapper;
+
+    @Override
+    protected void onBefore() {
+        mapper = StaticResourceRewriteMapper.withBaseUrls("//cdn1.example.com", "//cdn2.example.com").withContentHash(true).install(application());
+    }
+
+    @Test
+    public void urlContainsBaseUrlAndContentHash() {
+        String url = urlFor(reference);
+        String hash = new MessageDigestResourceVersion().getVersion((IStaticCacheableResource) reference.getResource());
+
+        assertThat(url, containsString("//cdn"));
+        assertThat(url, containsString(".example.com/_" + hash + "/wicket/resource/"));
+    }
+
+    @Test
+    public void urlIsCached() {
+        String url = urlFor(reference);
+
+        assertThat(urlFor(reference), is(equalTo(url)));
+        assertThat(mapper.getMisses(), is(equalTo(1L)));
+        assertThat(mapper.getHits(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void urlWithoutContentHash() {
+        mapper = StaticResourceRewriteMapper.withBaseUrl("//cdn.example.com").install(application());
+
+        assertThat(urlFor(reference), not(containsString("/_")));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void replacedCachingStrategyFailsOnStart() {
+        application().getResourceSettings().setCachingStrategy(NoOpResourceCachingStrategy.INSTANCE);
+
+        application().getApplicationListeners().onAfterInitialized(application());
+    }
+
+    @Test
+    public void requestWithMatchingContentHashIsImmutable() {
+        tester().executeUrl(urlFor(reference).replaceFirst("^[a-z]*:?//[^/]+/", ""));
+
+        tester().assertContains("jQuery");
+        assertThat(cacheControl(), containsString("immutable"));
+    }
+
+    @Test
+    public void requestWithOutdatedContentHashIsNotImmutable() {
+        tester().executeUrl(urlFor(reference).replaceFirst("^[a-z]*:?//[^/]+/_[^/]+/", "_0123/"));
+
+        tester().assertContains("jQuery");
+        assertThat(cacheControl(), not(containsString("immutable")));
+    }
+
+    private String cacheControl() {
+        return tester().getLastResponse().getHeaders("Cache-Control").toString();
+    }
+
+    private String urlFor(ResourceReference reference) {
+        return tester().getRequestCycle().urlFor(new ResourceReferenceRequestHandler(reference)).toString();
+    }
+}
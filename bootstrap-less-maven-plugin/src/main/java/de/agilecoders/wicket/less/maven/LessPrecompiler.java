@@ -0,0 +1,282 @@
+package de.agilecoders.wicket.less.maven;
+
+import com.github.sommeri.less4j.LessSource;
+import de.agilecoders.wicket.less.BootstrapLess;
+import de.agilecoders.wicket.less.LessCacheManager;
+import de.agilecoders.wicket.less.LessCompilerConfigurationFactory;
+import de.agilecoders.wicket.less.PrecompiledCssLocator;
+import de.agilecoders.wicket.webjars.WicketWebjars;
+import org.apache.wicket.mock.MockApplication;
+import org.apache.wicket.util.io.IOUtils;
+import org.apache.wicket.util.lang.Args;
+import org.apache.wicket.util.string.Strings;
+import org.apache.wicket.util.tester.BaseWicketTester;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Compiles Less resources found in a classes directory to CSS and writes the result
+ * and a manifest to the locations where {@link PrecompiledCssLocator} looks them up at runtime.
+ *
+ * <p>The resources are compiled by a {@link LessCacheManager} of a mock application, so
+ * {@code webjars!}, {@code classpath!} and {@code package!} imports are resolved exactly
+ * like at runtime. The manifest records the paths of all imported resources in the classpath
+ * and a fingerprint of their contents, so the precompiled CSS isn't used at runtime if any of
+ * them differs. A Less resource with an import that cannot be loaded by its path from the
+ * classpath, e.g. because another resource with the same path precedes it, isn't precompiled.</p>
+ *
+ * <p>{@code package!} imports are resolved against the configured scope class or, by default,
+ * against a class in the folder of the Less resource; only the package of the scope class
+ * matters. Without either a {@code package!} import fails.</p>
+ */
+public class LessPrecompiler implements Closeable {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final FileFilter CLASS_FILES = new FileFilter() {
+        @Override
+        public boolean accept(File file) {
+            String name = file.getName();
+            return file.isFile() && name.endsWith(".class") && name.indexOf('$') < 0;
+        }
+    };
+
+    /**
+     * The classes directory with the Less resources; the compiled CSS resources are written to it as well
+     */
+    private final File classesDirectory;
+
+    /**
+     * The fingerprint per path of all compiled Less resources
+     */
+    private final Properties manifest = new Properties();
+
+    private final ClassLoader classLoader;
+
+    private final BaseWicketTester tester;
+
+    private final Thread thread;
+
+    private final ClassLoader previousClassLoader;
+
+    /**
+     * Constructor. Must be closed by the same thread that created it.
+     *
+     * @param classesDirectory The classes directory with the Less resources
+     * @param classLoader      A class loader that sees the classes directory and all dependencies of the project
+     * @param configFactory    The factory for the compiler configuration, may be {@code null}
+     */
+    public LessPrecompiler(File classesDirectory, ClassLoader classLoader, final LessCompilerConfigurationFactory configFactory) {
+        this.classesDirectory = Args.notNull(classesDirectory, "classesDirectory");
+
+        this.thread = Thread.currentThread();
+        this.previousClassLoader = thread.getContextClassLoader();
+        this.classLoader = Args.notNull(classLoader, "classLoader");
+        thread.setContextClassLoader(classLoader);
+
+        this.tester = new BaseWicketTester(new MockApplication() {
+            @Override
+            protected void init() {
+                super.init();
+
+                WicketWebjars.install(this);
+                BootstrapLess.install(this, configFactory);
+            }
+        });
+    }
+
+    /**
+     * Compiles a Less resource and writes the generated CSS content next to the other classes.
+     * {@code package!} imports are resolved against a class in the folder of the Less resource.
+     *
+     * @param path The path of the Less resource relative to the classes directory
+     * @return the path of the generated CSS resource or {@code null} if the Less resource
+     *          doesn't generate any CSS content, e.g. because it contains only variables
+     * @throws IOException if the Less resource cannot be read or the CSS content cannot be written
+     */
+    public String precompile(String path) throws IOException {
+        return precompile(path, null);
+    }
+
+    /**
+     * Compiles a Less resource and writes the generated CSS content next to the other classes.
+     *
+     * @param path       The path of the Less resource relative to the classes directory
+     * @param scopeClass The name of the class to resolve {@code package!} imports against or {@code null}
+     *                   to use a class in the folder of the Less resource
+     * @return the path of the generated CSS resource or {@code null} if the Less resource
+     *          doesn't generate any CSS content, e.g. because it contains only variables
+     * @throws IOException if the Less resource or one of its imports cannot be read or the CSS content cannot be written
+     */
+    public String precompile(String path, String scopeClass) throws IOException {
+        path = path.replace(File.separatorChar, '/');
+        File lessFile = new File(classesDirectory, path);
+        URL lessUrl = lessFile.toURI().toURL();
+        if (scopeClass == null) {
+            scopeClass = findScopeClass(lessFile);
+        }
+
+        LessCacheManager cacheManager = LessCacheManager.get();
+        LessSource.URLSource lessSource = cacheManager.getLessSource(lessUrl, scopeClass);
+        String css = cacheManager.getCss(lessSource);
+
+        if (Strings.isEmpty(css) || css.trim().isEmpty()) {
+            return null;
+        }
+
+        List<byte[]> contents = new ArrayList<>();
+        List<String> imports = new ArrayList<>();
+        boolean packageImports = false;
+        for (URL dependency : cacheManager.getDependencies(lessSource)) {
+            byte[] content = read(dependency);
+            if (dependency.equals(lessUrl)) {
+                contents.add(0, content);
+            } else {
+                contents.add(content);
+                imports.add(resourcePath(dependency));
+            }
+            packageImports |= new String(content, UTF_8).contains("package!");
+        }
+
+        String cssPath = PrecompiledCssLocator.cssPath(path);
+        File cssFile = new File(classesDirectory, cssPath);
+        Files.createDirectories(cssFile.getParentFile().toPath());
+        Files.write(cssFile.toPath(), css.getBytes(UTF_8));
+
+        manifest.setProperty(path, PrecompiledCssLocator.fingerprint(contents));
+        if (!imports.isEmpty()) {
+            manifest.setProperty(path + PrecompiledCssLocator.IMPORTS_SUFFIX, Strings.join(",", imports));
+        }
+        if (packageImports && scopeClass != null) {
+            manifest.setProperty(path + PrecompiledCssLocator.SCOPE_SUFFIX, Strings.beforeLast(scopeClass, '.'));
+        }
+        return cssPath;
+    }
+
+    /**
+     * Writes the manifest of all Less resources compiled so far.
+     *
+     * @throws IOException if the manifest cannot be written
+     */
+    public void writeManifest() throws IOException {
+        File manifestFile = new File(classesDirectory, PrecompiledCssLocator.MANIFEST);
+        Files.createDirectories(manifestFile.getParentFile().toPath());
+
+        OutputStream outputStream = Files.newOutputStream(manifestFile.toPath());
+        try {
+            manifest.store(outputStream, "generated by wicket-bootstrap-less-maven-plugin");
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    /**
+     * @return the number of compiled Less resources
+     */
+    public int size() {
+        int size = 0;
+        for (String key : manifest.stringPropertyNames()) {
+            if (key.endsWith(".less")) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public void close() {
+        try {
+            tester.destroy();
+        } finally {
+            thread.setContextClassLoader(previousClassLoader);
+        }
+    }
+
+    /**
+     * @param lessFile The Less resource
+     * @return the name of a class in the folder of the Less resource or {@code null} if there is none.
+     *          "package!" imports depend only on the package of the class, so any of them will do.
+     */
+    private String findScopeClass(File lessFile) {
+        File[] classFiles = lessFile.getAbsoluteFile().getParentFile().listFiles(CLASS_FILES);
+        if (classFiles == null || classFiles.length == 0) {
+            return null;
+        }
+
+        Arrays.sort(classFiles);
+        String path = classesDirectory.getAbsoluteFile().toURI().relativize(classFiles[0].toURI()).getPath();
+        return Strings.beforeLast(path, '.').replace('/', '.');
+    }
+
+    /**
+     * @param url The URL of an imported resource
+     * @return the path the imported resource is loaded by from the classpath
+     * @throws IOException if the resource isn't the first one with its path in the classpath
+     */
+    private String resourcePath(URL url) throws IOException {
+        Set<String> candidates = new LinkedHashSet<>();
+        String externalForm = url.toExternalForm();
+        int separator = externalForm.indexOf("!/");
+
+        if ("jar".equals(url.getProtocol()) && separator > -1) {
+            candidates.add(externalForm.substring(separator + 2));
+        } else if ("file".equals(url.getProtocol())) {
+            List<URL> roots = new ArrayList<>();
+            roots.add(classesDirectory.toURI().toURL());
+            if (classLoader instanceof URLClassLoader) {
+                roots.addAll(Arrays.asList(((URLClassLoader) classLoader).getURLs()));
+            }
+
+            URI uri = toUri(url);
+            for (URL root : roots) {
+                URI relative = toUri(root).relativize(uri);
+                if (!relative.isAbsolute()) {
+                    candidates.add(relative.getPath());
+                }
+            }
+        }
+
+        for (String candidate : candidates) {
+            URL resolved = classLoader.getResource(candidate);
+            if (resolved != null && toUri(resolved).equals(toUri(url))) {
+                return candidate;
+            }
+        }
+
+        throw new IOException("The import " + externalForm + " cannot be loaded by its path from the classpath");
+    }
+
+    private static URI toUri(URL url) throws IOException {
+        try {
+            return url.toURI().normalize();
+        } catch (URISyntaxException usx) {
+            throw new IOException("Invalid URL " + url, usx);
+        }
+    }
+
+    private static byte[] read(URL url) throws IOException {
+        InputStream inputStream = url.openStream();
+        try {
+            return IOUtils.toByteArray(inputStream);
+        } finally {
+            IOUtils.closeQuietly(inputStream);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package de.agilecoders.wicket.less.maven;
+
+import de.agilecoders.wicket.less.LessCompilerConfigurationFactory;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.codehaus.plexus.util.DirectoryScanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Compiles the Less resources of a project at build time, so that
+ * {@link de.agilecoders.wicket.less.LessPackageResource} can serve the generated CSS
+ * in deployment mode without compiling it on the first request.
+ *
+ * <p>All Less resources in the classes directory are compiled. Resources that cannot be
+ * compiled on their own, e.g. files with mixins that use variables declared elsewhere,
+ * are skipped.</p>
+ *
+ * <p>{@code package!} imports are resolved against a class in the folder of the Less resource.
+ * Configure the scope class of Less resources without a class in their folder or with another
+ * scope at runtime:</p>
+ *
+ * <pre>
+ * &lt;plugin&gt;
+ *     &lt;groupId&gt;de.agilecoders.wicket&lt;/groupId&gt;
+ *     &lt;artifactId&gt;wicket-bootstrap-less-maven-plugin&lt;/artifactId&gt;
+ *     &lt;executions&gt;
+ *         &lt;execution&gt;
+ *             &lt;goals&gt;
+ *                 &lt;goal&gt;precompile&lt;/goal&gt;
+ *             &lt;/goals&gt;
+ *         &lt;/execution&gt;
+ *     &lt;/executions&gt;
+ *     &lt;configuration&gt;
+ *         &lt;scopeClasses&gt;
+ *             &lt;property&gt;
+ *                 &lt;name&gt;com/example/css/styles.less&lt;/name&gt;
+ *                 &lt;value&gt;com.example.css.Styles&lt;/value&gt;
+ *             &lt;/property&gt;
+ *         &lt;/scopeClasses&gt;
+ *     &lt;/configuration&gt;
+ * &lt;/plugin&gt;
+ * </pre>
+ */
+@Mojo(name = "precompile", defaultPhase = LifecyclePhase.PROCESS_CLASSES,
+      requiresDependencyResolution = ResolutionScope.COMPILE)
+public class PrecompileLessMojo extends AbstractMojo {
+
+    /**
+     * The classes directory with the Less resources. The CSS resources are written to it as well.
+     */
+    @Parameter(defaultValue = "${project.build.outputDirectory}", required = true)
+    private File classesDirectory;
+
+    /**
+     * The compile classpath of the project
+     */
+    @Parameter(defaultValue = "${project.compileClasspathElements}", readonly = true, required = true)
+    private List<String> classpathElements;
+
+    /**
+     * The Less resources to compile, relative to the classes directory. Default: {@code **}{@code /*.less}
+     */
+    @Parameter
+    private String[] includes;
+
+    /**
+     * The Less resources to skip, relative to the classes directory
+     */
+    @Parameter
+    private String[] excludes;
+
+    /**
+     * The name of the scope class for {@code package!} imports per path of a Less resource, relative to
+     * the classes directory. Default: a class in the folder of the Less resource
+     */
+    @Parameter
+    private Properties scopeClasses;
+
+    /**
+     * The name of a {@link LessCompilerConfigurationFactory} with a default constructor,
+     * e.g. to register custom Less functions
+     */
+    @Parameter
+    private String configurationFactory;
+
+    /**
+     * Whether to fail the build if a Less resource cannot be compiled
+     */
+    @Parameter(defaultValue = "false")
+    private boolean failOnError;
+
+    /**
+     * Whether to skip the compilation
+     */
+    @Parameter(property = "wicket-bootstrap-less.skip", defaultValue = "false")
+    private boolean skip;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (skip) {
+            getLog().info("Skipping the precompilation of Less resources");
+            return;
+        }
+
+        if (!classesDirectory.isDirectory()) {
+            getLog().info("No classes directory " + classesDirectory);
+            return;
+        }
+
+        DirectoryScanner scanner = new DirectoryScanner();
+        scanner.setBasedir(classesDirectory);
+        scanner.setIncludes(includes != null && includes.length > 0 ? includes : new String[] {"**/*.less"});
+        scanner.setExcludes(excludes);
+        scanner.scan();
+        String[] paths = scanner.getIncludedFiles();
+
+        if (paths.length == 0) {
+            getLog().info("No Less resources to compile");
+            return;
+        }
+
+        ClassLoader classLoader = newClassLoader();
+        LessPrecompiler precompiler = new LessPrecompiler(classesDirectory, classLoader, newConfigurationFactory(classLoader));
+        try {
+            for (String path : paths) {
+                try {
+                    String scopeClass = scopeClasses != null ? scopeClasses.getProperty(path.replace(File.separatorChar, '/')) : null;
+                    String cssPath = precompiler.precompile(path, scopeClass);
+                    if (cssPath != null) {
+                        getLog().debug("Compiled " + path + " to " + cssPath);
+                    }
+                } catch (IOException | RuntimeException x) {
+                    if (failOnError) {
+                        throw new MojoExecutionException("Cannot compile " + path, x);
+                    }
+                    getLog().debug("Skipping " + path + ": " + x.getMessage());
+                }
+            }
+
+            precompiler.writeManifest();
+        } catch (IOException iox) {
+            throw new MojoExecutionException("Cannot write the manifest of the compiled Less resources", iox);
+        } finally {
+            precompiler.close();
+        }
+
+        getLog().info("Compiled " + precompiler.size() + " of " + paths.length + " Less resources");
+    }
+
+    /**
+     * @return a class loader that sees the classes directory and the compile classpath of the project
+     * @throws MojoExecutionException if the classpath contains invalid elements
+     */
+    private ClassLoader newClassLoader() throws MojoExecutionException {
+        try {
+            URL[] urls = new URL[classpathElements.size() + 1];
+            urls[0] = classesDirectory.toURI().toURL();
+            for (int i = 0; i < classpathElements.size(); i++) {
+                urls[i + 1] = new File(classpathElements.get(i)).toURI().toURL();
+            }
+            return new URLClassLoader(urls, getClass().getClassLoader());
+        } catch (MalformedURLException mux) {
+            throw new MojoExecutionException("Invalid classpath element", mux);
+        }
+    }
+
+    /**
+     * @param classLoader The class loader of the project
+     * @return a new instance of the configured {@link LessCompilerConfigurationFactory} or {@code null}
+     * @throws MojoExecutionException if the factory cannot be created
+     */
+    private LessCompilerConfigurationFactory newConfigurationFactory(ClassLoader classLoader) throws MojoExecutionException {
+        if (configurationFactory == null) {
+            return null;
+        }
+
+        try {
+            return (LessCompilerConfigurationFactory) classLoader.loadClass(configurationFactory).newInstance();
+        } catch (ClassNotFoundException | InstantiationException | IllegalAccessException | ClassCastException x) {
+            throw new MojoExecutionException("Cannot create the configuration factory " + configurationFactory, x);
+        }
+    }
+}
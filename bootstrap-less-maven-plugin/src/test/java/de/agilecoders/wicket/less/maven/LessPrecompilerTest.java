@@ -0,0 +1,142 @@
+package de.agilecoders.wicket.less.maven;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Properties;
+
+import org.apache.wicket.WicketRuntimeException;
+import org.apache.wicket.util.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.agilecoders.wicket.less.PrecompiledCssLocator;
+
+public class LessPrecompilerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File classesDirectory;
+
+    private LessPrecompiler precompiler;
+
+    @Before
+    public void before() throws IOException {
+        classesDirectory = folder.newFolder("classes");
+        ClassLoader classLoader = new URLClassLoader(new URL[] {classesDirectory.toURI().toURL()}, getClass().getClassLoader());
+        precompiler = new LessPrecompiler(classesDirectory, classLoader, null);
+    }
+
+    @After
+    public void after() {
+        precompiler.close();
+    }
+
+    @Test
+    public void compilesLessResourceWithWebJarsImport() throws IOException {
+        write("com/example/variables.less", "@brand: #123456;");
+        write("com/example/root.less", "@import \"variables.less\";\n"
+                                       + "@import \"webjars!bootstrap/current/less/variables.less\";\n"
+                                       + ".a { color: @brand; background: @brand-primary; }");
+
+        String cssPath = precompiler.precompile("com/example/root.less");
+
+        assertThat(cssPath, is(PrecompiledCssLocator.FOLDER + "com/example/root.css"));
+        String css = new String(Files.readAllBytes(new File(classesDirectory, cssPath).toPath()), "UTF-8");
+        assertThat(css, containsString("color: #123456;"));
+        assertThat(css, containsString("background: #337ab7;"));
+    }
+
+    @Test
+    public void skipsLessResourceWithoutCssContent() throws IOException {
+        write("com/example/variables.less", "@brand: #123456;");
+
+        assertThat(precompiler.precompile("com/example/variables.less"), is(nullValue()));
+        assertThat(precompiler.size(), is(0));
+    }
+
+    @Test(expected = WicketRuntimeException.class)
+    public void failsForLessResourceWithUndefinedVariables() throws IOException {
+        write("com/example/mixins.less", ".a { color: @undefined; }");
+
+        precompiler.precompile("com/example/mixins.less");
+    }
+
+    @Test
+    public void writesFingerprintsToManifest() throws IOException {
+        byte[] content = write("com/example/root.less", ".a { color: red; }");
+
+        precompiler.precompile("com/example/root.less");
+        precompiler.writeManifest();
+
+        Properties manifest = readManifest();
+        assertThat(manifest.getProperty("com/example/root.less"), is(PrecompiledCssLocator.fingerprint(Arrays.asList(content))));
+        assertThat(manifest.getProperty("com/example/root.less" + PrecompiledCssLocator.IMPORTS_SUFFIX), is(nullValue()));
+        assertThat(manifest.getProperty("com/example/root.less" + PrecompiledCssLocator.SCOPE_SUFFIX), is(nullValue()));
+    }
+
+    @Test
+    public void writesImportsToManifest() throws IOException {
+        byte[] variables = write("com/example/variables.less", "@brand: #123456;");
+        byte[] content = write("com/example/root.less", "@import \"variables.less\";\n"
+                                                         + "@import \"webjars!bootstrap/current/less/variables.less\";\n"
+                                                         + ".a { color: @brand; }");
+
+        precompiler.precompile("com/example/root.less");
+        precompiler.writeManifest();
+
+        Properties manifest = readManifest();
+        String[] imports = manifest.getProperty("com/example/root.less" + PrecompiledCssLocator.IMPORTS_SUFFIX).split(",");
+        assertThat(imports.length, is(2));
+        assertThat(imports[0], is("com/example/variables.less"));
+        assertThat(imports[1], endsWith("/less/variables.less"));
+
+        byte[] webjar = read(getClass().getClassLoader().getResource(imports[1]));
+        assertThat(manifest.getProperty("com/example/root.less"),
+                   is(PrecompiledCssLocator.fingerprint(Arrays.asList(content, variables, webjar))));
+        assertThat(precompiler.size(), is(1));
+    }
+
+    private Properties readManifest() throws IOException {
+        Properties manifest = new Properties();
+        InputStream inputStream = new FileInputStream(new File(classesDirectory, PrecompiledCssLocator.MANIFEST));
+        try {
+            manifest.load(inputStream);
+        } finally {
+            inputStream.close();
+        }
+        return manifest;
+    }
+
+    private static byte[] read(URL url) throws IOException {
+        InputStream inputStream = url.openStream();
+        try {
+            return IOUtils.toByteArray(inputStream);
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    private byte[] write(String path, String content) throws IOException {
+        File file = new File(classesDirectory, path);
+        Files.createDirectories(file.getParentFile().toPath());
+        byte[] bytes = content.getBytes("UTF-8");
+        Files.write(file.toPath(), bytes);
+        return bytes;
+    }
+}
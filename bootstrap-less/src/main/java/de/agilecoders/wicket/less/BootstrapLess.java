@@ -27,8 +27,17 @@ public final class BootstrapLess {
      * @param configFactory  The {@link LessCompilerConfigurationFactory} to create new {@link LessCompiler.Configuration}.
      */
     public static void install(final Application app, final LessCompilerConfigurationFactory configFactory) {
+        install(app, new LessCacheManager(configFactory));
+    }
 
-        LessCacheManager cacheManager = new LessCacheManager(configFactory);
+    /**
+     * Installs given cache manager for given application. Use this method to install
+     * a pre-configured {@link LessCacheManager}, e.g. one with a {@link LessCssStore}.
+     *
+     * @param app           The current application
+     * @param cacheManager  The {@link LessCacheManager} to use
+     */
+    public static void install(final Application app, final LessCacheManager cacheManager) {
         cacheManager.install(app);
 
         IPackageResourceGuard resourceGuard = app.getResourceSettings().getPackageResourceGuard();
@@ -48,7 +57,7 @@ public final class BootstrapLess {
      * @param app      The current application
      */
     public static void install(final Application app) {
-        install(app, null);
+        install(app, (LessCompilerConfigurationFactory) null);
     }
 
 }
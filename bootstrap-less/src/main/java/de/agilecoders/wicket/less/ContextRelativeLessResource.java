@@ -4,14 +4,10 @@ import org.apache.wicket.WicketRuntimeException;
 import org.apache.wicket.core.util.resource.UrlResourceStream;
 import org.apache.wicket.protocol.http.WebApplication;
 import org.apache.wicket.request.resource.ContextRelativeResource;
-import org.apache.wicket.util.io.IOUtils;
-import org.apache.wicket.util.io.Streams;
-import org.apache.wicket.util.resource.ResourceStreamNotFoundException;
 
 import javax.servlet.ServletContext;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URL;
 
 /**
@@ -41,39 +37,27 @@ public class ContextRelativeLessResource extends ContextRelativeResource {
         this.path = path;
     }
 
+    /**
+     * @return a resource stream that loads the CSS content generated out of the LESS resource
+     * @throws IOException if the LESS resource cannot be found in the servlet context
+     */
+    public LessResourceStream newLessResourceStream() throws IOException {
+        final ServletContext context = WebApplication.get().getServletContext();
+        final URL resourceURL = context.getResource(path);
+        if (resourceURL == null) {
+            throw new FileNotFoundException("Unable to find resource '" + path +
+                                            "' in the servlet context");
+        }
+        UrlResourceStream urlResourceStream = new UrlResourceStream(resourceURL);
+        return new LessResourceStream(urlResourceStream, ContextRelativeLessResource.class.getName());
+    }
+
     @Override
     protected ResourceResponse newResourceResponse(final Attributes attributes)
     {
-        final ResourceResponse resourceResponse = new ResourceResponse();
-
         try {
-            final ServletContext context = WebApplication.get().getServletContext();
-            final URL resourceURL = context.getResource(path);
-            if (resourceURL == null) {
-                throw new FileNotFoundException("Unable to find resource '" + path +
-                                                "' in the servlet context");
-            }
-            UrlResourceStream urlResourceStream = new UrlResourceStream(resourceURL);
-            final LessResourceStream webExternalResourceStream = new LessResourceStream(urlResourceStream, ContextRelativeLessResource.class.getName());
-            resourceResponse.setContentType(webExternalResourceStream.getContentType());
-            resourceResponse.setLastModified(webExternalResourceStream.lastModifiedTime());
+            final ResourceResponse resourceResponse = LessCssResponses.newResourceResponse(attributes, newLessResourceStream(), null);
             resourceResponse.setFileName(path);
-            resourceResponse.setWriteCallback(new WriteCallback() {
-                @Override
-                public void writeData(final Attributes attributes) throws IOException {
-                    try {
-                        InputStream inputStream = webExternalResourceStream.getInputStream();
-                        try {
-                            Streams.copy(inputStream, attributes.getResponse().getOutputStream());
-                        } finally {
-                            IOUtils.closeQuietly(inputStream);
-                        }
-                    } catch (ResourceStreamNotFoundException rsnfx) {
-                        throw new WicketRuntimeException(rsnfx);
-                    }
-                }
-            });
-
             return resourceResponse;
         } catch (IOException iox) {
             throw new WicketRuntimeException(iox);
@@ -0,0 +1,131 @@
+package de.agilecoders.wicket.less;
+
+import org.apache.wicket.util.lang.Args;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A {@link LessCssStore} that keeps one file per entry in a local directory.
+ *
+ * <p>Entries are written to a temporary file in the same directory first and then
+ * moved atomically to their final name, so several JVMs may share the same directory:
+ * a reader sees either the complete old entry, the complete new one or none at all.</p>
+ */
+public class FileSystemLessCssStore implements LessCssStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FileSystemLessCssStore.class);
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * The first line of every entry file. Changed whenever the file format changes.
+     */
+    private static final String HEADER = "wicket-bootstrap-less-css 1";
+
+    private static final String EXTENSION = ".css";
+
+    /**
+     * The directory where the entries are stored
+     */
+    private final Path directory;
+
+    /**
+     * Constructor.
+     *
+     * @param directory The directory where the entries are stored. Will be created if it doesn't exist.
+     */
+    public FileSystemLessCssStore(Path directory) {
+        this.directory = Args.notNull(directory, "directory");
+    }
+
+    @Override
+    public Entry load(String key) {
+        Path file = directory.resolve(key + EXTENSION);
+        try {
+            String content = new String(Files.readAllBytes(file), UTF_8);
+            return parse(content);
+        } catch (NoSuchFileException nsfx) {
+            return null;
+        } catch (IOException | RuntimeException x) {
+            LOG.warn("Cannot read the stored CSS content from " + file, x);
+            return null;
+        }
+    }
+
+    @Override
+    public void save(String key, Entry entry) {
+        Path file = directory.resolve(key + EXTENSION);
+        Path tmp = null;
+        try {
+            Files.createDirectories(directory);
+            tmp = Files.createTempFile(directory, key, ".tmp");
+            Files.write(tmp, format(entry).getBytes(UTF_8));
+            try {
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException amnsx) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException iox) {
+            LOG.warn("Cannot store the CSS content to " + file, iox);
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                    // nothing to do
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the directory where the entries are stored
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    private static String format(Entry entry) {
+        Map<String, Long> dependencies = entry.getDependencies();
+        StringBuilder builder = new StringBuilder(entry.getCss().length() + 128 * dependencies.size());
+        builder.append(HEADER).append('\n');
+        builder.append(dependencies.size()).append('\n');
+        for (Map.Entry<String, Long> dependency : dependencies.entrySet()) {
+            builder.append(dependency.getValue()).append(' ').append(dependency.getKey()).append('\n');
+        }
+        builder.append(entry.getCss());
+        return builder.toString();
+    }
+
+    private static Entry parse(String content) {
+        int start = 0;
+        int end = content.indexOf('\n', start);
+        if (end < 0 || !HEADER.equals(content.substring(start, end))) {
+            throw new IllegalStateException("Unsupported format");
+        }
+
+        start = end + 1;
+        end = content.indexOf('\n', start);
+        int size = Integer.parseInt(content.substring(start, end));
+
+        Map<String, Long> dependencies = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            start = end + 1;
+            end = content.indexOf('\n', start);
+            String line = content.substring(start, end);
+            int separator = line.indexOf(' ');
+            dependencies.put(line.substring(separator + 1), Long.valueOf(line.substring(0, separator)));
+        }
+
+        return new Entry(content.substring(end + 1), dependencies);
+    }
+}
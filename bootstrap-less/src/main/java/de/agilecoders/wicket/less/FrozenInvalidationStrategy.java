@@ -0,0 +1,42 @@
+package de.agilecoders.wicket.less;
+
+import com.github.sommeri.less4j.LessSource;
+import org.apache.wicket.util.time.Time;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An {@link InvalidationStrategy} for production: the last modification times of a root Less
+ * resource and its imports are checked only once after its compilation. Modified resources
+ * are picked up only after {@link LessCacheManager#clearCache()}.
+ */
+public class FrozenInvalidationStrategy implements InvalidationStrategy {
+
+    private final ConcurrentMap<LessSource.URLSource, Time> times = new ConcurrentHashMap<>();
+
+    @Override
+    public Time getLastModifiedTime(LessSource.URLSource lessSource, LessCacheManager cacheManager) {
+        Time lastModified = times.get(lessSource);
+        if (lastModified == null) {
+            lastModified = cacheManager.scanLastModifiedTime(lessSource);
+            times.put(lessSource, lastModified);
+        }
+        return lastModified;
+    }
+
+    @Override
+    public void invalidate(LessSource.URLSource lessSource) {
+        times.remove(lessSource);
+    }
+
+    @Override
+    public void clear() {
+        times.clear();
+    }
+
+    @Override
+    public void destroy() {
+        clear();
+    }
+}
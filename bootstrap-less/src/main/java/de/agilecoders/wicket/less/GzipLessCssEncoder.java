@@ -0,0 +1,34 @@
+package de.agilecoders.wicket.less;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encodes the generated CSS content with gzip using the best compression,
+ * as the content is compressed only once per compilation.
+ */
+public class GzipLessCssEncoder implements LessCssEncoder {
+
+    @Override
+    public String getName() {
+        return "gzip";
+    }
+
+    @Override
+    public byte[] encode(byte[] content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length / 4 + 64);
+        GZIPOutputStream gzip = new GZIPOutputStream(bytes) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        };
+        try {
+            gzip.write(content);
+        } finally {
+            gzip.close();
+        }
+        return bytes.toByteArray();
+    }
+}
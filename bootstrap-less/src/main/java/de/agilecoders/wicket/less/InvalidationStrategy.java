@@ -0,0 +1,46 @@
+package de.agilecoders.wicket.less;
+
+import com.github.sommeri.less4j.LessSource;
+import org.apache.wicket.util.time.Time;
+
+/**
+ * Decides when {@link LessCacheManager} checks whether a root Less resource or any of its
+ * imported resources has been modified. Checking the last modification times means opening
+ * a URL connection for each of the resources, which is expensive for deep import trees.
+ *
+ * @see PollingInvalidationStrategy
+ * @see FrozenInvalidationStrategy
+ * @see WatchServiceInvalidationStrategy
+ */
+public interface InvalidationStrategy {
+
+    /**
+     * Returns the last modification time of a root LessSource and its imported resources.
+     * Implementations may return a previously computed time or call
+     * {@link LessCacheManager#scanLastModifiedTime(LessSource.URLSource)} to check the resources.
+     *
+     * @param lessSource   The root LessSource
+     * @param cacheManager The cache manager that asks for the time
+     * @return the last modification time
+     */
+    Time getLastModifiedTime(LessSource.URLSource lessSource, LessCacheManager cacheManager);
+
+    /**
+     * Notifies that the imported resources of a root LessSource have changed,
+     * e.g. because it has been (re-)compiled.
+     *
+     * @param lessSource The root LessSource
+     */
+    void invalidate(LessSource.URLSource lessSource);
+
+    /**
+     * Forgets all known last modification times.
+     */
+    void clear();
+
+    /**
+     * Releases all resources held by this strategy. Called when the application is destroyed
+     * or the strategy is replaced by {@link LessCacheManager#setInvalidationStrategy(InvalidationStrategy)}.
+     */
+    void destroy();
+}
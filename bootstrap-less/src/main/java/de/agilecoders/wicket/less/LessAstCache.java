@@ -0,0 +1,166 @@
+package de.agilecoders.wicket.less;
+
+import com.github.sommeri.less4j.LessCompiler;
+import com.github.sommeri.less4j.LessSource;
+import org.apache.wicket.util.io.Connections;
+import org.apache.wicket.util.lang.Objects;
+import org.apache.wicket.util.time.Time;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A cache for the parsed syntax trees of imported Less resources that is shared by
+ * all compilations of a {@link LessCacheManager}.
+ *
+ * <p>Many root Less resources, e.g. the variants of a theme, import the same large files
+ * with variables and mixins. With this cache these files are parsed only once. The entries
+ * are keyed by the URL and the scope class of the imported resource and are valid as long as
+ * its last modification time doesn't change.</p>
+ *
+ * <p>The parsed syntax trees keep a reference to the LessSource that has been parsed. So
+ * imports of imported resources are resolved relative to that LessSource. To keep track
+ * of their last modification times this LessSource is added as an import of the LessSource
+ * that uses the cached syntax tree. The "package!" imports of that LessSource are resolved
+ * against its scope class, so syntax trees are shared only between roots with the same scope.</p>
+ */
+public class LessAstCache implements LessCompiler.Cache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LessAstCache.class);
+
+    private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @Override
+    public Object getAst(LessSource source) {
+        URL url = getURL(source);
+        if (url == null) {
+            return null;
+        }
+
+        Entry entry = entries.get(new Key(url, getScopeClass(source)));
+        if (entry != null && entry.lastModified == lastModified(url)) {
+            hits.incrementAndGet();
+            if (source != entry.source && source instanceof LessUrlSource) {
+                ((LessUrlSource) source).addDependency(entry.source);
+            }
+            return entry.ast;
+        }
+
+        misses.incrementAndGet();
+        return null;
+    }
+
+    @Override
+    public void setAst(LessSource source, Object ast) {
+        URL url = getURL(source);
+        if (url != null && ast != null) {
+            long lastModified = lastModified(url);
+            if (lastModified >= 0) {
+                entries.put(new Key(url, getScopeClass(source)), new Entry(source, ast, lastModified));
+            }
+        }
+    }
+
+    /**
+     * Removes all cached syntax trees
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * @return the number of cached syntax trees
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the number of imports that used a cached syntax tree
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of imports that had to be parsed
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private static URL getURL(LessSource source) {
+        return source instanceof LessSource.URLSource ? ((LessSource.URLSource) source).getInputURL() : null;
+    }
+
+    private static String getScopeClass(LessSource source) {
+        return source instanceof LessUrlSource ? ((LessUrlSource) source).getScopeClass() : null;
+    }
+
+    /**
+     * @param url The URL of an imported resource
+     * @return the last modification time of the resource or {@code -1} if it is unknown
+     */
+    private static long lastModified(URL url) {
+        try {
+            Time lastModified = Connections.getLastModified(url);
+            return lastModified != null ? lastModified.getMilliseconds() : -1;
+        } catch (IOException iox) {
+            LOG.debug("Cannot read the last modification time of '{}': {}", url, iox.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * The URL and the scope class of an imported resource
+     */
+    private static final class Key {
+        private final URL url;
+        private final String scopeClass;
+
+        private Key(URL url, String scopeClass) {
+            this.url = url;
+            this.scopeClass = scopeClass;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return url.toExternalForm().equals(key.url.toExternalForm()) && Objects.equal(scopeClass, key.scopeClass);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(url.toExternalForm(), scopeClass);
+        }
+    }
+
+    /**
+     * A parsed syntax tree with the LessSource it has been parsed from
+     */
+    private static final class Entry {
+        private final LessSource source;
+        private final Object ast;
+        private final long lastModified;
+
+        private Entry(LessSource source, Object ast, long lastModified) {
+            this.source = source;
+            this.ast = ast;
+            this.lastModified = lastModified;
+        }
+    }
+}
@@ -1,22 +1,49 @@
 package de.agilecoders.wicket.less;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.wicket.Application;
+import org.apache.wicket.IApplicationListener;
 import org.apache.wicket.MetaDataKey;
 import org.apache.wicket.WicketRuntimeException;
+import org.apache.wicket.css.ICssCompressor;
 import org.apache.wicket.util.io.Connections;
+import org.apache.wicket.util.io.IOUtils;
+import org.apache.wicket.util.lang.Args;
+import org.apache.wicket.util.string.Strings;
 import org.apache.wicket.util.time.Time;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.sommeri.less4j.Less4jException;
 import com.github.sommeri.less4j.LessCompiler;
+import com.github.sommeri.less4j.LessFunction;
 import com.github.sommeri.less4j.LessSource;
 import com.github.sommeri.less4j.core.ThreadUnsafeLessCompiler;
 
@@ -31,6 +58,8 @@ public class LessCacheManager {
         private static final long serialVersionUID = 1L;
     };
 
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
     /**
      * A cache that keeps the root LessSource.URLSource instance per URL.
      * Each root LessSource keeps references to all imported LessSource's in it.
@@ -39,16 +68,87 @@ public class LessCacheManager {
             new ConcurrentHashMap<>();
 
     /**
-     * A cache that keeps the generated CSS content per root LessSource
+     * A bounded cache that keeps the generated CSS content per root LessSource
+     */
+    private final LessContentCache contentCache = new LessContentCache() {
+        @Override
+        protected void onEviction(LessSource.URLSource lessSource) {
+            forget(lessSource);
+        }
+    };
+
+    /**
+     * The URLs of the imported resources per root LessSource which content has been
+     * loaded from the {@link #cssStore} instead of being compiled
+     */
+    private final ConcurrentMap<LessSource.URLSource, Collection<URL>> storedDependencies =
+            new ConcurrentHashMap<>();
+
+    /**
+     * The running compilation per root LessSource
      */
-    private final ConcurrentMap<LessSource.URLSource, ConcurrentMap<Time, String>> contentCache =
+    private final ConcurrentMap<LessSource.URLSource, FutureTask<LessCss>> compilations =
             new ConcurrentHashMap<>();
 
+    /**
+     * The compilers and configurations that are not used by a compiling thread right now.
+     * A pool instead of a ThreadLocal, so no compiler outlives the application in a container thread.
+     */
+    private final Queue<Worker> idleWorkers = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Incremented by {@link #clearCache()} to discard the pooled compilers and configurations
+     */
+    private final AtomicInteger generation = new AtomicInteger();
+
+    private final LessCompilationStatistics statistics = new LessCompilationStatistics();
+
+    /**
+     * The parsed imported resources shared by all compilations. {@code null} if disabled.
+     */
+    private volatile LessAstCache astCache = new LessAstCache();
+
+    /**
+     * The URLs of the resolved "webjars!", "classpath!" and "package!" imports
+     */
+    private final LessImportCache importCache = new LessImportCache();
+
+    /**
+     * Locates the CSS content compiled at build time
+     */
+    private final PrecompiledCssLocator precompiledCssLocator = new PrecompiledCssLocator();
+
     /**
      * A factory that creates {@link LessCompiler.Configuration}s.
      */
     private final LessCompilerConfigurationFactory configFactory;
 
+    /**
+     * An optional second-level store that keeps the generated CSS content across restarts
+     */
+    private volatile LessCssStore cssStore;
+
+    /**
+     * The encoders for the generated CSS content, in the order of preference
+     */
+    private volatile List<LessCssEncoder> encoders =
+            Collections.<LessCssEncoder>singletonList(new GzipLessCssEncoder());
+
+    /**
+     * Minifies the generated CSS content once after its compilation. {@code null} if disabled.
+     */
+    private volatile ICssCompressor cssCompressor;
+
+    /**
+     * Whether source maps are generated for the CSS content
+     */
+    private volatile boolean sourceMapsEnabled;
+
+    /**
+     * Decides when the last modification times of the Less resources are checked
+     */
+    private volatile InvalidationStrategy invalidationStrategy = new PollingInvalidationStrategy();
+
     /**
      * Creates a less cache manager with the {@link LessCompilerConfigurationFactory} provided.
      * Choose this constructor if you want to use application specific configuration for example
@@ -68,6 +168,166 @@ public class LessCacheManager {
         this(null);
     }
 
+    /**
+     * Sets a second-level store for the generated CSS content, e.g. a {@link FileSystemLessCssStore}.
+     * The store is consulted before compiling a Less resource which is not in the in-memory cache
+     * and is updated after each compilation.
+     *
+     * @param cssStore The store to use or {@code null} to disable it
+     * @return this instance for chaining
+     */
+    public LessCacheManager setCssStore(LessCssStore cssStore) {
+        this.cssStore = cssStore;
+        return this;
+    }
+
+    /**
+     * @return the second-level store for the generated CSS content or {@code null} if there is none
+     */
+    public LessCssStore getCssStore() {
+        return cssStore;
+    }
+
+    /**
+     * Sets the encoders for the generated CSS content. The content is encoded once after its
+     * compilation and the encoded variants are served to the clients that accept them.
+     * Default: gzip
+     *
+     * @param encoders The encoders in the order of preference, none to serve the plain CSS content only
+     * @return this instance for chaining
+     */
+    public LessCacheManager setEncoders(LessCssEncoder... encoders) {
+        Args.notNull(encoders, "encoders");
+        this.encoders = Collections.unmodifiableList(new ArrayList<>(Arrays.asList(encoders)));
+        contentCache.clear();
+        return this;
+    }
+
+    /**
+     * @return the encoders for the generated CSS content, in the order of preference
+     */
+    public List<LessCssEncoder> getEncoders() {
+        return encoders;
+    }
+
+    /**
+     * Sets a compressor that minifies the generated CSS content once after its compilation, e.g.
+     * the YuiCssCompressor of wicket-bootstrap-extensions. Unlike the CSS compressor of Wicket's
+     * resource settings it doesn't run for each resource response, and the minified content isn't
+     * compressed again by Wicket's CSS compressor either. The CSS content as generated by the compiler
+     * is kept next to the minified one, see {@link LessCss#getRawCss()}, and the second-level store
+     * keeps the generated CSS content only.
+     *
+     * @param cssCompressor The compressor to use or {@code null} to serve the CSS content as generated by the compiler
+     * @return this instance for chaining
+     */
+    public LessCacheManager setCssCompressor(ICssCompressor cssCompressor) {
+        this.cssCompressor = cssCompressor;
+        contentCache.clear();
+        return this;
+    }
+
+    /**
+     * @return the compressor that minifies the generated CSS content or {@code null} if there is none
+     */
+    public ICssCompressor getCssCompressor() {
+        return cssCompressor;
+    }
+
+    /**
+     * Enables the generation of source maps for the CSS content. A source map is served by
+     * a {@link LessSourceMapResourceReference} next to its Less resource and is announced with a
+     * {@code SourceMap} header. The paths of the imported resources are relative to the root Less
+     * resource and their content is included.
+     *
+     * <p>The source map describes the CSS content generated by the compiler. To minify the
+     * CSS content without invalidating it, enable {@link LessCompiler.Configuration#setCompressing(boolean)}
+     * in the {@link LessCompilerConfigurationFactory} instead of setting a {@link #setCssCompressor(ICssCompressor) CSS compressor}.
+     * The second-level store is not used while source maps are enabled.</p>
+     *
+     * @param sourceMapsEnabled {@code true} to generate source maps. Default: {@code false}
+     * @return this instance for chaining
+     */
+    public LessCacheManager setSourceMapsEnabled(boolean sourceMapsEnabled) {
+        this.sourceMapsEnabled = sourceMapsEnabled;
+        contentCache.clear();
+        return this;
+    }
+
+    /**
+     * @return whether source maps are generated for the CSS content
+     */
+    public boolean isSourceMapsEnabled() {
+        return sourceMapsEnabled;
+    }
+
+    /**
+     * Sets the strategy that decides when the last modification times of the Less resources
+     * and their imports are checked. The default {@link PollingInvalidationStrategy} checks
+     * them on every request. Use {@link FrozenInvalidationStrategy} in production and
+     * {@link WatchServiceInvalidationStrategy} for resources in exploded directories.
+     * The replaced strategy is destroyed.
+     *
+     * @param invalidationStrategy The strategy to use
+     * @return this instance for chaining
+     */
+    public LessCacheManager setInvalidationStrategy(InvalidationStrategy invalidationStrategy) {
+        Args.notNull(invalidationStrategy, "invalidationStrategy");
+
+        InvalidationStrategy previous;
+        synchronized (this) {
+            previous = this.invalidationStrategy;
+            this.invalidationStrategy = invalidationStrategy;
+        }
+
+        if (previous != invalidationStrategy) {
+            previous.destroy();
+        }
+        return this;
+    }
+
+    /**
+     * @return the strategy that decides when the last modification times are checked
+     */
+    public InvalidationStrategy getInvalidationStrategy() {
+        return invalidationStrategy;
+    }
+
+    /**
+     * Sets the cache for the parsed imported resources that is shared by all compilations.
+     * Enabled by default. A cache set by the {@link LessCompilerConfigurationFactory} is not replaced.
+     *
+     * @param astCache The cache to use or {@code null} to parse the imported resources in each compilation
+     * @return this instance for chaining
+     */
+    public LessCacheManager setAstCache(LessAstCache astCache) {
+        this.astCache = astCache;
+        generation.incrementAndGet();
+        idleWorkers.clear();
+        return this;
+    }
+
+    /**
+     * @return the cache for the parsed imported resources or {@code null} if there is none
+     */
+    public LessAstCache getAstCache() {
+        return astCache;
+    }
+
+    /**
+     * @return the cache for the URLs of the resolved "webjars!", "classpath!" and "package!" imports
+     */
+    public LessImportCache getImportCache() {
+        return importCache;
+    }
+
+    /**
+     * @return the locator for CSS content that has been compiled at build time
+     */
+    public PrecompiledCssLocator getPrecompiledCssLocator() {
+        return precompiledCssLocator;
+    }
+
     /**
      * Returns the LessSource.URLSource per URL.
      * If there is no entry in the cache then it will be automatically registered
@@ -77,7 +337,7 @@ public class LessCacheManager {
      * @return The LessSource for the Less resource file
      */
     public LessSource.URLSource getLessSource(URL lessUrl, String scopeClass) {
-        LessSource.URLSource lessSource = new LessUrlSource(lessUrl, scopeClass);
+        LessSource.URLSource lessSource = new LessUrlSource(lessUrl, scopeClass, importCache);
         LessSource.URLSource oldValue = urlSourceCache.putIfAbsent(lessUrl, lessSource);
         if (oldValue != null) {
             lessSource = oldValue;
@@ -95,106 +355,480 @@ public class LessCacheManager {
      * @return The generated CSS content
      */
     public String getCss(LessSource.URLSource lessSource) {
+        return getLessCss(lessSource).getCss();
+    }
+
+    /**
+     * Returns the generated CSS content per Less resource together with its encoded variants.
+     * If there is no cached content or the root LessSource or any of its imported resources
+     * is updated then the CSS content is (re-)generated
+     *
+     * @param lessSource The root LessSource for which to load its CSS representation
+     * @return The generated CSS content
+     */
+    public LessCss getLessCss(LessSource.URLSource lessSource) {
 
-        ConcurrentMap<Time, String> timeToContentMap = contentCache.get(lessSource);
-        if (timeToContentMap == null) {
-            timeToContentMap = new ConcurrentHashMap<>();
-            ConcurrentMap<Time, String> old = contentCache.putIfAbsent(lessSource, timeToContentMap);
-            if (old != null) {
-                timeToContentMap = old;
+        Time lastModifiedTime = getLastModifiedTime(lessSource);
+        LessCss cssContent = contentCache.get(lessSource, lastModifiedTime);
+
+        if (cssContent == null) {
+            cssContent = compileOnce(lessSource);
+        }
+
+        return cssContent;
+    }
+
+    /**
+     * @return the cache for the generated CSS content, e.g. to configure its bounds or to read its statistics
+     */
+    public LessContentCache getContentCache() {
+        return contentCache;
+    }
+
+    /**
+     * Removes the generated CSS content of a Less resource from the cache. If the URL points
+     * to an imported resource then the CSS content of all root resources importing it is removed.
+     *
+     * @param url The URL of a root or imported Less resource
+     * @return {@code true} if any CSS content has been removed
+     */
+    public boolean evict(URL url) {
+        Args.notNull(url, "url");
+
+        boolean evicted = false;
+        for (LessSource.URLSource lessSource : contentCache.getLessSources()) {
+            if (url.equals(lessSource.getInputURL()) || getDependencies(lessSource).contains(url)) {
+                evicted |= contentCache.remove(lessSource);
+                forget(lessSource);
             }
         }
 
+        LessSource.URLSource lessSource = urlSourceCache.get(url);
+        if (lessSource != null) {
+            forget(lessSource);
+        }
+        return evicted;
+    }
+
+    /**
+     * Removes everything known about a root LessSource except its cached CSS content
+     *
+     * @param lessSource The root LessSource
+     */
+    private void forget(LessSource.URLSource lessSource) {
+        urlSourceCache.remove(lessSource.getInputURL(), lessSource);
+        storedDependencies.remove(lessSource);
+        invalidationStrategy.invalidate(lessSource);
+    }
+
+    /**
+     * @return the statistics about the compilations of this manager
+     */
+    public LessCompilationStatistics getCompilationStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Compiles a root LessSource unless another thread compiles it already. In that case the
+     * result of the other compilation is used.
+     * Compilations of different root LessSources run in parallel in their requesting threads.
+     *
+     * @param lessSource The root LessSource to compile
+     * @return The generated CSS content
+     */
+    private LessCss compileOnce(final LessSource.URLSource lessSource) {
+        // We only want to compile the Less once. If we end up here waiting for another thread
+        // to finish will it be ok to wait. It will also probably go faster than compile it once
+        // more.
+        // Recompile the cached lessSource will append imports once more and we will end up with
+        // multiple import references, if there are any in the Less file.
+        FutureTask<LessCss> compilation = new FutureTask<>(new Callable<LessCss>() {
+            @Override
+            public LessCss call() {
+                return compile(lessSource);
+            }
+        });
+
+        FutureTask<LessCss> running = compilations.putIfAbsent(lessSource, compilation);
+        if (running == null) {
+            try {
+                compilation.run();
+            } finally {
+                compilations.remove(lessSource, compilation);
+            }
+            running = compilation;
+        } else {
+            statistics.waitingStarted();
+        }
+
+        try {
+            return running.get();
+        } catch (InterruptedException ix) {
+            Thread.currentThread().interrupt();
+            throw new WicketRuntimeException("Interrupted while waiting for the compilation of Less resource " +
+                                             lessSource.getInputURL().toExternalForm(), ix);
+        } catch (ExecutionException x) {
+            Throwable cause = x.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new WicketRuntimeException(cause);
+        } finally {
+            if (running != compilation) {
+                statistics.waitingFinished();
+            }
+        }
+    }
+
+    /**
+     * Compiles a root LessSource if its cached CSS content is outdated.
+     * Called by at most one thread per root LessSource at a time.
+     *
+     * @param lessSource The root LessSource to compile
+     * @return The generated CSS content
+     */
+    private LessCss compile(LessSource.URLSource lessSource) {
+        LessCss cssContent = contentCache.peek(lessSource, getLastModifiedTime(lessSource));
+
+        if (cssContent != null) {
+            return cssContent;
+        }
+
+        Worker worker = borrowWorker();
+        try {
+            return compile(lessSource, worker.compiler, worker.configuration);
+        } finally {
+            releaseWorker(worker);
+        }
+    }
+
+    /**
+     * Loads the CSS content of a root LessSource from the second-level store or compiles it
+     *
+     * @param lessSource    The root LessSource to compile
+     * @param compiler      The compiler, used exclusively by the current thread
+     * @param configuration The configuration of the compiler
+     * @return The generated CSS content
+     */
+    private LessCss compile(LessSource.URLSource lessSource, ThreadUnsafeLessCompiler compiler,
+                            LessCompiler.Configuration configuration) {
+        String cssContent;
+        String sourceMap = null;
+        boolean sourceMaps = sourceMapsEnabled;
+
+        LessCssStore store = sourceMaps ? null : cssStore;
+        String storeKey = null;
+        if (store != null) {
+            storeKey = newStoreKey(lessSource, configuration);
+            cssContent = load(store, storeKey, lessSource);
+            if (cssContent != null) {
+                invalidationStrategy.invalidate(lessSource);
+                LessCss lessCss = newLessCss(cssContent, null);
+                contentCache.put(lessSource, getLastModifiedTime(lessSource), lessCss);
+                return lessCss;
+            }
+        }
+
+        // the compiler collects the imported sources again
+        storedDependencies.remove(lessSource);
+
+        statistics.started();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            // relativizes the paths in the source map
+            configuration.setCssResultLocation(sourceMaps ? lessSource : null);
+            configuration.getSourceMapConfiguration().setIncludeSourcesContent(sourceMaps);
+
+            LessCompiler.CompilationResult result = compiler.compile(lessSource, configuration);
+            List<LessCompiler.Problem> warnings = result.getWarnings();
+
+            for (LessCompiler.Problem warning : warnings) {
+                LOG.warn("There is a warning during compilation of '{}'" +
+                        " at line {}, character {}. Message: {}",
+                        lessSource.getInputURL(), warning.getLine(),
+                        warning.getCharacter(), warning.getMessage());
+            }
+
+            cssContent = result.getCss();
+            if (sourceMaps) {
+                sourceMap = result.getSourceMap();
+            }
+            failed = false;
+        } catch (Less4jException x) {
+            throw new WicketRuntimeException(
+                    "An error occurred while compiling Less resource " +
+                    lessSource.getInputURL().toExternalForm(), x);
+        } finally {
+            statistics.finished(System.nanoTime() - start, failed);
+        }
+
+        // Make sure that all last modified files are taken into account before
+        // adding the compiled result to the cache
+        invalidationStrategy.invalidate(lessSource);
         Time lastModifiedTime = getLastModifiedTime(lessSource);
-        String cssContent = timeToContentMap.get(lastModifiedTime);
 
-        if (cssContent == null) {
-            // We only want to compile the Less once. If we end up here waiting for another thread
-            // to finish will it be ok to wait. It will also probably go faster than compile it once
-            // more.
-            // Recompile the cached lessSource will append imports once more and we will end up with
-            // multiple import references, if there are any in the Less file.
-            synchronized (lessSource) {
-                lastModifiedTime = getLastModifiedTime(lessSource);
-                cssContent = timeToContentMap.get(lastModifiedTime);
-
-                if (cssContent == null) {
-                    // clear any obsolete content
-                    timeToContentMap.clear();
-
-                    ThreadUnsafeLessCompiler compiler = new ThreadUnsafeLessCompiler();
-                    LessCompiler.Configuration configuration = configFactory.newConfiguration();
-                    configuration.getSourceMapConfiguration().setLinkSourceMap(false);
-
-                    try {
-                        LessCompiler.CompilationResult result =
-                                compiler.compile(lessSource, configuration);
-                        List<LessCompiler.Problem> warnings = result.getWarnings();
-
-                        for (LessCompiler.Problem warning : warnings) {
-                            LOG.warn("There is a warning during compilation of '{}'" +
-                                    " at line {}, character {}. Message: {}",
-                                    lessSource.getInputURL(), warning.getLine(),
-                                    warning.getCharacter(), warning.getMessage());
-                        }
-
-                        cssContent = result.getCss();
-
-                        // Make sure that all last modified files are taken into account before
-                        // adding the compiled result to the cache
-                        lastModifiedTime = getLastModifiedTime(lessSource);
-
-                        timeToContentMap.put(lastModifiedTime, cssContent);
-
-                    } catch (Less4jException x) {
-                        throw new WicketRuntimeException(
-                                "An error occurred while compiling Less resource " +
-                                lessSource.getInputURL().toExternalForm(), x);
-                    }
-                }
+        LessCss lessCss = newLessCss(cssContent, sourceMap);
+        contentCache.put(lessSource, lastModifiedTime, lessCss);
+
+        if (storeKey != null) {
+            save(store, storeKey, lessSource, cssContent);
+        }
+
+        return lessCss;
+    }
+
+    /**
+     * Minifies the generated CSS content and encodes it
+     *
+     * @param cssContent The CSS content generated by the compiler
+     * @param sourceMap  The source map of the CSS content or {@code null}
+     * @return the CSS content to serve
+     */
+    private LessCss newLessCss(String cssContent, String sourceMap) {
+        ICssCompressor compressor = cssCompressor;
+        if (compressor != null) {
+            return new LessCss(compressor.compress(cssContent), cssContent, sourceMap, encoders);
+        }
+        return new LessCss(cssContent, sourceMap, encoders);
+    }
+
+    /**
+     * @return an idle compiler and configuration or a new one if there is none
+     */
+    private Worker borrowWorker() {
+        int currentGeneration = generation.get();
+        Worker worker;
+        while ((worker = idleWorkers.poll()) != null) {
+            if (worker.generation == currentGeneration) {
+                return worker;
             }
         }
 
-        return cssContent;
+        LessCompiler.Configuration configuration = configFactory.newConfiguration();
+        configuration.getSourceMapConfiguration().setLinkSourceMap(false);
+
+        LessAstCache cache = astCache;
+        if (cache != null && configuration.getCache() == null) {
+            configuration.setCache(cache);
+        }
+        return new Worker(new ThreadUnsafeLessCompiler(), configuration, currentGeneration);
+    }
+
+    /**
+     * Returns a compiler and configuration to the pool unless the cache has been cleared meanwhile
+     *
+     * @param worker The compiler and configuration that are not used anymore
+     */
+    private void releaseWorker(Worker worker) {
+        if (worker.generation == generation.get()) {
+            idleWorkers.offer(worker);
+        }
     }
 
     /**
+     * Returns the last modification time of a root LessSource as known by the {@link InvalidationStrategy}.
+     *
      * @param lessSource The root LessSource which last modification time should be calculated
      * @return The time when either the root LessSource or any of the imported resources has been last modified
      */
     public Time getLastModifiedTime(LessSource.URLSource lessSource) {
+        return invalidationStrategy.getLastModifiedTime(lessSource, this);
+    }
+
+    /**
+     * Checks the last modification times of a root LessSource and all of its imported resources.
+     *
+     * @param lessSource The root LessSource which last modification time should be calculated
+     * @return The time when either the root LessSource or any of the imported resources has been last modified
+     */
+    public Time scanLastModifiedTime(LessSource.URLSource lessSource) {
         Time modified = Time.START_OF_UNIX_TIME;
-        return findLastModified(lessSource, modified);
+
+        for (URL dependency : getDependencies(lessSource)) {
+            try {
+                modified = Time.maxNullSafe(modified, Connections.getLastModified(dependency));
+            } catch (IOException iox) {
+                LOG.warn("Cannot read the last modification time of a resource " + dependency.toExternalForm(), iox);
+            }
+        }
+
+        return modified;
     }
 
     /**
-     * Calculates the soonest time when a LessSource or any of its imported resources
-     * has been modified
+     * @param lessSource The root LessSource
+     * @return the URLs of the root LessSource and all the resources it has been compiled from
+     */
+    public Set<URL> getDependencies(LessSource.URLSource lessSource) {
+        Set<URL> dependencies = new LinkedHashSet<>();
+
+        Collection<URL> stored = storedDependencies.get(lessSource);
+        if (stored != null) {
+            dependencies.addAll(stored);
+        }
+
+        collectUrls(lessSource, dependencies);
+        return dependencies;
+    }
+
+    /**
+     * Collects the URLs of a LessSource and all its imported resources. The same URL may be
+     * imported by several LessSources, e.g. if a shared syntax tree has been used.
      *
-     * @param source The LessSource which time to check
-     * @param time   The last modification time of the parent resource
-     * @return The latest modified time of the root LessSource and its imported resources
+     * @param root         The root LessSource
+     * @param dependencies The collected URLs
+     * @see LessAstCache
      */
-    private Time findLastModified(LessSource.URLSource source, Time time) {
-        Time max = time;
-        try {
-            Time lastModified = Connections.getLastModified(source.getInputURL());
-            max = Time.maxNullSafe(time, lastModified);
+    private void collectUrls(LessSource.URLSource root, Set<URL> dependencies) {
+        Set<LessSource> visited = Collections.newSetFromMap(new IdentityHashMap<LessSource, Boolean>());
+        Deque<LessSource.URLSource> queue = new ArrayDeque<>();
+        queue.add(root);
+
+        while (!queue.isEmpty()) {
+            LessSource.URLSource source = queue.poll();
+            if (!visited.add(source)) {
+                continue;
+            }
+
+            dependencies.add(source.getInputURL());
 
             Collection<LessSource> importedSources = source.getImportedSources();
             if (importedSources != null) {
+                for (LessSource importedSource : importedSources.toArray(new LessSource[0])) {
+                    if (importedSource instanceof LessSource.URLSource) {
+                        queue.add((LessSource.URLSource) importedSource);
+                    }
+                }
+            }
+        }
+    }
 
-                LessSource[] importedSourcesArray = importedSources.toArray(new LessSource[0]);
-                int size = importedSourcesArray.length;
+    /**
+     * Loads the CSS content for a root LessSource from the second-level store.
+     * The stored content is used only if neither the root LessSource nor any of
+     * the resources it has been compiled from has been modified since.
+     *
+     * @param store      The second-level store
+     * @param key        The key of the entry in the store
+     * @param lessSource The root LessSource
+     * @return the stored CSS content or {@code null} if there is no valid entry
+     */
+    private String load(LessCssStore store, String key, LessSource.URLSource lessSource) {
+        LessCssStore.Entry entry = store.load(key);
+        if (entry == null) {
+            return null;
+        }
 
-                for (int i = 0; i < size; i++) {
-                    max = findLastModified((LessSource.URLSource) importedSourcesArray[i], max);
+        List<URL> dependencies = new ArrayList<>(entry.getDependencies().size());
+        for (Map.Entry<String, Long> dependency : entry.getDependencies().entrySet()) {
+            try {
+                URL url = new URL(dependency.getKey());
+                Time lastModified = Connections.getLastModified(url);
+                if (lastModified == null || lastModified.getMilliseconds() != dependency.getValue()) {
+                    LOG.debug("Stored CSS content of '{}' is outdated because of '{}'", lessSource.getInputURL(), url);
+                    return null;
                 }
+                dependencies.add(url);
+            } catch (IOException iox) {
+                LOG.debug("Stored CSS content of '{}' cannot be validated: {}", lessSource.getInputURL(), iox.getMessage());
+                return null;
             }
+        }
+
+        storedDependencies.put(lessSource, dependencies);
+        return entry.getCss();
+    }
+
+    /**
+     * Saves the freshly compiled CSS content of a root LessSource to the second-level store
+     *
+     * @param store      The second-level store
+     * @param key        The key of the entry in the store
+     * @param lessSource The compiled root LessSource
+     * @param cssContent The compiled CSS content
+     */
+    private void save(LessCssStore store, String key, LessSource.URLSource lessSource, String cssContent) {
+        Map<String, Long> dependencies = new LinkedHashMap<>();
+        try {
+            collectDependencies(lessSource, dependencies);
         } catch (IOException iox) {
-            LOG.warn("Cannot read the last modification time of a resource " + source.getInputURL().toExternalForm(), iox);
+            LOG.debug("Not storing the CSS content of '{}': {}", lessSource.getInputURL(), iox.getMessage());
+            return;
+        }
+        store.save(key, new LessCssStore.Entry(cssContent, dependencies));
+    }
+
+    /**
+     * Collects the last modification times of a LessSource and all its imported resources
+     *
+     * @param source       The LessSource
+     * @param dependencies The collected last modification times per URL
+     * @throws IOException if a last modification time is not available
+     */
+    private void collectDependencies(LessSource.URLSource source, Map<String, Long> dependencies) throws IOException {
+        Set<URL> urls = new LinkedHashSet<>();
+        collectUrls(source, urls);
+
+        for (URL url : urls) {
+            Time lastModified = Connections.getLastModified(url);
+            if (lastModified == null) {
+                throw new IOException("No last modification time for " + url.toExternalForm());
+            }
+            dependencies.put(url.toExternalForm(), lastModified.getMilliseconds());
         }
-        return max;
+    }
+
+    /**
+     * Creates the key of a root LessSource in the second-level store. The key is a hash of the
+     * URL and the content of the root resource and of the compiler configuration.
+     * The imported resources are validated by their last modification time when loading.
+     *
+     * @param lessSource    The root LessSource
+     * @param configuration The configuration used to compile the LessSource
+     * @return the key for the second-level store
+     */
+    protected String newStoreKey(LessSource.URLSource lessSource, LessCompiler.Configuration configuration) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            URL url = lessSource.getInputURL();
+            digest.update(url.toExternalForm().getBytes(UTF_8));
+            digest.update((byte) 0);
+
+            InputStream inputStream = url.openStream();
+            try {
+                digest.update(IOUtils.toByteArray(inputStream));
+            } finally {
+                IOUtils.closeQuietly(inputStream);
+            }
+            digest.update((byte) 0);
+            digest.update(fingerprint(configuration).getBytes(UTF_8));
+
+            return Strings.toHexString(digest.digest());
+        } catch (IOException | NoSuchAlgorithmException x) {
+            throw new WicketRuntimeException("Cannot create a store key for " + lessSource.getInputURL(), x);
+        }
+    }
+
+    /**
+     * @param configuration The compiler configuration
+     * @return a textual representation of all settings of the configuration that influence the generated CSS
+     */
+    private static String fingerprint(LessCompiler.Configuration configuration) {
+        StringBuilder fingerprint = new StringBuilder();
+        fingerprint.append("compressing=").append(configuration.isCompressing());
+        fingerprint.append(";ie=").append(configuration.hasIeCompatibility());
+        fingerprint.append(";variables=").append(new TreeMap<>(configuration.getVariables()));
+        fingerprint.append(";functions=");
+        for (LessFunction function : configuration.getCustomFunctions()) {
+            fingerprint.append(function.getClass().getName()).append(',');
+        }
+        if (configuration.getEmbeddedScriptGenerator() != null) {
+            fingerprint.append(";scripts=").append(configuration.getEmbeddedScriptGenerator().getClass().getName());
+        }
+        return fingerprint.toString();
     }
 
     /**
@@ -205,6 +839,16 @@ public class LessCacheManager {
      */
     public void install(Application app) {
         app.setMetaData(KEY, this);
+        app.getApplicationListeners().add(new IApplicationListener() {
+            @Override
+            public void onAfterInitialized(Application application) {
+            }
+
+            @Override
+            public void onBeforeDestroyed(Application application) {
+                invalidationStrategy.destroy();
+            }
+        });
     }
 
     /**
@@ -218,6 +862,17 @@ public class LessCacheManager {
         // Clear both caches to make sure that we have a clean URLSource during the recompiling
         urlSourceCache.clear();
         contentCache.clear();
+        storedDependencies.clear();
+        precompiledCssLocator.clear();
+        importCache.clear();
+        invalidationStrategy.clear();
+        generation.incrementAndGet();
+        idleWorkers.clear();
+
+        LessAstCache cache = astCache;
+        if (cache != null) {
+            cache.clear();
+        }
     }
 
     /**
@@ -238,4 +893,19 @@ public class LessCacheManager {
     private static LessCacheManager get(Application application) {
         return application.getMetaData(KEY);
     }
+
+    /**
+     * A compiler and its configuration that are used by one thread at a time
+     */
+    private static final class Worker {
+        private final ThreadUnsafeLessCompiler compiler;
+        private final LessCompiler.Configuration configuration;
+        private final int generation;
+
+        private Worker(ThreadUnsafeLessCompiler compiler, LessCompiler.Configuration configuration, int generation) {
+            this.compiler = compiler;
+            this.configuration = configuration;
+            this.generation = generation;
+        }
+    }
 }
@@ -0,0 +1,311 @@
+package de.agilecoders.wicket.less;
+
+import org.apache.wicket.Application;
+import org.apache.wicket.IApplicationListener;
+import org.apache.wicket.MetaDataKey;
+import org.apache.wicket.ThreadContext;
+import org.apache.wicket.markup.head.HeaderItem;
+import org.apache.wicket.markup.head.IReferenceHeaderItem;
+import org.apache.wicket.markup.head.IWrappedHeaderItem;
+import org.apache.wicket.request.resource.IResource;
+import org.apache.wicket.request.resource.PackageResource;
+import org.apache.wicket.request.resource.ResourceReference;
+import org.apache.wicket.util.io.IOUtils;
+import org.apache.wicket.util.lang.Args;
+import org.apache.wicket.util.resource.IResourceStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compiles Less resources in the background when the application starts, so that the
+ * first requests after a deployment don't have to wait for the compilation.
+ *
+ * <p>The Less resource references are collected from the given references and header items
+ * and all their dependencies, e.g. the dependencies of all themes of a theme provider.
+ * They are compiled in parallel on a bounded number of daemon threads.</p>
+ *
+ * <pre>
+ * BootstrapLess.install(this);
+ *
+ * new LessCacheWarmer(this)
+ *     .add(new LessResourceReference(MyPage.class, "styles.less"))
+ *     .addAll(theme.getDependencies())
+ *     .start();
+ *
+ * mountResource("/health/less", new ResourceReference("less-health") {
+ *     public IResource getResource() { return new LessCacheWarmerStatusResource(); }
+ * });
+ * </pre>
+ *
+ * @see LessCacheWarmerStatusResource
+ */
+public class LessCacheWarmer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LessCacheWarmer.class);
+
+    private static final MetaDataKey<LessCacheWarmer> KEY = new MetaDataKey<LessCacheWarmer>() {
+        private static final long serialVersionUID = 1L;
+    };
+
+    /**
+     * The application the Less resources belong to
+     */
+    private final Application application;
+
+    /**
+     * The Less resource references to compile
+     */
+    private final Set<ResourceReference> references = new LinkedHashSet<>();
+
+    /**
+     * All references and header items that have been visited while collecting the Less resource references
+     */
+    private final Set<Object> visited = new HashSet<>();
+
+    private final AtomicInteger failures = new AtomicInteger();
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Counts down the remaining compilations. {@code null} until started.
+     */
+    private volatile CountDownLatch remaining;
+
+    private ExecutorService executor;
+
+    /**
+     * Constructor.
+     *
+     * @param application The application the Less resources belong to
+     */
+    public LessCacheWarmer(Application application) {
+        this.application = Args.notNull(application, "application");
+    }
+
+    /**
+     * Adds the Less resource references among the given references and their dependencies.
+     *
+     * @param references The references to add
+     * @return this instance for chaining
+     */
+    public LessCacheWarmer add(ResourceReference... references) {
+        for (ResourceReference reference : references) {
+            collect(reference);
+        }
+        return this;
+    }
+
+    /**
+     * Adds the Less resource references referenced by the given header items and their dependencies.
+     *
+     * @param headerItems The header items to add, e.g. {@code theme.getDependencies()}
+     * @return this instance for chaining
+     */
+    public LessCacheWarmer addAll(Iterable<? extends HeaderItem> headerItems) {
+        for (HeaderItem headerItem : headerItems) {
+            collect(headerItem);
+        }
+        return this;
+    }
+
+    /**
+     * @param threads The maximum number of threads used to compile the resources. Default: number of processors
+     * @return this instance for chaining
+     */
+    public LessCacheWarmer setThreads(int threads) {
+        this.threads = Args.withinRange(1, Integer.MAX_VALUE, threads, "threads");
+        return this;
+    }
+
+    /**
+     * @return all collected Less resource references
+     */
+    public Set<ResourceReference> getReferences() {
+        return Collections.unmodifiableSet(references);
+    }
+
+    /**
+     * Starts the compilation in the background and registers this instance in the application.
+     *
+     * @return this instance for chaining
+     * @see #get()
+     */
+    public synchronized LessCacheWarmer start() {
+        if (remaining != null) {
+            throw new IllegalStateException("The cache warmer has been started already");
+        }
+
+        List<ResourceReference> toCompile = new ArrayList<>(references);
+        remaining = new CountDownLatch(toCompile.size());
+        application.setMetaData(KEY, this);
+
+        if (toCompile.isEmpty()) {
+            return this;
+        }
+
+        LOG.info("Compiling {} Less resources in the background", toCompile.size());
+
+        executor = Executors.newFixedThreadPool(Math.min(threads, toCompile.size()), new ThreadFactory() {
+            private final AtomicInteger counter = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "less-cache-warmer-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        application.getApplicationListeners().add(new IApplicationListener() {
+            @Override
+            public void onAfterInitialized(Application application) {
+            }
+
+            @Override
+            public void onBeforeDestroyed(Application application) {
+                executor.shutdownNow();
+            }
+        });
+
+        for (final ResourceReference reference : toCompile) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    ThreadContext.setApplication(application);
+                    try {
+                        warmUp(reference);
+                    } catch (Exception x) {
+                        failures.incrementAndGet();
+                        LOG.warn("Cannot compile Less resource " + reference, x);
+                    } finally {
+                        ThreadContext.detach();
+                        remaining.countDown();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+
+        return this;
+    }
+
+    /**
+     * @return {@code true} if the warmer has been started and all Less resources have been compiled (or failed)
+     */
+    public boolean isReady() {
+        CountDownLatch latch = remaining;
+        return latch != null && latch.getCount() == 0;
+    }
+
+    /**
+     * Waits until all Less resources have been compiled.
+     *
+     * @param timeout The maximum time to wait
+     * @param unit    The unit of the timeout
+     * @return {@code true} if all Less resources have been compiled, {@code false} if the timeout elapsed before
+     * @throws InterruptedException if the current thread has been interrupted while waiting
+     */
+    public boolean awaitReady(long timeout, TimeUnit unit) throws InterruptedException {
+        CountDownLatch latch = remaining;
+        if (latch == null) {
+            throw new IllegalStateException("The cache warmer has not been started yet");
+        }
+        return latch.await(timeout, unit);
+    }
+
+    /**
+     * @return the number of Less resources that couldn't be compiled
+     */
+    public int getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * Compiles a single Less resource into the cache of the {@link LessCacheManager}.
+     * Called with the application assigned to the current thread.
+     *
+     * @param reference The reference to the Less resource
+     * @throws Exception if the resource cannot be compiled
+     */
+    protected void warmUp(ResourceReference reference) throws Exception {
+        IResource resource = reference.getResource();
+
+        LessResourceStream lessResourceStream = null;
+        if (resource instanceof ContextRelativeLessResource) {
+            lessResourceStream = ((ContextRelativeLessResource) resource).newLessResourceStream();
+        } else if (resource instanceof PackageResource) {
+            IResourceStream resourceStream = ((PackageResource) resource).getResourceStream();
+            if (resourceStream instanceof LessResourceStream) {
+                lessResourceStream = (LessResourceStream) resourceStream;
+            }
+        }
+
+        if (lessResourceStream != null) {
+            try {
+                lessResourceStream.asString();
+            } finally {
+                IOUtils.closeQuietly(lessResourceStream);
+            }
+        }
+    }
+
+    /**
+     * @param reference The resource reference
+     * @return {@code true} if the reference points to a Less resource
+     */
+    protected boolean isLessReference(ResourceReference reference) {
+        return reference instanceof LessResourceReference || reference instanceof ContextRelativeLessResourceReference;
+    }
+
+    private void collect(ResourceReference reference) {
+        if (reference == null || !visited.add(reference)) {
+            return;
+        }
+
+        if (isLessReference(reference)) {
+            references.add(reference);
+        }
+
+        for (HeaderItem dependency : reference.getDependencies()) {
+            collect(dependency);
+        }
+    }
+
+    private void collect(HeaderItem headerItem) {
+        if (headerItem == null || !visited.add(headerItem)) {
+            return;
+        }
+
+        if (headerItem instanceof IWrappedHeaderItem) {
+            collect(((IWrappedHeaderItem) headerItem).getWrapped());
+        }
+
+        if (headerItem instanceof IReferenceHeaderItem) {
+            collect(((IReferenceHeaderItem) headerItem).getReference());
+        }
+
+        for (HeaderItem dependency : headerItem.getDependencies()) {
+            collect(dependency);
+        }
+    }
+
+    /**
+     * @return the cache warmer started for the current application or {@code null} if there is none
+     */
+    public static LessCacheWarmer get() {
+        return Application.get().getMetaData(KEY);
+    }
+}
@@ -0,0 +1,40 @@
+package de.agilecoders.wicket.less;
+
+import org.apache.wicket.request.resource.AbstractResource;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+/**
+ * A resource that reports whether the {@link LessCacheWarmer} of the application has
+ * compiled all Less resources. It responds with status code 200 when the warmer is ready
+ * or there is none and 503 while the Less resources are being compiled, so it can be used
+ * as a readiness check by a load balancer.
+ */
+public class LessCacheWarmerStatusResource extends AbstractResource {
+    private static final long serialVersionUID = 1L;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    @Override
+    protected ResourceResponse newResourceResponse(Attributes attributes) {
+        LessCacheWarmer warmer = LessCacheWarmer.get();
+        boolean ready = warmer == null || warmer.isReady();
+        final byte[] body = (ready ? "ready" : "compiling").getBytes(UTF_8);
+
+        ResourceResponse response = new ResourceResponse();
+        response.setStatusCode(ready ? HttpServletResponse.SC_OK : HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setContentType("text/plain");
+        response.setTextEncoding("UTF-8");
+        response.setContentLength(body.length);
+        response.disableCaching();
+        response.setWriteCallback(new WriteCallback() {
+            @Override
+            public void writeData(Attributes attributes) throws IOException {
+                attributes.getResponse().write(body);
+            }
+        });
+        return response;
+    }
+}
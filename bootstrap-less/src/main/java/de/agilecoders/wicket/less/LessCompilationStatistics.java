@@ -0,0 +1,117 @@
+package de.agilecoders.wicket.less;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics about the compilations of a {@link LessCacheManager}.
+ *
+ * @see LessCacheManager#getCompilationStatistics()
+ */
+public class LessCompilationStatistics {
+
+    private final AtomicLong compilations = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong sharedCompilations = new AtomicLong();
+    private final AtomicLong totalCompileNanos = new AtomicLong();
+    private final AtomicLong maxCompileNanos = new AtomicLong();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    /**
+     * @return the number of finished compilations, including the failed ones
+     */
+    public long getCompilations() {
+        return compilations.get();
+    }
+
+    /**
+     * @return the number of compilations that failed
+     */
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * @return the number of requests that didn't compile on their own but waited for
+     *          the result of a compilation of the same resource in another thread
+     */
+    public long getSharedCompilations() {
+        return sharedCompilations.get();
+    }
+
+    /**
+     * @return the number of compilations that are running right now
+     */
+    public int getRunning() {
+        return running.get();
+    }
+
+    /**
+     * @return the number of threads waiting for the result of a running compilation
+     */
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    /**
+     * @return the time spent in all compilations in milliseconds
+     */
+    public long getTotalCompileMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalCompileNanos.get());
+    }
+
+    /**
+     * @return the time spent in the slowest compilation in milliseconds
+     */
+    public long getMaxCompileMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxCompileNanos.get());
+    }
+
+    /**
+     * @return the average time spent in a compilation in milliseconds
+     */
+    public long getAverageCompileMillis() {
+        long count = compilations.get();
+        return count > 0 ? TimeUnit.NANOSECONDS.toMillis(totalCompileNanos.get() / count) : 0;
+    }
+
+    void started() {
+        running.incrementAndGet();
+    }
+
+    void finished(long nanos, boolean failed) {
+        running.decrementAndGet();
+        compilations.incrementAndGet();
+        if (failed) {
+            failures.incrementAndGet();
+        }
+        totalCompileNanos.addAndGet(nanos);
+
+        long max = maxCompileNanos.get();
+        while (nanos > max && !maxCompileNanos.compareAndSet(max, nanos)) {
+            max = maxCompileNanos.get();
+        }
+    }
+
+    void waitingStarted() {
+        sharedCompilations.incrementAndGet();
+        waiting.incrementAndGet();
+    }
+
+    void waitingFinished() {
+        waiting.decrementAndGet();
+    }
+
+    @Override
+    public String toString() {
+        return "LessCompilationStatistics{compilations=" + getCompilations() +
+               ", failures=" + getFailures() +
+               ", shared=" + getSharedCompilations() +
+               ", running=" + getRunning() +
+               ", waiting=" + getWaiting() +
+               ", totalMillis=" + getTotalCompileMillis() +
+               ", maxMillis=" + getMaxCompileMillis() + '}';
+    }
+}
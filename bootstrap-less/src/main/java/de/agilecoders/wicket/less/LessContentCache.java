@@ -0,0 +1,307 @@
+package de.agilecoders.wicket.less;
+
+import com.github.sommeri.less4j.LessSource;
+import org.apache.wicket.util.lang.Args;
+import org.apache.wicket.util.time.Time;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A cache for the generated CSS content per root LessSource that is bounded by the number
+ * of entries and by the size of the CSS content in bytes. When a bound is exceeded the least
+ * recently used entries are evicted.
+ *
+ * <p>Reading and adding content doesn't lock the cache: each read only stamps the entry with
+ * the value of an access counter. Only the eviction is synchronized; it orders the entries by
+ * their stamps, so the eviction order is approximately the order of the last access if entries
+ * are read while the cache is evicting.</p>
+ *
+ * @see LessCacheManager#getContentCache()
+ */
+public class LessContentCache {
+
+    /**
+     * The CSS content per root LessSource
+     */
+    private final ConcurrentMap<LessSource.URLSource, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * The source of the access stamps of the entries
+     */
+    private final AtomicLong clock = new AtomicLong();
+
+    private final AtomicLong weight = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private volatile int maximumSize = 1000;
+
+    private volatile long maximumWeight = 64L * 1024 * 1024;
+
+    /**
+     * Returns the CSS content of a root LessSource if it has been generated for the given
+     * last modification time.
+     *
+     * @param lessSource   The root LessSource
+     * @param lastModified The last modification time of the root LessSource and its imports
+     * @return the cached CSS content or {@code null} if there is no up-to-date content
+     */
+    public LessCss get(LessSource.URLSource lessSource, Time lastModified) {
+        LessCss css = peek(lessSource, lastModified);
+        if (css != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return css;
+    }
+
+    /**
+     * Like {@link #get(LessSource.URLSource, Time)} but without updating the statistics
+     */
+    LessCss peek(LessSource.URLSource lessSource, Time lastModified) {
+        Entry entry = entries.get(lessSource);
+        if (entry != null && entry.lastModified.equals(lastModified)) {
+            entry.lastAccess = clock.incrementAndGet();
+            return entry.css;
+        }
+        return null;
+    }
+
+    /**
+     * Caches the CSS content of a root LessSource and replaces any older content of it.
+     *
+     * @param lessSource   The root LessSource
+     * @param lastModified The last modification time of the root LessSource and its imports
+     * @param css          The generated CSS content
+     */
+    public void put(LessSource.URLSource lessSource, Time lastModified, LessCss css) {
+        Entry entry = new Entry(lastModified, css, clock.incrementAndGet());
+        Entry old = entries.put(lessSource, entry);
+        weight.addAndGet(old != null ? entry.weight - old.weight : entry.weight);
+
+        evictIfNeeded(lessSource);
+    }
+
+    /**
+     * Removes the CSS content of a root LessSource
+     *
+     * @param lessSource The root LessSource
+     * @return {@code true} if there has been cached content
+     */
+    public boolean remove(LessSource.URLSource lessSource) {
+        Entry entry = entries.remove(lessSource);
+        if (entry != null) {
+            weight.addAndGet(-entry.weight);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes all cached CSS content. The statistics are kept.
+     */
+    public void clear() {
+        for (LessSource.URLSource lessSource : entries.keySet()) {
+            remove(lessSource);
+        }
+    }
+
+    /**
+     * @return all root LessSources with cached CSS content
+     */
+    List<LessSource.URLSource> getLessSources() {
+        return new ArrayList<>(entries.keySet());
+    }
+
+    /**
+     * @param maximumSize The maximum number of cached CSS contents. Default: 1000
+     * @return this instance for chaining
+     */
+    public LessContentCache setMaximumSize(int maximumSize) {
+        this.maximumSize = Args.withinRange(1, Integer.MAX_VALUE, maximumSize, "maximumSize");
+        evictIfNeeded(null);
+        return this;
+    }
+
+    /**
+     * @return the maximum number of cached CSS contents
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * @param maximumWeight The maximum size of all cached CSS contents in bytes, including their
+     *                      encoded variants. Default: 64 MiB
+     * @return this instance for chaining
+     */
+    public LessContentCache setMaximumWeight(long maximumWeight) {
+        this.maximumWeight = Args.withinRange(1L, Long.MAX_VALUE, maximumWeight, "maximumWeight");
+        evictIfNeeded(null);
+        return this;
+    }
+
+    /**
+     * @return the maximum size of all cached CSS contents in bytes
+     */
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    /**
+     * @return the number of cached CSS contents
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the size of all cached CSS contents in bytes, including their encoded variants
+     */
+    public long getWeight() {
+        return weight.get();
+    }
+
+    /**
+     * @return the number of requests that have been answered with cached CSS content
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of requests that found no up-to-date CSS content
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the number of CSS contents that have been evicted because a bound has been exceeded
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Called after the CSS content of a root LessSource has been evicted because
+     * a bound has been exceeded. Not called for {@link #remove(LessSource.URLSource)} and {@link #clear()}.
+     *
+     * @param lessSource The root LessSource which content has been evicted
+     */
+    protected void onEviction(LessSource.URLSource lessSource) {
+    }
+
+    private boolean exceedsBounds() {
+        return entries.size() > maximumSize || weight.get() > maximumWeight;
+    }
+
+    private void evictIfNeeded(LessSource.URLSource newest) {
+        if (!exceedsBounds()) {
+            return;
+        }
+
+        List<LessSource.URLSource> evicted;
+        synchronized (this) {
+            evicted = evict(newest);
+        }
+
+        for (LessSource.URLSource source : evicted) {
+            onEviction(source);
+        }
+    }
+
+    /**
+     * Evicts the least recently used entries until both bounds are kept.
+     * The newest entry is kept even if it exceeds the maximum weight on its own.
+     *
+     * @param newest The root LessSource that has been added right now or {@code null}
+     * @return the evicted root LessSources
+     */
+    private List<LessSource.URLSource> evict(LessSource.URLSource newest) {
+        if (!exceedsBounds()) {
+            return Collections.emptyList();
+        }
+
+        // the stamps are copied because they may change while sorting
+        List<Candidate> candidates = new ArrayList<>(entries.size());
+        for (Map.Entry<LessSource.URLSource, Entry> entry : entries.entrySet()) {
+            candidates.add(new Candidate(entry.getKey(), entry.getValue()));
+        }
+        Collections.sort(candidates);
+
+        List<LessSource.URLSource> evicted = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            if (!exceedsBounds() || candidate.lessSource == newest && entries.size() <= maximumSize) {
+                break;
+            }
+
+            if (entries.remove(candidate.lessSource, candidate.entry)) {
+                weight.addAndGet(-candidate.entry.weight);
+                evictions.incrementAndGet();
+                evicted.add(candidate.lessSource);
+            }
+        }
+
+        return evicted;
+    }
+
+    @Override
+    public String toString() {
+        return "LessContentCache{size=" + entries.size() +
+               ", weight=" + weight +
+               ", hits=" + hits +
+               ", misses=" + misses +
+               ", evictions=" + evictions + '}';
+    }
+
+    /**
+     * The CSS content generated for a last modification time
+     */
+    private static final class Entry {
+        private final Time lastModified;
+        private final LessCss css;
+        private final long weight;
+
+        /**
+         * The value of the access counter when the content has been read the last time
+         */
+        private volatile long lastAccess;
+
+        private Entry(Time lastModified, LessCss css, long lastAccess) {
+            this.lastModified = lastModified;
+            this.css = css;
+            this.weight = css.getWeight();
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    /**
+     * An entry with its access stamp at the start of an eviction
+     */
+    private static final class Candidate implements Comparable<Candidate> {
+        private final LessSource.URLSource lessSource;
+        private final Entry entry;
+        private final long lastAccess;
+
+        private Candidate(LessSource.URLSource lessSource, Entry entry) {
+            this.lessSource = lessSource;
+            this.entry = entry;
+            this.lastAccess = entry.lastAccess;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            return Long.compare(lastAccess, other.lastAccess);
+        }
+    }
+}
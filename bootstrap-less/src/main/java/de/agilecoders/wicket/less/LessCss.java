@@ -0,0 +1,293 @@
+package de.agilecoders.wicket.less;
+
+import org.apache.wicket.WicketRuntimeException;
+import org.apache.wicket.util.lang.Args;
+import org.apache.wicket.util.string.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The immutable CSS content generated for a Less resource. The content is kept encoded
+ * with UTF-8 and, if that is smaller, additionally encoded by each configured {@link LessCssEncoder},
+ * so it can be streamed to the clients without encoding or compressing it per request.
+ *
+ * <p>If the content has been minified, the CSS content as generated by the compiler is kept
+ * separately, e.g. for the second-level store.</p>
+ */
+public final class LessCss {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LessCss.class);
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * The CSS content encoded with UTF-8
+     */
+    private final byte[] content;
+
+    /**
+     * The content per content coding, in the order of preference
+     */
+    private final Map<String, byte[]> encodedContent;
+
+    /**
+     * The strong entity tag of the UTF-8 content, without quotes
+     */
+    private final String etag;
+
+    /**
+     * The CSS content as generated by the compiler or {@code null} if it hasn't been minified
+     */
+    private final String rawCss;
+
+    /**
+     * The source map of the CSS content or {@code null}
+     */
+    private final String sourceMap;
+
+    /**
+     * Constructor.
+     *
+     * @param css      The generated CSS content
+     * @param encoders The encoders for the content, in the order of preference
+     */
+    public LessCss(String css, List<? extends LessCssEncoder> encoders) {
+        this(css, null, encoders);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param css       The generated CSS content
+     * @param sourceMap The source map of the CSS content or {@code null}
+     * @param encoders  The encoders for the content, in the order of preference
+     */
+    public LessCss(String css, String sourceMap, List<? extends LessCssEncoder> encoders) {
+        this(css, null, sourceMap, encoders);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param css       The CSS content to serve
+     * @param rawCss    The CSS content as generated by the compiler if {@code css} has been minified, otherwise {@code null}
+     * @param sourceMap The source map of the generated CSS content or {@code null}
+     * @param encoders  The encoders for the content, in the order of preference
+     */
+    public LessCss(String css, String rawCss, String sourceMap, List<? extends LessCssEncoder> encoders) {
+        this.content = Args.notNull(css, "css").getBytes(UTF_8);
+        this.etag = digest(content);
+        this.rawCss = rawCss;
+        this.sourceMap = sourceMap;
+
+        Map<String, byte[]> encoded = new LinkedHashMap<>();
+        for (LessCssEncoder encoder : encoders) {
+            try {
+                byte[] bytes = encoder.encode(content);
+                if (bytes.length < content.length) {
+                    encoded.put(encoder.getName().toLowerCase(Locale.ROOT), bytes);
+                }
+            } catch (IOException | RuntimeException x) {
+                LOG.warn("Cannot encode CSS content with " + encoder.getName(), x);
+            }
+        }
+        this.encodedContent = encoded.isEmpty() ? Collections.<String, byte[]>emptyMap() : encoded;
+    }
+
+    /**
+     * @return the CSS content
+     */
+    public String getCss() {
+        return new String(content, UTF_8);
+    }
+
+    /**
+     * @return the CSS content as generated by the compiler, before it has been minified
+     */
+    public String getRawCss() {
+        return rawCss != null ? rawCss : getCss();
+    }
+
+    /**
+     * @return {@code true} if the CSS content has been minified after its compilation
+     */
+    public boolean isMinified() {
+        return rawCss != null;
+    }
+
+    /**
+     * @return the source map of the CSS content or {@code null} if none has been generated
+     */
+    public String getSourceMap() {
+        return sourceMap;
+    }
+
+    /**
+     * @return the content codings in which the content is available, in the order of preference
+     */
+    public Set<String> getEncodings() {
+        return Collections.unmodifiableSet(encodedContent.keySet());
+    }
+
+    /**
+     * @param encoding A content coding or {@code null} for the UTF-8 content
+     * @return the number of bytes of the content in the given coding
+     */
+    public int getLength(String encoding) {
+        return getBytes(encoding).length;
+    }
+
+    /**
+     * @param encoding A content coding or {@code null} for the UTF-8 content
+     * @return a stream over the content in the given coding; the content is not copied
+     */
+    public InputStream getInputStream(String encoding) {
+        return new ByteArrayInputStream(getBytes(encoding));
+    }
+
+    /**
+     * @param encoding A content coding or {@code null} for the UTF-8 content
+     * @return the strong entity tag of the content in the given coding, including the quotes
+     */
+    public String getETag(String encoding) {
+        return encoding == null ? '"' + etag + '"' : '"' + etag + '-' + encoding + '"';
+    }
+
+    /**
+     * @return the total number of bytes held by this instance
+     */
+    public long getWeight() {
+        long weight = content.length;
+        for (byte[] bytes : encodedContent.values()) {
+            weight += bytes.length;
+        }
+        if (rawCss != null) {
+            weight += rawCss.length();
+        }
+        if (sourceMap != null) {
+            weight += sourceMap.length();
+        }
+        return weight;
+    }
+
+    /**
+     * Selects the content coding to use for a request.
+     *
+     * @param acceptEncoding The value of the {@code Accept-Encoding} header of the request, may be {@code null}
+     * @return the available content coding that is accepted with the highest quality or {@code null}
+     *          if the UTF-8 content should be sent
+     */
+    public String selectEncoding(String acceptEncoding) {
+        if (Strings.isEmpty(acceptEncoding) || encodedContent.isEmpty()) {
+            return null;
+        }
+
+        String selected = null;
+        float selectedQuality = 0;
+        float wildcardQuality = -1;
+        Map<String, Float> qualities = new LinkedHashMap<>();
+
+        for (String coding : Strings.split(acceptEncoding, ',')) {
+            String name = coding;
+            float quality = 1;
+
+            int semicolon = coding.indexOf(';');
+            if (semicolon >= 0) {
+                name = coding.substring(0, semicolon);
+                quality = parseQuality(coding.substring(semicolon + 1));
+            }
+
+            name = name.trim().toLowerCase(Locale.ROOT);
+            if ("*".equals(name)) {
+                wildcardQuality = quality;
+            } else {
+                qualities.put(name, quality);
+            }
+        }
+
+        for (String encoding : encodedContent.keySet()) {
+            Float quality = qualities.get(encoding);
+            float q = quality != null ? quality : wildcardQuality;
+            if (q > selectedQuality) {
+                selected = encoding;
+                selectedQuality = q;
+            }
+        }
+
+        return selected;
+    }
+
+    /**
+     * @param etags The value of an {@code If-None-Match} header, may be {@code null}
+     * @param encoding The content coding of the response or {@code null}
+     * @return {@code true} if the header matches the entity tag of the content in the given coding
+     */
+    public boolean matches(String etags, String encoding) {
+        if (Strings.isEmpty(etags)) {
+            return false;
+        }
+
+        String expected = getETag(encoding);
+        for (String candidate : Strings.split(etags, ',')) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if ("*".equals(candidate) || expected.equals(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param encoding A content coding or {@code null} for the UTF-8 content
+     * @return the content in the given coding; must not be modified
+     */
+    byte[] getBytes(String encoding) {
+        if (encoding == null) {
+            return content;
+        }
+
+        byte[] bytes = encodedContent.get(encoding);
+        if (bytes == null) {
+            throw new IllegalArgumentException("The content is not available in coding " + encoding);
+        }
+        return bytes;
+    }
+
+    private static float parseQuality(String parameters) {
+        for (String parameter : Strings.split(parameters, ';')) {
+            parameter = parameter.trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Float.parseFloat(parameter.substring(2).trim());
+                } catch (NumberFormatException nfx) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static String digest(byte[] content) {
+        try {
+            return Strings.toHexString(MessageDigest.getInstance("SHA-1").digest(content));
+        } catch (NoSuchAlgorithmException nsax) {
+            throw new WicketRuntimeException(nsax);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package de.agilecoders.wicket.less;
+
+import java.io.IOException;
+
+/**
+ * Encodes the generated CSS content once after the compilation, e.g. with gzip, so that
+ * clients that accept the encoding can be served without compressing the content per request.
+ *
+ * @see LessCacheManager#setEncoders(LessCssEncoder...)
+ * @see GzipLessCssEncoder
+ */
+public interface LessCssEncoder {
+
+    /**
+     * @return the name of the content coding as used in the {@code Accept-Encoding} and
+     *          {@code Content-Encoding} headers, e.g. {@code gzip} or {@code br}
+     */
+    String getName();
+
+    /**
+     * @param content The CSS content encoded with UTF-8
+     * @return the encoded content
+     * @throws IOException if the content cannot be encoded
+     */
+    byte[] encode(byte[] content) throws IOException;
+}
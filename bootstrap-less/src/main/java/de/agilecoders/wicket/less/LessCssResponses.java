@@ -0,0 +1,85 @@
+package de.agilecoders.wicket.less;
+
+import org.apache.wicket.request.Request;
+import org.apache.wicket.request.http.WebRequest;
+import org.apache.wicket.request.resource.AbstractResource;
+import org.apache.wicket.request.resource.IResource;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Creates the responses of the resources that serve the CSS content generated for Less resources.
+ * The cached bytes of the CSS content are written as they are. If the client accepts an encoded
+ * variant of the content, e.g. gzip, that variant is written with a {@code Content-Encoding} header.
+ */
+final class LessCssResponses {
+
+    private LessCssResponses() {
+    }
+
+    /**
+     * Creates the response for the CSS content of a Less resource
+     *
+     * @param attributes The attributes of the request
+     * @param stream     The stream of the Less resource
+     * @param sourceMapUrl The URL of the source map relative to the CSS content or {@code null} if it is not served
+     * @return the response that writes the CSS content
+     */
+    static AbstractResource.ResourceResponse newResourceResponse(IResource.Attributes attributes, LessResourceStream stream,
+                                                                 String sourceMapUrl) {
+        AbstractResource.ResourceResponse response = new AbstractResource.ResourceResponse();
+        response.setContentType(stream.getContentType());
+        response.setTextEncoding("UTF-8");
+        response.setLastModified(stream.lastModifiedTime());
+        response.setAcceptRange(AbstractResource.ContentRangeType.NONE);
+
+        if (response.dataNeedsToBeWritten(attributes)) {
+            LessCss lessCss = stream.getLessCss();
+            final String encoding = lessCss.selectEncoding(getHeader(attributes.getRequest(), "Accept-Encoding"));
+
+            if (!lessCss.getEncodings().isEmpty()) {
+                response.getHeaders().addHeader("Vary", "Accept-Encoding");
+            }
+            response.getHeaders().addHeader("ETag", lessCss.getETag(encoding));
+            if (sourceMapUrl != null && lessCss.getSourceMap() != null) {
+                response.getHeaders().addHeader("SourceMap", sourceMapUrl);
+            }
+
+            if (lessCss.matches(getHeader(attributes.getRequest(), "If-None-Match"), encoding)) {
+                response.setStatusCode(HttpServletResponse.SC_NOT_MODIFIED);
+                return response;
+            }
+
+            if (encoding != null) {
+                response.getHeaders().addHeader("Content-Encoding", encoding);
+            }
+            response.setContentLength(lessCss.getLength(encoding));
+            response.setWriteCallback(new CssWriteCallback(lessCss, encoding));
+        }
+
+        return response;
+    }
+
+    private static String getHeader(Request request, String name) {
+        return request instanceof WebRequest ? ((WebRequest) request).getHeader(name) : null;
+    }
+
+    /**
+     * Writes the cached bytes of the CSS content in a content coding
+     */
+    private static final class CssWriteCallback extends AbstractResource.WriteCallback {
+        private final LessCss lessCss;
+        private final String encoding;
+
+        private CssWriteCallback(LessCss lessCss, String encoding) {
+            this.lessCss = lessCss;
+            this.encoding = encoding;
+        }
+
+        @Override
+        public void writeData(IResource.Attributes attributes) throws IOException {
+            attributes.getResponse().write(lessCss.getBytes(encoding));
+        }
+    }
+}
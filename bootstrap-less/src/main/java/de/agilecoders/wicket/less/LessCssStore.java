@@ -0,0 +1,76 @@
+package de.agilecoders.wicket.less;
+
+import org.apache.wicket.util.lang.Args;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A second-level store for compiled Less resources that may outlive the application,
+ * e.g. a local directory. {@link LessCacheManager} consults it before compiling a root
+ * Less resource and writes every freshly compiled result to it.
+ *
+ * <p>The store itself does not validate its entries. Each {@link Entry} carries the
+ * last modification time of the root resource and all of its (transitive) imports at
+ * the time of compilation and {@link LessCacheManager} discards it when any of them
+ * has changed since.</p>
+ *
+ * @see FileSystemLessCssStore
+ */
+public interface LessCssStore {
+
+    /**
+     * Loads a previously stored entry.
+     *
+     * @param key The key of the entry
+     * @return the stored entry or {@code null} if there is no (readable) entry for this key
+     */
+    Entry load(String key);
+
+    /**
+     * Stores an entry. Implementations must make sure that concurrent readers never see
+     * a partially written entry.
+     *
+     * @param key   The key of the entry
+     * @param entry The entry to store
+     */
+    void save(String key, Entry entry);
+
+    /**
+     * The compiled CSS content of a root Less resource together with the
+     * last modification times of all the resources it has been compiled from.
+     */
+    final class Entry {
+
+        private final String css;
+
+        private final Map<String, Long> dependencies;
+
+        /**
+         * Constructor.
+         *
+         * @param css          The compiled CSS content
+         * @param dependencies The last modification time (in milliseconds) per external form of
+         *                     the URL of the root resource and all its imported resources
+         */
+        public Entry(String css, Map<String, Long> dependencies) {
+            this.css = Args.notNull(css, "css");
+            this.dependencies = Collections.unmodifiableMap(new LinkedHashMap<>(Args.notNull(dependencies, "dependencies")));
+        }
+
+        /**
+         * @return the compiled CSS content
+         */
+        public String getCss() {
+            return css;
+        }
+
+        /**
+         * @return the last modification time per URL of the root resource and all its imports
+         */
+        public Map<String, Long> getDependencies() {
+            return dependencies;
+        }
+    }
+}
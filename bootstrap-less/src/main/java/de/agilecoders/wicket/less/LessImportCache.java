@@ -0,0 +1,113 @@
+package de.agilecoders.wicket.less;
+
+import org.apache.wicket.util.lang.Args;
+import org.apache.wicket.util.lang.Objects;
+
+import java.net.URL;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A cache for the URLs that imports with the schemes "webjars!", "classpath!" and "package!"
+ * are resolved to. Resolving these imports scans the WebJars or loads the scope class, so each
+ * import is resolved only once until {@link LessCacheManager#clearCache()} is called.
+ *
+ * <p>The entries are keyed by the scheme, the path of the import and, for "package!" imports,
+ * the name of the scope class.</p>
+ *
+ * @see LessCacheManager#getImportCache()
+ */
+public class LessImportCache {
+
+    private final ConcurrentMap<Key, URL> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param scheme     The scheme of the import, e.g. "webjars!"
+     * @param path       The path of the import without the scheme
+     * @param scopeClass The name of the scope class the import is resolved against or {@code null}
+     * @return the URL the import has been resolved to or {@code null} if it has not been resolved yet
+     */
+    public URL get(String scheme, String path, String scopeClass) {
+        URL url = entries.get(new Key(scheme, path, scopeClass));
+        if (url != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return url;
+    }
+
+    /**
+     * @param scheme     The scheme of the import, e.g. "webjars!"
+     * @param path       The path of the import without the scheme
+     * @param scopeClass The name of the scope class the import is resolved against or {@code null}
+     * @param url        The URL the import has been resolved to
+     */
+    public void put(String scheme, String path, String scopeClass, URL url) {
+        entries.put(new Key(scheme, path, scopeClass), Args.notNull(url, "url"));
+    }
+
+    /**
+     * Removes all resolved URLs
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * @return the number of resolved URLs
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the number of imports that used a resolved URL
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of imports that had to be resolved
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * The scheme, path and scope class of an import
+     */
+    private static final class Key {
+        private final String scheme;
+        private final String path;
+        private final String scopeClass;
+
+        private Key(String scheme, String path, String scopeClass) {
+            this.scheme = Args.notNull(scheme, "scheme");
+            this.path = Args.notNull(path, "path");
+            this.scopeClass = scopeClass;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return scheme.equals(key.scheme) && path.equals(key.path) && Objects.equal(scopeClass, key.scopeClass);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(scheme, path, scopeClass);
+        }
+    }
+}
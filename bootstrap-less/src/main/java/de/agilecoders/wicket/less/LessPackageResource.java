@@ -1,16 +1,30 @@
 package de.agilecoders.wicket.less;
 
+import org.apache.wicket.Application;
+import org.apache.wicket.core.util.resource.UrlResourceStream;
 import org.apache.wicket.request.resource.CssPackageResource;
+import org.apache.wicket.util.lang.Packages;
 import org.apache.wicket.util.resource.IResourceStream;
 
+import java.net.URL;
 import java.util.Locale;
 
 /**
  * A package resource that uses a custom IResourceStream to
  * load Less content but return CSS content generated out of it.
+ *
+ * <p>In deployment mode the CSS content compiled at build time is served
+ * if it is available and up-to-date.</p>
+ *
+ * @see PrecompiledCssLocator
  */
 public class LessPackageResource extends CssPackageResource {
 
+    /**
+     * The relative path to the resource
+     */
+    private final String name;
+
     /**
      * Constructor.
      *
@@ -23,12 +37,64 @@ public class LessPackageResource extends CssPackageResource {
      */
     public LessPackageResource(Class<?> scope, String name, Locale locale, String style, String variation) {
         super(scope, name, locale, style, variation);
+
+        this.name = name;
+    }
+
+    /**
+     * Serves the cached bytes of the generated CSS content and its encoded variants.
+     * Falls back to the default processing for precompiled CSS content and if a CSS compressor is configured
+     * in the resource settings but the CSS content hasn't been minified by the {@link LessCacheManager}.
+     */
+    @Override
+    protected ResourceResponse newResourceResponse(Attributes attributes) {
+        IResourceStream resourceStream = getResourceStream();
+        if (resourceStream instanceof LessResourceStream) {
+            LessResourceStream lessResourceStream = (LessResourceStream) resourceStream;
+
+            // minified CSS content isn't compressed again for each response
+            if (getCompressor() == null || lessResourceStream.getLessCss().isMinified()) {
+                String sourceMapUrl = name.substring(name.lastIndexOf('/') + 1) + LessSourceMapResourceReference.EXTENSION;
+                return LessCssResponses.newResourceResponse(attributes, lessResourceStream, sourceMapUrl);
+            }
+        }
+
+        return super.newResourceResponse(attributes);
     }
 
     @Override
     public IResourceStream getResourceStream() {
         IResourceStream resourceStream = super.getResourceStream();
+
+        if (resourceStream != null && Application.exists() && Application.get().usesDeploymentConfig()) {
+            IResourceStream precompiledStream = getPrecompiledResourceStream(resourceStream);
+            if (precompiledStream != null) {
+                return precompiledStream;
+            }
+        }
+
         return new LessResourceStream(resourceStream, getScope().getName());
     }
 
+    /**
+     * @param resourceStream The resource stream that loads the Less content
+     * @return a resource stream that loads the CSS content compiled at build time or {@code null}
+     *          if there is no such content
+     */
+    protected IResourceStream getPrecompiledResourceStream(IResourceStream resourceStream) {
+        URL lessUrl = LessResourceStream.getURL(resourceStream);
+        String path = Packages.absolutePath(getScope(), name);
+        if (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+
+        // localized and styled variations are always compiled at runtime
+        if (!lessUrl.toExternalForm().endsWith('/' + path)) {
+            return null;
+        }
+
+        PrecompiledCssLocator locator = LessCacheManager.get().getPrecompiledCssLocator();
+        URL cssUrl = locator.locate(lessUrl, path, Packages.extractPackageName(getScope()), getScope().getClassLoader());
+        return cssUrl != null ? new UrlResourceStream(cssUrl) : null;
+    }
 }
@@ -7,7 +7,8 @@ import org.apache.wicket.util.lang.Args;
 /**
  * A factory that creates a new instance of {@link de.agilecoders.wicket.less.LessResourceReference}
  * when there is no registered one in Wicket's {@link org.apache.wicket.request.resource.ResourceReferenceRegistry}
- * for a resource with extension <em>.less</em>
+ * for a resource with extension <em>.less</em> and a new instance of {@link LessSourceMapResourceReference}
+ * for a resource with extension <em>.less.map</em>
  */
 public class LessResourceReferenceFactory implements IResourceReferenceFactory {
 
@@ -36,6 +37,8 @@ public class LessResourceReferenceFactory implements IResourceReferenceFactory {
         }
         if (name != null && name.endsWith(".less")) {
             return new LessResourceReference(key);
+        } else if (name != null && name.endsWith(".less" + LessSourceMapResourceReference.EXTENSION)) {
+            return new LessSourceMapResourceReference(key);
         } else {
             return delegate.create(key);
         }
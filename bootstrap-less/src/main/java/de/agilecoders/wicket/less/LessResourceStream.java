@@ -1,11 +1,13 @@
 package de.agilecoders.wicket.less;
 
+import java.io.InputStream;
 import java.net.URL;
 
 import org.apache.wicket.WicketRuntimeException;
 import org.apache.wicket.core.util.resource.UrlResourceStream;
 import org.apache.wicket.util.lang.Args;
-import org.apache.wicket.util.resource.AbstractStringResourceStream;
+import org.apache.wicket.util.lang.Bytes;
+import org.apache.wicket.util.resource.AbstractResourceStream;
 import org.apache.wicket.util.resource.IResourceStream;
 import org.apache.wicket.util.resource.ResourceStreamWrapper;
 import org.apache.wicket.util.time.Time;
@@ -13,9 +15,10 @@ import org.apache.wicket.util.time.Time;
 import com.github.sommeri.less4j.LessSource;
 
 /**
- * A IResourceStream that loads the generated CSS content for Less resources
+ * A IResourceStream that loads the generated CSS content for Less resources.
+ * The content is streamed from the bytes cached by the {@link LessCacheManager}.
  */
-public class LessResourceStream extends AbstractStringResourceStream {
+public class LessResourceStream extends AbstractResourceStream {
 
     /**
      * The LessSource for the root Less resource.
@@ -30,6 +33,20 @@ public class LessResourceStream extends AbstractStringResourceStream {
      * @param scopeClass The name of the class used as a scope to resolve "package!" dependencies/imports
      */
     public LessResourceStream(IResourceStream lessStream, String scopeClass) {
+        URL lessUrl = getURL(lessStream);
+
+        LessCacheManager cacheManager = LessCacheManager.get();
+
+        this.lessSource = cacheManager.getLessSource(lessUrl, scopeClass);
+    }
+
+    /**
+     * Returns the URL of the Less resource loaded by the given resource stream
+     *
+     * @param lessStream The resource stream that loads the Less content. Only UrlResourceStream is supported at the moment!
+     * @return the URL of the Less resource
+     */
+    static URL getURL(IResourceStream lessStream) {
         Args.notNull(lessStream, "lessStream");
 
         while (lessStream instanceof ResourceStreamWrapper) {
@@ -46,17 +63,40 @@ public class LessResourceStream extends AbstractStringResourceStream {
                 LessResourceStream.class.getSimpleName(), UrlResourceStream.class.getName()));
         }
 
-        URL lessUrl = ((UrlResourceStream) lessStream).getURL();
+        return ((UrlResourceStream) lessStream).getURL();
+    }
 
+    /**
+     * @return the generated CSS content with its encoded variants
+     */
+    public LessCss getLessCss() {
         LessCacheManager cacheManager = LessCacheManager.get();
+        return cacheManager.getLessCss(lessSource);
+    }
 
-        this.lessSource = cacheManager.getLessSource(lessUrl, scopeClass);
+    /**
+     * @return the generated CSS content
+     */
+    public String asString() {
+        return getString();
     }
 
-    @Override
     protected String getString() {
-        LessCacheManager cacheManager = LessCacheManager.get();
-        return cacheManager.getCss(lessSource);
+        return getLessCss().getCss();
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return getLessCss().getInputStream(null);
+    }
+
+    @Override
+    public Bytes length() {
+        return Bytes.bytes(getLessCss().getLength(null));
+    }
+
+    @Override
+    public void close() {
     }
 
     @Override
@@ -0,0 +1,63 @@
+package de.agilecoders.wicket.less;
+
+import org.apache.wicket.request.resource.AbstractResource;
+import org.apache.wicket.util.resource.IResourceStream;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Locale;
+
+/**
+ * A resource that serves the source map of the CSS content generated for a Less resource
+ *
+ * @see LessSourceMapResourceReference
+ */
+public class LessSourceMapResource extends AbstractResource {
+    private static final long serialVersionUID = 1L;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final LessPackageResource lessResource;
+
+    /**
+     * Constructor.
+     *
+     * @param scope     The scope of the Less resource
+     * @param name      The relative path to the Less resource
+     * @param locale    The locale of the Less resource
+     * @param style     The style of the Less resource
+     * @param variation The variation of the Less resource
+     */
+    public LessSourceMapResource(Class<?> scope, String name, Locale locale, String style, String variation) {
+        this.lessResource = new LessPackageResource(scope, name, locale, style, variation);
+    }
+
+    @Override
+    protected ResourceResponse newResourceResponse(Attributes attributes) {
+        ResourceResponse response = new ResourceResponse();
+
+        IResourceStream resourceStream = lessResource.getResourceStream();
+        final String sourceMap = resourceStream instanceof LessResourceStream
+                ? ((LessResourceStream) resourceStream).getLessCss().getSourceMap()
+                : null;
+        if (sourceMap == null) {
+            return response.setError(HttpServletResponse.SC_NOT_FOUND, "There is no source map for " + lessResource);
+        }
+
+        response.setContentType("application/json");
+        response.setTextEncoding("UTF-8");
+        response.setLastModified(resourceStream.lastModifiedTime());
+        if (response.dataNeedsToBeWritten(attributes)) {
+            final byte[] content = sourceMap.getBytes(UTF_8);
+            response.setContentLength(content.length);
+            response.setWriteCallback(new WriteCallback() {
+                @Override
+                public void writeData(Attributes attributes) throws IOException {
+                    attributes.getResponse().write(content);
+                }
+            });
+        }
+        return response;
+    }
+}
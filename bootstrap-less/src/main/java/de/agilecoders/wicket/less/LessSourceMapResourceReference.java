@@ -0,0 +1,50 @@
+package de.agilecoders.wicket.less;
+
+import org.apache.wicket.request.resource.IResource;
+import org.apache.wicket.request.resource.ResourceReference;
+
+import java.util.Locale;
+
+/**
+ * A resource reference for the source map of the CSS content generated for a Less resource.
+ * Its name is the name of the Less resource with the extension <em>.map</em>, e.g.
+ * <em>styles.less.map</em>, so it is served next to the CSS content.
+ *
+ * @see LessCacheManager#setSourceMapsEnabled(boolean)
+ */
+public class LessSourceMapResourceReference extends ResourceReference {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The extension of the source maps
+     */
+    public static final String EXTENSION = ".map";
+
+    /**
+     * Construct.
+     *
+     * @param key  mandatory parameter
+     */
+    public LessSourceMapResourceReference(final Key key) {
+        super(key);
+    }
+
+    /**
+     * Construct.
+     *
+     * @param scope     mandatory parameter
+     * @param name      the name of the Less resource with extension <em>.map</em>
+     * @param locale    resource locale
+     * @param style     resource style
+     * @param variation resource variation
+     */
+    public LessSourceMapResourceReference(final Class<?> scope, final String name, final Locale locale, final String style, final String variation) {
+        super(scope, name, locale, style, variation);
+    }
+
+    @Override
+    public IResource getResource() {
+        String lessName = getName().substring(0, getName().length() - EXTENSION.length());
+        return new LessSourceMapResource(getScope(), lessName, getLocale(), getStyle(), getVariation());
+    }
+}
@@ -1,6 +1,7 @@
 package de.agilecoders.wicket.less;
 
 import com.github.sommeri.less4j.LessSource;
+import com.github.sommeri.less4j.utils.URIUtils;
 import de.agilecoders.wicket.webjars.WicketWebjars;
 import de.agilecoders.wicket.webjars.util.WebJarAssetLocator;
 import org.apache.commons.lang3.StringUtils;
@@ -15,6 +16,7 @@ import org.slf4j.LoggerFactory;
 import javax.servlet.ServletContext;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.concurrent.CopyOnWriteArraySet;
 
 /**
  * A specialization of {@link com.github.sommeri.less4j.LessSource.URLSource}
@@ -48,22 +50,38 @@ public class LessUrlSource extends LessSource.URLSource {
      */
     private final String scopeClass;
 
+    /**
+     * The URLs of the resolved "webjars!", "classpath!" and "package!" dependencies. May be {@code null}.
+     */
+    private final LessImportCache importCache;
+
     /**
      * Constructor
      *
      * @param inputURL The url to the Less resource
      * @param scopeClass The scope class used to load this Less resource. Also used to resolve "package!" dependencies
+     * @param importCache The cache for the resolved dependencies or {@code null} to resolve them for each import
      */
-    LessUrlSource(URL inputURL, String scopeClass) {
+    LessUrlSource(URL inputURL, String scopeClass, LessImportCache importCache) {
         super(inputURL);
 
         this.scopeClass = scopeClass;
+        this.importCache = importCache;
+
+        // the imported sources may be read by other threads, e.g. to check the last modification times
+        this.importedSources = new CopyOnWriteArraySet<>();
+    }
+
+    /**
+     * @return the name of the class used to resolve "package!" dependencies or {@code null}
+     */
+    String getScopeClass() {
+        return scopeClass;
     }
 
     @Override
     public LessSource relativeSource(String filename) throws FileNotFound, CannotReadFile {
         final LessSource relative;
-        boolean addParent = true;
 
         if (StringUtils.startsWith(filename, WEBJARS_SCHEME)) {
             relative = resolveWebJarsDependency(filename);
@@ -74,18 +92,40 @@ public class LessUrlSource extends LessSource.URLSource {
         } else if (scopeClass != null && StringUtils.startsWith(filename, PACKAGE_SCHEME)) {
             relative = resolvePackageDependency(filename);
         } else {
-            addParent = false;
-            relative = super.relativeSource(filename);
+            relative = resolveRelativeDependency(filename);
         }
 
-        if (addParent) {
-            // add imported source to detect correct last modified time
-            addImportedSource(relative);
-        }
+        // add imported source to detect correct last modified time
+        addImportedSource(relative);
 
         return relative;
     }
 
+    @Override
+    protected void addImportedSource(LessSource source) {
+        // replace the source of the same URL from a previous compilation
+        importedSources.remove(source);
+        importedSources.add(source);
+    }
+
+    /**
+     * Adds a LessSource this source depends on, e.g. the source of a shared syntax tree
+     *
+     * @param source The LessSource to add
+     * @see LessAstCache
+     */
+    void addDependency(LessSource source) {
+        importedSources.add(source);
+    }
+
+    private LessUrlSource resolveRelativeDependency(String filename) throws FileNotFound {
+        try {
+            return new LessUrlSource(new URL(URIUtils.toParentURL(getInputURL()), filename), scopeClass, importCache);
+        } catch (MalformedURLException mux) {
+            throw new FileNotFound();
+        }
+    }
+
     private LessSource resolveWebContextDependency(String filename) {
         LOG.debug("Going to resolve an import from the web context: {}", filename);
         String resourceName = filename.substring(WEB_CONTEXT_SCHEME.length());
@@ -97,7 +137,7 @@ public class LessUrlSource extends LessSource.URLSource {
         URL url;
         try {
             url = context.getResource(resourceName);
-            return new LessUrlSource(url, scopeClass);
+            return new LessUrlSource(url, scopeClass, importCache);
         } catch (MalformedURLException mux) {
             throw new IllegalArgumentException("Cannot create a URL to a resource in the web context", mux);
         }
@@ -114,10 +154,14 @@ public class LessUrlSource extends LessSource.URLSource {
             resourceName = resourceName.substring(1);
         }
 
-        Class<?> scope = WicketObjects.resolveClass(scopeClass);
-        URL url = scope.getResource(resourceName);
+        URL url = getResolved(PACKAGE_SCHEME, resourceName, scopeClass);
+        if (url == null) {
+            Class<?> scope = WicketObjects.resolveClass(scopeClass);
+            url = scope.getResource(resourceName);
+            putResolved(PACKAGE_SCHEME, resourceName, scopeClass, url);
+        }
         if (url != null) {
-            return new LessUrlSource(url, scopeClass);
+            return new LessUrlSource(url, scopeClass, importCache);
         } else {
             throw new IllegalArgumentException(
                     String.format("Cannot resolve relative source with name '%s' in the package of '%s'", filename, scopeClass));
@@ -131,9 +175,13 @@ public class LessUrlSource extends LessSource.URLSource {
             resourceName = '/' + resourceName;
         }
 
-        URL url = LessCacheManager.class.getResource(resourceName);
+        URL url = getResolved(CLASSPATH_SCHEME, resourceName, null);
+        if (url == null) {
+            url = LessCacheManager.class.getResource(resourceName);
+            putResolved(CLASSPATH_SCHEME, resourceName, null, url);
+        }
         if (url != null) {
-            return new LessUrlSource(url, scopeClass);
+            return new LessUrlSource(url, scopeClass, importCache);
         } else {
             throw new IllegalArgumentException(
                     String.format("Cannot resolve relative source with name '%s' in the classpath", filename));
@@ -142,14 +190,32 @@ public class LessUrlSource extends LessSource.URLSource {
 
     private LessUrlSource resolveWebJarsDependency(String filename) {
         LOG.debug("Going to resolve an import from WebJars: {}", filename);
-        final String file = Holder.locator.getFullPath(filename.replaceFirst(WEBJARS_SCHEME, "/webjars/"));
+        String resourceName = filename.substring(WEBJARS_SCHEME.length());
+        if (resourceName.startsWith("/")) {
+            resourceName = resourceName.substring(1);
+        }
 
         try {
-            final URL res = Thread.currentThread().getContextClassLoader().getResource(file);
-
-            return new LessUrlSource(res, scopeClass);
+            URL res = getResolved(WEBJARS_SCHEME, resourceName, null);
+            if (res == null) {
+                final String file = Holder.locator.getFullPath("/webjars/" + resourceName);
+                res = Thread.currentThread().getContextClassLoader().getResource(file);
+                putResolved(WEBJARS_SCHEME, resourceName, null, res);
+            }
+
+            return new LessUrlSource(res, scopeClass, importCache);
         } catch (RuntimeException e) {
             throw new WicketRuntimeException(e);
         }
     }
+
+    private URL getResolved(String scheme, String path, String scope) {
+        return importCache != null ? importCache.get(scheme, path, scope) : null;
+    }
+
+    private void putResolved(String scheme, String path, String scope, URL url) {
+        if (importCache != null && url != null) {
+            importCache.put(scheme, path, scope, url);
+        }
+    }
 }
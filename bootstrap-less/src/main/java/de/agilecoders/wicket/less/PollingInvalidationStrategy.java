@@ -0,0 +1,86 @@
+package de.agilecoders.wicket.less;
+
+import com.github.sommeri.less4j.LessSource;
+import org.apache.wicket.util.lang.Args;
+import org.apache.wicket.util.time.Duration;
+import org.apache.wicket.util.time.Time;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An {@link InvalidationStrategy} that checks the last modification times of a root Less
+ * resource and its imports at most once per given interval. With the default interval
+ * {@link Duration#NONE} they are checked on each request.
+ */
+public class PollingInvalidationStrategy implements InvalidationStrategy {
+
+    /**
+     * The minimum time between two checks of the same root Less resource
+     */
+    private final Duration interval;
+
+    /**
+     * The last check per root LessSource
+     */
+    private final ConcurrentMap<LessSource.URLSource, Check> checks = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor. Checks the last modification times on each request.
+     */
+    public PollingInvalidationStrategy() {
+        this(Duration.NONE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param interval The minimum time between two checks of the same root Less resource
+     */
+    public PollingInvalidationStrategy(Duration interval) {
+        this.interval = Args.notNull(interval, "interval");
+    }
+
+    @Override
+    public Time getLastModifiedTime(LessSource.URLSource lessSource, LessCacheManager cacheManager) {
+        if (interval.getMilliseconds() <= 0) {
+            return cacheManager.scanLastModifiedTime(lessSource);
+        }
+
+        long now = System.currentTimeMillis();
+        Check check = checks.get(lessSource);
+        if (check == null || now - check.checkedAt >= interval.getMilliseconds()) {
+            check = new Check(cacheManager.scanLastModifiedTime(lessSource), now);
+            checks.put(lessSource, check);
+        }
+        return check.lastModified;
+    }
+
+    @Override
+    public void invalidate(LessSource.URLSource lessSource) {
+        checks.remove(lessSource);
+    }
+
+    @Override
+    public void clear() {
+        checks.clear();
+    }
+
+    @Override
+    public void destroy() {
+        clear();
+    }
+
+    /**
+     * The result of a check of the last modification times
+     */
+    private static final class Check {
+        private final Time lastModified;
+        private final long checkedAt;
+
+        private Check(Time lastModified, long checkedAt) {
+            this.lastModified = lastModified;
+            this.checkedAt = checkedAt;
+        }
+    }
+}
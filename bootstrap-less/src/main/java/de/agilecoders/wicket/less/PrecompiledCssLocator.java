@@ -0,0 +1,204 @@
+package de.agilecoders.wicket.less;
+
+import org.apache.wicket.WicketRuntimeException;
+import org.apache.wicket.util.io.IOUtils;
+import org.apache.wicket.util.lang.Args;
+import org.apache.wicket.util.string.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Locates the CSS content of Less resources that has been compiled at build time by
+ * the <em>wicket-bootstrap-less-maven-plugin</em>.
+ *
+ * <p>The plugin writes the compiled CSS of each root Less resource to
+ * {@value #FOLDER}&lt;path-of-less-resource&gt;.css and its fingerprint to {@value #MANIFEST}.
+ * The fingerprint covers the content of the Less resource and of all resources it imports; the
+ * imports are recorded with their paths in the classpath. The precompiled CSS is used only if the
+ * fingerprint of the resources found at runtime matches the one recorded at build time, i.e. the
+ * Less resource is compiled at runtime if an imported resource has been changed, e.g. by another
+ * version of a WebJar or by a resource with the same path earlier in the classpath.</p>
+ *
+ * <p>If "package!" imports have been resolved against a scope class at build time, its package is
+ * recorded as well and the precompiled CSS is used only for a scope in the same package.</p>
+ */
+public class PrecompiledCssLocator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PrecompiledCssLocator.class);
+
+    /**
+     * The folder in the jar that contains the precompiled CSS resources
+     */
+    public static final String FOLDER = "META-INF/wicket-bootstrap-less/";
+
+    /**
+     * The manifest with the fingerprint per path of precompiled Less resource
+     */
+    public static final String MANIFEST = FOLDER + "manifest.properties";
+
+    /**
+     * The suffix of the manifest entry with the comma separated paths of the imported resources
+     */
+    public static final String IMPORTS_SUFFIX = ".imports";
+
+    /**
+     * The suffix of the manifest entry with the package "package!" imports have been resolved against
+     */
+    public static final String SCOPE_SUFFIX = ".scope";
+
+    /**
+     * A marker for Less resources without (valid) precompiled CSS content
+     */
+    private static final URL NONE;
+
+    static {
+        try {
+            NONE = new URL("file:/");
+        } catch (IOException iox) {
+            throw new ExceptionInInitializerError(iox);
+        }
+    }
+
+    /**
+     * The located precompiled CSS resource per URL and scope of a Less resource
+     */
+    private final ConcurrentMap<String, URL> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the URL to the precompiled CSS content of a Less resource.
+     *
+     * @param lessUrl      The URL to the Less resource
+     * @param path         The absolute path of the Less resource in the classpath, e.g. {@code com/example/styles.less}
+     * @param scopePackage The package of the scope class "package!" imports are resolved against
+     * @param classLoader  The class loader to use to load the manifests, the imported resources and the precompiled CSS
+     * @return the URL to the precompiled CSS content or {@code null} if there is none or it is outdated
+     */
+    public URL locate(URL lessUrl, String path, String scopePackage, ClassLoader classLoader) {
+        Args.notNull(lessUrl, "lessUrl");
+        Args.notEmpty(path, "path");
+        Args.notNull(scopePackage, "scopePackage");
+
+        String key = lessUrl.toExternalForm() + '|' + scopePackage;
+        URL cssUrl = cache.get(key);
+        if (cssUrl == null) {
+            cssUrl = find(lessUrl, path, scopePackage, classLoader);
+            cache.put(key, cssUrl != null ? cssUrl : NONE);
+        }
+
+        return cssUrl != NONE ? cssUrl : null;
+    }
+
+    /**
+     * Forgets all located CSS resources
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    private URL find(URL lessUrl, String path, String scopePackage, ClassLoader classLoader) {
+        try {
+            Properties manifest = null;
+            Enumeration<URL> manifests = classLoader.getResources(MANIFEST);
+            while (manifest == null && manifests.hasMoreElements()) {
+                Properties properties = load(manifests.nextElement());
+                if (properties.getProperty(path) != null) {
+                    manifest = properties;
+                }
+            }
+
+            if (manifest == null) {
+                return null;
+            }
+
+            String expectedPackage = manifest.getProperty(path + SCOPE_SUFFIX);
+            if (expectedPackage != null && !expectedPackage.equals(scopePackage)) {
+                LOG.info("Precompiled CSS content of '{}' has been compiled for the package '{}' and will not be used",
+                         path, expectedPackage);
+                return null;
+            }
+
+            List<byte[]> contents = new ArrayList<>();
+            contents.add(read(lessUrl));
+            for (String importPath : Strings.split(manifest.getProperty(path + IMPORTS_SUFFIX, ""), ',')) {
+                if (importPath.isEmpty()) {
+                    continue;
+                }
+
+                URL importUrl = classLoader.getResource(importPath);
+                if (importUrl == null) {
+                    LOG.info("Precompiled CSS content of '{}' is outdated because '{}' is missing", path, importPath);
+                    return null;
+                }
+                contents.add(read(importUrl));
+            }
+
+            if (!manifest.getProperty(path).equals(fingerprint(contents))) {
+                LOG.info("Precompiled CSS content of '{}' is outdated and will not be used", path);
+                return null;
+            }
+
+            return classLoader.getResource(cssPath(path));
+        } catch (IOException iox) {
+            LOG.warn("Cannot locate the precompiled CSS content of " + path, iox);
+            return null;
+        }
+    }
+
+    private static byte[] read(URL url) throws IOException {
+        InputStream inputStream = url.openStream();
+        try {
+            return IOUtils.toByteArray(inputStream);
+        } finally {
+            IOUtils.closeQuietly(inputStream);
+        }
+    }
+
+    private static Properties load(URL manifest) throws IOException {
+        Properties properties = new Properties();
+        InputStream inputStream = manifest.openStream();
+        try {
+            properties.load(inputStream);
+        } finally {
+            IOUtils.closeQuietly(inputStream);
+        }
+        return properties;
+    }
+
+    /**
+     * @param path The absolute path of a Less resource in the classpath
+     * @return the absolute path of its precompiled CSS resource in the classpath
+     */
+    public static String cssPath(String path) {
+        return FOLDER + Strings.beforeLast(path, '.') + ".css";
+    }
+
+    /**
+     * @param contents The content of a Less resource followed by the contents of all resources it imports
+     * @return the fingerprint of the contents
+     */
+    public static String fingerprint(List<byte[]> contents) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            for (byte[] content : contents) {
+                int length = content.length;
+                digest.update(new byte[] {(byte) (length >>> 24), (byte) (length >>> 16), (byte) (length >>> 8), (byte) length});
+                digest.update(content);
+            }
+            return Strings.toHexString(digest.digest());
+        } catch (NoSuchAlgorithmException nsax) {
+            throw new WicketRuntimeException(nsax);
+        }
+    }
+}
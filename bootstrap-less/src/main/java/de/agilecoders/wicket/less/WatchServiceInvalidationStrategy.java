@@ -0,0 +1,219 @@
+package de.agilecoders.wicket.less;
+
+import com.github.sommeri.less4j.LessSource;
+import org.apache.wicket.util.time.Time;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An {@link InvalidationStrategy} that watches the folders of Less resources loaded from
+ * {@code file:} URLs, e.g. in an exploded web application, with a {@link WatchService}.
+ * The last modification times are checked again only after a watched resource has changed.
+ *
+ * <p>Resources loaded from other URLs, e.g. from jars, are not watched and their last
+ * modification times are checked only once, like with {@link FrozenInvalidationStrategy}.</p>
+ *
+ * <p>The watch service and its daemon thread are started when the first folder is watched
+ * and stopped by {@link #destroy()}, i.e. when the application is destroyed or the strategy
+ * is replaced. A destroyed strategy doesn't watch any folders anymore.</p>
+ */
+public class WatchServiceInvalidationStrategy implements InvalidationStrategy {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WatchServiceInvalidationStrategy.class);
+
+    /**
+     * The watch service; {@code null} until the first folder is watched
+     */
+    private WatchService watchService;
+
+    /**
+     * The known last modification time per root LessSource
+     */
+    private final ConcurrentMap<LessSource.URLSource, Time> times = new ConcurrentHashMap<>();
+
+    /**
+     * The root LessSources per watched file
+     */
+    private final ConcurrentMap<Path, Set<LessSource.URLSource>> dependents = new ConcurrentHashMap<>();
+
+    private final Set<Path> watchedFolders = Collections.newSetFromMap(new ConcurrentHashMap<Path, Boolean>());
+
+    /**
+     * Incremented on each change of a watched file. Used to detect changes
+     * that happen while the last modification times are checked.
+     */
+    private final AtomicLong changes = new AtomicLong();
+
+    /**
+     * The daemon thread that waits for changes of the watched files; {@code null} until the first folder is watched
+     */
+    private Thread watcher;
+
+    private boolean destroyed;
+
+    @Override
+    public Time getLastModifiedTime(LessSource.URLSource lessSource, LessCacheManager cacheManager) {
+        Time lastModified = times.get(lessSource);
+        if (lastModified == null) {
+            long changesBefore = changes.get();
+
+            register(lessSource, cacheManager);
+            lastModified = cacheManager.scanLastModifiedTime(lessSource);
+            times.put(lessSource, lastModified);
+
+            if (changes.get() != changesBefore) {
+                // a file changed while checking; check again next time
+                times.remove(lessSource);
+            }
+        }
+        return lastModified;
+    }
+
+    @Override
+    public void invalidate(LessSource.URLSource lessSource) {
+        times.remove(lessSource);
+    }
+
+    @Override
+    public void clear() {
+        times.clear();
+        dependents.clear();
+    }
+
+    @Override
+    public synchronized void destroy() {
+        destroyed = true;
+        clear();
+        watchedFolders.clear();
+
+        if (watcher != null) {
+            watcher.interrupt();
+            try {
+                watchService.close();
+            } catch (IOException iox) {
+                LOG.debug("Cannot close the watch service", iox);
+            }
+            watcher = null;
+            watchService = null;
+        }
+    }
+
+    /**
+     * Watches a folder; starts the watch service and its thread for the first folder
+     *
+     * @param folder The folder to watch
+     * @throws IOException if the folder cannot be watched
+     */
+    private synchronized void watch(Path folder) throws IOException {
+        if (destroyed) {
+            return;
+        }
+
+        if (watchService == null) {
+            final WatchService service = FileSystems.getDefault().newWatchService();
+            watcher = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    awaitChanges(service);
+                }
+            }, "less-resource-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+            watchService = service;
+        }
+
+        folder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+    }
+
+    /**
+     * @return {@code true} if the watch service and its thread have been started and not destroyed yet
+     */
+    public synchronized boolean isWatching() {
+        return watcher != null;
+    }
+
+    /**
+     * Watches all files a root LessSource depends on
+     *
+     * @param lessSource   The root LessSource
+     * @param cacheManager The cache manager that knows the imported resources
+     */
+    private void register(LessSource.URLSource lessSource, LessCacheManager cacheManager) {
+        for (URL url : cacheManager.getDependencies(lessSource)) {
+            if (!"file".equals(url.getProtocol())) {
+                continue;
+            }
+
+            try {
+                Path file = Paths.get(url.toURI()).toAbsolutePath();
+
+                Set<LessSource.URLSource> roots = dependents.get(file);
+                if (roots == null) {
+                    roots = Collections.newSetFromMap(new ConcurrentHashMap<LessSource.URLSource, Boolean>());
+                    Set<LessSource.URLSource> old = dependents.putIfAbsent(file, roots);
+                    if (old != null) {
+                        roots = old;
+                    }
+                }
+                roots.add(lessSource);
+
+                Path folder = file.getParent();
+                if (folder != null && watchedFolders.add(folder)) {
+                    watch(folder);
+                }
+            } catch (IOException | URISyntaxException | RuntimeException x) {
+                LOG.warn("Cannot watch Less resource " + url.toExternalForm(), x);
+            }
+        }
+    }
+
+    private void awaitChanges(WatchService watchService) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                Path folder = (Path) key.watchable();
+
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changes.incrementAndGet();
+
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        times.clear();
+                        continue;
+                    }
+
+                    Set<LessSource.URLSource> roots = dependents.get(folder.resolve((Path) event.context()));
+                    if (roots != null) {
+                        for (LessSource.URLSource root : roots) {
+                            LOG.debug("Less resource '{}' has to be checked again", root.getInputURL());
+                            times.remove(root);
+                        }
+                    }
+                }
+
+                if (!key.reset()) {
+                    watchedFolders.remove(folder);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException x) {
+            LOG.debug("Stopped watching Less resources");
+        }
+    }
+}
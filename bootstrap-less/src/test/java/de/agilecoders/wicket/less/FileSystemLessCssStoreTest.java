@@ -0,0 +1,51 @@
+package de.agilecoders.wicket.less;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileSystemLessCssStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void loadsSavedEntry() {
+        FileSystemLessCssStore store = new FileSystemLessCssStore(folder.getRoot().toPath().resolve("less"));
+
+        Map<String, Long> dependencies = new LinkedHashMap<>();
+        dependencies.put("file:/root.less", 1000L);
+        dependencies.put("jar:file:/lib.jar!/imported.less", 2000L);
+        store.save("key", new LessCssStore.Entry(".a {\n  color: red;\n}\n", dependencies));
+
+        LessCssStore.Entry entry = store.load("key");
+        assertThat(entry.getCss(), is(".a {\n  color: red;\n}\n"));
+        assertThat(entry.getDependencies(), is(dependencies));
+    }
+
+    @Test
+    public void returnsNullForUnknownKey() {
+        FileSystemLessCssStore store = new FileSystemLessCssStore(folder.getRoot().toPath());
+
+        assertThat(store.load("unknown"), is(nullValue()));
+    }
+
+    @Test
+    public void returnsNullForCorruptEntry() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        Files.write(directory.resolve("corrupt.css"), "garbage".getBytes("UTF-8"));
+        FileSystemLessCssStore store = new FileSystemLessCssStore(directory);
+
+        assertThat(store.load("corrupt"), is(nullValue()));
+    }
+}
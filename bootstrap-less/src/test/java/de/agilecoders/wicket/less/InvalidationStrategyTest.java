@@ -0,0 +1,106 @@
+package de.agilecoders.wicket.less;
+
+import com.github.sommeri.less4j.LessSource;
+import org.apache.wicket.util.time.Duration;
+import org.apache.wicket.util.time.Time;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for the different {@link InvalidationStrategy}s
+ */
+public class InvalidationStrategyTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void frozenStrategyIgnoresChangesUntilCacheIsCleared() throws Exception {
+        LessCacheManager cacheManager = new LessCacheManager().setInvalidationStrategy(new FrozenInvalidationStrategy());
+        File lessFile = newLessFile();
+        LessSource.URLSource lessSource = new LessSource.URLSource(lessFile.toURI().toURL());
+
+        Time before = cacheManager.getLastModifiedTime(lessSource);
+        touch(lessFile);
+        assertThat(cacheManager.getLastModifiedTime(lessSource), is(before));
+
+        cacheManager.clearCache();
+        assertThat(cacheManager.getLastModifiedTime(lessSource), is(not(before)));
+    }
+
+    @Test
+    public void pollingStrategyChecksAfterInterval() throws Exception {
+        LessCacheManager cacheManager = new LessCacheManager()
+                .setInvalidationStrategy(new PollingInvalidationStrategy(Duration.hours(1)));
+        File lessFile = newLessFile();
+        LessSource.URLSource lessSource = new LessSource.URLSource(lessFile.toURI().toURL());
+
+        Time before = cacheManager.getLastModifiedTime(lessSource);
+        touch(lessFile);
+        assertThat(cacheManager.getLastModifiedTime(lessSource), is(before));
+
+        cacheManager.setInvalidationStrategy(new PollingInvalidationStrategy());
+        assertThat(cacheManager.getLastModifiedTime(lessSource), is(not(before)));
+    }
+
+    @Test
+    public void watchServiceStrategyDetectsChanges() throws Exception {
+        WatchServiceInvalidationStrategy strategy = new WatchServiceInvalidationStrategy();
+        try {
+            LessCacheManager cacheManager = new LessCacheManager().setInvalidationStrategy(strategy);
+            File lessFile = newLessFile();
+            LessSource.URLSource lessSource = new LessSource.URLSource(lessFile.toURI().toURL());
+
+            Time before = cacheManager.getLastModifiedTime(lessSource);
+            assertThat(cacheManager.getLastModifiedTime(lessSource), is(before));
+
+            assertThat(strategy.isWatching(), is(true));
+
+            touch(lessFile);
+
+            Time after = before;
+            for (int i = 0; i < 200 && after.equals(before); i++) {
+                Thread.sleep(50);
+                after = cacheManager.getLastModifiedTime(lessSource);
+            }
+            assertThat(after, is(not(before)));
+        } finally {
+            strategy.destroy();
+        }
+    }
+
+    @Test
+    public void replacedWatchServiceStrategyIsDestroyed() throws Exception {
+        WatchServiceInvalidationStrategy strategy = new WatchServiceInvalidationStrategy();
+        assertThat(strategy.isWatching(), is(false));
+
+        LessCacheManager cacheManager = new LessCacheManager().setInvalidationStrategy(strategy);
+        cacheManager.getLastModifiedTime(new LessSource.URLSource(newLessFile().toURI().toURL()));
+        assertThat(strategy.isWatching(), is(true));
+
+        cacheManager.setInvalidationStrategy(new FrozenInvalidationStrategy());
+        assertThat(strategy.isWatching(), is(false));
+    }
+
+    private File newLessFile() throws IOException {
+        File lessFile = folder.newFile("styles.less");
+        Files.write(lessFile.toPath(), "body { color: red; }".getBytes(Charset.forName("UTF-8")));
+        lessFile.setLastModified(Time.millis(100000000000L).getMilliseconds());
+        return lessFile;
+    }
+
+    private void touch(File lessFile) throws IOException {
+        Files.write(lessFile.toPath(), "body { color: blue; }".getBytes(Charset.forName("UTF-8")));
+        lessFile.setLastModified(Time.millis(200000000000L).getMilliseconds());
+    }
+}
@@ -0,0 +1,126 @@
+package de.agilecoders.wicket.less;
+
+import com.github.sommeri.less4j.LessSource;
+import de.agilecoders.wicket.less.resources.ResourcesScope;
+import de.agilecoders.wicket.webjars.WicketWebjars;
+import org.apache.wicket.util.tester.WicketTester;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link LessAstCache}
+ */
+public class LessAstCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private WicketTester tester;
+
+    @Before
+    public void before() {
+        tester = new WicketTester(new TestApplication() {
+            @Override
+            public void init() {
+                super.init();
+
+                WicketWebjars.install(this);
+            }
+        });
+    }
+
+    @After
+    public void after() {
+        tester.destroy();
+    }
+
+    @Test
+    public void variantsShareParsedImports() throws IOException {
+        write("base.less", "@import \"webjars!bootstrap/current/less/variables.less\";\n" +
+                           "@import \"webjars!bootstrap/current/less/mixins.less\";\n" +
+                           ".btn-brand { .button-variant(#fff; @brand; darken(@brand, 5%)); }");
+        List<URL> variants = Arrays.asList(
+                write("first.less", "@import \"base.less\";\n@brand: #336699;"),
+                write("second.less", "@import \"base.less\";\n@brand: #993366;"));
+
+        LessCacheManager cacheManager = new LessCacheManager();
+        List<String> css = compile(cacheManager, variants);
+
+        LessAstCache astCache = cacheManager.getAstCache();
+        assertThat(astCache.size(), is(greaterThan(0)));
+        assertThat(astCache.getHits(), is(greaterThan(0L)));
+        assertThat(css.get(0), is(not(css.get(1))));
+
+        List<String> uncachedCss = compile(new LessCacheManager().setAstCache(null), variants);
+        assertThat(css, is(uncachedCss));
+    }
+
+    @Test
+    public void sharedParsedImportsAreResolvedWithTheScopeOfTheRoot() throws IOException {
+        write("shared.less", "@import \"package!scoped.less\";");
+        URL first = write("first.less", "@import \"shared.less\";");
+        URL second = write("second.less", "@import \"shared.less\";");
+
+        LessCacheManager cacheManager = new LessCacheManager();
+        String lessScoped = cacheManager.getCss(cacheManager.getLessSource(first, LessAstCacheTest.class.getName()));
+        String resourcesScoped = cacheManager.getCss(cacheManager.getLessSource(second, ResourcesScope.class.getName()));
+
+        assertThat(lessScoped, containsString("\"less\""));
+        assertThat(resourcesScoped, containsString("\"resources\""));
+    }
+
+    @Test
+    public void tracksImportsOfSharedParsedImports() throws IOException {
+        write("nested.less", ".nested { width: 1px; }");
+        write("base.less", "@import \"nested.less\";\n.base { color: @color; }");
+        URL first = write("first.less", "@import \"base.less\";\n@color: red;");
+        URL second = write("second.less", "@import \"base.less\";\n@color: blue;");
+
+        LessCacheManager cacheManager = new LessCacheManager();
+        cacheManager.getCss(cacheManager.getLessSource(first, null));
+        LessSource.URLSource secondSource = cacheManager.getLessSource(second, null);
+        cacheManager.getCss(secondSource);
+
+        URL nested = new File(folder.getRoot(), "nested.less").toURI().toURL();
+        assertThat(cacheManager.getDependencies(secondSource), hasItem(nested));
+
+        File nestedFile = new File(folder.getRoot(), "nested.less");
+        write("nested.less", ".nested { width: 2px; }");
+        nestedFile.setLastModified(nestedFile.lastModified() + 60000);
+
+        assertThat(cacheManager.getCss(secondSource), containsString("width: 2px"));
+    }
+
+    private static List<String> compile(LessCacheManager cacheManager, List<URL> urls) {
+        List<String> css = new ArrayList<>();
+        for (URL url : urls) {
+            css.add(cacheManager.getCss(cacheManager.getLessSource(url, null)));
+        }
+        return css;
+    }
+
+    private URL write(String name, String content) throws IOException {
+        File file = new File(folder.getRoot(), name);
+        Files.write(file.toPath(), content.getBytes(Charset.forName("UTF-8")));
+        return file.toURI().toURL();
+    }
+}
@@ -6,12 +6,16 @@ import static org.junit.Assert.assertTrue;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.util.concurrent.CountDownLatch;
 
+import org.apache.wicket.css.ICssCompressor;
 import org.apache.wicket.util.file.Files;
 import org.apache.wicket.util.io.Connections;
 import org.apache.wicket.util.time.Time;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import com.github.sommeri.less4j.LessCompiler.Configuration;
 import com.github.sommeri.less4j.LessSource;
@@ -20,6 +24,9 @@ import com.github.sommeri.less4j.LessSource.URLSource;
 
 public class LessCacheManagerTest {
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     private int invocationOfGetContent;
     private int invocationOfNewConfiguration;
 
@@ -33,7 +40,14 @@ public class LessCacheManagerTest {
      * Create a URLSource that keeps track of "getContent()" invocations.
      */
     protected URLSource createSampleURLSource() {
-        return new LessSource.URLSource(getClass().getResource("resources/root.less")) {
+        return createSampleURLSource(getClass().getResource("resources/root.less"));
+    }
+
+    /**
+     * Create a URLSource of the given Less resource that keeps track of "getContent()" invocations.
+     */
+    protected URLSource createSampleURLSource(URL url) {
+        return new LessSource.URLSource(url) {
             @Override
             public String getContent() throws FileNotFound, CannotReadFile {
                 invocationOfGetContent++;
@@ -97,6 +111,92 @@ public class LessCacheManagerTest {
         assertEquals(2, invocationOfNewConfiguration);
     }
 
+    @Test
+    public void reusesConfigurationForSubsequentCompilations() {
+        LessCacheManager cacheManager = new LessCacheManager(new LessCompilerConfigurationFactory() {
+            @Override
+            public Configuration newConfiguration() {
+                invocationOfNewConfiguration++;
+                return new Configuration();
+            }
+        });
+
+        cacheManager.getCss(createSampleURLSource());
+        cacheManager.getCss(new LessSource.URLSource(getClass().getResource("resources/timeParent.less")));
+        assertEquals(1, invocationOfNewConfiguration);
+        assertEquals(2, cacheManager.getCompilationStatistics().getCompilations());
+    }
+
+    @Test
+    public void concurrentRequestsShareCompilation() throws Exception {
+        final LessCacheManager cacheManager = new LessCacheManager();
+        final CountDownLatch compiling = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final URLSource urlSource = new LessSource.URLSource(getClass().getResource("resources/root.less")) {
+            @Override
+            public String getContent() throws FileNotFound, CannotReadFile {
+                invocationOfGetContent++;
+                compiling.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ix) {
+                    throw new IllegalStateException(ix);
+                }
+                return super.getContent();
+            }
+        };
+
+        Thread compiler = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                cacheManager.getCss(urlSource);
+            }
+        });
+        compiler.start();
+        compiling.await();
+
+        final String[] css = new String[1];
+        Thread waiter = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                css[0] = cacheManager.getCss(urlSource);
+            }
+        });
+        waiter.start();
+
+        LessCompilationStatistics statistics = cacheManager.getCompilationStatistics();
+        while (statistics.getWaiting() == 0) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, statistics.getRunning());
+
+        release.countDown();
+        compiler.join();
+        waiter.join();
+
+        assertEquals(1, invocationOfGetContent);
+        assertEquals(1, statistics.getCompilations());
+        assertEquals(1, statistics.getSharedCompilations());
+        assertEquals(0, statistics.getWaiting());
+        assertTrue(css[0].contains(".less-cls"));
+    }
+
+    @Test
+    public void evictRemovesContentOfRootsImportingUrl() {
+        LessCacheManager cacheManager = new LessCacheManager();
+
+        URL rootUrl = getClass().getResource("resources/root.less");
+        URLSource urlSource = cacheManager.getLessSource(rootUrl, getClass().getName());
+        cacheManager.getCss(urlSource);
+        assertEquals(1, cacheManager.getContentCache().size());
+
+        assertTrue(cacheManager.evict(getClass().getResource("resources/imported1.less")));
+        assertEquals(0, cacheManager.getContentCache().size());
+        assertTrue("A new URLSource is created after eviction",
+                urlSource != cacheManager.getLessSource(rootUrl, getClass().getName()));
+    }
+
     @Test
     public void usesDefaultConfigurationFactoryWhenProvidingNull() {
         LessCacheManager cacheManager = new LessCacheManager(null);
@@ -165,4 +265,91 @@ public class LessCacheManagerTest {
         cacheManager.getCss(urlSource);
         assertEquals(expectedItems, urlSource.getImportedSources().size());
     }
+
+    @Test
+    public void usesCssStoreOfPreviousManager()
+    {
+        FileSystemLessCssStore store = new FileSystemLessCssStore(folder.getRoot().toPath());
+
+        LessCacheManager cacheManager = new LessCacheManager().setCssStore(store);
+        URLSource compiledUrlSource = createSampleURLSource();
+        String css = cacheManager.getCss(compiledUrlSource);
+        assertEquals(1, invocationOfGetContent);
+
+        // a new manager simulates a restart of the application
+        LessCacheManager restartedCacheManager = new LessCacheManager().setCssStore(store);
+        URLSource urlSource = createSampleURLSource();
+        assertEquals(css, restartedCacheManager.getCss(urlSource));
+        assertEquals(1, invocationOfGetContent);
+
+        // the imported resources are taken into account for the last modification time
+        assertEquals(cacheManager.getLastModifiedTime(compiledUrlSource), restartedCacheManager.getLastModifiedTime(urlSource));
+    }
+
+    @Test
+    public void ignoresOutdatedCssStoreEntry() throws IOException
+    {
+        FileSystemLessCssStore store = new FileSystemLessCssStore(folder.newFolder("store").toPath());
+
+        // copies of the shared resources, so their modification times can be changed
+        File resources = folder.newFolder("resources");
+        File rootFile = new File(resources, "root.less");
+        File importedFile = new File(resources, "imported1.less");
+        Files.copy(Files.getLocalFileFromUrl(getClass().getResource("resources/root.less")), rootFile);
+        Files.copy(Files.getLocalFileFromUrl(getClass().getResource("resources/imported1.less")), importedFile);
+        URL rootUrl = rootFile.toURI().toURL();
+
+        LessCacheManager cacheManager = new LessCacheManager().setCssStore(store);
+        cacheManager.getCss(createSampleURLSource(rootUrl));
+        assertEquals(1, invocationOfGetContent);
+
+        importedFile.setLastModified(importedFile.lastModified() + 60000);
+
+        LessCacheManager restartedCacheManager = new LessCacheManager().setCssStore(store);
+        restartedCacheManager.getCss(createSampleURLSource(rootUrl));
+        assertEquals(2, invocationOfGetContent);
+    }
+
+    @Test
+    public void resolvesClasspathImportOnceUntilCacheIsCleared()
+    {
+        LessCacheManager cacheManager = new LessCacheManager();
+        LessImportCache importCache = cacheManager.getImportCache();
+        URL resourceUrl = getClass().getResource("/importClasspath.less");
+
+        String css = cacheManager.getCss(cacheManager.getLessSource(resourceUrl, null));
+        assertEquals(1, importCache.size());
+        assertEquals(1, importCache.getMisses());
+
+        cacheManager.evict(resourceUrl);
+        assertEquals(css, cacheManager.getCss(cacheManager.getLessSource(resourceUrl, null)));
+        assertEquals(1, importCache.getHits());
+
+        cacheManager.clearCache();
+        assertEquals(0, importCache.size());
+    }
+
+    @Test
+    public void minifiesCssOnceAfterCompilation()
+    {
+        final int[] invocationOfCompress = {0};
+        LessCacheManager cacheManager = new LessCacheManager().setCssCompressor(new ICssCompressor() {
+            @Override
+            public String compress(String original) {
+                invocationOfCompress[0]++;
+                return original.replaceAll("\\s+", "");
+            }
+        });
+
+        URLSource urlSource = createSampleURLSource();
+        String css = cacheManager.getCss(urlSource);
+        assertEquals(css, cacheManager.getCss(urlSource));
+
+        assertEquals(1, invocationOfCompress[0]);
+        assertTrue(css, css.startsWith(".less-cls{color:"));
+
+        LessCss lessCss = cacheManager.getLessCss(urlSource);
+        assertTrue(lessCss.isMinified());
+        assertTrue(lessCss.getRawCss(), lessCss.getRawCss().startsWith(".less-cls {"));
+    }
 }
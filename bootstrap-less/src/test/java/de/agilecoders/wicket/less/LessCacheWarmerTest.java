@@ -0,0 +1,87 @@
+package de.agilecoders.wicket.less;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.wicket.markup.head.CssHeaderItem;
+import org.apache.wicket.markup.head.HeaderItem;
+import org.apache.wicket.request.resource.CssResourceReference;
+import org.apache.wicket.request.resource.ResourceReference;
+import org.apache.wicket.util.tester.WicketTester;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LessCacheWarmerTest {
+
+    private WicketTester tester;
+
+    @Before
+    public void before() {
+        tester = new WicketTester(new TestApplication());
+    }
+
+    @After
+    public void after() {
+        tester.destroy();
+    }
+
+    @Test
+    public void collectsLessReferencesFromDependencies() {
+        final LessResourceReference lessReference = new LessResourceReference(getClass(), "resources/root.less");
+        ResourceReference cssReference = new CssResourceReference(getClass(), "some.css") {
+            @Override
+            public java.util.List<HeaderItem> getDependencies() {
+                return Collections.<HeaderItem>singletonList(CssHeaderItem.forReference(lessReference));
+            }
+        };
+
+        LessCacheWarmer warmer = new LessCacheWarmer(tester.getApplication())
+                .addAll(Collections.singletonList(CssHeaderItem.forReference(cssReference)));
+
+        assertThat(warmer.getReferences(), contains((ResourceReference) lessReference));
+    }
+
+    @Test
+    public void compilesLessResourcesInTheBackground() throws InterruptedException {
+        LessCacheWarmer warmer = new LessCacheWarmer(tester.getApplication())
+                .add(new LessResourceReference(getClass(), "resources/root.less"),
+                     new LessResourceReference(getClass(), "resources/timeParent.less"))
+                .setThreads(2)
+                .start();
+
+        assertThat(warmer.awaitReady(10, TimeUnit.SECONDS), is(true));
+        assertThat(warmer.isReady(), is(true));
+        assertThat(warmer.getFailures(), is(0));
+        assertThat(LessCacheWarmer.get(), is(warmer));
+    }
+
+    @Test
+    public void countsFailures() throws InterruptedException {
+        LessCacheWarmer warmer = new LessCacheWarmer(tester.getApplication())
+                .add(new LessResourceReference(getClass(), "resources/missing.less"))
+                .start();
+
+        assertThat(warmer.awaitReady(10, TimeUnit.SECONDS), is(true));
+        assertThat(warmer.getFailures(), is(1));
+    }
+
+    @Test
+    public void statusResourceReportsReadiness() throws InterruptedException {
+        tester.startResource(new LessCacheWarmerStatusResource());
+        assertThat(tester.getLastResponse().getStatus(), is(200));
+
+        LessCacheWarmer warmer = new LessCacheWarmer(tester.getApplication())
+                .add(new LessResourceReference(getClass(), "resources/root.less"))
+                .start();
+        warmer.awaitReady(10, TimeUnit.SECONDS);
+
+        tester.startResource(new LessCacheWarmerStatusResource());
+        assertThat(tester.getLastResponse().getStatus(), is(200));
+        assertThat(tester.getLastResponseAsString(), is("ready"));
+    }
+}
@@ -0,0 +1,139 @@
+package de.agilecoders.wicket.less;
+
+import com.github.sommeri.less4j.LessSource;
+import org.apache.wicket.util.time.Time;
+import org.junit.Test;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link LessContentCache}
+ */
+public class LessContentCacheTest {
+
+    private final List<LessSource.URLSource> evicted = new ArrayList<>();
+
+    private final LessContentCache cache = new LessContentCache() {
+        @Override
+        protected void onEviction(LessSource.URLSource lessSource) {
+            evicted.add(lessSource);
+        }
+    };
+
+    @Test
+    public void returnsContentOfSameLastModificationTime() throws Exception {
+        LessSource.URLSource source = newSource("a.less");
+        cache.put(source, Time.millis(1), css("a {}"));
+
+        assertThat(cache.get(source, Time.millis(1)).getCss(), is("a {}"));
+        assertThat(cache.get(source, Time.millis(2)), is(nullValue()));
+        assertThat(cache.getHits(), is(1L));
+        assertThat(cache.getMisses(), is(1L));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedEntryWhenMaximumSizeIsExceeded() throws Exception {
+        cache.setMaximumSize(2);
+        LessSource.URLSource a = newSource("a.less");
+        LessSource.URLSource b = newSource("b.less");
+        LessSource.URLSource c = newSource("c.less");
+
+        cache.put(a, Time.millis(1), css("a {}"));
+        cache.put(b, Time.millis(1), css("b {}"));
+        cache.get(a, Time.millis(1));
+        cache.put(c, Time.millis(1), css("c {}"));
+
+        assertThat(evicted, contains(b));
+        assertThat(cache.size(), is(2));
+        assertThat(cache.getEvictions(), is(1L));
+        assertThat(cache.get(a, Time.millis(1)).getCss(), is("a {}"));
+    }
+
+    @Test
+    public void evictsEntriesWhenMaximumWeightIsExceeded() throws Exception {
+        LessSource.URLSource a = newSource("a.less");
+        LessSource.URLSource b = newSource("b.less");
+
+        cache.put(a, Time.millis(1), css("a { color: red; }"));
+        cache.put(b, Time.millis(1), css("b { color: red; }"));
+        assertThat(cache.getWeight(), is(34L));
+
+        cache.setMaximumWeight(20);
+
+        assertThat(evicted, contains(a));
+        assertThat(cache.getWeight(), is(17L));
+    }
+
+    @Test
+    public void keepsNewestEntryExceedingMaximumWeight() throws Exception {
+        cache.setMaximumWeight(2);
+        LessSource.URLSource a = newSource("a.less");
+
+        cache.put(a, Time.millis(1), css("a { color: red; }"));
+
+        assertThat(cache.get(a, Time.millis(1)).getCss(), is("a { color: red; }"));
+    }
+
+    @Test
+    public void keepsBoundsAndWeightWithConcurrentAccess() throws Exception {
+        cache.setMaximumSize(8);
+        final List<LessSource.URLSource> sources = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            sources.add(newSource(i + ".less"));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                final int offset = t;
+                futures.add(executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (int i = 0; i < 1000; i++) {
+                            LessSource.URLSource source = sources.get((i + offset) % sources.size());
+                            if (cache.get(source, Time.millis(1)) == null) {
+                                cache.put(source, Time.millis(1), css("a {}"));
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(cache.size(), is(8));
+        assertThat(cache.getWeight(), is(8L * 4));
+    }
+
+    @Test
+    public void weighsUtf8Bytes() {
+        assertThat(css("a").getWeight(), is(1L));
+        assertThat(css("ä").getWeight(), is(2L));
+        assertThat(css("€").getWeight(), is(3L));
+        assertThat(css("😀").getWeight(), is(4L));
+    }
+
+    private static LessCss css(String css) {
+        return new LessCss(css, Collections.<LessCssEncoder>emptyList());
+    }
+
+    private LessSource.URLSource newSource(String name) throws Exception {
+        return new LessSource.URLSource(new URL("file:/styles/" + name));
+    }
+}
@@ -0,0 +1,73 @@
+package de.agilecoders.wicket.less;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link LessCss}
+ */
+public class LessCssTest {
+
+    private static final String CSS = "body { color: red; }\nbody { color: red; }\nbody { color: red; }\n";
+
+    private final LessCss lessCss = new LessCss(CSS, Arrays.asList(new GzipLessCssEncoder(), new NamedEncoder("br")));
+
+    @Test
+    public void selectsAcceptedEncodingInOrderOfPreference() {
+        assertThat(lessCss.selectEncoding(null), is(nullValue()));
+        assertThat(lessCss.selectEncoding("identity"), is(nullValue()));
+        assertThat(lessCss.selectEncoding("gzip, deflate, br"), is("gzip"));
+        assertThat(lessCss.selectEncoding("GZIP;q=0.5, br"), is("br"));
+        assertThat(lessCss.selectEncoding("gzip;q=0, *"), is("br"));
+        assertThat(lessCss.selectEncoding("*;q=0"), is(nullValue()));
+    }
+
+    @Test
+    public void keepsEncodedContentOnlyIfItIsSmaller() {
+        LessCss small = new LessCss("a{}", Collections.singletonList(new GzipLessCssEncoder()));
+
+        assertThat(small.getEncodings().isEmpty(), is(true));
+        assertThat(small.selectEncoding("gzip"), is(nullValue()));
+        assertThat(small.getWeight(), is(3L));
+    }
+
+    @Test
+    public void hasStrongETagPerEncoding() {
+        String etag = lessCss.getETag(null);
+
+        assertThat(lessCss.getETag("gzip"), is(not(etag)));
+        assertThat(lessCss.matches(etag, null), is(true));
+        assertThat(lessCss.matches("\"other\", " + lessCss.getETag("gzip"), "gzip"), is(true));
+        assertThat(lessCss.matches(etag, "gzip"), is(false));
+        assertThat(new LessCss(CSS, Collections.<LessCssEncoder>emptyList()).getETag(null), is(etag));
+    }
+
+    /**
+     * An encoder that keeps the first bytes only
+     */
+    private static final class NamedEncoder implements LessCssEncoder {
+        private final String name;
+
+        private NamedEncoder(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public byte[] encode(byte[] content) throws IOException {
+            return Arrays.copyOf(content, 1);
+        }
+    }
+}
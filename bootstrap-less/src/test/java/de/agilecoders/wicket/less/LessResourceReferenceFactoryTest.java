@@ -25,4 +25,19 @@ public class LessResourceReferenceFactoryTest extends Assert {
             tester.destroy();
         }
     }
+
+    @Test
+    public void createLessSourceMapResourceReference() {
+        TestApplication application = new TestApplication();
+        WicketTester tester = new WicketTester(application);
+        try {
+            ResourceReferenceRegistry registry = application.getResourceReferenceRegistry();
+            ResourceReference.Key key = new ResourceReference.Key(LessResourceReferenceFactoryTest.class.getName(),
+                                                                  "responsive.less.map", null, null, null);
+            ResourceReference reference = registry.getResourceReference(key, false, true);
+            assertThat(reference, is(instanceOf(LessSourceMapResourceReference.class)));
+        } finally {
+            tester.destroy();
+        }
+    }
 }
@@ -1,13 +1,18 @@
 package de.agilecoders.wicket.less;
 
+import org.apache.wicket.css.ICssCompressor;
+import org.apache.wicket.protocol.http.mock.MockHttpServletResponse;
 import org.apache.wicket.util.io.IOUtils;
 import org.apache.wicket.util.string.Strings;
 import org.apache.wicket.util.tester.WicketTester;
 import org.junit.Assert;
 import org.junit.Test;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
 
 public class LessResourceTest extends Assert {
 
@@ -30,4 +35,83 @@ public class LessResourceTest extends Assert {
         expected = Strings.replaceAll(expected, "\r", "");
         assertEquals(expected, cssContent);
     }
+
+    /**
+     * Tests that a client accepting gzip gets the compressed CSS content
+     * and that a matching ETag is answered with 304 (Not Modified)
+     */
+    @Test
+    public void requestWithGzipEncoding() throws IOException {
+
+        WicketTester tester = new WicketTester(new TestApplication());
+        tester.getRequest().setHeader("Accept-Encoding", "gzip, deflate");
+        tester.startResourceReference(new LessResourceReference(HomePage.class, "resources/root.less"));
+
+        MockHttpServletResponse response = tester.getLastResponse();
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+
+        InputStream expectedInputStream = LessResourceTest.class.getResourceAsStream("resources/expected.css");
+        String expected = Strings.replaceAll(IOUtils.toString(expectedInputStream), "\r", "").toString();
+        String cssContent = IOUtils.toString(new GZIPInputStream(new ByteArrayInputStream(response.getBinaryContent())), "UTF-8");
+        assertEquals(expected, Strings.replaceAll(cssContent, "\r", "").toString());
+
+        String etag = response.getHeader("ETag");
+        tester.getRequest().setHeader("Accept-Encoding", "gzip");
+        tester.getRequest().setHeader("If-None-Match", etag);
+        tester.startResourceReference(new LessResourceReference(HomePage.class, "resources/root.less"));
+
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, tester.getLastResponse().getStatus());
+        assertEquals(0, tester.getLastResponse().getBinaryContent().length);
+    }
+
+    /**
+     * Tests that the source map is announced with a header and served by
+     * a {@link LessSourceMapResourceReference}
+     */
+    @Test
+    public void requestSourceMap() throws IOException {
+
+        WicketTester tester = new WicketTester(new TestApplication());
+        LessCacheManager.get().setSourceMapsEnabled(true);
+
+        tester.startResourceReference(new LessResourceReference(HomePage.class, "resources/root.less"));
+        assertEquals("root.less.map", tester.getLastResponse().getHeader("SourceMap"));
+
+        tester.startResourceReference(new LessSourceMapResourceReference(HomePage.class, "resources/root.less.map", null, null, null));
+        assertTrue(tester.getLastResponse().getContentType().startsWith("application/json"));
+        String sourceMap = tester.getLastResponseAsString();
+        assertTrue(sourceMap, sourceMap.contains("\"imported1.less\""));
+        assertTrue(sourceMap, sourceMap.contains("\"sourcesContent\""));
+    }
+
+    /**
+     * Tests that CSS content minified by the {@link LessCacheManager} isn't compressed again
+     * by the CSS compressor of the resource settings
+     */
+    @Test
+    public void requestMinifiedCssWithCompressorOfResourceSettings() throws IOException {
+
+        final int[] invocationOfCompress = {0};
+        WicketTester tester = new WicketTester(new TestApplication());
+        tester.getApplication().getResourceSettings().setCssCompressor(new ICssCompressor() {
+            @Override
+            public String compress(String original) {
+                invocationOfCompress[0]++;
+                return original;
+            }
+        });
+        LessCacheManager.get().setCssCompressor(new ICssCompressor() {
+            @Override
+            public String compress(String original) {
+                return original.replaceAll("\\s+", "");
+            }
+        });
+
+        tester.startResourceReference(new LessResourceReference(HomePage.class, "resources/root.less"));
+        tester.startResourceReference(new LessResourceReference(HomePage.class, "resources/root.less"));
+
+        assertFalse(tester.getLastResponseAsString().contains(" "));
+        assertEquals(0, invocationOfCompress[0]);
+    }
 }
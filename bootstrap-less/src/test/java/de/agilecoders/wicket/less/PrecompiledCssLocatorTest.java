@@ -0,0 +1,94 @@
+package de.agilecoders.wicket.less;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PrecompiledCssLocatorTest {
+
+    private static final String PATH = "com/example/styles.less";
+
+    private static final String IMPORT_PATH = "com/example/variables.less";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ClassLoader classLoader;
+
+    private URL lessUrl;
+
+    @Before
+    public void before() throws IOException {
+        File root = folder.getRoot();
+        lessUrl = write(root, PATH, "@import \"variables.less\";\n.a { color: @color; }");
+        write(root, IMPORT_PATH, "@color: red;");
+        write(root, PrecompiledCssLocator.cssPath(PATH), ".a {\n  color: red;\n}\n");
+        String fingerprint = PrecompiledCssLocator.fingerprint(Arrays.asList(
+                "@import \"variables.less\";\n.a { color: @color; }".getBytes("UTF-8"), "@color: red;".getBytes("UTF-8")));
+        write(root, PrecompiledCssLocator.MANIFEST,
+              PATH + "=" + fingerprint + "\n"
+              + PATH + PrecompiledCssLocator.IMPORTS_SUFFIX + "=" + IMPORT_PATH + "\n"
+              + PATH + PrecompiledCssLocator.SCOPE_SUFFIX + "=com.example\n");
+
+        classLoader = new URLClassLoader(new URL[] {root.toURI().toURL()}, null);
+    }
+
+    @Test
+    public void locatesPrecompiledCss() {
+        URL cssUrl = new PrecompiledCssLocator().locate(lessUrl, PATH, "com.example", classLoader);
+
+        assertThat(cssUrl, is(classLoader.getResource(PrecompiledCssLocator.FOLDER + "com/example/styles.css")));
+    }
+
+    @Test
+    public void ignoresOutdatedPrecompiledCss() throws IOException {
+        write(folder.getRoot(), PATH, ".a { color: blue; }");
+
+        assertThat(new PrecompiledCssLocator().locate(lessUrl, PATH, "com.example", classLoader), is(nullValue()));
+    }
+
+    @Test
+    public void ignoresPrecompiledCssWithOutdatedImport() throws IOException {
+        write(folder.getRoot(), IMPORT_PATH, "@color: blue;");
+
+        assertThat(new PrecompiledCssLocator().locate(lessUrl, PATH, "com.example", classLoader), is(nullValue()));
+    }
+
+    @Test
+    public void ignoresPrecompiledCssWithMissingImport() {
+        assertThat(new File(folder.getRoot(), IMPORT_PATH).delete(), is(true));
+
+        assertThat(new PrecompiledCssLocator().locate(lessUrl, PATH, "com.example", classLoader), is(nullValue()));
+    }
+
+    @Test
+    public void ignoresPrecompiledCssOfOtherScope() {
+        assertThat(new PrecompiledCssLocator().locate(lessUrl, PATH, "com.other", classLoader), is(nullValue()));
+    }
+
+    @Test
+    public void ignoresUnknownLessResource() throws IOException {
+        URL otherUrl = write(folder.getRoot(), "com/example/other.less", ".a { color: red; }");
+
+        assertThat(new PrecompiledCssLocator().locate(otherUrl, "com/example/other.less", "com.example", classLoader), is(nullValue()));
+    }
+
+    private static URL write(File root, String path, String content) throws IOException {
+        File file = new File(root, path);
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), content.getBytes("UTF-8"));
+        return file.toURI().toURL();
+    }
+}
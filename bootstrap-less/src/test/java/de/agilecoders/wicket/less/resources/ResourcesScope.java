@@ -0,0 +1,10 @@
+package de.agilecoders.wicket.less.resources;
+
+/**
+ * The scope class of the Less resources in this package
+ */
+public final class ResourcesScope {
+
+    private ResourcesScope() {
+    }
+}
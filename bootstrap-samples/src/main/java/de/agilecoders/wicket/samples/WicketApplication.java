@@ -16,6 +16,7 @@ import org.apache.wicket.markup.html.SecurePackageResourceGuard;
 import org.apache.wicket.protocol.http.WebApplication;
 import org.apache.wicket.request.resource.CssResourceReference;
 import org.apache.wicket.request.resource.JavaScriptResourceReference;
+import org.apache.wicket.request.resource.ResourceReferenceRegistry;
 import org.apache.wicket.request.resource.caching.FilenameWithVersionResourceCachingStrategy;
 import org.apache.wicket.request.resource.caching.NoOpResourceCachingStrategy;
 import org.apache.wicket.request.resource.caching.version.CachingResourceVersion;
@@ -33,7 +34,11 @@ import de.agilecoders.wicket.core.markup.html.RenderJavaScriptToFooterHeaderResp
 import de.agilecoders.wicket.core.markup.html.bootstrap.block.prettyprint.PrettifyCssResourceReference;
 import de.agilecoders.wicket.core.markup.html.bootstrap.block.prettyprint.PrettifyJavaScriptReference;
 import de.agilecoders.wicket.core.markup.html.references.ModernizrJavaScriptReference;
+import de.agilecoders.wicket.core.request.preload.PreloadResource;
+import de.agilecoders.wicket.core.request.resource.bundles.AutomaticResourceBundles;
 import de.agilecoders.wicket.core.request.resource.caching.version.Adler32ResourceVersion;
+import de.agilecoders.wicket.core.request.resource.caching.version.ManifestResourceVersion;
+import de.agilecoders.wicket.core.request.resource.caching.version.ResourceVersionPrecomputer;
 import de.agilecoders.wicket.core.settings.BootstrapSettings;
 import de.agilecoders.wicket.core.settings.CookieThemeProvider;
 import de.agilecoders.wicket.core.settings.IBootstrapSettings;
@@ -44,6 +49,7 @@ import de.agilecoders.wicket.extensions.markup.html.bootstrap.editor.SummernoteC
 import de.agilecoders.wicket.extensions.markup.html.bootstrap.editor.SummernoteFileStorage;
 import de.agilecoders.wicket.extensions.markup.html.bootstrap.editor.SummernoteStoredImageResourceReference;
 import de.agilecoders.wicket.extensions.markup.html.bootstrap.html5player.Html5PlayerCssReference;
+import de.agilecoders.wicket.extensions.markup.html.bootstrap.icon.FontAwesomeCssReference;
 import de.agilecoders.wicket.extensions.markup.html.bootstrap.html5player.Html5PlayerJavaScriptReference;
 import de.agilecoders.wicket.extensions.markup.html.bootstrap.icon.OpenWebIconsCssReference;
 import de.agilecoders.wicket.extensions.markup.html.bootstrap.jqueryui.JQueryUIJavaScriptReference;
@@ -95,6 +101,15 @@ public class WicketApplication extends WebApplication {
         return HomePage.class;
     }
 
+    /**
+     * bundles the javascript and css resources which are rendered together automatically,
+     * use {@link #configureResourceBundles()} to define the bundles manually
+     */
+    @Override
+    protected ResourceBundles newResourceBundles(ResourceReferenceRegistry registry) {
+        return new AutomaticResourceBundles(registry, 50);
+    }
+
     /**
      * @see org.apache.wicket.Application#init()
      */
@@ -117,7 +132,8 @@ public class WicketApplication extends WebApplication {
         if (Strings.isTrue(properties.getProperty("cdn.useCdn"))) {
             final String cdn = properties.getProperty("cdn.baseUrl");
 
-            StaticResourceRewriteMapper.withBaseUrl(cdn).install(this);
+            // after optimizeForWebPerformance(), which configures the caching strategy
+            StaticResourceRewriteMapper.withBaseUrls(cdn.split("\\s*,\\s*")).withContentHash(true).install(this);
         }
 
         IPackageResourceGuard packageResourceGuard = getResourceSettings().getPackageResourceGuard();
@@ -152,11 +168,19 @@ public class WicketApplication extends WebApplication {
      */
     private void optimizeForWebPerformance() {
         if (usesDeploymentConfig()) {
+            // the manifests are only part of the jars built with -DresourceVersionManifest; without them
+            // and for compressed resources the versions are computed from the served content
+            final CachingResourceVersion resourceVersion = new CachingResourceVersion(
+                    new ManifestResourceVersion(new Adler32ResourceVersion()));
             getResourceSettings().setCachingStrategy(new FilenameWithVersionResourceCachingStrategy(
                     "-v-",
-                    new CachingResourceVersion(new Adler32ResourceVersion())
+                    resourceVersion
             ));
 
+            new ResourceVersionPrecomputer(this, resourceVersion)
+                    .addAll(Bootstrap.getSettings(this))
+                    .start();
+
             getResourceSettings().setJavaScriptCompressor(new GoogleClosureJavaScriptCompressor(CompilationLevel.SIMPLE_OPTIMIZATIONS));
             getResourceSettings().setCssCompressor(new YuiCssCompressor());
 
@@ -213,7 +237,10 @@ public class WicketApplication extends WebApplication {
 
         settings.setJsResourceFilterName("footer-container")
                 .setThemeProvider(themeProvider)
-                .setActiveThemeProvider(new CookieThemeProvider());
+                .setActiveThemeProvider(new CookieThemeProvider())
+                .setUsePrunedCss(Strings.isTrue(properties.getProperty("css.pruned")))
+                .setPreloadResources(true)
+                .addPreloadResources(PreloadResource.font(FontAwesomeCssReference.instance(), "../fonts/fontawesome-webfont.woff2?v=4.7.0"));
 
         BootstrapLess.install(this);
     }
@@ -1,14 +1,14 @@
 package de.agilecoders.wicket.themes.markup.html.bootswatch;
 
-import org.apache.wicket.request.resource.CssResourceReference;
+import de.agilecoders.wicket.core.request.resource.PrecompressedCssResourceReference;
 
 /**
- * A {@link org.apache.wicket.request.resource.CssResourceReference} for all bootswatch
+ * A {@link PrecompressedCssResourceReference} for all bootswatch
  * themes. All themes can be collected by executing gettheme.sh.
  *
  * @author miha
  */
-public class BootswatchCssReference extends CssResourceReference {
+public class BootswatchCssReference extends PrecompressedCssResourceReference {
     private static final long serialVersionUID = 1L;
 
     /**
@@ -3,15 +3,13 @@ package de.agilecoders.wicket.themes.markup.html.bootswatch;
 import de.agilecoders.wicket.core.Bootstrap;
 import de.agilecoders.wicket.core.settings.IBootstrapSettings;
 import de.agilecoders.wicket.core.settings.ITheme;
+import de.agilecoders.wicket.core.settings.ThemeHeaderItems;
 import org.apache.wicket.Application;
 import org.apache.wicket.markup.head.CssHeaderItem;
 import org.apache.wicket.markup.head.HeaderItem;
 import org.apache.wicket.markup.head.IHeaderResponse;
-import org.apache.wicket.request.Url;
 import org.apache.wicket.request.resource.ResourceReference;
-import org.apache.wicket.request.resource.UrlResourceReference;
 
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -33,7 +31,6 @@ public enum BootswatchTheme implements ITheme {
      */
     private static final String CDN_PATTERN = "//maxcdn.bootstrapcdn.com/bootswatch/%s/%s/bootstrap.min.css";
 
-    private String cdnUrl;
     private final ResourceReference reference;
 
     /**
@@ -45,7 +42,7 @@ public enum BootswatchTheme implements ITheme {
 
     @Override
     public Iterable<String> getCdnUrls() {
-        return Arrays.asList(cdnUrl);
+        return Collections.singletonList(String.format(CDN_PATTERN, getVersion(), name().toLowerCase()));
     }
 
     @Override
@@ -55,33 +52,7 @@ public enum BootswatchTheme implements ITheme {
 
     @Override
     public void renderHead(IHeaderResponse response) {
-        if (useCdnResources()) {
-            if (cdnUrl == null) {
-                cdnUrl = String.format(CDN_PATTERN, getVersion(), name().toLowerCase());
-            }
-            response.render(CssHeaderItem.forReference(new UrlResourceReference(Url.parse(cdnUrl))));
-        }
-        else {
-            for (HeaderItem headerItem : getDependencies()) {
-                response.render(headerItem);
-            }
-        }
-    }
-
-    /**
-     * @return true, if cdn resources should be used instead of webjars.
-     */
-    private boolean useCdnResources() {
-        boolean result = false;
-
-        if (Application.exists()) {
-            IBootstrapSettings settings = Bootstrap.getSettings();
-            if (settings != null) {
-                result = settings.useCdnResources();
-            }
-        }
-
-        return result;
+        ThemeHeaderItems.renderHead(response, this);
     }
 
     /**
@@ -2,10 +2,10 @@ package de.agilecoders.wicket.themes.markup.html.metro;
 
 import de.agilecoders.wicket.core.Bootstrap;
 import de.agilecoders.wicket.core.markup.html.themes.bootstrap.BootstrapCssReference;
+import de.agilecoders.wicket.core.request.resource.PrecompressedCssResourceReference;
 import org.apache.wicket.Application;
 import org.apache.wicket.markup.head.CssHeaderItem;
 import org.apache.wicket.markup.head.HeaderItem;
-import org.apache.wicket.request.resource.CssResourceReference;
 import org.apache.wicket.request.resource.ResourceReference;
 
 import java.util.Arrays;
@@ -16,7 +16,7 @@ import java.util.List;
  *
  * @author miha
  */
-public class MetroCssReference extends CssResourceReference {
+public class MetroCssReference extends PrecompressedCssResourceReference {
     private static final long serialVersionUID = 1L;
 
     /**